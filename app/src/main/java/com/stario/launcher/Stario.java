@@ -30,6 +30,8 @@ import com.stario.launcher.apps.ProfileManager;
 import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.preferences.Vibrations;
 import com.stario.launcher.ui.Measurements;
+import com.stario.launcher.utils.HttpClient;
+import com.stario.launcher.utils.metrics.StartupTracer;
 
 import org.chickenhook.restrictionbypass.Unseal;
 
@@ -44,7 +46,10 @@ public class Stario extends Application {
             Log.e("Stario", "Could not unseal the process.", exception);
         }
 
+        StartupTracer.start(this);
+
         Vibrations.from(this);
+        HttpClient.from(this);
         ProfileManager.from(this);
 
         ProcessLifecycleOwner.get()
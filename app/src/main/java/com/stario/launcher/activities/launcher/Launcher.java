@@ -61,6 +61,8 @@ import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.ui.utils.animation.Animation;
 import com.stario.launcher.ui.utils.animation.WallpaperAnimator;
 import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.StartupPhase;
+import com.stario.launcher.utils.metrics.StartupTracer;
 
 public class Launcher extends ThemedActivity {
     public static final String INTENT_KILL_TASK_ID_EXTRA = "com.stario.launcher.INTENT_KILL_TASK_ID_EXTRA";
@@ -132,6 +134,9 @@ public class Launcher extends ThemedActivity {
         main = findViewById(R.id.main);
         decorView = window.getDecorView();
 
+        decorView.getViewTreeObserver().registerFrameCommitCallback(() ->
+                StartupTracer.mark(StartupPhase.FIRST_FRAME));
+
         Measurements.measure(getRoot(), (insets) -> {
             if (Measurements.isLandscape()) {
                 container.setPadding(0, Measurements.getSysUIHeight(),
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.activities.launcher.widgets.glance.extensions.media;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+import android.util.Log;
+import android.util.LruCache;
+import android.util.Size;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.MultiTransformation;
+import com.bumptech.glide.request.RequestOptions;
+import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.media.AccentBitmapTransformation;
+import com.stario.launcher.utils.media.BlurBitmapTransformation;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+import jp.wasabeef.glide.transformations.CropSquareTransformation;
+
+/**
+ * Decodes and styles album covers on a worker thread. Covers are decoded straight
+ * to the size they are shown at, identified by their URI or a sampled hash of their
+ * pixels and the styled result is kept per track, so going back to a track shows
+ * its cover right away.
+ * <p>
+ * Every method has to be called from the UI thread, covers are delivered on it.
+ */
+final class CoverLoader {
+    private static final String TAG = "CoverLoader";
+    private static final int TARGET_SIZE = 512;
+    private static final int CACHE_SIZE = 8;
+    private static final int SAMPLES = 8;
+
+    private final LruCache<String, Bitmap> covers;
+    private final Context context;
+
+    private CompletableFuture<Bitmap> running;
+    private String currentKey;
+
+    CoverLoader(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+        this.covers = new LruCache<>(CACHE_SIZE);
+    }
+
+    /**
+     * @param uri      Location of the cover, preferred when it can be decoded
+     * @param fallback Cover bitmap shipped with the metadata
+     * @param listener Receives the styled cover, unless the track changes meanwhile
+     */
+    void load(@Nullable String uri, @Nullable Bitmap fallback, @NonNull Listener listener) {
+        String key = getKey(uri, fallback);
+
+        if (key == null) {
+            cancel();
+
+            return;
+        }
+
+        if (key.equals(currentKey)) {
+            return;
+        }
+
+        cancel();
+        currentKey = key;
+
+        Bitmap cached = covers.get(key);
+
+        if (cached != null) {
+            listener.onLoaded(cached);
+
+            return;
+        }
+
+        CompletableFuture<Bitmap> future = Utils.submitTask(TaskScheduler.Lane.INTERACTIVE,
+                () -> style(decode(uri, fallback)));
+        running = future;
+
+        future.whenComplete((cover, throwable) -> UiUtils.post(() -> {
+            if (running != future) {
+                return;
+            }
+
+            running = null;
+
+            if (cover != null) {
+                covers.put(key, cover);
+                listener.onLoaded(cover);
+            } else {
+                // allow the next metadata update to try again
+                currentKey = null;
+            }
+        }));
+    }
+
+    /**
+     * Drops the pending cover, the next load is delivered even for the same track.
+     */
+    void cancel() {
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+
+        currentKey = null;
+    }
+
+    @Nullable
+    private Bitmap decode(@Nullable String uri, @Nullable Bitmap fallback) {
+        if (uri != null) {
+            try {
+                Uri parsed = Uri.parse(uri);
+                ImageDecoder.Source source = parsed.getScheme() != null ?
+                        ImageDecoder.createSource(context.getContentResolver(), parsed) :
+                        ImageDecoder.createSource(new File(uri));
+
+                return ImageDecoder.decodeBitmap(source, (decoder, info, ignored) -> {
+                    decoder.setTargetSampleSize(getSampleSize(info.getSize()));
+                    // styling reads the pixels back
+                    decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+                });
+            } catch (Exception exception) {
+                Log.w(TAG, "decode: Falling back to the metadata bitmap, " + exception.getMessage());
+            }
+        }
+
+        if (fallback == null || fallback.isRecycled()) {
+            return null;
+        }
+
+        if (fallback.getConfig() == Bitmap.Config.HARDWARE) {
+            fallback = fallback.copy(Bitmap.Config.ARGB_8888, false);
+        }
+
+        int side = Math.min(fallback.getWidth(), fallback.getHeight());
+
+        if (side > TARGET_SIZE) {
+            float scale = (float) TARGET_SIZE / side;
+
+            fallback = Bitmap.createScaledBitmap(fallback,
+                    Math.round(fallback.getWidth() * scale),
+                    Math.round(fallback.getHeight() * scale), true);
+        }
+
+        return fallback;
+    }
+
+    @Nullable
+    private Bitmap style(@Nullable Bitmap bitmap) throws Exception {
+        if (bitmap == null) {
+            return null;
+        }
+
+        // the transformations write into new bitmaps, the source is left untouched
+        return Glide.with(context)
+                .asBitmap()
+                .load(bitmap)
+                .apply(RequestOptions.bitmapTransform(
+                        new MultiTransformation<>(
+                                new CropSquareTransformation(),
+                                new BlurBitmapTransformation(5),
+                                new AccentBitmapTransformation())))
+                .submit(TARGET_SIZE, TARGET_SIZE)
+                .get();
+    }
+
+    private static int getSampleSize(Size size) {
+        int side = Math.min(size.getWidth(), size.getHeight());
+        int sampleSize = 1;
+
+        while (side / (sampleSize * 2) >= TARGET_SIZE) {
+            sampleSize *= 2;
+        }
+
+        return sampleSize;
+    }
+
+    @Nullable
+    private static String getKey(@Nullable String uri, @Nullable Bitmap fallback) {
+        if (uri != null) {
+            return "uri:" + uri;
+        }
+
+        if (fallback == null || fallback.isRecycled()) {
+            return null;
+        }
+
+        int width = fallback.getWidth();
+        int height = fallback.getHeight();
+        int hash = width * 31 + height;
+
+        if (fallback.getConfig() != Bitmap.Config.HARDWARE) {
+            // a sparse grid is enough to tell covers apart
+            for (int y = 0; y < SAMPLES; y++) {
+                for (int x = 0; x < SAMPLES; x++) {
+                    hash = hash * 31 + fallback.getPixel(x * (width - 1) / (SAMPLES - 1),
+                            y * (height - 1) / (SAMPLES - 1));
+                }
+            }
+        } else {
+            hash = hash * 31 + fallback.getGenerationId();
+        }
+
+        return "bitmap:" + Integer.toHexString(hash);
+    }
+
+    interface Listener {
+        void onLoaded(@NonNull Bitmap cover);
+    }
+}
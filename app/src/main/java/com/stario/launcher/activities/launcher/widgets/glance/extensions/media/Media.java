@@ -19,26 +19,24 @@ package com.stario.launcher.activities.launcher.widgets.glance.extensions.media;
 
 import android.annotation.SuppressLint;
 import android.app.ActivityOptions;
-import android.content.BroadcastReceiver;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.AnimatedVectorDrawable;
 import android.media.AudioAttributes;
 import android.media.MediaMetadata;
 import android.media.session.MediaController;
 import android.media.session.MediaSessionManager;
 import android.media.session.PlaybackState;
-import android.net.Uri;
-import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AnimationUtils;
 import android.widget.ImageView;
@@ -55,32 +53,24 @@ import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleOwner;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.MultiTransformation;
 import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
-import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.transition.DrawableCrossFadeFactory;
 import com.stario.launcher.BuildConfig;
 import com.stario.launcher.R;
 import com.stario.launcher.activities.launcher.widgets.glance.GlanceDialogExtension;
 import com.stario.launcher.activities.launcher.widgets.glance.GlanceViewExtension;
+import com.stario.launcher.apps.NotificationIndex;
 import com.stario.launcher.preferences.Vibrations;
 import com.stario.launcher.services.NotificationService;
 import com.stario.launcher.ui.common.glance.GlanceConstraintLayout;
 import com.stario.launcher.ui.common.media.SliderComposeView;
 import com.stario.launcher.ui.utils.animation.Animation;
-import com.stario.launcher.utils.Utils;
-import com.stario.launcher.utils.media.AccentBitmapTransformation;
-import com.stario.launcher.utils.media.BlurBitmapTransformation;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import jp.wasabeef.glide.transformations.CropSquareTransformation;
-
 public class Media extends GlanceDialogExtension {
     public static final String PREFERENCE_ENTRY = "com.stario.Media.MEDIA";
     private static final String TAG = "com.stario.launcher.media";
@@ -91,6 +81,7 @@ public class Media extends GlanceDialogExtension {
 
     private final MediaPreview preview;
     private final Handler handler;
+    private final Choreographer.FrameCallback progressCallback;
 
     private final MediaSessionManager.OnActiveSessionsChangedListener sessionsChangedListener;
     private final Map<MediaController, MediaController.Callback> controllerCallbacks;
@@ -98,16 +89,19 @@ public class Media extends GlanceDialogExtension {
     private MediaSessionManager mediaSessionManager;
     private boolean sessionsListenerRegistered;
     private ConstraintLayout coverParent;
+    private CoverLoader coverLoader;
     private SliderComposeView slider;
     private MediaController session;
     private ViewGroup interactions;
     private ImageView playPause;
+    private PlaybackState playbackState;
+    private boolean progressScheduled;
     private boolean skipUpdate;
     private ImageView forward;
     private String lastArtist;
-    private Bitmap lastCover;
     private ImageView rewind;
     private String lastSong;
+    private long duration;
     private ImageView cover;
     private TextView artist;
     private ImageView skip;
@@ -122,6 +116,8 @@ public class Media extends GlanceDialogExtension {
         this.sessionsListenerRegistered = false;
         this.controllerCallbacks = new HashMap<>();
         this.handler = new Handler(Looper.getMainLooper());
+        this.progressCallback = frameTime -> advanceProgress();
+        this.progressScheduled = false;
 
         this.sessionsChangedListener = controllers -> {
             handler.post(this::update);
@@ -161,6 +157,7 @@ public class Media extends GlanceDialogExtension {
 
         mediaSessionManager =
                 (MediaSessionManager) activity.getSystemService(Context.MEDIA_SESSION_SERVICE);
+        coverLoader = new CoverLoader(activity);
 
         attemptSessionListenerRegistration();
     }
@@ -185,32 +182,17 @@ public class Media extends GlanceDialogExtension {
 
         playPause.setTag(PAUSED);
 
-        BroadcastReceiver receiver = new BroadcastReceiver() {
-            @Override
-            public void onReceive(Context context, Intent intent) {
-                update();
-            }
-        };
+        NotificationIndex.NotificationListener listener = this::update;
 
-        if (Utils.isMinimumSDK(Build.VERSION_CODES.TIRAMISU)) {
-            activity.registerReceiver(receiver,
-                    new IntentFilter(NotificationService.UPDATE_NOTIFICATIONS), Context.RECEIVER_NOT_EXPORTED);
-        } else {
-            activity.registerReceiver(receiver,
-                    new IntentFilter(NotificationService.UPDATE_NOTIFICATIONS));
-        }
+        NotificationIndex.getInstance().addNotificationListener(listener);
 
         Lifecycle lifecycle = activity.getLifecycle();
         lifecycle.addObserver(new DefaultLifecycleObserver() {
             @Override
             public void onDestroy(@NonNull LifecycleOwner owner) {
-                try {
-                    activity.unregisterReceiver(receiver);
+                NotificationIndex.getInstance().removeNotificationListener(listener);
 
-                    disable();
-                } catch (Exception exception) {
-                    Log.e(TAG, "Receiver not registered");
-                }
+                disable();
 
                 lifecycle.removeObserver(this);
             }
@@ -272,6 +254,7 @@ public class Media extends GlanceDialogExtension {
 
         controllerCallbacks.clear();
         handler.removeCallbacksAndMessages(null);
+        stopProgress();
 
         super.onDestroy();
     }
@@ -397,7 +380,7 @@ public class Media extends GlanceDialogExtension {
 
         if (session != activeSessionCandidate) {
             session = activeSessionCandidate;
-            handler.removeCallbacksAndMessages(null);
+            stopProgress();
         }
 
         updateSession();
@@ -551,8 +534,7 @@ public class Media extends GlanceDialogExtension {
                     });
         }
 
-        handler.removeCallbacksAndMessages(null);
-        updateSlider(metadata);
+        duration = metadata.getLong(MediaMetadata.METADATA_KEY_DURATION);
 
         slider.setListener(new SliderComposeView.OnProgressChanged() {
             @Override
@@ -581,29 +563,26 @@ public class Media extends GlanceDialogExtension {
             coverUri = metadata.getString(MediaMetadata.METADATA_KEY_DISPLAY_ICON_URI);
         }
 
-        boolean result = false;
-        if (coverUri != null && !coverUri.isBlank()) {
-            result = updateCover(coverUri);
+        if (coverUri == null || coverUri.isBlank()) {
+            coverUri = null;
         }
 
-        if (!result) {
-            Bitmap coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_ART);
-
-            if (coverBmp == null ||
-                    coverBmp.getWidth() < MIN_BITMAP_SIZE ||
-                    coverBmp.getHeight() < MIN_BITMAP_SIZE) {
-                coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_ALBUM_ART);
-            }
+        Bitmap coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_ART);
 
-            if (coverBmp == null ||
-                    coverBmp.getWidth() < MIN_BITMAP_SIZE ||
-                    coverBmp.getHeight() < MIN_BITMAP_SIZE) {
-                coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_DISPLAY_ICON);
-            }
+        if (coverBmp == null ||
+                coverBmp.getWidth() < MIN_BITMAP_SIZE ||
+                coverBmp.getHeight() < MIN_BITMAP_SIZE) {
+            coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_ALBUM_ART);
+        }
 
-            updateCover(coverBmp);
+        if (coverBmp == null ||
+                coverBmp.getWidth() < MIN_BITMAP_SIZE ||
+                coverBmp.getHeight() < MIN_BITMAP_SIZE) {
+            coverBmp = metadata.getBitmap(MediaMetadata.METADATA_KEY_DISPLAY_ICON);
         }
 
+        coverLoader.load(coverUri, coverBmp, this::updateCover);
+
         updatePlaybackState();
     }
 
@@ -620,95 +599,87 @@ public class Media extends GlanceDialogExtension {
 
         lastArtist = "";
         lastSong = "";
-        lastCover = null;
+        coverLoader.cancel();
+        playbackState = null;
+        stopProgress();
     }
 
-    public boolean updateCover(String stringUri) {
-        if (stringUri != null) {
-            try {
-                InputStream inputStream;
-                Uri uri = Uri.parse(stringUri);
+    private void updateCover(Bitmap bitmap) {
+        if (!activity.isDestroyed()) {
+            DrawableCrossFadeFactory factory =
+                    new DrawableCrossFadeFactory.Builder()
+                            .setCrossFadeEnabled(true).build();
 
-                if (uri != null && "content".equals(uri.getScheme())) {
-                    inputStream = activity.getContentResolver().openInputStream(uri);
-                } else {
-                    inputStream = new FileInputStream(stringUri);
-                }
+            Glide.with(activity)
+                    .load(bitmap)
+                    .dontTransform()
+                    .placeholder(cover.getDrawable())
+                    .transition(DrawableTransitionOptions.withCrossFade(factory))
+                    .into(cover);
+        }
+    }
 
-                updateCover(BitmapFactory.decodeStream(inputStream));
+    private void scheduleProgress() {
+        if (!progressScheduled) {
+            progressScheduled = true;
 
-                return true;
-            } catch (Exception exception) {
-                return false;
-            }
+            Choreographer.getInstance().postFrameCallback(progressCallback);
         }
-
-        return false;
     }
 
-    public void updateCover(Bitmap bitmap) {
-        if (bitmap == null && lastCover == null) {
-            return;
-        }
+    private void stopProgress() {
+        if (progressScheduled) {
+            progressScheduled = false;
 
-        if (bitmap != null && lastCover != null &&
-                !lastCover.isRecycled() && bitmap.sameAs(lastCover)) {
-            return;
+            Choreographer.getInstance().removeFrameCallback(progressCallback);
         }
+    }
 
-        if (bitmap != null) {
-            Bitmap.Config config = bitmap.getConfig();
-            if (config == null) {
-                config = Bitmap.Config.ARGB_8888;
-            }
+    /**
+     * Moves the slider to the position extrapolated from the last playback state.
+     * Keeps running on every frame only while the track plays and the slider is shown.
+     */
+    private void advanceProgress() {
+        progressScheduled = false;
 
-            bitmap = bitmap.copy(config, false);
+        if (session == null || playbackState == null || !isShowing() ||
+                slider.getWindowVisibility() != View.VISIBLE) {
+            return;
+        }
 
-            DrawableCrossFadeFactory factory =
-                    new DrawableCrossFadeFactory.Builder()
-                            .setCrossFadeEnabled(true).build();
+        if (!skipUpdate) {
+            float progress = duration > 0 ? (float) getPosition(playbackState, duration) / duration : 0;
 
-            if (!activity.isDestroyed()) {
-                Glide.with(activity)
-                        .load(bitmap)
-                        .apply(RequestOptions.bitmapTransform(
-                                new MultiTransformation<>(
-                                        new CropSquareTransformation(),
-                                        new BlurBitmapTransformation(5),
-                                        new AccentBitmapTransformation())))
-                        .placeholder(cover.getDrawable())
-                        .transition(DrawableTransitionOptions.withCrossFade(factory))
-                        .into(cover);
+            // skip recompositions for movements smaller than a pixel
+            if (Math.abs(progress - slider.getProgress().getFloatValue()) *
+                    slider.getWidth() >= 1 || progress == 0) {
+                slider.getProgress().setFloatValue(progress);
             }
+        }
 
-            lastCover = bitmap;
-        } else {
-            lastCover = null;
+        if (playbackState.getState() == PlaybackState.STATE_PLAYING &&
+                playbackState.getPlaybackSpeed() != 0) {
+            scheduleProgress();
         }
     }
 
-    private void updateSlider(MediaMetadata metadata) {
-        if (session != null) {
-            PlaybackState playbackState = session.getPlaybackState();
-
-            if (playbackState != null && !skipUpdate) {
-                long duration = metadata.getLong(MediaMetadata.METADATA_KEY_DURATION);
-                float progress = (duration > 0) ? (float) playbackState.getPosition() / duration : 0;
+    private static long getPosition(PlaybackState state, long duration) {
+        long position = state.getPosition();
 
-                if (Float.isNaN(progress) || Float.isInfinite(progress)) {
-                    progress = 0;
-                }
-
-                slider.getProgress().setValue(progress);
-            }
-
-            handler.postDelayed(() -> updateSlider(metadata), 200);
+        if (state.getState() == PlaybackState.STATE_PLAYING &&
+                state.getLastPositionUpdateTime() > 0) {
+            position += (long) ((SystemClock.elapsedRealtime() -
+                    state.getLastPositionUpdateTime()) * state.getPlaybackSpeed());
         }
+
+        return Math.max(0, Math.min(duration, position));
     }
 
     public void updatePlaybackState() {
         if (session != null) {
-            PlaybackState playbackState = session.getPlaybackState();
+            playbackState = session.getPlaybackState();
+
+            scheduleProgress();
 
             if (playbackState != null) {
                 if (playbackState.getState() == PlaybackState.STATE_PLAYING) {
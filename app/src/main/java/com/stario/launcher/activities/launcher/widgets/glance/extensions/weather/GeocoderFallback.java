@@ -23,7 +23,7 @@ import android.location.Geocoder;
 import android.util.Log;
 import android.webkit.WebSettings;
 
-import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.HttpClient;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -31,17 +31,18 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import okhttp3.Request;
+import okhttp3.Response;
+
 public class GeocoderFallback {
     private static final String TAG = "Geocoder";
     private static final String API = "https://photon.komoot.io/";
-    private static final int REQUEST_TIMEOUT = 5_000;
 
     private final Geocoder geocoder;
     private final Activity activity;
@@ -70,45 +71,34 @@ public class GeocoderFallback {
         }
 
         List<Address> addresses = new ArrayList<>();
-        HttpURLConnection connection = null;
 
         try {
             // noinspection CharsetObjectCanBeUsed
             String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8.name());
-            String urlString = API + "api/?q=" + encodedQuery + "&limit=" + maxResults;
-            URL url = new URL(urlString);
 
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setReadTimeout(REQUEST_TIMEOUT);
-            connection.setConnectTimeout(REQUEST_TIMEOUT);
-            connection.setRequestMethod("GET");
-            connection.addRequestProperty("User-Agent", WebSettings.getDefaultUserAgent(activity));
-            connection.addRequestProperty("Content-type", "application/json");
+            try (Response response = execute(API + "api/?q=" + encodedQuery + "&limit=" + maxResults)) {
+                int responseCode = response.code();
 
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                JSONObject jsonObject = new JSONObject(Utils.readStream(connection.getInputStream()));
-                JSONArray features = jsonObject.optJSONArray("features");
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    JSONObject jsonObject = new JSONObject(response.body().string());
+                    JSONArray features = jsonObject.optJSONArray("features");
 
-                if (features != null) {
-                    for (int index = 0; index < features.length(); index++) {
-                        JSONObject feature = features.getJSONObject(index);
-                        Address address = parsePhotonFeature(feature);
+                    if (features != null) {
+                        for (int index = 0; index < features.length(); index++) {
+                            JSONObject feature = features.getJSONObject(index);
+                            Address address = parsePhotonFeature(feature);
 
-                        if (address != null) {
-                            addresses.add(address);
+                            if (address != null) {
+                                addresses.add(address);
+                            }
                         }
                     }
+                } else {
+                    Log.w(TAG, "getFromLocationName: Server returned non-OK status: " + responseCode);
                 }
-            } else {
-                Log.w(TAG, "getFromLocationName: Server returned non-OK status: " + responseCode);
             }
         } catch (IOException | JSONException e) {
             Log.e(TAG, "Error in getFromLocationName", e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
 
         return addresses;
@@ -130,20 +120,12 @@ public class GeocoderFallback {
         }
 
         String urlString = API + "reverse?lon=" + lon + "&lat=" + lat;
-        HttpURLConnection connection = null;
 
-        try {
-            URL url = new URL(urlString);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setReadTimeout(REQUEST_TIMEOUT);
-            connection.setConnectTimeout(REQUEST_TIMEOUT);
-            connection.setRequestMethod("GET");
-            connection.addRequestProperty("User-Agent", WebSettings.getDefaultUserAgent(activity));
-            connection.addRequestProperty("Content-type", "application/json");
-
-            int responseCode = connection.getResponseCode();
+        try (Response response = execute(urlString)) {
+            int responseCode = response.code();
+
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                JSONObject jsonObject = new JSONObject(Utils.readStream(connection.getInputStream()));
+                JSONObject jsonObject = new JSONObject(response.body().string());
                 JSONArray features = jsonObject.optJSONArray("features");
 
                 if (features != null && features.length() > 0) {
@@ -156,15 +138,19 @@ public class GeocoderFallback {
             }
         } catch (IOException | JSONException exception) {
             Log.e(TAG, "getFromLocation: ", exception);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
 
         return null;
     }
 
+    private Response execute(String url) throws IOException {
+        return HttpClient.newCall(HttpClient.Feature.GEOCODER, new Request.Builder()
+                .url(url)
+                .header("User-Agent", WebSettings.getDefaultUserAgent(activity))
+                .header("Content-type", "application/json")
+                .build()).execute();
+    }
+
     private Address parsePhotonFeature(JSONObject feature) throws JSONException {
         if (feature == null) {
             return null;
@@ -51,14 +51,14 @@ import com.stario.launcher.activities.launcher.widgets.glance.GlanceViewExtensio
 import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.ui.common.glance.GlanceConstraintLayout;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.HttpClient;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -68,6 +68,9 @@ import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 
+import okhttp3.Request;
+import okhttp3.Response;
+
 public class Weather extends GlanceDialogExtension {
     public static final String ACTION_REQUEST_UPDATE = "com.stario.REQUEST_UPDATE";
     public static final String PRECISE_LOCATION = "com.stario.PRECISE_LOCATION";
@@ -82,7 +85,6 @@ public class Weather extends GlanceDialogExtension {
     private static final int FORECAST_MAX_ENTRIES = 20;
     private static final int DEFAULT_UPDATE_INTERVAL = 3_600_000;
     private static final int FALLBACK_UPDATE_INTERVAL = 300_000;
-    private static final int REQUEST_TIMEOUT = 10_000;
     private static final int DAY = 0;
     private static final int NIGHT = 1;
     private static final int SUMMARY = 2;
@@ -476,7 +478,7 @@ public class Weather extends GlanceDialogExtension {
             return;
         }
 
-        runningTask = Utils.submitTask(() -> {
+        runningTask = Utils.submitTask(TaskScheduler.Lane.BACKGROUND, () -> {
             if (Math.abs(System.currentTimeMillis() - lastUpdate) > DEFAULT_UPDATE_INTERVAL) {
                 boolean prefersPreciseLocation = weatherPreferences.getBoolean(PRECISE_LOCATION, false);
                 boolean fetchedPreciseLocation = false;
@@ -700,60 +702,36 @@ public class Weather extends GlanceDialogExtension {
 
     private void loadApproximatedLocation(String ip) {
         for (IpApiEntry entry : LOCATION_APIS) {
-            HttpURLConnection connection = null;
-
-            try {
-                connection = (HttpURLConnection)
-                        (new URL(entry.api.replace(LOCATION_API_IP_WILDCARD, ip)).openConnection());
-
-                connection.setReadTimeout(REQUEST_TIMEOUT);
-                connection.setConnectTimeout(REQUEST_TIMEOUT);
-                connection.setRequestMethod("GET");
-                connection.addRequestProperty("User-Agent", WebSettings.getDefaultUserAgent(activity));
-                connection.addRequestProperty("Content-type", "application/json");
-
-                connection.connect();
-
-                int responseCode = connection.getResponseCode();
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    JSONObject jsonObject = new JSONObject(Utils.readStream(connection.getInputStream()));
+            try (Response response = HttpClient.newCall(HttpClient.Feature.WEATHER, new Request.Builder()
+                    .url(entry.api.replace(LOCATION_API_IP_WILDCARD, ip))
+                    .header("User-Agent", WebSettings.getDefaultUserAgent(activity))
+                    .header("Content-type", "application/json")
+                    .build()).execute()) {
+                if (response.isSuccessful()) {
+                    JSONObject jsonObject = new JSONObject(response.body().string());
                     for (IpApiEntry.Callback callback : entry.callback) {
                         callback.assign(jsonObject.getDouble(callback.field));
                     }
                 } else {
-                    Log.w(TAG, "getWeatherInfo: Server returned non-OK status: " + responseCode);
+                    Log.w(TAG, "getWeatherInfo: Server returned non-OK status: " + response.code());
                 }
             } catch (Exception exception) {
                 Log.e(TAG, "updateLocation: " + exception.getMessage());
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
-                }
             }
         }
     }
 
     private JSONObject getWeatherInfo() {
-        HttpURLConnection connection = null;
-
-        try {
-            connection = (HttpURLConnection)
-                    (new URL("https://api.met.no/weatherapi/locationforecast/2.0/compact?lat=" +
-                            lat + "&lon=" + lon).openConnection());
-
-            connection.setReadTimeout(REQUEST_TIMEOUT);
-            connection.setConnectTimeout(REQUEST_TIMEOUT);
-            connection.setRequestMethod("GET");
-            connection.addRequestProperty("User-Agent", WebSettings.getDefaultUserAgent(activity));
-            connection.setRequestProperty("Content-type", "application/json");
-
-            connection.connect();
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                return new JSONObject(Utils.readStream(connection.getInputStream()));
+        try (Response response = HttpClient.newCall(HttpClient.Feature.WEATHER, new Request.Builder()
+                .url("https://api.met.no/weatherapi/locationforecast/2.0/compact?lat=" +
+                        lat + "&lon=" + lon)
+                .header("User-Agent", WebSettings.getDefaultUserAgent(activity))
+                .header("Content-type", "application/json")
+                .build()).execute()) {
+            if (response.isSuccessful()) {
+                return new JSONObject(response.body().string());
             } else {
-                Log.w(TAG, "getWeatherInfo: Server returned non-OK status: " + responseCode);
+                Log.w(TAG, "getWeatherInfo: Server returned non-OK status: " + response.code());
             }
 
             return null;
@@ -761,10 +739,6 @@ public class Weather extends GlanceDialogExtension {
             Log.e(TAG, "getWeatherInfo: ", exception);
 
             return null;
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
     }
 
@@ -58,6 +58,7 @@ import com.stario.launcher.activities.settings.dialogs.HomeScreenDialog;
 import com.stario.launcher.activities.settings.dialogs.hide.HideApplicationsDialog;
 import com.stario.launcher.activities.settings.dialogs.icons.IconsDialog;
 import com.stario.launcher.activities.settings.dialogs.license.LicensesDialog;
+import com.stario.launcher.activities.settings.dialogs.metrics.FrameMetricsDialog;
 import com.stario.launcher.activities.settings.dialogs.search.engine.SearchEngineDialog;
 import com.stario.launcher.activities.settings.dialogs.search.results.SearchResultsDialog;
 import com.stario.launcher.activities.settings.dialogs.theme.ThemeDialog;
@@ -453,6 +454,28 @@ public class Settings extends ThemedActivity {
         //noinspection SetTextI18n
         ((TextView) findViewById(R.id.version)).setText(BuildConfig.VERSION_NAME + " • Răzvan Albu");
 
+        // hidden debug screen
+        findViewById(R.id.version).setOnLongClickListener(new View.OnLongClickListener() {
+            private FrameMetricsDialog dialog;
+            private boolean showing = false;
+
+            @Override
+            public boolean onLongClick(View view) {
+                if (dialog == null) {
+                    dialog = new FrameMetricsDialog(Settings.this);
+
+                    dialog.setOnDismissListener(dialog -> showing = false);
+                }
+
+                if (!showing) {
+                    dialog.show();
+                    showing = true;
+                }
+
+                return true;
+            }
+        });
+
         findViewById(R.id.about).setOnClickListener(view -> {
             Intent intent = new Intent(android.provider.Settings.ACTION_APPLICATION_DETAILS_SETTINGS);
             intent.setData(Uri.parse("package:" + getPackageName()));
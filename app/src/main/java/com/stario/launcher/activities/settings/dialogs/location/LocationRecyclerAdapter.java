@@ -43,6 +43,7 @@ import com.stario.launcher.activities.launcher.widgets.glance.extensions.weather
 import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
 import java.util.ArrayList;
@@ -144,7 +145,7 @@ public class LocationRecyclerAdapter extends RecyclerView.Adapter<LocationRecycl
             // noinspection notifyDataSetChanged
             notifyDataSetChanged();
         } else {
-            Utils.submitTask(() -> {
+            Utils.submitTask(TaskScheduler.Lane.INTERACTIVE, () -> {
                 List<Address> addressList = geocoder.getFromLocationName(query, MAX_LOCALITIES);
 
                 if (query.equals(LocationRecyclerAdapter.this.query)) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.activities.settings.dialogs.metrics;
+
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.material.bottomsheet.BottomSheetBehavior;
+import com.google.android.material.materialswitch.MaterialSwitch;
+import com.stario.launcher.R;
+import com.stario.launcher.themes.ThemedActivity;
+import com.stario.launcher.ui.dialogs.ActionDialog;
+import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.metrics.FrameMonitor;
+import com.stario.launcher.utils.metrics.StartupTracer;
+
+import java.util.Locale;
+
+/**
+ * Debug screen showing the frame percentiles recorded by {@link FrameMonitor},
+ * the last startups timed by {@link StartupTracer} and the state of the
+ * {@link TaskScheduler} lanes, opened by long pressing the version in settings.
+ */
+public class FrameMetricsDialog extends ActionDialog {
+    private static final String TAG = "FrameMetricsDialog";
+
+    private TextView report;
+    private TextView startupReport;
+    private TextView schedulerReport;
+
+    public FrameMetricsDialog(@NonNull ThemedActivity activity) {
+        super(activity);
+    }
+
+    @NonNull
+    @Override
+    protected View inflateContent(LayoutInflater inflater) {
+        View root = inflater.inflate(R.layout.pop_up_frame_metrics, null);
+        FrameMonitor monitor = FrameMonitor.getInstance();
+
+        MaterialSwitch recording = root.findViewById(R.id.recording);
+        report = root.findViewById(R.id.report);
+        startupReport = root.findViewById(R.id.startup_report);
+        schedulerReport = root.findViewById(R.id.scheduler_report);
+
+        recording.setChecked(monitor.isEnabled());
+        recording.jumpDrawablesToCurrentState();
+        recording.setOnCheckedChangeListener((button, checked) -> monitor.setEnabled(checked));
+
+        root.findViewById(R.id.recording_container)
+                .setOnClickListener(view -> recording.performClick());
+
+        root.findViewById(R.id.reset).setOnClickListener(view -> {
+            monitor.reset();
+
+            updateReport();
+        });
+
+        root.findViewById(R.id.export).setOnClickListener(view ->
+                monitor.export(activity).whenComplete((file, throwable) -> UiUtils.post(() -> {
+                    if (file != null) {
+                        Toast.makeText(activity, activity.getString(R.string.frame_metrics_exported,
+                                file.getAbsolutePath()), Toast.LENGTH_LONG).show();
+                    } else {
+                        Log.e(TAG, "export: ", throwable);
+
+                        Toast.makeText(activity, R.string.something_went_wrong,
+                                Toast.LENGTH_SHORT).show();
+                    }
+                })));
+
+        updateReport();
+
+        return root;
+    }
+
+    @Override
+    public void show() {
+        super.show();
+
+        updateReport();
+    }
+
+    private void updateReport() {
+        if (report != null) {
+            report.setText(FrameMonitor.getInstance().getReport());
+        }
+
+        if (startupReport != null) {
+            StartupTracer.loadReport(activity).thenAccept(text ->
+                    UiUtils.post(() -> startupReport.setText(text)));
+        }
+
+        if (schedulerReport != null) {
+            StringBuilder builder = new StringBuilder();
+
+            for (TaskScheduler.Lane lane : TaskScheduler.Lane.values()) {
+                if (builder.length() > 0) {
+                    builder.append('\n');
+                }
+
+                builder.append(lane.name().toLowerCase(Locale.ROOT)).append(": ")
+                        .append(TaskScheduler.getStatistics(lane));
+            }
+
+            schedulerReport.setText(builder);
+        }
+    }
+
+    @Override
+    protected boolean blurBehind() {
+        return true;
+    }
+
+    @Override
+    protected int getDesiredInitialState() {
+        return BottomSheetBehavior.STATE_EXPANDED;
+    }
+}
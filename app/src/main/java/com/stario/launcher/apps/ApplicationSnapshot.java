@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.apps;
+
+import android.content.pm.ApplicationInfo;
+import android.os.UserHandle;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot of the application catalog of a single profile.
+ * It is written after every successful load and memory-mapped on the next
+ * start, so the drawer can be populated before {@link android.content.pm.LauncherApps}
+ * finishes enumerating activities. Labels depend on the locale, so a snapshot
+ * taken under other locales is discarded.
+ */
+final class ApplicationSnapshot {
+    private static final String TAG = "ApplicationSnapshot";
+    private static final String DIRECTORY = "snapshots";
+    private static final int MAGIC = 0x53544150; // STAP
+    private static final int VERSION = 3;
+
+    private static final byte FLAG_HIDDEN = 1;
+    private static final byte FLAG_ICON_PACK = 1 << 1;
+    private static final byte FLAG_CUSTOM_LABEL = 1 << 2;
+
+    private ApplicationSnapshot() {
+    }
+
+    static File getFile(@NonNull File directory, @NonNull UserHandle handle) {
+        return new File(new File(directory, DIRECTORY),
+                "applications-" + handle.hashCode() + ".bin");
+    }
+
+    /**
+     * @return last modification time of the installed package, which changes with
+     * every update, without going through the package manager
+     */
+    static long getLastUpdateTime(@NonNull ApplicationInfo info) {
+        return info.sourceDir != null ? new File(info.sourceDir).lastModified() : 0;
+    }
+
+    /**
+     * @param locales Language tags of the current locales
+     * @return The snapshot entries or an empty list if the snapshot is missing,
+     * belongs to another format version or locale, or is corrupted
+     */
+    @NonNull
+    static List<Entry> read(@NonNull File file, @NonNull UserHandle handle, @NonNull String locales) {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+
+        try (FileInputStream stream = new FileInputStream(file);
+             FileChannel channel = stream.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION ||
+                    buffer.getInt() != handle.hashCode() || !locales.equals(readString(buffer))) {
+                return Collections.emptyList();
+            }
+
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+
+            for (int index = 0; index < count; index++) {
+                String packageName = readString(buffer);
+                String label = readString(buffer);
+                int applicationFlags = buffer.getInt();
+                int applicationCategory = buffer.getInt();
+                byte flags = buffer.get();
+                long lastUpdateTime = buffer.getLong();
+
+                entries.add(new Entry(packageName, label,
+                        applicationFlags, applicationCategory,
+                        (flags & FLAG_HIDDEN) != 0,
+                        (flags & FLAG_ICON_PACK) != 0,
+                        (flags & FLAG_CUSTOM_LABEL) != 0,
+                        lastUpdateTime));
+            }
+
+            return entries;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException exception) {
+            Log.e(TAG, "read: Discarding unreadable snapshot.", exception);
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+
+        return Collections.emptyList();
+    }
+
+    static void write(@NonNull File file, @NonNull UserHandle handle,
+                      @NonNull String locales, @NonNull List<Entry> entries) {
+        File parent = file.getParentFile();
+
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            Log.e(TAG, "write: Cannot create " + parent);
+
+            return;
+        }
+
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream stream = null;
+
+        try {
+            stream = atomicFile.startWrite();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(handle.hashCode());
+            writeString(output, locales);
+            output.writeInt(entries.size());
+
+            for (Entry entry : entries) {
+                writeString(output, entry.packageName);
+                writeString(output, entry.label);
+                output.writeInt(entry.applicationFlags);
+                output.writeInt(entry.applicationCategory);
+                output.writeByte((entry.hidden ? FLAG_HIDDEN : 0) |
+                        (entry.iconPack ? FLAG_ICON_PACK : 0) |
+                        (entry.customLabel ? FLAG_CUSTOM_LABEL : 0));
+                output.writeLong(entry.lastUpdateTime);
+            }
+
+            output.flush();
+            atomicFile.finishWrite(stream);
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+
+            if (stream != null) {
+                atomicFile.failWrite(stream);
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+
+        output.writeShort(length);
+        output.write(bytes, 0, length);
+    }
+
+    static final class Entry {
+        final String packageName;
+        final String label;
+        final int applicationFlags;
+        final int applicationCategory;
+        final boolean hidden;
+        final boolean iconPack;
+        final boolean customLabel;
+        final long lastUpdateTime;
+
+        Entry(@NonNull String packageName, @NonNull String label,
+              int applicationFlags, int applicationCategory, boolean hidden,
+              boolean iconPack, boolean customLabel, long lastUpdateTime) {
+            this.packageName = packageName;
+            this.label = label;
+            this.applicationFlags = applicationFlags;
+            this.applicationCategory = applicationCategory;
+            this.hidden = hidden;
+            this.iconPack = iconPack;
+            this.customLabel = customLabel;
+            this.lastUpdateTime = lastUpdateTime;
+        }
+
+        /**
+         * @param customLabel Whether the label was chosen by the user instead of
+         *                    loaded from the package
+         */
+        Entry(@NonNull LauncherApplication application, boolean hidden,
+              boolean iconPack, boolean customLabel) {
+            this(application.info.packageName, application.label,
+                    application.info.flags, application.info.category,
+                    hidden, iconPack, customLabel, getLastUpdateTime(application.info));
+        }
+
+        /**
+         * Placeholder {@link ApplicationInfo} used until the live enumeration supplies
+         * the real one. Only the fields the launcher reads before that are populated.
+         */
+        @NonNull
+        ApplicationInfo toApplicationInfo() {
+            ApplicationInfo info = new ApplicationInfo();
+
+            info.packageName = packageName;
+            info.flags = applicationFlags;
+            info.category = applicationCategory;
+            info.enabled = true;
+
+            return info;
+        }
+    }
+}
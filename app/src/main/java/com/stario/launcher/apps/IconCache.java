@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.apps;
+
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.AdaptiveIconDrawable;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.InsetDrawable;
+import android.util.AtomicFile;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.stario.launcher.Stario;
+import com.stario.launcher.ui.icons.AdaptiveIconView;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Two level cache of rasterized application icons. Bitmaps are kept in a memory
+ * LRU bounded in bytes and persisted on disk, so icons do not have to be
+ * inflated from their packages on every start.
+ */
+final class IconCache {
+    private static final String TAG = "IconCache";
+    private static final String DIRECTORY = "icons";
+    private static final int FLAG_ADAPTIVE = 1;
+    // inset of the icon bounds relative to the layer bounds, 1/6 per side
+    private static final float LAYER_INSET = AdaptiveIconDrawable.getExtraInsetFraction() /
+            (1 + 2 * AdaptiveIconDrawable.getExtraInsetFraction());
+
+    private final LruCache<String, Entry> memory;
+    private final PackageManager packageManager;
+    private final Resources resources;
+    private final File directory;
+    private final int size;
+
+    IconCache(@NonNull Stario stario) {
+        this.packageManager = stario.getPackageManager();
+        this.resources = stario.getResources();
+        this.directory = new File(stario.getCacheDir(), DIRECTORY);
+        this.size = Math.round(AdaptiveIconView.MAX_ICON_SIZE_DP *
+                resources.getDisplayMetrics().density);
+        this.memory = new LruCache<>((int) Math.min(Integer.MAX_VALUE,
+                Runtime.getRuntime().maxMemory() / 8)) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * @param packageName     Package of the application
+     * @param versionCode     Version of the application, see {@link #getVersionCode(String)}
+     * @param pack            Icon pack used for the application, or null for the system icon
+     * @param packVersionCode Version of the icon pack, ignored without one
+     * @param drawableName    Drawable override selected for the application, if any
+     * @return Key identifying the rasterized icon
+     */
+    @NonNull
+    String getKey(@NonNull String packageName, long versionCode, @Nullable String pack,
+                  long packVersionCode, @Nullable String drawableName) {
+        StringBuilder builder = new StringBuilder(packageName)
+                .append(':').append(versionCode);
+
+        if (pack != null) {
+            builder.append(':').append(pack)
+                    .append(':').append(packVersionCode);
+
+            if (drawableName != null) {
+                builder.append(':').append(drawableName);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    long getVersionCode(@NonNull String packageName) {
+        try {
+            return packageManager.getPackageInfo(packageName, 0).getLongVersionCode();
+        } catch (PackageManager.NameNotFoundException exception) {
+            // not installed for the owner, package events will invalidate the entry
+            return 0;
+        }
+    }
+
+    @Nullable
+    Drawable get(@NonNull String key) {
+        Entry entry = memory.get(key);
+
+        if (entry == null) {
+            entry = read(key);
+
+            if (entry != null) {
+                memory.put(key, entry);
+            }
+        }
+
+        return entry != null ? entry.toDrawable(resources) : null;
+    }
+
+    /**
+     * Rasterizes the icon and stores it in both cache levels.
+     *
+     * @return Drawable backed by the cached bitmap, drawn the same way as the source icon
+     */
+    @NonNull
+    Drawable put(@NonNull String key, @NonNull Drawable icon) {
+        boolean adaptive = icon instanceof AdaptiveIconDrawable;
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        icon.setBounds(0, 0, size, size);
+
+        if (adaptive) {
+            // AdaptiveIconView masks the layers itself, so keep them unmasked
+            AdaptiveIconDrawable adaptiveIcon = (AdaptiveIconDrawable) icon;
+            Drawable background = adaptiveIcon.getBackground();
+            Drawable foreground = adaptiveIcon.getForeground();
+
+            if (background != null) {
+                background.draw(canvas);
+            }
+
+            if (foreground != null) {
+                foreground.draw(canvas);
+            }
+        } else {
+            icon.draw(canvas);
+        }
+
+        Entry entry = new Entry(bitmap, adaptive);
+
+        memory.put(key, entry);
+        write(key, entry);
+
+        return entry.toDrawable(resources);
+    }
+
+    void invalidate(@NonNull String packageName) {
+        String prefix = packageName + ':';
+
+        for (String key : memory.snapshot().keySet()) {
+            if (key.startsWith(prefix)) {
+                memory.remove(key);
+            }
+        }
+
+        File[] files = directory.listFiles((dir, name) ->
+                name.startsWith(packageName + '-'));
+
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    void clear() {
+        memory.evictAll();
+
+        File[] files = directory.listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    private File getFile(String key) {
+        String packageName = key.substring(0, key.indexOf(':'));
+
+        return new File(directory, packageName + '-' +
+                UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Nullable
+    private Entry read(String key) {
+        File file = getFile(key);
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (FileInputStream stream = new AtomicFile(file).openRead()) {
+            int flags = stream.read();
+            Bitmap bitmap = BitmapFactory.decodeStream(stream);
+
+            if (flags >= 0 && bitmap != null) {
+                return new Entry(bitmap, (flags & FLAG_ADAPTIVE) != 0);
+            }
+        } catch (IOException exception) {
+            Log.e(TAG, "read: ", exception);
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+
+        return null;
+    }
+
+    private void write(String key, Entry entry) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "write: Cannot create " + directory);
+
+            return;
+        }
+
+        AtomicFile file = new AtomicFile(getFile(key));
+        FileOutputStream stream = null;
+
+        try {
+            stream = file.startWrite();
+
+            stream.write(entry.adaptive ? FLAG_ADAPTIVE : 0);
+            entry.bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+
+            file.finishWrite(stream);
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Bitmap bitmap;
+        private final boolean adaptive;
+
+        private Entry(Bitmap bitmap, boolean adaptive) {
+            this.bitmap = bitmap;
+            this.adaptive = adaptive;
+        }
+
+        private Drawable toDrawable(Resources resources) {
+            Drawable drawable = new BitmapDrawable(resources, bitmap);
+
+            if (adaptive) {
+                // the bitmap holds the icon bounds, which are the center 2/3 of the layer bounds
+                return new AdaptiveIconDrawable(new ColorDrawable(Color.TRANSPARENT),
+                        new InsetDrawable(drawable, LAYER_INSET));
+            }
+
+            return drawable;
+        }
+    }
+}
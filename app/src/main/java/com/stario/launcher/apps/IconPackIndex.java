@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.apps;
+
+import android.annotation.SuppressLint;
+import android.content.res.Resources;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pre-parsed appfilter of an icon pack. Drawable names are interned in a string table
+ * with their resource identifiers resolved once, and component and package keys are
+ * kept sorted so lookups are a binary search over the mapped file without allocating.
+ * <p>
+ * Layout: header, string table (resource ids, name offsets), components (key offsets,
+ * entry starts, entry counts), packages (same), entries (string table indexes) and a
+ * pool of length prefixed UTF-16 strings.
+ */
+final class IconPackIndex {
+    private static final String TAG = "IconPackIndex";
+    private static final String DIRECTORY = "icon_packs";
+    private static final int MAGIC = 0x53544950; // STIP
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringIds;
+    private final int stringOffsets;
+    private final int componentCount;
+    private final int componentKeys;
+    private final int packageCount;
+    private final int packageKeys;
+    private final int entries;
+    private final int pool;
+
+    private IconPackIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unknown icon pack index format.");
+        }
+
+        int position = HEADER_SIZE;
+
+        this.stringCount = buffer.getInt(position);
+        this.stringIds = position + Integer.BYTES;
+        this.stringOffsets = stringIds + stringCount * Integer.BYTES;
+        position = stringOffsets + stringCount * Integer.BYTES;
+
+        this.componentCount = buffer.getInt(position);
+        this.componentKeys = position + Integer.BYTES;
+        position = componentKeys + componentCount * 3 * Integer.BYTES;
+
+        this.packageCount = buffer.getInt(position);
+        this.packageKeys = position + Integer.BYTES;
+        position = packageKeys + packageCount * 3 * Integer.BYTES;
+
+        int entryCount = buffer.getInt(position);
+        this.entries = position + Integer.BYTES;
+        this.pool = entries + entryCount * Integer.BYTES;
+
+        if (pool > buffer.limit()) {
+            throw new IOException("Truncated icon pack index.");
+        }
+    }
+
+    static File getFile(@NonNull File directory, @NonNull String packageName,
+                        long versionCode, long lastUpdateTime) {
+        return new File(new File(directory, DIRECTORY),
+                packageName + '-' + versionCode + '-' + lastUpdateTime + ".idx");
+    }
+
+    /**
+     * @return The index stored in the file or null if it is missing or unreadable
+     */
+    @Nullable
+    static IconPackIndex read(@NonNull File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (FileInputStream stream = new FileInputStream(file);
+             FileChannel channel = stream.getChannel()) {
+            return new IconPackIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | IndexOutOfBoundsException exception) {
+            Log.e(TAG, "read: Discarding unreadable index.", exception);
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+
+        return null;
+    }
+
+    int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @return Index of the component, or -1 if the pack has no drawable for it
+     */
+    int findComponent(@NonNull String packageName, @NonNull String className) {
+        return find(componentKeys, componentCount, packageName, className);
+    }
+
+    /**
+     * @return Index of the package, or -1 if the pack has no drawable for it
+     */
+    int findPackage(@NonNull String packageName) {
+        return find(packageKeys, packageCount, packageName, null);
+    }
+
+    int getComponentDrawableCount(int component) {
+        return buffer.getInt(componentKeys + (2 * componentCount + component) * Integer.BYTES);
+    }
+
+    int getPackageDrawableCount(int packageIndex) {
+        return buffer.getInt(packageKeys + (2 * packageCount + packageIndex) * Integer.BYTES);
+    }
+
+    /**
+     * @return Resource identifier of the drawable at position, 0 if it does not exist in the pack
+     */
+    int getComponentDrawableId(int component, int position) {
+        return buffer.getInt(stringIds + getComponentDrawable(component, position) * Integer.BYTES);
+    }
+
+    @NonNull
+    String getPackageDrawableName(int packageIndex, int position) {
+        int start = buffer.getInt(packageKeys + (packageCount + packageIndex) * Integer.BYTES);
+        int string = buffer.getInt(entries + (start + position) * Integer.BYTES);
+
+        return readString(buffer.getInt(stringOffsets + string * Integer.BYTES));
+    }
+
+    private int getComponentDrawable(int component, int position) {
+        int start = buffer.getInt(componentKeys + (componentCount + component) * Integer.BYTES);
+
+        return buffer.getInt(entries + (start + position) * Integer.BYTES);
+    }
+
+    private int find(int keys, int count, String first, @Nullable String second) {
+        int left = 0;
+        int right = count - 1;
+
+        while (left <= right) {
+            int middle = (left + right) >>> 1;
+            int compareValue = compare(buffer.getInt(keys + middle * Integer.BYTES), first, second);
+
+            if (compareValue < 0) {
+                left = middle + 1;
+            } else if (compareValue > 0) {
+                right = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Same ordering as {@link String#compareTo(String)} against first + '/' + second,
+     * without building the concatenated key.
+     */
+    private int compare(int offset, String first, @Nullable String second) {
+        int position = pool + offset;
+        int length = buffer.getChar(position);
+        int keyLength = second != null ? first.length() + 1 + second.length() : first.length();
+        int limit = Math.min(length, keyLength);
+
+        for (int index = 0; index < limit; index++) {
+            char character;
+
+            if (index < first.length()) {
+                character = first.charAt(index);
+            } else if (index == first.length()) {
+                character = '/';
+            } else {
+                //noinspection DataFlowIssue
+                character = second.charAt(index - first.length() - 1);
+            }
+
+            int difference = buffer.getChar(position + (index + 1) * Character.BYTES) - character;
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return length - keyLength;
+    }
+
+    private String readString(int offset) {
+        int position = pool + offset;
+        char[] characters = new char[buffer.getChar(position)];
+
+        for (int index = 0; index < characters.length; index++) {
+            characters[index] = buffer.getChar(position + (index + 1) * Character.BYTES);
+        }
+
+        return new String(characters);
+    }
+
+    /**
+     * Collects the appfilter entries while parsing and serializes them into an index.
+     */
+    static final class Builder {
+        private final Map<String, Integer> strings;
+        private final List<String> stringTable;
+        private final TreeMap<String, LinkedHashSet<Integer>> components;
+        private final TreeMap<String, LinkedHashSet<Integer>> packages;
+
+        Builder() {
+            this.strings = new HashMap<>();
+            this.stringTable = new ArrayList<>();
+            this.components = new TreeMap<>();
+            this.packages = new TreeMap<>();
+        }
+
+        void add(@NonNull String componentName, @NonNull String drawableName) {
+            Integer string = strings.get(drawableName);
+
+            if (string == null) {
+                string = stringTable.size();
+
+                stringTable.add(drawableName);
+                strings.put(drawableName, string);
+            }
+
+            LinkedHashSet<Integer> drawables = components.get(componentName);
+            if (drawables == null) {
+                drawables = new LinkedHashSet<>();
+
+                components.put(componentName, drawables);
+            }
+            drawables.add(string);
+
+            String packageName = componentName.substring(0, componentName.indexOf('/'));
+            drawables = packages.get(packageName);
+            if (drawables == null) {
+                drawables = new LinkedHashSet<>();
+
+                packages.put(packageName, drawables);
+            }
+            drawables.add(string);
+        }
+
+        /**
+         * Resolves the drawable identifiers, stores the index in file and returns it.
+         * If the file cannot be written, the index is still returned from memory.
+         */
+        @SuppressLint("DiscouragedApi")
+        @NonNull
+        IconPackIndex build(@NonNull Resources resources, @NonNull String packageName,
+                            @NonNull File file) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            StringPool stringPool = new StringPool();
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(0); // reserved
+
+            output.writeInt(stringTable.size());
+            for (String name : stringTable) {
+                output.writeInt(resources.getIdentifier(name, "drawable", packageName));
+            }
+            for (String name : stringTable) {
+                output.writeInt(stringPool.add(name));
+            }
+
+            List<Integer> entries = new ArrayList<>();
+
+            writeKeys(output, components, stringPool, entries);
+            writeKeys(output, packages, stringPool, entries);
+
+            output.writeInt(entries.size());
+            for (int entry : entries) {
+                output.writeInt(entry);
+            }
+
+            stringPool.writeTo(output);
+            output.flush();
+
+            byte[] data = bytes.toByteArray();
+
+            write(file, data);
+
+            return new IconPackIndex(ByteBuffer.wrap(data));
+        }
+
+        private static void writeKeys(DataOutputStream output, TreeMap<String, LinkedHashSet<Integer>> keys,
+                                      StringPool stringPool, List<Integer> entries) throws IOException {
+            output.writeInt(keys.size());
+
+            for (String key : keys.keySet()) {
+                output.writeInt(stringPool.add(key));
+            }
+
+            for (LinkedHashSet<Integer> drawables : keys.values()) {
+                output.writeInt(entries.size());
+                entries.addAll(drawables);
+            }
+
+            for (LinkedHashSet<Integer> drawables : keys.values()) {
+                output.writeInt(drawables.size());
+            }
+        }
+
+        private static void write(File file, byte[] data) {
+            File parent = file.getParentFile();
+
+            if (parent == null || (!parent.exists() && !parent.mkdirs())) {
+                Log.e(TAG, "write: Cannot create " + parent);
+
+                return;
+            }
+
+            // drop indexes of older pack versions
+            String prefix = file.getName().substring(0, file.getName().indexOf('-') + 1);
+            File[] stale = parent.listFiles((dir, name) -> name.startsWith(prefix));
+
+            if (stale != null) {
+                for (File staleFile : stale) {
+                    //noinspection ResultOfMethodCallIgnored
+                    staleFile.delete();
+                }
+            }
+
+            AtomicFile atomicFile = new AtomicFile(file);
+            FileOutputStream stream = null;
+
+            try {
+                stream = atomicFile.startWrite();
+                stream.write(data);
+
+                atomicFile.finishWrite(stream);
+            } catch (IOException exception) {
+                Log.e(TAG, "write: ", exception);
+
+                if (stream != null) {
+                    atomicFile.failWrite(stream);
+                }
+            }
+        }
+    }
+
+    private static final class StringPool {
+        private final ByteArrayOutputStream bytes;
+        private final DataOutputStream output;
+
+        private StringPool() {
+            this.bytes = new ByteArrayOutputStream();
+            this.output = new DataOutputStream(bytes);
+        }
+
+        private int add(String value) throws IOException {
+            int offset = output.size();
+
+            output.writeChar(value.length());
+            output.writeChars(value);
+
+            return offset;
+        }
+
+        private void writeTo(DataOutputStream destination) throws IOException {
+            output.flush();
+            bytes.writeTo(destination);
+        }
+    }
+}
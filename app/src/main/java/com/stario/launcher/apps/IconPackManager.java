@@ -22,10 +22,13 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.LauncherActivityInfo;
 import android.content.pm.LauncherApps;
+import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
+import android.os.Process;
 import android.util.Log;
 import android.util.Pair;
 import android.util.Xml;
@@ -42,20 +45,30 @@ import com.stario.launcher.ui.icons.AdaptiveIconView;
 import com.stario.launcher.ui.icons.PathCornerTreatmentAlgorithm;
 import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.utils.ImageUtils;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.StartupPhase;
+import com.stario.launcher.utils.metrics.StartupTracer;
 
 import org.json.JSONObject;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 import org.xmlpull.v1.XmlPullParserFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 public final class IconPackManager {
@@ -78,6 +91,14 @@ public final class IconPackManager {
     private final SharedPreferences preferences;
     private final ArrayList<IconPack> iconPacks;
     private final LauncherApps launcherApps;
+    private final IconCache iconCache;
+    private final File cacheDirectory;
+    private final Set<String> pendingIcons;
+    private final Map<String, Drawable> resolvedIcons;
+    private final Map<String, ComponentName> launchComponents;
+    private boolean resolvingIcons;
+    private int packResolutions;
+    private boolean deliveringIcons;
     private OnChangeListener listener;
     private IconPack activeIconPack;
 
@@ -87,6 +108,14 @@ public final class IconPackManager {
         this.preferences = stario.getSharedPreferences(Entry.ICONS);
         this.packageManager = stario.getPackageManager();
         this.launcherApps = (LauncherApps) stario.getSystemService(Context.LAUNCHER_APPS_SERVICE);
+        this.iconCache = new IconCache(stario);
+        this.cacheDirectory = stario.getCacheDir();
+        this.pendingIcons = new LinkedHashSet<>();
+        this.resolvedIcons = new HashMap<>();
+        this.launchComponents = new ConcurrentHashMap<>();
+        this.resolvingIcons = false;
+        this.packResolutions = 0;
+        this.deliveringIcons = false;
 
         this.activeIconPack = null;
     }
@@ -137,6 +166,7 @@ public final class IconPackManager {
         editor.apply();
 
         activeIconPack = pack;
+        Utils.submitTask(TaskScheduler.Lane.BULK_IO, iconCache::clear);
 
         if (listener != null) {
             listener.onChange();
@@ -160,7 +190,7 @@ public final class IconPackManager {
                     .apply();
         }
 
-        updateIcon(packageName);
+        invalidateIcon(packageName);
     }
 
     public int getCount() {
@@ -184,55 +214,216 @@ public final class IconPackManager {
     }
 
     void updateIcon(@NonNull String packageName) {
-        Utils.submitTask(() -> {
-            IconPack pack = activeIconPack;
-            String drawableName = null;
-
-            if (preferences.contains(packageName)) {
-                String packagePreference = preferences.getString(packageName, null);
-
-                if (packagePreference != null) {
-                    if (packagePreference.equals(BuildConfig.APPLICATION_ID)) {
-                        pack = null;
-                    } else {
-                        try {
-                            JSONObject json = new JSONObject(packagePreference);
-
-                            IconPack target = getPack((String) json.get(JSON_ICON_PACK));
-                            if (target != null) {
-                                pack = target;
-
-                                if (json.has(JSON_ICON_DRAWABLE_NAME)) {
-                                    drawableName = (String) json.get(JSON_ICON_DRAWABLE_NAME);
-                                }
+        updateIcons(Collections.singleton(packageName));
+    }
+
+    /**
+     * Queues the packages for icon resolution. All queued packages are resolved
+     * sequentially by a single worker and the results are delivered to
+     * {@link ProfileManager} in batches, once per frame. Icons that have to be
+     * loaded from a pack finish on the lane loading the pack.
+     */
+    void updateIcons(@NonNull Collection<String> packageNames) {
+        synchronized (pendingIcons) {
+            pendingIcons.addAll(packageNames);
+
+            if (resolvingIcons) {
+                return;
+            }
+
+            resolvingIcons = true;
+
+            if (packResolutions == 0) {
+                StartupTracer.begin(StartupPhase.ICON_RESOLUTION);
+            }
+        }
+
+        Utils.submitTask(TaskScheduler.Lane.UI_CRITICAL, this::resolvePendingIcons);
+    }
+
+    private void resolvePendingIcons() {
+        while (true) {
+            String packageName;
+
+            synchronized (pendingIcons) {
+                Iterator<String> iterator = pendingIcons.iterator();
+
+                if (!iterator.hasNext()) {
+                    resolvingIcons = false;
+
+                    if (packResolutions == 0) {
+                        StartupTracer.end(StartupPhase.ICON_RESOLUTION);
+                    }
+
+                    return;
+                }
+
+                packageName = iterator.next();
+                iterator.remove();
+            }
+
+            resolveIcon(packageName);
+        }
+    }
+
+    private void deliverIcon(String packageName, Drawable icon) {
+        synchronized (resolvedIcons) {
+            resolvedIcons.put(packageName, icon);
+
+            if (deliveringIcons) {
+                return;
+            }
+
+            deliveringIcons = true;
+        }
+
+        UiUtils.postFrameCallback(frameTimeNanos -> {
+            Map<String, Drawable> icons;
+
+            synchronized (resolvedIcons) {
+                icons = new HashMap<>(resolvedIcons);
+
+                resolvedIcons.clear();
+                deliveringIcons = false;
+            }
+
+            ProfileManager profileManager = ProfileManager.getInstance();
+
+            for (Map.Entry<String, Drawable> entry : icons.entrySet()) {
+                profileManager.updateIcon(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private void resolveIcon(@NonNull String packageName) {
+        IconPack pack = activeIconPack;
+        String drawableName = null;
+
+        if (preferences.contains(packageName)) {
+            String packagePreference = preferences.getString(packageName, null);
+
+            if (packagePreference != null) {
+                if (packagePreference.equals(BuildConfig.APPLICATION_ID)) {
+                    pack = null;
+                } else {
+                    try {
+                        JSONObject json = new JSONObject(packagePreference);
+
+                        IconPack target = getPack((String) json.get(JSON_ICON_PACK));
+                        if (target != null) {
+                            pack = target;
+
+                            if (json.has(JSON_ICON_DRAWABLE_NAME)) {
+                                drawableName = (String) json.get(JSON_ICON_DRAWABLE_NAME);
                             }
-                        } catch (Exception exception) {
-                            Log.e("IconPackManager", "loadDrawable: " +
-                                    "Malformed JSON icon store for package " + packageName);
                         }
+                    } catch (Exception exception) {
+                        Log.e("IconPackManager", "loadDrawable: " +
+                                "Malformed JSON icon store for package " + packageName);
                     }
                 }
             }
+        }
 
-            if (pack != null) {
-                CompletableFuture<Drawable> future = pack.loadDrawable(packageName, drawableName);
+        String key = iconCache.getKey(packageName, iconCache.getVersionCode(packageName),
+                pack != null ? pack.application.info.packageName : null,
+                pack != null ? pack.getVersionCode() : 0, drawableName);
+        Drawable icon = iconCache.get(key);
 
-                future.thenAccept(icon -> {
-                    if (icon == null) {
-                        icon = ImageUtils.getIcon(launcherApps, packageName);
-                    }
+        if (icon != null) {
+            deliverIcon(packageName, icon);
 
-                    final Drawable drawable = icon;
-                    UiUtils.post(() ->
-                            ProfileManager.getInstance().updateIcon(packageName, drawable));
-                });
-            } else {
-                ProfileManager.getInstance().updateIcon(packageName,
-                        ImageUtils.getIcon(launcherApps, packageName));
+            return;
+        }
+
+        if (pack == null) {
+            cacheIcon(packageName, key, null);
+
+            return;
+        }
+
+        synchronized (pendingIcons) {
+            packResolutions++;
+        }
+
+        // a pack that is not loaded yet is parsed on the bulk IO lane, continue
+        // there instead of holding a UI critical worker until the parse is done
+        ComponentName component = getLaunchComponent(packageName);
+
+        pack.loadDrawable(component, drawableName).whenComplete((drawable, throwable) -> {
+            if (throwable != null) {
+                Log.e("IconPackManager", "resolveIcon: ", throwable);
+            }
+
+            cacheIcon(packageName, key, drawable);
+
+            synchronized (pendingIcons) {
+                packResolutions--;
+
+                if (packResolutions == 0 && !resolvingIcons) {
+                    StartupTracer.end(StartupPhase.ICON_RESOLUTION);
+                }
             }
         });
     }
 
+    /**
+     * @param icon Icon loaded from a pack, or null to use the icon of the application
+     */
+    private void cacheIcon(String packageName, String key, @Nullable Drawable icon) {
+        if (icon == null) {
+            icon = ImageUtils.getIcon(launcherApps, packageName);
+        }
+
+        if (icon != null) {
+            deliverIcon(packageName, iconCache.put(key, icon));
+        }
+    }
+
+    /**
+     * Drops the cached icon of the package and loads it again. When the package
+     * is an icon pack, its index and version are reloaded as well.
+     */
+    void invalidateIcon(@NonNull String packageName) {
+        Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> {
+            IconPack pack = getPack(packageName);
+
+            if (pack != null) {
+                pack.invalidate();
+            }
+
+            launchComponents.remove(packageName);
+            iconCache.invalidate(packageName);
+            updateIcon(packageName);
+        });
+    }
+
+    /**
+     * Records the launch activity of a package from an activity list the caller
+     * already holds, so icon lookups don't have to query it again.
+     */
+    void setLaunchComponent(@NonNull ComponentName component) {
+        launchComponents.putIfAbsent(component.getPackageName(), component);
+    }
+
+    @Nullable
+    private ComponentName getLaunchComponent(@NonNull String packageName) {
+        ComponentName component = launchComponents.get(packageName);
+
+        if (component == null) {
+            List<LauncherActivityInfo> activities =
+                    launcherApps.getActivityList(packageName, Process.myUserHandle());
+
+            if (!activities.isEmpty()) {
+                component = activities.get(0).getComponentName();
+
+                launchComponents.put(packageName, component);
+            }
+        }
+
+        return component;
+    }
+
     synchronized void remove(LauncherApplication application) {
         if (application != null) {
             for (int index = 0; index < iconPacks.size(); index++) {
@@ -245,8 +436,11 @@ public final class IconPackManager {
         }
     }
 
-    synchronized void add(LauncherApplication application) {
-        if (checkPackValidity(application)) {
+    /**
+     * @param valid Whether the application was already validated as an icon pack
+     */
+    synchronized void add(LauncherApplication application, boolean valid) {
+        if (valid) {
             IconPack iconPack = new IconPack(application);
             iconPacks.add(iconPack);
 
@@ -319,7 +513,7 @@ public final class IconPackManager {
     public CompletableFuture<List<Pair<IconPack, Pair<String, Drawable>>>> getIcons(LauncherApplication application) {
         CompletableFuture<List<Pair<IconPack, Pair<String, Drawable>>>> future = new CompletableFuture<>();
 
-        Utils.submitTask(() -> {
+        Utils.submitTask(TaskScheduler.Lane.INTERACTIVE, () -> {
             try {
                 List<Pair<IconPack, Pair<String, Drawable>>> result = new ArrayList<>();
 
@@ -327,7 +521,8 @@ public final class IconPackManager {
                         ImageUtils.getIcon(launcherApps, application.info.packageName))));
 
                 for (IconPack pack : iconPacks) {
-                    List<String> drawableNames = pack.getDrawableNameList(application.info.packageName).get();
+                    List<String> drawableNames = pack.getDrawableNameList(
+                            getLaunchComponent(application.info.packageName)).get();
 
                     if (drawableNames != null && !drawableNames.isEmpty()) {
                         for (String drawableName : drawableNames) {
@@ -353,20 +548,31 @@ public final class IconPackManager {
     public class IconPack {
         private static final String TAG = "IconPackManager";
         private final LauncherApplication application;
-        private final HashMap<String, List<String>> exactComponentDrawable;
-        private final HashMap<String, List<String>> packageNameDrawables;
         private final List<Runnable> completionListeners;
         private CompletableFuture<Boolean> loadTask;
         private Resources resources;
+        private IconPackIndex index;
         private boolean cached;
+        private long versionCode;
 
         private IconPack(LauncherApplication application) {
             this.application = application;
-            this.exactComponentDrawable = new HashMap<>();
-            this.packageNameDrawables = new HashMap<>();
             this.completionListeners = Collections.synchronizedList(new ArrayList<>());
             this.loadTask = null;
+            this.index = null;
             this.cached = false;
+            this.versionCode = -1;
+        }
+
+        /**
+         * @return Version of the pack, queried once until the pack is invalidated
+         */
+        synchronized long getVersionCode() {
+            if (versionCode < 0) {
+                versionCode = iconCache.getVersionCode(application.info.packageName);
+            }
+
+            return versionCode;
         }
 
         synchronized void load(Runnable completionListener) {
@@ -384,79 +590,36 @@ public final class IconPackManager {
                 return;
             }
 
-            loadTask = Utils.submitTask(() -> {
+            loadTask = Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> {
                 try {
                     if (completionListener != null) {
                         completionListeners.add(completionListener);
                     }
 
-                    XmlPullParser parser = null;
+                    String packageName = application.info.packageName;
+                    resources = packageManager.getResourcesForApplication(packageName);
 
-                    resources = packageManager.getResourcesForApplication(application.info.packageName);
-                    int appFilterId = resources.getIdentifier("appfilter", "xml",
-                            application.info.packageName);
+                    PackageInfo packageInfo = packageManager.getPackageInfo(packageName, 0);
+                    File file = IconPackIndex.getFile(cacheDirectory, packageName,
+                            packageInfo.getLongVersionCode(), packageInfo.lastUpdateTime);
 
-                    if (appFilterId > 0) {
-                        parser = resources.getXml(appFilterId);
-                    } else {
-                        try {
-                            InputStream appFilterStream = resources.getAssets()
-                                    .open("appfilter.xml");
+                    StartupTracer.begin(StartupPhase.ICON_PACK_PARSE);
 
-                            XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
-                            factory.setNamespaceAware(true);
+                    IconPackIndex index;
 
-                            parser = factory.newPullParser();
-                            parser.setInput(appFilterStream, Xml.Encoding.UTF_8.toString());
-                        } catch (IOException exception) {
-                            Log.d(TAG, "No appfilter.xml file");
+                    try {
+                        index = IconPackIndex.read(file);
+                        if (index == null) {
+                            index = parse(file);
                         }
+                    } finally {
+                        StartupTracer.end(StartupPhase.ICON_PACK_PARSE);
                     }
 
-                    if (parser != null) {
-                        int eventType = parser.getEventType();
-
-                        while (eventType != XmlPullParser.END_DOCUMENT) {
-                            if (eventType == XmlPullParser.START_TAG) {
-                                if (parser.getName().equals("item") || parser.getName().equals("calendar")) {
-                                    String componentName = null;
-                                    String drawableName = null;
-                                    String prefix = null;
-
-                                    for (int i = 0; i < parser.getAttributeCount(); i++) {
-                                        if (parser.getAttributeName(i).equals("component")) {
-                                            componentName = parser.getAttributeValue(i);
-
-                                            if (componentName.indexOf('{') != -1 &&
-                                                    componentName.indexOf('{') + 1 < componentName.lastIndexOf('}')) {
-                                                componentName = componentName.substring(componentName.indexOf('{') + 1, componentName.lastIndexOf('}'));
-                                            }
-                                        } else if (parser.getAttributeName(i).equals("drawable")) {
-                                            drawableName = parser.getAttributeValue(i);
-                                        } else if (parser.getAttributeName(i).equals("prefix")) {
-                                            prefix = parser.getAttributeValue(i);
-                                        }
-                                    }
-
-                                    if (componentName != null && componentName.contains("/")) {
-                                        if (drawableName != null) {
-                                            saveDrawable(componentName, drawableName);
-                                        }
-
-                                        if (prefix != null) {
-                                            for (int day = 1; day <= 31; day++) {
-                                                saveDrawable(componentName, prefix + day);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                            eventType = parser.next();
-                        }
-                    }
+                    this.index = index;
 
-                    for (int index = 0; index < completionListeners.size(); index++) {
-                        completionListeners.get(index).run();
+                    for (int position = 0; position < completionListeners.size(); position++) {
+                        completionListeners.get(position).run();
                     }
 
                     completionListeners.clear();
@@ -469,58 +632,101 @@ public final class IconPackManager {
                     Log.e(TAG, "", exception);
                 }
 
+                // callers waiting on the pack should not hang if it failed to load
+                for (int position = 0; position < completionListeners.size(); position++) {
+                    completionListeners.get(position).run();
+                }
+
+                completionListeners.clear();
                 return false;
             });
 
             loadTask.thenAccept(result -> cached = result);
         }
 
-        private void saveDrawable(String componentName, String drawableName) {
-            List<String> drawables = exactComponentDrawable.get(componentName);
-            if (drawables == null) {
-                drawables = new ArrayList<>();
+        private IconPackIndex parse(File file) throws XmlPullParserException, IOException {
+            IconPackIndex.Builder builder = new IconPackIndex.Builder();
+            XmlPullParser parser = null;
 
-                drawables.add(drawableName);
+            int appFilterId = resources.getIdentifier("appfilter", "xml",
+                    application.info.packageName);
 
-                exactComponentDrawable.put(componentName, drawables);
+            if (appFilterId > 0) {
+                parser = resources.getXml(appFilterId);
             } else {
-                if (!drawables.contains(drawableName)) {
-                    drawables.add(drawableName);
+                try {
+                    InputStream appFilterStream = resources.getAssets()
+                            .open("appfilter.xml");
+
+                    XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+                    factory.setNamespaceAware(true);
+
+                    parser = factory.newPullParser();
+                    parser.setInput(appFilterStream, Xml.Encoding.UTF_8.toString());
+                } catch (IOException exception) {
+                    Log.d(TAG, "No appfilter.xml file");
                 }
             }
 
-            if (changedComponents.containsKey(componentName)) {
-                String changedComponent = changedComponents.get(componentName);
+            if (parser != null) {
+                int eventType = parser.getEventType();
 
-                drawables = exactComponentDrawable.get(changedComponent);
-                if (drawables == null) {
-                    drawables = new ArrayList<>();
-                    drawables.add(drawableName);
+                while (eventType != XmlPullParser.END_DOCUMENT) {
+                    if (eventType == XmlPullParser.START_TAG) {
+                        if (parser.getName().equals("item") || parser.getName().equals("calendar")) {
+                            String componentName = null;
+                            String drawableName = null;
+                            String prefix = null;
 
-                    exactComponentDrawable.put(changedComponent, drawables);
-                } else {
-                    if (!drawables.contains(drawableName)) {
-                        drawables.add(drawableName);
+                            for (int i = 0; i < parser.getAttributeCount(); i++) {
+                                if (parser.getAttributeName(i).equals("component")) {
+                                    componentName = parser.getAttributeValue(i);
+
+                                    if (componentName.indexOf('{') != -1 &&
+                                            componentName.indexOf('{') + 1 < componentName.lastIndexOf('}')) {
+                                        componentName = componentName.substring(componentName.indexOf('{') + 1, componentName.lastIndexOf('}'));
+                                    }
+                                } else if (parser.getAttributeName(i).equals("drawable")) {
+                                    drawableName = parser.getAttributeValue(i);
+                                } else if (parser.getAttributeName(i).equals("prefix")) {
+                                    prefix = parser.getAttributeValue(i);
+                                }
+                            }
+
+                            if (componentName != null && componentName.contains("/")) {
+                                if (drawableName != null) {
+                                    saveDrawable(builder, componentName, drawableName);
+                                }
+
+                                if (prefix != null) {
+                                    for (int day = 1; day <= 31; day++) {
+                                        saveDrawable(builder, componentName, prefix + day);
+                                    }
+                                }
+                            }
+                        }
                     }
+                    eventType = parser.next();
                 }
             }
 
-            String packageName = componentName.substring(0, componentName.indexOf('/'));
-            drawables = packageNameDrawables.get(packageName);
-            if (drawables == null) {
-                drawables = new ArrayList<>();
+            return builder.build(resources, application.info.packageName, file);
+        }
 
-                drawables.add(drawableName);
+        private void saveDrawable(IconPackIndex.Builder builder, String componentName, String drawableName) {
+            builder.add(componentName, drawableName);
 
-                packageNameDrawables.put(packageName, drawables);
-            } else {
-                if (!drawables.contains(drawableName)) {
-                    drawables.add(drawableName);
-                }
+            String changedComponent = changedComponents.get(componentName);
+            if (changedComponent != null) {
+                builder.add(changedComponent, drawableName);
             }
         }
 
         private Drawable getDrawable(String drawableName) {
+            if (resources == null) {
+                return null;
+            }
+
             int id = resources.getIdentifier(drawableName,
                     "drawable", application.info.packageName);
 
@@ -532,29 +738,26 @@ public final class IconPackManager {
         }
 
         @NonNull
-        public CompletableFuture<Drawable> loadDrawable(String packageName, String drawable) {
+        public CompletableFuture<Drawable> loadDrawable(@Nullable ComponentName component,
+                                                        String drawable) {
             CompletableFuture<Drawable> future = new CompletableFuture<>();
 
             load(() -> {
-                String drawableName = drawable;
-                Intent launchIntent = packageManager.getLaunchIntentForPackage(packageName);
-
-                if (launchIntent != null) {
-                    if (drawableName == null) {
-                        ComponentName component = launchIntent.getComponent();
-
-                        if (component != null) {
-                            List<String> drawableNames = exactComponentDrawable.get(component.getPackageName() + '/' + component.getClassName());
-
-                            if (drawableNames != null && !drawableNames.isEmpty()) {
-                                drawableName = drawableNames.get(0);
-                            }
+                if (component != null) {
+                    if (drawable != null) {
+                        future.complete(IconPack.this.getDrawable(drawable));
+                    } else if (index != null) {
+                        int componentIndex = index.findComponent(component.getPackageName(),
+                                component.getClassName());
+
+                        if (componentIndex >= 0 &&
+                                index.getComponentDrawableCount(componentIndex) > 0) {
+                            int id = index.getComponentDrawableId(componentIndex, 0);
+
+                            future.complete(id != 0 ?
+                                    ResourcesCompat.getDrawable(resources, id, null) : null);
                         }
                     }
-
-                    if (drawableName != null) {
-                        future.complete(IconPack.this.getDrawable(drawableName));
-                    }
                 }
 
                 future.complete(null);
@@ -564,17 +767,22 @@ public final class IconPackManager {
         }
 
         @NonNull
-        private CompletableFuture<List<String>> getDrawableNameList(String packageName) {
+        private CompletableFuture<List<String>> getDrawableNameList(@Nullable ComponentName component) {
             CompletableFuture<List<String>> future = new CompletableFuture<>();
 
             load(() -> {
-                Intent launchIntent = packageManager.getLaunchIntentForPackage(packageName);
+                if (component != null && index != null) {
+                    int packageIndex = index.findPackage(component.getPackageName());
 
-                if (launchIntent != null) {
-                    ComponentName component = launchIntent.getComponent();
+                    if (packageIndex >= 0) {
+                        int count = index.getPackageDrawableCount(packageIndex);
+                        List<String> drawableNames = new ArrayList<>(count);
 
-                    if (component != null) {
-                        future.complete(packageNameDrawables.get(component.getPackageName()));
+                        for (int position = 0; position < count; position++) {
+                            drawableNames.add(index.getPackageDrawableName(packageIndex, position));
+                        }
+
+                        future.complete(drawableNames);
                     }
                 }
 
@@ -598,10 +806,10 @@ public final class IconPackManager {
 
             UiUtils.post(() -> {
                 if (cached) {
-                    future.complete(exactComponentDrawable.size());
+                    future.complete(index.getComponentCount());
                 } else {
-                    Utils.submitTask(() ->
-                            load(() -> future.complete(exactComponentDrawable.size())));
+                    Utils.submitTask(TaskScheduler.Lane.BULK_IO, () ->
+                            load(() -> future.complete(index != null ? index.getComponentCount() : 0)));
                 }
             });
 
@@ -620,7 +828,10 @@ public final class IconPackManager {
         }
 
         public void invalidate() {
-            exactComponentDrawable.clear();
+            synchronized (this) {
+                versionCode = -1;
+            }
+
             cached = false;
 
             load(null);
@@ -51,7 +51,8 @@ public class LauncherApplication implements Comparable<LauncherApplication> {
         this.category = UUID.randomUUID();
         this.icon = null;
         this.handle = handle;
-        this.notificationCount = 0;
+        this.notificationCount = NotificationIndex.getInstance()
+                .getCount(info.packageName, handle);
         this.systemPackage = (info.flags & ApplicationInfo.FLAG_SYSTEM) != 0;
     }
 
@@ -87,6 +88,10 @@ public class LauncherApplication implements Comparable<LauncherApplication> {
         return handle;
     }
 
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
     @Override
     public int hashCode() {
         return info.packageName.hashCode();
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.apps;
+
+import android.app.Notification;
+import android.os.UserHandle;
+import android.service.notification.StatusBarNotification;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.stario.launcher.ui.utils.UiUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Active notification counts per application, kept up to date from the posted and
+ * removed notifications instead of rescanning all of them. Changed counts are
+ * collected and applied once per frame, so a burst of notifications from one
+ * application refreshes its icon a single time.
+ */
+public final class NotificationIndex {
+    private static NotificationIndex instance;
+
+    private final Map<Key, Set<String>> notifications;
+    private final List<NotificationListener> listeners;
+    private final Choreographer.FrameCallback flush;
+    private Set<Key> dirty;
+    private boolean scheduled;
+
+    private NotificationIndex() {
+        this.notifications = new HashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.dirty = new HashSet<>();
+        this.scheduled = false;
+        this.flush = frameTime -> flush();
+    }
+
+    public static synchronized NotificationIndex getInstance() {
+        if (instance == null) {
+            instance = new NotificationIndex();
+        }
+
+        return instance;
+    }
+
+    public void onPosted(@NonNull StatusBarNotification notification) {
+        Key key = new Key(notification.getPackageName(), notification.getUser());
+
+        synchronized (this) {
+            Set<String> keys = notifications.get(key);
+
+            // an update can turn a notification into a group summary and back
+            if (isCounted(notification)) {
+                if (keys == null) {
+                    keys = new HashSet<>();
+                    notifications.put(key, keys);
+                }
+
+                if (keys.add(notification.getKey())) {
+                    invalidate(key);
+                }
+            } else if (keys != null && keys.remove(notification.getKey())) {
+                if (keys.isEmpty()) {
+                    notifications.remove(key);
+                }
+
+                invalidate(key);
+            }
+        }
+    }
+
+    public void onRemoved(@NonNull StatusBarNotification notification) {
+        Key key = new Key(notification.getPackageName(), notification.getUser());
+
+        synchronized (this) {
+            Set<String> keys = notifications.get(key);
+
+            if (keys != null && keys.remove(notification.getKey())) {
+                if (keys.isEmpty()) {
+                    notifications.remove(key);
+                }
+
+                invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Replaces the index with a full snapshot, used when the listener (re)connects.
+     *
+     * @param active Active notifications, null to clear the index
+     */
+    public void reset(@Nullable StatusBarNotification[] active) {
+        Map<Key, Set<String>> snapshot = new HashMap<>();
+
+        if (active != null) {
+            for (StatusBarNotification notification : active) {
+                if (isCounted(notification)) {
+                    Key key = new Key(notification.getPackageName(), notification.getUser());
+                    Set<String> keys = snapshot.get(key);
+
+                    if (keys == null) {
+                        keys = new HashSet<>();
+                        snapshot.put(key, keys);
+                    }
+
+                    keys.add(notification.getKey());
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (Map.Entry<Key, Set<String>> entry : notifications.entrySet()) {
+                Set<String> keys = snapshot.get(entry.getKey());
+
+                if (keys == null || keys.size() != entry.getValue().size()) {
+                    invalidate(entry.getKey());
+                }
+            }
+
+            for (Key key : snapshot.keySet()) {
+                if (!notifications.containsKey(key)) {
+                    invalidate(key);
+                }
+            }
+
+            notifications.clear();
+            notifications.putAll(snapshot);
+        }
+    }
+
+    public synchronized int getCount(@NonNull String packageName, @NonNull UserHandle handle) {
+        Set<String> keys = notifications.get(new Key(packageName, handle));
+
+        return keys != null ? keys.size() : 0;
+    }
+
+    public void addNotificationListener(NotificationListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeNotificationListener(NotificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void invalidate(Key key) {
+        dirty.add(key);
+
+        if (!scheduled) {
+            scheduled = true;
+
+            UiUtils.postFrameCallback(flush);
+        }
+    }
+
+    private void flush() {
+        List<Key> changed;
+        List<Integer> counts;
+
+        synchronized (this) {
+            Set<Key> keys = dirty;
+
+            dirty = new HashSet<>();
+            scheduled = false;
+
+            changed = new ArrayList<>(keys);
+            counts = new ArrayList<>(keys.size());
+
+            for (Key key : changed) {
+                Set<String> active = notifications.get(key);
+
+                counts.add(active != null ? active.size() : 0);
+            }
+        }
+
+        ProfileManager profiles = ProfileManager.getInstance();
+
+        for (int index = 0; index < changed.size(); index++) {
+            Key key = changed.get(index);
+            ProfileApplicationManager manager = profiles.getProfile(key.handle);
+
+            if (manager == null) {
+                continue;
+            }
+
+            LauncherApplication application = manager.get(key.packageName);
+            int count = counts.get(index);
+
+            if (application != null && application.notificationCount != count) {
+                application.notificationCount = count;
+
+                manager.notifyUpdate(application);
+            }
+        }
+
+        for (NotificationListener listener : listeners) {
+            listener.onChanged();
+        }
+    }
+
+    private static boolean isCounted(StatusBarNotification notification) {
+        return (notification.getNotification().flags & Notification.FLAG_GROUP_SUMMARY) == 0;
+    }
+
+    public interface NotificationListener {
+        /**
+         * Called on the UI thread, at most once per frame.
+         */
+        void onChanged();
+    }
+
+    private static final class Key {
+        private final String packageName;
+        private final UserHandle handle;
+
+        private Key(String packageName, UserHandle handle) {
+            this.packageName = packageName;
+            this.handle = handle;
+        }
+
+        @Override
+        public int hashCode() {
+            return packageName.hashCode() * 31 + handle.hashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof Key) {
+                Key other = (Key) obj;
+
+                return packageName.equals(other.packageName) &&
+                        Objects.equals(handle, other.handle);
+            } else {
+                return false;
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import android.content.pm.ApplicationInfo;
 import android.content.pm.LauncherActivityInfo;
 import android.content.pm.LauncherApps;
 import android.content.pm.PackageManager;
+import android.os.Process;
 import android.os.UserHandle;
 import android.util.Log;
 
@@ -33,13 +34,19 @@ import com.stario.launcher.Stario;
 import com.stario.launcher.apps.interfaces.LauncherApplicationListener;
 import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.StartupPhase;
+import com.stario.launcher.utils.metrics.StartupTracer;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public final class ProfileApplicationManager {
     private static final String TAG = "ProfileApplicationManager";
@@ -75,7 +82,15 @@ public final class ProfileApplicationManager {
         launcherApps.registerCallback(callback);
 
         this.iconPacks = IconPackManager.from(stario);
-        Utils.submitTask(() -> loadApplications(stario));
+
+        StartupTracer.begin(StartupPhase.APPLICATION_LOAD);
+        Utils.submitTask(TaskScheduler.Lane.UI_CRITICAL, () -> {
+            try {
+                loadApplications(stario);
+            } finally {
+                StartupTracer.end(StartupPhase.APPLICATION_LOAD);
+            }
+        });
     }
 
     private LauncherApps.Callback getReceiver(LauncherApps launcherApps) {
@@ -87,6 +102,7 @@ public final class ProfileApplicationManager {
                 }
 
                 removeApplication(packageName);
+                iconPacks.invalidateIcon(packageName);
             }
 
             @Override
@@ -118,7 +134,9 @@ public final class ProfileApplicationManager {
                             removeApplication(packageName);
                         } else {
                             application.info = applicationInfo;
-                            updateApplication(application);
+
+                            iconPacks.invalidateIcon(packageName);
+                            notifyUpdate(application);
                         }
                     } else {
                         addApplication(createApplication(applicationInfo));
@@ -181,21 +199,43 @@ public final class ProfileApplicationManager {
     }
 
     private void loadApplications(Stario stario) {
+        File snapshotFile = ApplicationSnapshot.getFile(stario.getCacheDir(), handle);
+        String locales = stario.getResources().getConfiguration()
+                .getLocales().toLanguageTags();
+        Map<String, ApplicationSnapshot.Entry> snapshot = restoreSnapshot(snapshotFile, locales);
+
+        if (!snapshot.isEmpty()) {
+            notifyReady();
+        }
+
+        StartupTracer.begin(StartupPhase.ACTIVITY_LIST);
+
         LauncherApps launcherApps = stario.getSystemService(LauncherApps.class);
         List<LauncherActivityInfo> activityInfoList =
                 launcherApps.getActivityList(null, handle);
 
+        StartupTracer.end(StartupPhase.ACTIVITY_LIST);
+
         List<ApplicationInfo> iconPackApps = new ArrayList<>();
         List<ApplicationInfo> otherApps = new ArrayList<>();
+        Set<String> livePackages = new HashSet<>();
 
         for (LauncherActivityInfo activityInfo : activityInfoList) {
             ApplicationInfo applicationInfo = activityInfo.getApplicationInfo();
             if (applicationInfo == null ||
-                    BuildConfig.APPLICATION_ID.equals(applicationInfo.packageName)) {
+                    BuildConfig.APPLICATION_ID.equals(applicationInfo.packageName) ||
+                    !livePackages.add(applicationInfo.packageName)) {
                 continue;
             }
 
-            if (iconPacks.checkPackValidity(applicationInfo.packageName)) {
+            iconPacks.setLaunchComponent(activityInfo.getComponentName());
+
+            ApplicationSnapshot.Entry entry = snapshot.get(applicationInfo.packageName);
+
+            if (entry != null) {
+                // already shown from the snapshot, only reconcile what changed
+                reconcileApplication(entry, applicationInfo);
+            } else if (iconPacks.checkPackValidity(applicationInfo.packageName)) {
                 iconPackApps.add(applicationInfo);
             } else {
                 otherApps.add(applicationInfo);
@@ -204,22 +244,115 @@ public final class ProfileApplicationManager {
 
         for (ApplicationInfo appInfo : iconPackApps) {
             if (!applicationMap.containsKey(appInfo.packageName)) {
-                addApplication(createApplication(appInfo));
+                addApplication(createApplication(appInfo), true);
             }
         }
 
-        for (LauncherApplication application : applicationList) {
-            iconPacks.updateIcon(application.info.packageName);
-        }
+        // icon packs are registered now, resolve all the icons in a single pass
+        iconPacks.updateIcons(getPackageNames());
 
         for (ApplicationInfo appInfo : otherApps) {
             if (!applicationMap.containsKey(appInfo.packageName)) {
-                addApplication(createApplication(appInfo));
+                addApplication(createApplication(appInfo), false);
+            }
+        }
+
+        for (String packageName : snapshot.keySet()) {
+            if (!livePackages.contains(packageName)) {
+                removeApplication(packageName);
             }
         }
 
+        saveSnapshot(snapshotFile, locales);
+        notifyReady();
+    }
+
+    private Map<String, ApplicationSnapshot.Entry> restoreSnapshot(File snapshotFile, String locales) {
+        Map<String, ApplicationSnapshot.Entry> snapshot = new HashMap<>();
+
+        for (ApplicationSnapshot.Entry entry : ApplicationSnapshot.read(snapshotFile, handle, locales)) {
+            if (entry.hidden != !isVisibleToUser(entry.packageName)) {
+                // hidden state changed after the snapshot was taken, let the live load handle it
+                continue;
+            }
+
+            // renames and category changes are stored in preferences, which are
+            // current even when they happened after the snapshot was taken
+            ApplicationInfo applicationInfo = entry.toApplicationInfo();
+            LauncherApplication application = new LauncherApplication(applicationInfo, handle,
+                    applicationLabels.getString(entry.packageName, entry.label));
+            application.category = CategoryManager.getInstance()
+                    .getCategoryIdentifier(applicationInfo, handle);
+
+            snapshot.put(entry.packageName, entry);
+            addApplication(application, entry.iconPack);
+        }
+
+        return snapshot;
+    }
+
+    private void reconcileApplication(ApplicationSnapshot.Entry entry, ApplicationInfo applicationInfo) {
+        LauncherApplication application = applicationMap.get(entry.packageName);
+
+        if (application == null) {
+            return;
+        }
+
+        boolean updated = entry.lastUpdateTime != ApplicationSnapshot.getLastUpdateTime(applicationInfo);
+
+        // a label reset by the user is only known to the package
+        if (!updated && (!entry.customLabel ||
+                applicationLabels.contains(entry.packageName))) {
+            application.info = applicationInfo;
+
+            return;
+        }
+
+        LauncherApplication updatedApplication = createApplication(applicationInfo);
+        boolean iconPack = iconPacks.checkPackValidity(entry.packageName);
+
+        if (!updatedApplication.label.equals(application.label) ||
+                !updatedApplication.category.equals(application.category) ||
+                entry.iconPack != iconPack) {
+            removeApplication(entry.packageName);
+            addApplication(updatedApplication, iconPack);
+        } else {
+            application.info = applicationInfo;
+
+            if (updated) {
+                iconPacks.invalidateIcon(entry.packageName);
+            }
+
+            notifyUpdate(application);
+        }
+    }
+
+    private void saveSnapshot(File snapshotFile, String locales) {
+        List<ApplicationSnapshot.Entry> entries = new ArrayList<>();
+
+        synchronized (applicationList) {
+            for (LauncherApplication application : applicationList) {
+                entries.add(new ApplicationSnapshot.Entry(application,
+                        !isVisibleToUser(application),
+                        iconPacks.getPack(application.info.packageName) != null,
+                        applicationLabels.contains(application.info.packageName)));
+            }
+        }
+
+        ApplicationSnapshot.write(snapshotFile, handle, locales, entries);
+    }
+
+    private void notifyReady() {
+        if (loaded) {
+            return;
+        }
+
         loaded = true;
         UiUtils.post(() -> {
+            if (handle.equals(Process.myUserHandle())) {
+                StartupTracer.mark(StartupPhase.DRAWER_READY);
+            }
+
             for (OnLoadReadyListener listener : readyListeners) {
                 listener.onReady(this);
             }
@@ -250,8 +383,24 @@ public final class ProfileApplicationManager {
     }
 
     void update() {
-        for (int index = 0; index < applicationList.size(); index++) {
-            updateApplication(applicationList.get(index));
+        iconPacks.updateIcons(getPackageNames());
+
+        synchronized (applicationList) {
+            for (LauncherApplication application : applicationList) {
+                notifyUpdate(application);
+            }
+        }
+    }
+
+    private List<String> getPackageNames() {
+        synchronized (applicationList) {
+            List<String> packageNames = new ArrayList<>(applicationList.size());
+
+            for (LauncherApplication application : applicationList) {
+                packageNames.add(application.info.packageName);
+            }
+
+            return packageNames;
         }
     }
 
@@ -299,7 +448,9 @@ public final class ProfileApplicationManager {
         String label = applicationLabels.getString(applicationInfo.packageName, null);
 
         if (label == null) {
+            StartupTracer.begin(StartupPhase.LABELS);
             label = applicationInfo.loadLabel(packageManager).toString();
+            StartupTracer.end(StartupPhase.LABELS);
         }
 
         return label;
@@ -359,7 +510,11 @@ public final class ProfileApplicationManager {
         return visibleApplicationList.size();
     }
 
-    private synchronized void addApplication(LauncherApplication application) {
+    private void addApplication(LauncherApplication application) {
+        addApplication(application, iconPacks.checkPackValidity(application));
+    }
+
+    private synchronized void addApplication(LauncherApplication application, boolean iconPack) {
         applicationMap.put(application.info.packageName, application);
 
         addApplicationToList(application, applicationList);
@@ -373,7 +528,7 @@ public final class ProfileApplicationManager {
             }
         }
 
-        iconPacks.add(application);
+        iconPacks.add(application, iconPack);
         iconPacks.updateIcon(application.info.packageName);
 
         CategoryManager.getInstance()
@@ -34,6 +34,8 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 import com.stario.launcher.Stario;
 import com.stario.launcher.apps.interfaces.LauncherProfileListener;
 import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.StartupPhase;
+import com.stario.launcher.utils.metrics.StartupTracer;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -65,11 +67,15 @@ public final class ProfileManager {
         this.profilesList = new ArrayList<>();
         this.profilesMap = new HashMap<>();
 
+        StartupTracer.begin(StartupPhase.CATEGORY_BUILD);
         CategoryManager.from(stario);
+        StartupTracer.end(StartupPhase.CATEGORY_BUILD);
 
         LauncherApps launcherApps = (LauncherApps) stario.getSystemService(Context.LAUNCHER_APPS_SERVICE);
         UserManager userManager = (UserManager) stario.getSystemService(Context.USER_SERVICE);
 
+        StartupTracer.begin(StartupPhase.PROFILE_ENUMERATION);
+
         // work profiles will always be created after the owner
         List<UserHandle> profiles = launcherApps.getProfiles();
         profiles.sort((handle1, handle2) -> {
@@ -79,6 +85,8 @@ public final class ProfileManager {
             return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
         });
 
+        StartupTracer.end(StartupPhase.PROFILE_ENUMERATION);
+
         for (int index = 0; index < profiles.size(); index++) {
             UserHandle handle = profiles.get(index);
 
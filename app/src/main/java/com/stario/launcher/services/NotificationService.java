@@ -17,22 +17,15 @@
 
 package com.stario.launcher.services;
 
-import android.annotation.SuppressLint;
-import android.app.Notification;
-import android.content.Intent;
 import android.service.notification.NotificationListenerService;
 import android.service.notification.StatusBarNotification;
 import android.util.Log;
 
-import java.util.HashMap;
+import com.stario.launcher.apps.NotificationIndex;
 
 public class NotificationService extends NotificationListenerService {
     private static final String TAG = "NotificationService";
     public static final String NOTIFICATION_DOTS = "com.stario.NOTIFICATION_DOTS";
-    public static final String NOTIFICATIONS_EVENT = "com.stario.launcher.NOTIFICATIONS_LISTENER_EVENT";
-    public static final String UPDATE_NOTIFICATIONS = "com.stario.launcher.UPDATE_NOTIFICATIONS";
-    public static final String TARGET_NOTIFICATION = "com.stario.launcher.TARGET_NOTIFICATION";
-    public static final String NOTIFICATION_COUNT = "com.stario.launcher.NOTIFICATION_COUNT";
     private static NotificationService instance;
 
     public static NotificationService getInstance() {
@@ -42,7 +35,7 @@ public class NotificationService extends NotificationListenerService {
     @Override
     public void onNotificationPosted(StatusBarNotification notification) {
         try {
-            sendBroadcastForNotification(notification);
+            NotificationIndex.getInstance().onPosted(notification);
         } catch (Exception exception) {
             Log.e(TAG, "onNotificationPosted: " + exception);
         }
@@ -53,7 +46,7 @@ public class NotificationService extends NotificationListenerService {
     @Override
     public void onNotificationRemoved(StatusBarNotification notification) {
         try {
-            sendBroadcastForNotification(notification);
+            NotificationIndex.getInstance().onRemoved(notification);
         } catch (Exception exception) {
             Log.e(TAG, "onNotificationRemoved: " + exception);
         }
@@ -66,12 +59,7 @@ public class NotificationService extends NotificationListenerService {
         instance = this;
 
         try {
-            Intent intent = new Intent();
-            intent.setAction(NOTIFICATIONS_EVENT);
-
-            intent.putExtra(TARGET_NOTIFICATION,
-                    convertToNotificationMap(getActiveNotifications()));
-            sendBroadcast(intent);
+            NotificationIndex.getInstance().reset(getActiveNotifications());
         } catch (Exception exception) {
             Log.e(TAG, "onListenerConnected: " + exception.getMessage());
         }
@@ -79,42 +67,15 @@ public class NotificationService extends NotificationListenerService {
         super.onListenerConnected();
     }
 
-    @SuppressWarnings("ConstantConditions")
-    public static HashMap<String, Integer> convertToNotificationMap(StatusBarNotification[] notifications) {
-        HashMap<String, Integer> notificationMap = new HashMap<>();
-
-        if (notifications != null) {
-            for (StatusBarNotification notification : notifications) {
-                String packageName = notification.getPackageName();
-
-                if (!((notification.getNotification().flags & Notification.FLAG_GROUP_SUMMARY) ==
-                        Notification.FLAG_GROUP_SUMMARY)) {
-                    notificationMap.put(packageName,
-                            notificationMap.getOrDefault(packageName, 0) + 1);
-                }
-            }
-        }
-
-        return notificationMap;
-    }
-
-    @SuppressLint("UnsafeImplicitIntentLaunch")
-    private void sendBroadcastForNotification(StatusBarNotification notification) {
-        Intent intent = new Intent();
-        intent.setAction(UPDATE_NOTIFICATIONS);
+    @Override
+    public void onListenerDisconnected() {
+        // counts can no longer be kept up to date, drop the dots
+        NotificationIndex.getInstance().reset(null);
 
-        int count = 0;
-        for (StatusBarNotification statusBarNotification : getActiveNotifications()) {
-            if (statusBarNotification.getPackageName().equals(notification.getPackageName()) &&
-                    !((statusBarNotification.getNotification().flags & Notification.FLAG_GROUP_SUMMARY) ==
-                            Notification.FLAG_GROUP_SUMMARY)) {
-                count++;
-            }
+        if (instance == this) {
+            instance = null;
         }
 
-        intent.putExtra(TARGET_NOTIFICATION, notification.getPackageName());
-        intent.putExtra(NOTIFICATION_COUNT, count);
-
-        sendBroadcast(intent);
+        super.onListenerDisconnected();
     }
 }
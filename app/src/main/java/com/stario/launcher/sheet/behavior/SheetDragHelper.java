@@ -20,6 +20,7 @@
 package com.stario.launcher.sheet.behavior;
 
 import android.content.Context;
+import android.os.Trace;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
@@ -34,6 +35,9 @@ import androidx.annotation.Nullable;
 import androidx.annotation.Px;
 import androidx.core.view.ViewCompat;
 
+import com.stario.launcher.utils.metrics.FrameMonitor;
+import com.stario.launcher.utils.metrics.Interaction;
+
 import java.util.Arrays;
 
 /**
@@ -648,6 +652,12 @@ public class SheetDragHelper {
     void setDragState(int state) {
         mParentView.removeCallbacks(mSetIdleRunnable);
         if (mDragState != state) {
+            if (state == STATE_IDLE) {
+                FrameMonitor.getInstance().end(Interaction.SHEET_DRAG);
+            } else {
+                FrameMonitor.getInstance().begin(Interaction.SHEET_DRAG, mParentView);
+            }
+
             mDragState = state;
             mCallback.onViewDragStateChanged(state);
             if (mDragState == STATE_IDLE) {
@@ -997,24 +1007,30 @@ public class SheetDragHelper {
     }
 
     private void dragTo(int left, int top, int dx, int dy) {
-        int clampedX = left;
-        int clampedY = top;
-        final int oldLeft = mCapturedView.getLeft();
-        final int oldTop = mCapturedView.getTop();
-        if (dx != 0) {
-            clampedX = mCallback.clampViewPositionHorizontal(mCapturedView, left, dx);
-            ViewCompat.offsetLeftAndRight(mCapturedView, clampedX - oldLeft);
-        }
-        if (dy != 0) {
-            clampedY = mCallback.clampViewPositionVertical(mCapturedView, top, dy);
-            ViewCompat.offsetTopAndBottom(mCapturedView, clampedY - oldTop);
-        }
+        Trace.beginSection("SheetDragHelper.dragTo");
+
+        try {
+            int clampedX = left;
+            int clampedY = top;
+            final int oldLeft = mCapturedView.getLeft();
+            final int oldTop = mCapturedView.getTop();
+            if (dx != 0) {
+                clampedX = mCallback.clampViewPositionHorizontal(mCapturedView, left, dx);
+                ViewCompat.offsetLeftAndRight(mCapturedView, clampedX - oldLeft);
+            }
+            if (dy != 0) {
+                clampedY = mCallback.clampViewPositionVertical(mCapturedView, top, dy);
+                ViewCompat.offsetTopAndBottom(mCapturedView, clampedY - oldTop);
+            }
 
-        if (dx != 0 || dy != 0) {
-            final int clampedDx = clampedX - oldLeft;
-            final int clampedDy = clampedY - oldTop;
-            mCallback.onViewPositionChanged(mCapturedView, clampedX, clampedY,
-                    clampedDx, clampedDy);
+            if (dx != 0 || dy != 0) {
+                final int clampedDx = clampedX - oldLeft;
+                final int clampedDy = clampedY - oldTop;
+                mCallback.onViewPositionChanged(mCapturedView, clampedX, clampedY,
+                        clampedDx, clampedDy);
+            }
+        } finally {
+            Trace.endSection();
         }
     }
 
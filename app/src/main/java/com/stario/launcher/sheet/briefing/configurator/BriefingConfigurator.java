@@ -47,6 +47,7 @@ import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.common.text.PulsingTextView;
 import com.stario.launcher.ui.dialogs.ActionDialog;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
 import org.jetbrains.annotations.NotNull;
@@ -141,7 +142,7 @@ public class BriefingConfigurator extends ActionDialog {
                 String finalValidUrl = validUrl;
                 debounceRunnable = () -> {
                     showStatus(R.string.searching, true);
-                    currentSearchTask = Utils.submitTask(
+                    currentSearchTask = Utils.submitTask(TaskScheduler.Lane.INTERACTIVE,
                             new FeedDiscoveryTask(activity.getApplicationContext(),
                                     new String[]{
                                             finalValidUrl,
@@ -37,7 +37,7 @@ import com.stario.launcher.R;
 import com.stario.launcher.sheet.SheetType;
 import com.stario.launcher.sheet.briefing.dialog.BriefingDialog;
 import com.stario.launcher.sheet.briefing.dialog.page.feed.BriefingFeedList;
-import com.stario.launcher.sheet.briefing.rss.RSSHelper;
+import com.stario.launcher.sheet.briefing.rss.FeedCache;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.Measurements;
 import com.stario.launcher.ui.common.scrollers.CustomSwipeRefreshLayout;
@@ -48,6 +48,7 @@ import com.stario.launcher.ui.recyclers.overscroll.OverScrollRecyclerView;
 import com.stario.launcher.ui.utils.LayoutSizeObserver;
 import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.ui.utils.animation.Animation;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
 import java.util.List;
@@ -213,12 +214,11 @@ public class FeedPage extends Fragment {
             return;
         }
 
-        if (!adapter.shouldUpdate()) {
-            if (adapter.getItemCount() == 0) {
-                showErrorState();
-            } else {
-                showContentState(false);
-            }
+        boolean refresh = adapter.shouldUpdate();
+        boolean empty = adapter.getItemCount() == 0;
+
+        if (!refresh && !empty) {
+            showContentState(false);
 
             return;
         }
@@ -227,7 +227,7 @@ public class FeedPage extends Fragment {
         exceptionView.setVisibility(View.GONE);
         recyclerView.clearAnimation();
 
-        if (adapter.getItemCount() == 0) {
+        if (empty) {
             fetchingView.setVisibility(View.VISIBLE);
             swipeRefreshLayout.setVisibility(View.INVISIBLE);
             recyclerView.setAlpha(0f);
@@ -236,22 +236,38 @@ public class FeedPage extends Fragment {
             swipeRefreshLayout.setRefreshing(true);
         }
 
-        runningTask = Utils.submitTask(() -> {
-            List<RssItem> items = RSSHelper
-                    .parse(BriefingFeedList.getInstance()
-                            .get(position).getRSSLink());
+        String url = BriefingFeedList.getInstance()
+                .get(position).getRSSLink();
+        FeedCache cache = FeedCache.from(activity);
+
+        runningTask = Utils.submitTask(TaskScheduler.Lane.BACKGROUND, () -> {
+            if (empty) {
+                // render the last known articles while the feed is revalidated
+                List<RssItem> cached = cache.getCached(url);
+
+                if (cached != null) {
+                    UiUtils.post(() -> {
+                        adapter.restore(cached);
+
+                        if (adapter.getItemCount() > 0) {
+                            showContentState(true);
+                            swipeRefreshLayout.setRefreshing(refresh);
+                        }
+                    });
+                }
+            }
+
+            List<RssItem> items = refresh ? cache.fetch(url) : null;
 
             UiUtils.post(() -> {
                 if (items != null) {
                     adapter.update(items);
+                }
 
-                    if (adapter.getItemCount() == 0) {
-                        showErrorState();
-                    } else {
-                        showContentState(true);
-                    }
-                } else {
+                if (adapter.getItemCount() == 0) {
                     showErrorState();
+                } else {
+                    showContentState(items != null);
                 }
             });
         });
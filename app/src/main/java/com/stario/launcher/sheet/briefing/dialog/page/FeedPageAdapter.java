@@ -80,6 +80,19 @@ class FeedPageAdapter extends RecyclerView.Adapter<FeedPageAdapter.ViewHolder> {
     }
 
     public void update(@NonNull List<RssItem> items) {
+        if (apply(items)) {
+            lastUpdate = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Shows items restored from the feed cache, they do not count as an update.
+     */
+    public void restore(@NonNull List<RssItem> items) {
+        apply(items);
+    }
+
+    private boolean apply(List<RssItem> items) {
         List<RssItem> filteredList = new ArrayList<>();
 
         for (RssItem item : items) {
@@ -98,8 +111,10 @@ class FeedPageAdapter extends RecyclerView.Adapter<FeedPageAdapter.ViewHolder> {
 
             diffResult.dispatchUpdatesTo(this);
 
-            lastUpdate = System.currentTimeMillis();
+            return true;
         }
+
+        return false;
     }
 
     public boolean shouldUpdate() {
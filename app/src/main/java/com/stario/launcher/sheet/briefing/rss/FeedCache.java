@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.briefing.rss;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.prof18.rssparser.RssParser;
+import com.prof18.rssparser.RssParserBuilder;
+import com.prof18.rssparser.model.RssItem;
+import com.stario.launcher.utils.HttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Persistent cache of briefing feeds. The raw body of every feed is stored along
+ * with its validators, so refreshes are conditional requests and an unchanged feed
+ * is neither downloaded nor parsed again. Parsed items are kept in memory and are
+ * restored from the stored body after the process is killed.
+ */
+public final class FeedCache {
+    private static final String TAG = "FeedCache";
+    private static final String DIRECTORY = "feeds";
+    private static final int MAGIC = 0x53544652; // STFR
+    private static final int VERSION = 1;
+
+    private static FeedCache instance;
+
+    private final Map<String, List<RssItem>> items;
+    private final File directory;
+    private final RssParser parser;
+
+    private FeedCache(Context context) {
+        this.items = new ConcurrentHashMap<>();
+        this.directory = new File(context.getCacheDir(), DIRECTORY);
+        this.parser = new RssParserBuilder().build();
+    }
+
+    public static synchronized FeedCache from(@NonNull Context context) {
+        if (instance == null) {
+            instance = new FeedCache(context.getApplicationContext());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Blocking, does not touch the network.
+     *
+     * @return The last known items of the feed, or null if it was never fetched
+     */
+    @Nullable
+    public List<RssItem> getCached(@NonNull String url) {
+        List<RssItem> cached = items.get(url);
+
+        if (cached == null) {
+            String body = readBody(url);
+
+            if (body != null) {
+                cached = parse(body);
+
+                if (cached != null) {
+                    items.put(url, cached);
+                }
+            }
+        }
+
+        return cached;
+    }
+
+    /**
+     * Blocking. Revalidates the feed with the server, parsing it only if it changed.
+     *
+     * @return The current items of the feed, or null if it could not be retrieved
+     */
+    @Nullable
+    public List<RssItem> fetch(@NonNull String url) {
+        Metadata metadata = readMetadata(url);
+        Request.Builder builder = new Request.Builder()
+                .url(url)
+                // the body is stored here, keep it out of the shared HTTP cache
+                .cacheControl(new CacheControl.Builder().noStore().build());
+
+        if (metadata != null) {
+            if (!metadata.etag.isEmpty()) {
+                builder.header("If-None-Match", metadata.etag);
+            }
+
+            if (!metadata.lastModified.isEmpty()) {
+                builder.header("If-Modified-Since", metadata.lastModified);
+            }
+        }
+
+        try (Response response = HttpClient.newCall(HttpClient.Feature.FEEDS,
+                builder.build()).execute()) {
+            if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                List<RssItem> cached = metadata != null ? getCached(url) : null;
+
+                if (cached == null) {
+                    // validators outlived the stored body, ask for the full feed
+                    //noinspection ResultOfMethodCallIgnored
+                    getFile(url, ".meta").delete();
+
+                    return metadata != null ? fetch(url) : null;
+                }
+
+                return cached;
+            } else if (!response.isSuccessful()) {
+                Log.w(TAG, "fetch: Server returned non-OK status: " + response.code());
+
+                return null;
+            }
+
+            String body = response.body().string();
+            List<RssItem> parsed = parse(body);
+
+            if (parsed != null) {
+                items.put(url, parsed);
+
+                write(url, body, new Metadata(orEmpty(response.header("ETag")),
+                        orEmpty(response.header("Last-Modified"))));
+            }
+
+            return parsed;
+        } catch (IOException | IllegalArgumentException exception) {
+            Log.e(TAG, "fetch: ", exception);
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private List<RssItem> parse(String body) {
+        try {
+            return RSSHelperKt.parseRaw(parser, body).get().getItems();
+        } catch (Exception exception) {
+            Log.e(TAG, "parse: ", exception);
+        }
+
+        return null;
+    }
+
+    private File getFile(String url, String extension) {
+        return new File(directory, UUID.nameUUIDFromBytes(
+                url.getBytes(StandardCharsets.UTF_8)) + extension);
+    }
+
+    @Nullable
+    private String readBody(String url) {
+        File file = getFile(url, ".xml");
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            return new String(new AtomicFile(file).readFully(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            Log.e(TAG, "readBody: ", exception);
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private Metadata readMetadata(String url) {
+        File file = getFile(url, ".meta");
+
+        if (!file.exists() || !getFile(url, ".xml").exists()) {
+            return null;
+        }
+
+        try (FileInputStream stream = new AtomicFile(file).openRead();
+             DataInputStream input = new DataInputStream(stream)) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+
+            return new Metadata(input.readUTF(), input.readUTF());
+        } catch (IOException exception) {
+            Log.e(TAG, "readMetadata: Discarding unreadable metadata.", exception);
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+
+        return null;
+    }
+
+    private void write(String url, String body, Metadata metadata) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "write: Cannot create " + directory);
+
+            return;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(metadata.etag);
+            output.writeUTF(metadata.lastModified);
+            output.flush();
+
+            // body first, so validators never describe a body that was not stored
+            if (write(getFile(url, ".xml"), body.getBytes(StandardCharsets.UTF_8))) {
+                write(getFile(url, ".meta"), bytes.toByteArray());
+            }
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+        }
+    }
+
+    private static boolean write(File file, byte[] data) {
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream stream = null;
+
+        try {
+            stream = atomicFile.startWrite();
+            stream.write(data);
+
+            atomicFile.finishWrite(stream);
+
+            return true;
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+
+            if (stream != null) {
+                atomicFile.failWrite(stream);
+            }
+        }
+
+        return false;
+    }
+
+    private static String orEmpty(@Nullable String value) {
+        return value != null ? value : "";
+    }
+
+    private static final class Metadata {
+        private final String etag;
+        private final String lastModified;
+
+        private Metadata(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -17,20 +17,15 @@
 
 package com.stario.launcher.sheet.briefing.rss;
 
-import android.util.Log;
-
 import com.prof18.rssparser.RssParser;
 import com.prof18.rssparser.RssParserBuilder;
 import com.prof18.rssparser.model.RssChannel;
-import com.prof18.rssparser.model.RssItem;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class RSSHelper {
-    private static final String TAG = "RSSHelper";
     private static RssParser reader;
 
     private RSSHelper() {
@@ -43,20 +38,4 @@ public class RSSHelper {
 
         return RSSHelperKt.parseFeed(reader, url);
     }
-
-    public static List<RssItem> parse(String url) {
-        if (reader == null) {
-            reader = new RssParserBuilder().build();
-        }
-
-        try {
-            RssChannel channel = RSSHelperKt.parseFeed(reader, url).get();
-
-            return channel.getItems();
-        } catch (Exception exception) {
-            Log.e(TAG, "parse: ", exception);
-        }
-
-        return null;
-    }
 }
@@ -32,5 +32,12 @@ class RSSHelperKt {
             GlobalScope.future {
                 parser.getRssChannel(url)
             }
+
+        @JvmStatic
+        @OptIn(DelicateCoroutinesApi::class)
+        fun parseRaw(parser: RssParser, body: String): CompletableFuture<RssChannel> =
+            GlobalScope.future {
+                parser.parse(body)
+            }
     }
 }
\ No newline at end of file
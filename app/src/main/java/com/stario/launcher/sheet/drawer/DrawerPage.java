@@ -42,6 +42,8 @@ import com.stario.launcher.ui.Measurements;
 import com.stario.launcher.ui.recyclers.overscroll.OverScrollEffect;
 import com.stario.launcher.ui.recyclers.overscroll.OverScrollRecyclerView;
 import com.stario.launcher.ui.utils.animation.Animation;
+import com.stario.launcher.utils.metrics.FrameMonitor;
+import com.stario.launcher.utils.metrics.Interaction;
 
 public abstract class DrawerPage extends Fragment implements ScrollToTop {
     private RelativeLayout titleContainer;
@@ -90,6 +92,15 @@ public abstract class DrawerPage extends Fragment implements ScrollToTop {
         drawer.addOnLayoutChangeListener((v, left, top, right, bottom,
                                           oldLeft, oldTop, oldRight, oldBottom) -> updateTitleTransforms(drawer));
         drawer.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    FrameMonitor.getInstance().end(Interaction.DRAWER_SCROLL);
+                } else {
+                    FrameMonitor.getInstance().begin(Interaction.DRAWER_SCROLL, recyclerView);
+                }
+            }
+
             @Override
             public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
                 updateTitleTransforms(drawer);
@@ -238,6 +249,7 @@ public abstract class DrawerPage extends Fragment implements ScrollToTop {
 
     @Override
     public void onDestroyView() {
+        FrameMonitor.getInstance().end(Interaction.DRAWER_SCROLL);
         drawer.setAdapter(null);
 
         super.onDestroyView();
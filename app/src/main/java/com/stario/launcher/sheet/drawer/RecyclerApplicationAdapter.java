@@ -202,7 +202,8 @@ public abstract class RecyclerApplicationAdapter
                                     icon.animate().scaleY(1)
                                             .scaleX(1)
                                             .setInterpolator(new DecelerateInterpolator())
-                                            .setDuration(Animation.SHORT.getDuration());
+                                            .setDuration(Animation.SHORT.getDuration())
+                                            .withLayer();
                                 }
                             },
                             this,
@@ -391,9 +392,9 @@ public abstract class RecyclerApplicationAdapter
         if (application != LauncherApplication.FALLBACK_APP) {
             viewHolder.setLabel(application.getLabel());
 
-            // TODO: notification dots
             if (viewHolder.notification != null) {
-                viewHolder.notification.setVisibility(View.GONE);
+                viewHolder.notification.setVisibility(application.getNotificationCount() > 0 ?
+                        View.VISIBLE : View.GONE);
             }
 
             viewHolder.icon.setApplication(application);
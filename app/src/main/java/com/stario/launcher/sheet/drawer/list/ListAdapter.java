@@ -135,12 +135,14 @@ public class ListAdapter extends RecyclerApplicationAdapter
                 if (currentView != null) {
                     currentView.animate().scaleX(AdaptiveIconView.MAX_SCALE)
                             .scaleY(AdaptiveIconView.MAX_SCALE)
-                            .setDuration(Animation.MEDIUM.getDuration());
+                            .setDuration(Animation.MEDIUM.getDuration())
+                            .withLayer();
                 }
 
                 if (lastView != null) {
                     lastView.animate().scaleX(1).scaleY(1)
-                            .setDuration(Animation.MEDIUM.getDuration());
+                            .setDuration(Animation.MEDIUM.getDuration())
+                            .withLayer();
                 }
             }
         }
@@ -169,6 +171,7 @@ public class ListAdapter extends RecyclerApplicationAdapter
                 currentView.animate().scaleX(1)
                         .scaleY(1)
                         .setDuration(Animation.MEDIUM.getDuration())
+                        .withLayer()
                         .setListener(new AnimatorListenerAdapter() {
                             @Override
                             public void onAnimationCancel(Animator animation) {
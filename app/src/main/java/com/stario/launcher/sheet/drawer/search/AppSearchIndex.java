@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.drawer.search;
+
+import android.os.UserHandle;
+
+import androidx.annotation.NonNull;
+
+import com.stario.launcher.apps.LauncherApplication;
+import com.stario.launcher.apps.ProfileApplicationManager;
+import com.stario.launcher.apps.ProfileManager;
+import com.stario.launcher.apps.interfaces.LauncherApplicationListener;
+import com.stario.launcher.apps.interfaces.LauncherProfileListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Search index over the labels and package names of every profile, ranked by
+ * {@link LabelIndex}. The index is kept up to date from the application listeners
+ * of each profile and rebuilt when the profiles change.
+ */
+public final class AppSearchIndex {
+    private static AppSearchIndex instance;
+
+    private final LabelIndex<LauncherApplication> index;
+    private final Map<ProfileApplicationManager, LauncherApplicationListener> listeners;
+    private final Predicate<LauncherApplication> visible;
+    private boolean synced;
+
+    private AppSearchIndex() {
+        this.index = new LabelIndex<>();
+        this.listeners = new HashMap<>();
+        this.visible = AppSearchIndex::isVisibleToUser;
+        this.synced = false;
+
+        ProfileManager.getInstance()
+                .addLauncherProfileListener(new LauncherProfileListener() {
+                    @Override
+                    public void onInserted(UserHandle handle) {
+                        invalidate();
+                    }
+
+                    @Override
+                    public void onRemoved(UserHandle handle) {
+                        invalidate();
+                    }
+                });
+    }
+
+    public static synchronized AppSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new AppSearchIndex();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Ranks applications matching the query: label prefixes, label substrings,
+     * package name segments and then labels close to the query. Buffers are reused
+     * between calls, so typing does not allocate besides growing the results list.
+     *
+     * @param text    Raw query
+     * @param hidden  Whether applications hidden by the user can be returned
+     * @param limit   Maximum number of results
+     * @param results Cleared and filled with the ranked applications
+     */
+    public synchronized void search(@NonNull CharSequence text, boolean hidden,
+                                    int limit, @NonNull List<LauncherApplication> results) {
+        sync();
+
+        index.search(text, hidden ? null : visible, limit, results);
+    }
+
+    private static boolean isVisibleToUser(LauncherApplication application) {
+        ProfileApplicationManager manager =
+                ProfileManager.getInstance().getProfile(application.getProfile());
+
+        return manager != null && manager.isVisibleToUser(application);
+    }
+
+    /**
+     * Hidden applications are not announced to listeners when they are added,
+     * so the index is rebuilt whenever its size falls out of sync with the profiles.
+     */
+    private void sync() {
+        List<ProfileApplicationManager> profiles = ProfileManager.getInstance().getProfiles();
+        int total = 0;
+
+        for (ProfileApplicationManager manager : profiles) {
+            total += manager.getActualSize();
+        }
+
+        if (synced && total == index.size()) {
+            return;
+        }
+
+        Iterator<Map.Entry<ProfileApplicationManager, LauncherApplicationListener>> iterator =
+                listeners.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<ProfileApplicationManager, LauncherApplicationListener> listener = iterator.next();
+
+            if (!profiles.contains(listener.getKey())) {
+                listener.getKey().removeApplicationListener(listener.getValue());
+                iterator.remove();
+            }
+        }
+
+        index.clear();
+
+        for (ProfileApplicationManager manager : profiles) {
+            if (!listeners.containsKey(manager)) {
+                LauncherApplicationListener listener = new IndexListener();
+
+                manager.addApplicationListener(listener);
+                listeners.put(manager, listener);
+            }
+
+            for (int position = 0; position < manager.getActualSize(); position++) {
+                LauncherApplication application = manager.get(position, true);
+
+                if (application != null) {
+                    index.add(application, application.getLabel(),
+                            application.getInfo().packageName);
+                }
+            }
+        }
+
+        index.sort();
+
+        synced = true;
+    }
+
+    private synchronized void invalidate() {
+        synced = false;
+    }
+
+    private synchronized void insert(LauncherApplication application) {
+        if (synced) {
+            index.insert(application, application.getLabel(),
+                    application.getInfo().packageName);
+        }
+    }
+
+    private synchronized void remove(LauncherApplication application) {
+        if (synced) {
+            index.remove(application);
+        }
+    }
+
+    private synchronized void relabel(LauncherApplication application) {
+        if (!synced) {
+            return;
+        }
+
+        String label = index.getLabel(application);
+
+        if (label != null && !label.equals(application.getLabel())) {
+            insert(application);
+        }
+    }
+
+    /**
+     * @return The text in lower case, without diacritics. The folded text has the
+     * same length as the source, so offsets can be used to highlight the source.
+     */
+    @NonNull
+    public static String fold(@NonNull CharSequence text) {
+        return LabelIndex.fold(text);
+    }
+
+    private final class IndexListener implements LauncherApplicationListener {
+        @Override
+        public void onInserted(LauncherApplication application) {
+            insert(application);
+        }
+
+        @Override
+        public void onRemoved(LauncherApplication application) {
+            remove(application);
+        }
+
+        @Override
+        public void onUpdated(LauncherApplication application) {
+            relabel(application);
+        }
+    }
+}
@@ -147,4 +147,151 @@ public class JaroWinklerDistance {
         }
         return new int[]{matches, transpositions / 2, prefix, max.length()};
     }
-}
\ No newline at end of file
+
+    /**
+     * Threshold aware variant of {@link #getScore(CharSequence, CharSequence)} working on
+     * character arrays with reused scratch buffers. It gives up as soon as the remaining
+     * characters cannot lift the score to the threshold. The score is not rounded.
+     *
+     * @param left        the first text, must not be null
+     * @param leftLength  number of characters of left to compare
+     * @param right       the second text, must not be null
+     * @param rightLength number of characters of right to compare
+     * @param threshold   minimum score of interest
+     * @return the score, or 0 if it is lower than threshold
+     */
+    public static double getScore(final char[] left, final int leftLength,
+                                  final char[] right, final int rightLength, final double threshold) {
+        final char[] min;
+        final char[] max;
+        final int minLength;
+        final int maxLength;
+
+        if (leftLength > rightLength) {
+            max = left;
+            maxLength = leftLength;
+            min = right;
+            minLength = rightLength;
+        } else {
+            max = right;
+            maxLength = rightLength;
+            min = left;
+            minLength = leftLength;
+        }
+
+        if (minLength == 0) {
+            return 0;
+        }
+
+        int prefix = 0;
+        while (prefix < minLength && left[prefix] == right[prefix]) {
+            prefix++;
+        }
+
+        double boost = Math.min(0.1, 1D / maxLength) * prefix;
+
+        // fewest matches that could still reach the threshold without transpositions,
+        // which also rejects pairs whose length ratio is too far apart
+        int required = minLength;
+        while (required > 0 && getBound(required - 1, minLength, maxLength, boost) >= threshold) {
+            required--;
+        }
+
+        if (getBound(required, minLength, maxLength, boost) < threshold) {
+            return 0;
+        }
+
+        Scratch scratch = Scratch.get(minLength, maxLength);
+        boolean[] minFlags = scratch.minFlags;
+        boolean[] maxFlags = scratch.maxFlags;
+
+        int range = Math.max(maxLength / 2 - 1, 0);
+        int matches = 0;
+
+        try {
+            for (int mi = 0; mi < minLength; mi++) {
+                char c1 = min[mi];
+
+                for (int xi = Math.max(mi - range, 0), xn = Math.min(mi + range + 1, maxLength); xi < xn; xi++) {
+                    if (!maxFlags[xi] && c1 == max[xi]) {
+                        minFlags[mi] = true;
+                        maxFlags[xi] = true;
+                        matches++;
+                        break;
+                    }
+                }
+
+                if (matches + minLength - mi - 1 < required) {
+                    return 0;
+                }
+            }
+
+            int transpositions = 0;
+            for (int mi = 0, xi = 0; mi < minLength; mi++) {
+                if (minFlags[mi]) {
+                    while (!maxFlags[xi]) {
+                        xi++;
+                    }
+
+                    if (min[mi] != max[xi]) {
+                        transpositions++;
+                    }
+
+                    xi++;
+                }
+            }
+
+            double m = matches;
+            double j = (m / minLength + m / maxLength + (m - transpositions / 2) / m) / 3;
+            double jw = j < 0.7D ? j : j + boost * (1D - j);
+
+            return jw >= threshold ? jw : 0;
+        } finally {
+            scratch.clear(minLength, maxLength);
+        }
+    }
+
+    /**
+     * @return the highest score reachable with the given number of matches
+     */
+    private static double getBound(int matches, int minLength, int maxLength, double boost) {
+        if (matches == 0) {
+            return 0;
+        }
+
+        double j = ((double) matches / minLength + (double) matches / maxLength + 1) / 3;
+
+        return j < 0.7D ? j : j + boost * (1D - j);
+    }
+
+    private static final class Scratch {
+        private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+        private boolean[] minFlags;
+        private boolean[] maxFlags;
+
+        private Scratch() {
+            this.minFlags = new boolean[32];
+            this.maxFlags = new boolean[32];
+        }
+
+        private static Scratch get(int minLength, int maxLength) {
+            Scratch instance = scratch.get();
+
+            if (instance.minFlags.length < minLength) {
+                instance.minFlags = new boolean[Math.max(minLength, instance.minFlags.length * 2)];
+            }
+
+            if (instance.maxFlags.length < maxLength) {
+                instance.maxFlags = new boolean[Math.max(maxLength, instance.maxFlags.length * 2)];
+            }
+
+            return instance;
+        }
+
+        private void clear(int minLength, int maxLength) {
+            Arrays.fill(minFlags, 0, minLength, false);
+            Arrays.fill(maxFlags, 0, maxLength, false);
+        }
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.drawer.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Ranking core of {@link AppSearchIndex}, kept free of Android types. Text is case and
+ * diacritic folded once, when an item is indexed. Entries are kept sorted by folded
+ * label, so prefix matches are a contiguous range found by binary search, and a
+ * trigram signature rejects most entries before any substring comparison. When a
+ * query extends the previous one, only the previous substring matches are scanned.
+ */
+final class LabelIndex<T> {
+    // the rounded score used to be compared against 0.87
+    private static final double CLOSE_SCORE = 0.875d;
+    private static final int MIN_PACKAGE_QUERY_LENGTH = 3;
+    private static final int TRIGRAM = 3;
+    private static final char[] FOLDED = new char[0x0530]; // Latin, Greek, Cyrillic
+
+    static {
+        for (char character = 0; character < FOLDED.length; character++) {
+            FOLDED[character] = decompose(character);
+        }
+    }
+
+    private final ArrayList<Entry<T>> entries;
+    private final FoldedQuery query;
+    private char[] previousQuery;
+    private int previousLength;
+    private int[] candidates;
+    private int candidateCount;
+    private int candidateGeneration;
+    private int[] containing;
+    private int[] packages;
+    private int[] close;
+    private int generation;
+    private int stamp;
+
+    LabelIndex() {
+        this.entries = new ArrayList<>();
+        this.query = new FoldedQuery();
+        this.previousQuery = new char[0];
+        this.previousLength = 0;
+        this.candidates = new int[0];
+        this.containing = new int[0];
+        this.packages = new int[0];
+        this.close = new int[0];
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * Appends without keeping the order, {@link #sort()} has to be called
+     * once every item is added.
+     */
+    void add(@NonNull T item, @NonNull String label, @NonNull String packageName) {
+        entries.add(new Entry<>(item, label, packageName));
+        generation++;
+    }
+
+    void sort() {
+        entries.sort(LabelIndex::compare);
+        generation++;
+    }
+
+    /**
+     * Adds the item at its sorted position, replacing a previous entry of it.
+     */
+    void insert(@NonNull T item, @NonNull String label, @NonNull String packageName) {
+        removeEntry(item);
+
+        Entry<T> entry = new Entry<>(item, label, packageName);
+        int position = Collections.binarySearch(entries, entry, LabelIndex::compare);
+
+        entries.add(position < 0 ? -position - 1 : position, entry);
+        generation++;
+    }
+
+    boolean remove(@NonNull T item) {
+        if (removeEntry(item)) {
+            generation++;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The label the item was indexed with, or null if it is not indexed
+     */
+    @Nullable
+    String getLabel(@NonNull T item) {
+        for (int index = 0; index < entries.size(); index++) {
+            Entry<T> entry = entries.get(index);
+
+            if (entry.item == item) {
+                return entry.source;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Ranks items matching the query: label prefixes, label substrings,
+     * package name segments and then labels close to the query. Buffers are reused
+     * between calls, so typing does not allocate besides growing the results list.
+     *
+     * @param text    Raw query
+     * @param filter  Items it rejects are left out, null accepts every item
+     * @param limit   Maximum number of results
+     * @param results Cleared and filled with the ranked items
+     */
+    void search(@NonNull CharSequence text, @Nullable Predicate<T> filter,
+                int limit, @NonNull List<T> results) {
+        results.clear();
+
+        int length = query.set(text);
+
+        if (length == 0) {
+            previousLength = 0;
+
+            return;
+        }
+
+        char[] chars = query.chars;
+        int total = entries.size();
+        boolean narrowing = candidateGeneration == generation && previousLength > 0 &&
+                length >= previousLength && regionMatches(chars, 0, previousQuery, previousLength);
+
+        if (candidates.length < total) {
+            candidates = new int[total];
+            containing = new int[total];
+            packages = new int[total];
+            close = new int[total];
+        }
+
+        // entries only keep character and trigram signatures, shorter queries
+        // are checked against the characters they contain
+        int gram = length < TRIGRAM ? 1 : TRIGRAM;
+        long signature = signature(chars, length, gram);
+
+        // entries are sorted by folded label, so the prefix matches are contiguous
+        int start = lowerBound(chars, length);
+        int end = start;
+
+        while (end < total && startsWith(entries.get(end).label, chars, length)) {
+            end++;
+        }
+
+        int scanned = narrowing ? candidateCount : total;
+        int matchCount = 0;
+        int containingCount = 0;
+        int packageCount = 0;
+
+        stamp++;
+
+        for (int position = 0; position < scanned; position++) {
+            int index = narrowing ? candidates[position] : position;
+            Entry<T> entry = entries.get(index);
+
+            boolean prefix = index >= start && index < end;
+            boolean label = prefix || ((entry.getLabelSignature(gram) & signature) == signature &&
+                    indexOf(entry.label, chars, length, 0) >= 0);
+            int occurrence = !label && (entry.getPackageSignature(gram) & signature) == signature ?
+                    indexOf(entry.packageName, chars, length, 0) : -1;
+
+            if (!label && occurrence < 0) {
+                continue;
+            }
+
+            // substring matches of this query are a superset of the matches of any
+            // query extending it, and never run past the position being read
+            candidates[matchCount++] = index;
+
+            if (label) {
+                entry.stamp = stamp;
+
+                if (!prefix) {
+                    containing[containingCount++] = index;
+                }
+            } else if (length >= MIN_PACKAGE_QUERY_LENGTH) {
+                while (occurrence > 0 && entry.packageName[occurrence - 1] != '.') {
+                    occurrence = indexOf(entry.packageName, chars, length, occurrence + 1);
+                }
+
+                if (occurrence >= 0) {
+                    entry.stamp = stamp;
+                    packages[packageCount++] = index;
+                }
+            }
+        }
+
+        candidateCount = matchCount;
+        candidateGeneration = generation;
+
+        if (previousQuery.length < length) {
+            previousQuery = new char[chars.length];
+        }
+
+        System.arraycopy(chars, 0, previousQuery, 0, length);
+        previousLength = length;
+
+        for (int index = start; index < end; index++) {
+            add(index, filter, limit, results);
+        }
+
+        add(containing, containingCount, filter, limit, results);
+        add(packages, packageCount, filter, limit, results);
+
+        if (results.size() < limit) {
+            int closeCount = 0;
+
+            for (int index = 0; index < total; index++) {
+                Entry<T> entry = entries.get(index);
+
+                if (entry.stamp != stamp && JaroWinklerDistance.getScore(entry.label,
+                        entry.label.length, chars, length, CLOSE_SCORE) > 0) {
+                    close[closeCount++] = index;
+                }
+            }
+
+            add(close, closeCount, filter, limit, results);
+        }
+    }
+
+    private void add(int[] indexes, int count, Predicate<T> filter,
+                     int limit, List<T> results) {
+        for (int position = 0; position < count && results.size() < limit; position++) {
+            add(indexes[position], filter, limit, results);
+        }
+    }
+
+    private void add(int index, Predicate<T> filter, int limit, List<T> results) {
+        if (results.size() < limit) {
+            T item = entries.get(index).item;
+
+            if (filter == null || filter.test(item)) {
+                results.add(item);
+            }
+        }
+    }
+
+    private boolean removeEntry(T item) {
+        for (int index = 0; index < entries.size(); index++) {
+            if (entries.get(index).item == item) {
+                entries.remove(index);
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int lowerBound(char[] chars, int length) {
+        int left = 0;
+        int right = entries.size();
+
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+
+            if (compare(entries.get(middle).label, entries.get(middle).label.length,
+                    chars, length) < 0) {
+                left = middle + 1;
+            } else {
+                right = middle;
+            }
+        }
+
+        return left;
+    }
+
+    private static int compare(Entry<?> first, Entry<?> second) {
+        int compareValue = compare(first.label, first.label.length,
+                second.label, second.label.length);
+
+        return compareValue != 0 ? compareValue :
+                compare(first.packageName, first.packageName.length,
+                        second.packageName, second.packageName.length);
+    }
+
+    private static int compare(char[] first, int firstLength, char[] second, int secondLength) {
+        int limit = Math.min(firstLength, secondLength);
+
+        for (int index = 0; index < limit; index++) {
+            if (first[index] != second[index]) {
+                return first[index] - second[index];
+            }
+        }
+
+        return firstLength - secondLength;
+    }
+
+    private static boolean startsWith(char[] text, char[] chars, int length) {
+        return text.length >= length && regionMatches(text, 0, chars, length);
+    }
+
+    private static boolean regionMatches(char[] text, int offset, char[] chars, int length) {
+        for (int index = 0; index < length; index++) {
+            if (text[offset + index] != chars[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int indexOf(char[] text, char[] chars, int length, int from) {
+        for (int offset = from; offset <= text.length - length; offset++) {
+            if (text[offset] == chars[0] && regionMatches(text, offset, chars, length)) {
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return 64 bit set of the hashed n-grams of the text, an entry can only contain
+     * the query if its signature covers the signature of the query
+     */
+    private static long signature(char[] text, int length, int gram) {
+        long signature = 0;
+
+        for (int offset = 0; offset + gram <= length; offset++) {
+            int hash = 0;
+
+            for (int index = 0; index < gram; index++) {
+                hash = hash * 31 + text[offset + index];
+            }
+
+            signature |= 1L << ((hash ^ (hash >>> 6)) & 63);
+        }
+
+        return signature;
+    }
+
+    /**
+     * @return The text in lower case, without diacritics. The folded text has the
+     * same length as the source, so offsets can be used to highlight the source.
+     */
+    @NonNull
+    static String fold(@NonNull CharSequence text) {
+        return new String(foldChars(text));
+    }
+
+    private static char[] foldChars(CharSequence text) {
+        char[] chars = new char[text.length()];
+
+        for (int index = 0; index < chars.length; index++) {
+            chars[index] = fold(text.charAt(index));
+        }
+
+        return chars;
+    }
+
+    private static char fold(char character) {
+        return character < FOLDED.length ?
+                FOLDED[character] : Character.toLowerCase(character);
+    }
+
+    private static char decompose(char character) {
+        String decomposed = Normalizer.normalize(String.valueOf(character), Normalizer.Form.NFD);
+
+        for (int index = 1; index < decomposed.length(); index++) {
+            if (Character.getType(decomposed.charAt(index)) != Character.NON_SPACING_MARK) {
+                return Character.toLowerCase(character);
+            }
+        }
+
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final String source;
+        private final char[] label;
+        private final char[] packageName;
+        private final long labelCharacters;
+        private final long labelTrigrams;
+        private final long packageCharacters;
+        private final long packageTrigrams;
+        private int stamp;
+
+        private Entry(T item, String source, String packageName) {
+            this.item = item;
+            this.source = source;
+            this.label = foldChars(source);
+            this.packageName = foldChars(packageName);
+            this.labelCharacters = signature(label, label.length, 1);
+            this.labelTrigrams = signature(label, label.length, TRIGRAM);
+            this.packageCharacters = signature(this.packageName, this.packageName.length, 1);
+            this.packageTrigrams = signature(this.packageName, this.packageName.length, TRIGRAM);
+        }
+
+        private long getLabelSignature(int gram) {
+            return gram < TRIGRAM ? labelCharacters : labelTrigrams;
+        }
+
+        private long getPackageSignature(int gram) {
+            return gram < TRIGRAM ? packageCharacters : packageTrigrams;
+        }
+    }
+
+    /**
+     * Folded query kept in a growable buffer.
+     */
+    private static final class FoldedQuery {
+        private char[] chars;
+        private int length;
+
+        private FoldedQuery() {
+            this.chars = new char[32];
+            this.length = 0;
+        }
+
+        private int set(CharSequence text) {
+            if (chars.length < text.length()) {
+                chars = Arrays.copyOf(chars, Math.max(text.length(), chars.length * 2));
+            }
+
+            length = text.length();
+
+            for (int index = 0; index < length; index++) {
+                chars[index] = fold(text.charAt(index));
+            }
+
+            return length;
+        }
+    }
+}
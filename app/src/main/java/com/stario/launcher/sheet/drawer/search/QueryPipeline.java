@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.drawer.search;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns search-as-you-type input into network requests. Queries are debounced
+ * according to the typing speed, a query already in flight is not requested again,
+ * superseded requests are cancelled down to their connection and recent results are
+ * kept in memory, so going back to an earlier query does not hit the network.
+ * <p>
+ * Every method has to be called from the UI thread, results are delivered on it.
+ */
+public final class QueryPipeline<T> {
+    private static final long MIN_DEBOUNCE = 80;
+    private static final long MAX_DEBOUNCE = 350;
+    private static final long TYPING_PAUSE = 1000;
+    private static final double DEBOUNCE_FACTOR = 1.5d;
+    private static final double SMOOTHING = 0.3d;
+
+    private final LruCache<String, CacheEntry<T>> cache;
+    private final Fetcher<T> fetcher;
+    private final Listener<T> listener;
+    private final boolean debounced;
+    private final long maxAge;
+
+    private Request<T> running;
+    private Runnable pending;
+    private String latestQuery;
+    private double typingInterval;
+    private long lastInput;
+
+    /**
+     * @param cacheSize Number of queries whose results are kept
+     * @param maxAge    Milliseconds a result is served from memory
+     * @param debounced Whether to wait for the user to stop typing before requesting
+     */
+    public QueryPipeline(int cacheSize, long maxAge, boolean debounced,
+                         @NonNull Fetcher<T> fetcher, @NonNull Listener<T> listener) {
+        this.cache = new LruCache<>(cacheSize);
+        this.fetcher = fetcher;
+        this.listener = listener;
+        this.debounced = debounced;
+        this.maxAge = maxAge;
+        this.typingInterval = MAX_DEBOUNCE / DEBOUNCE_FACTOR;
+        this.lastInput = 0;
+    }
+
+    public void update(@Nullable String query) {
+        long now = SystemClock.uptimeMillis();
+        long interval = now - lastInput;
+
+        lastInput = now;
+
+        if (interval < TYPING_PAUSE) {
+            typingInterval += SMOOTHING * (interval - typingInterval);
+        }
+
+        removePending();
+
+        if (query == null || query.isEmpty()) {
+            cancel();
+
+            return;
+        }
+
+        latestQuery = query;
+
+        CacheEntry<T> entry = cache.get(query);
+
+        if (entry != null) {
+            if (now - entry.timestamp <= maxAge) {
+                cancelRunning();
+                listener.onResult(query, entry.value);
+
+                return;
+            }
+
+            cache.remove(query);
+        }
+
+        if (running != null && running.query.equals(query)) {
+            return;
+        }
+
+        if (debounced) {
+            pending = () -> {
+                pending = null;
+
+                start(query);
+            };
+
+            UiUtils.postDelayed(pending, getDebounceDelay());
+        } else {
+            start(query);
+        }
+    }
+
+    /**
+     * Drops the pending and running requests, nothing is delivered until the next update.
+     */
+    public void cancel() {
+        removePending();
+        cancelRunning();
+
+        latestQuery = null;
+    }
+
+    private long getDebounceDelay() {
+        return Math.max(MIN_DEBOUNCE, Math.min(MAX_DEBOUNCE,
+                Math.round(typingInterval * DEBOUNCE_FACTOR)));
+    }
+
+    private void start(String query) {
+        cancelRunning();
+
+        Request<T> request = new Request<>(query);
+        running = request;
+
+        request.future = Utils.submitTask(TaskScheduler.Lane.INTERACTIVE,
+                () -> request.isCancelled() ? null : fetcher.fetch(query, request));
+        // a failed fetch is reported as a null result
+        request.future.whenComplete((result, throwable) -> UiUtils.post(() -> {
+            if (running == request) {
+                running = null;
+            }
+
+            if (request.isCancelled()) {
+                return;
+            }
+
+            if (result != null) {
+                cache.put(query, new CacheEntry<>(result, SystemClock.uptimeMillis()));
+            }
+
+            if (query.equals(latestQuery)) {
+                listener.onResult(query, result);
+            }
+        }));
+    }
+
+    private void cancelRunning() {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    private void removePending() {
+        if (pending != null) {
+            UiUtils.removeUICallback(pending);
+            pending = null;
+        }
+    }
+
+    public interface Fetcher<T> {
+        /**
+         * Called on a background thread.
+         *
+         * @return The results of the query, or null if they could not be retrieved
+         */
+        @Nullable
+        T fetch(@NonNull String query, @NonNull Request<T> request) throws Exception;
+    }
+
+    public interface Listener<T> {
+        /**
+         * @param result Results of the query, null if the request failed
+         */
+        void onResult(@NonNull String query, @Nullable T result);
+    }
+
+    /**
+     * Handle of a single fetch. Fetchers register how to abort their connection,
+     * so cancelling also unblocks reads that ignore thread interruption.
+     */
+    public static final class Request<T> {
+        private final String query;
+        private volatile boolean cancelled;
+        private Runnable cancellation;
+        private CompletableFuture<T> future;
+
+        private Request(String query) {
+            this.query = query;
+            this.cancelled = false;
+        }
+
+        /**
+         * @param cancellation Aborts the connection, runs right away if the request is already cancelled
+         */
+        public void setCancellation(@Nullable Runnable cancellation) {
+            boolean cancelled;
+
+            synchronized (this) {
+                this.cancellation = cancellation;
+                cancelled = this.cancelled;
+            }
+
+            if (cancelled && cancellation != null) {
+                cancellation.run();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            Runnable cancellation;
+
+            synchronized (this) {
+                cancelled = true;
+                cancellation = this.cancellation;
+            }
+
+            if (cancellation != null) {
+                cancellation.run();
+            }
+
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static final class CacheEntry<T> {
+        private final T value;
+        private final long timestamp;
+
+        private CacheEntry(T value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
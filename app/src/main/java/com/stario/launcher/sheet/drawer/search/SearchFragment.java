@@ -66,6 +66,8 @@ import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.ui.utils.animation.Animation;
 import com.stario.launcher.ui.utils.animation.KeyboardAnimationHelper;
 import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.FrameMonitor;
+import com.stario.launcher.utils.metrics.Interaction;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -488,9 +490,6 @@ public class SearchFragment extends Fragment {
         }
 
         search.addTextChangedListener(new TextWatcher() {
-            private static final int SUGGESTION_PROCESS_INTERVAL = 200;
-            private long lastRegisteredTimestamp = 0;
-
             @Override
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {
             }
@@ -501,6 +500,8 @@ public class SearchFragment extends Fragment {
 
             @Override
             public void afterTextChanged(Editable editable) {
+                FrameMonitor.getInstance().touch(Interaction.SEARCH_TYPING, search);
+
                 scrollView.smoothScrollTo(0, 0, Animation.LONG.getDuration());
 
                 String query = editable.toString();
@@ -520,20 +521,8 @@ public class SearchFragment extends Fragment {
                         appAdapter.update(query);
                         optionAdapter.update(query);
 
-                        long timeStamp = System.currentTimeMillis();
-
-                        if (query.isBlank()) {
-                            autosuggestAdapter.update(query);
-                        } else {
-                            // don't process text changes too often
-                            search.postDelayed(() -> {
-                                if (timeStamp == lastRegisteredTimestamp) {
-                                    autosuggestAdapter.update(query);
-                                }
-                            }, SUGGESTION_PROCESS_INTERVAL);
-                        }
-
-                        lastRegisteredTimestamp = System.currentTimeMillis();
+                        // debounced by the adapter
+                        autosuggestAdapter.update(query);
                     }
                 } else {
                     search.setText(filteredQuery);
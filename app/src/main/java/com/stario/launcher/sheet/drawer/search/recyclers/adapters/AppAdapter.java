@@ -28,11 +28,9 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.stario.launcher.apps.LauncherApplication;
-import com.stario.launcher.apps.ProfileApplicationManager;
-import com.stario.launcher.apps.ProfileManager;
 import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.sheet.drawer.RecyclerApplicationAdapter;
-import com.stario.launcher.sheet.drawer.search.JaroWinklerDistance;
+import com.stario.launcher.sheet.drawer.search.AppSearchIndex;
 import com.stario.launcher.sheet.drawer.search.SearchFragment;
 import com.stario.launcher.sheet.drawer.search.Searchable;
 import com.stario.launcher.themes.ThemedActivity;
@@ -44,7 +42,7 @@ import java.util.List;
 public class AppAdapter extends RecyclerApplicationAdapter
         implements Searchable {
     private final SharedPreferences preferences;
-    private List<LauncherApplication> applications;
+    private final List<LauncherApplication> applications;
     private RecyclerView recyclerView;
     private String currentQuery;
 
@@ -80,48 +78,18 @@ public class AppAdapter extends RecyclerApplicationAdapter
     @SuppressLint("NotifyDataSetChanged")
     @Override
     public void update(String query) {
-        List<LauncherApplication> filteredList = new ArrayList<>();
-
-        int starting = 0;
-        int containing = 0;
-        int close = 0;
-
         if (query != null && !query.isEmpty()) {
-            String filterPattern = query.toLowerCase();
-
-            List<ProfileApplicationManager> profileManagers =
-                    ProfileManager.getInstance().getProfiles();
-
             boolean showHiddenItems = preferences.getBoolean(SearchFragment.SEARCH_HIDDEN_APPS, false);
 
-            for (ProfileApplicationManager manager : profileManagers) {
-                for (int index = 0; index < (showHiddenItems ?
-                        manager.getSize() : manager.getActualSize()); index++) {
-                    LauncherApplication application = showHiddenItems ?
-                            manager.get(index, true) : manager.get(index);
-
-                    if (application != null) {
-                        String lowercaseLabel = application.getLabel().toLowerCase();
-
-                        if (lowercaseLabel.startsWith(filterPattern)) {
-                            filteredList.add(starting++, application);
-                        } else if (lowercaseLabel.contains(filterPattern)) {
-                            filteredList.add(starting + containing++, application);
-                        } else if (JaroWinklerDistance.getScore(lowercaseLabel, filterPattern) > 0.87d) {
-                            filteredList.add(starting + containing + close++, application);
-                        }
-                    }
-                }
-            }
+            AppSearchIndex.getInstance().search(query, showHiddenItems,
+                    SearchFragment.MAX_APP_QUERY_ITEMS, applications);
 
-            if (filteredList.size() >
-                    SearchFragment.MAX_APP_QUERY_ITEMS) {
-                filteredList = filteredList.subList(0, SearchFragment.MAX_APP_QUERY_ITEMS);
-            }
-        }
+            currentQuery = AppSearchIndex.fold(query);
+        } else {
+            applications.clear();
 
-        applications = filteredList;
-        currentQuery = query;
+            currentQuery = "";
+        }
 
         Runnable runnable = () -> {
             notifyDataSetChanged();
@@ -170,7 +138,7 @@ public class AppAdapter extends RecyclerApplicationAdapter
         super.onBind(viewHolder, index);
 
         String label = getApplication(index).getLabel();
-        int substringStart = label.toLowerCase().indexOf(currentQuery);
+        int substringStart = AppSearchIndex.fold(label).indexOf(currentQuery);
 
         if (substringStart >= 0) {
             SpannableStringBuilder builder = new SpannableStringBuilder(label);
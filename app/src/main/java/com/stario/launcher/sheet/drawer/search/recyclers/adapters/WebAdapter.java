@@ -45,26 +45,27 @@ import com.bumptech.glide.request.target.Target;
 import com.stario.launcher.R;
 import com.stario.launcher.exceptions.Unauthorized;
 import com.stario.launcher.preferences.Entry;
+import com.stario.launcher.sheet.drawer.search.QueryPipeline;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.HttpClient;
 import com.stario.launcher.utils.Utils;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
 
 public class WebAdapter extends AbstractSearchListAdapter<WebAdapter.ViewHolder> {
     public static final String SEARCH_RESULTS = "com.stario.SEARCH_RESULTS";
@@ -74,12 +75,14 @@ public class WebAdapter extends AbstractSearchListAdapter<WebAdapter.ViewHolder>
     private final static String RESULTS_URL = "https://kagi.com/api/v0/search?limit=6&q=";
     private final static Pattern BASE_URL_REGEX = Pattern.compile("^(?:https?://)?(?:www\\.)?([^/?:]+)");
     private final static Pattern PATH_REGEX = Pattern.compile("^(?:https?://)?(?:www\\.)?[^/]+(/[^/?#]+)+");
+    private final static int CACHED_QUERIES = 16;
+    private final static long CACHE_MAX_AGE = 10 * 60 * 1000;
 
     private final SharedPreferences preferences;
     private final List<WebEntry> searchResults;
     private final ThemedActivity activity;
+    private final QueryPipeline<ArrayList<WebEntry>> pipeline;
 
-    private CompletableFuture<ArrayList<WebEntry>> runningTask;
     private UnauthorizedListener listener;
 
     public WebAdapter(ThemedActivity activity) {
@@ -87,6 +90,9 @@ public class WebAdapter extends AbstractSearchListAdapter<WebAdapter.ViewHolder>
         this.searchResults = new ArrayList<>();
         this.preferences = activity.getApplicationContext()
                 .getSharedPreferences(Entry.SEARCH);
+        // results are requested on submit, not while typing
+        this.pipeline = new QueryPipeline<>(CACHED_QUERIES, CACHE_MAX_AGE, false,
+                this::fetchResults, this::showResults);
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -113,119 +119,130 @@ public class WebAdapter extends AbstractSearchListAdapter<WebAdapter.ViewHolder>
         searchResults.clear();
         notifyInternal();
 
-        if (runningTask != null && !runningTask.isDone()) {
-            runningTask.cancel(true);
-        }
-
         boolean searchEnabled = preferences.getBoolean(SEARCH_RESULTS, false);
         String apiKey = preferences.getString(KAGI_API_KEY, null);
 
         if (searchEnabled && apiKey != null &&
                 !apiKey.isEmpty() && query != null && !query.isEmpty()) {
-            String constraint = query.toLowerCase();
-
-            runningTask = Utils.submitTask(() -> {
-                ArrayList<WebEntry> results = new ArrayList<>();
-
-                JSONObject object;
-                try {
-                    object = getData(constraint, apiKey);
-                } catch (Unauthorized exception) {
-                    UiUtils.post(() -> {
-                        if (listener != null) {
-                            listener.onDenied();
-                        }
-                    });
+            pipeline.update(query.toLowerCase());
+        } else {
+            pipeline.cancel();
+        }
+    }
 
-                    return results;
-                }
+    private void showResults(String query, @Nullable ArrayList<WebEntry> results) {
+        searchResults.clear();
+
+        if (results != null) {
+            for (WebEntry entry : results) {
+                searchResults.add(0, entry);
+            }
+        }
+
+        notifyInternal();
+    }
 
-                if (object != null && object.has("data")) {
-                    Object testObject = object.get("data");
+    @Nullable
+    private ArrayList<WebEntry> fetchResults(String constraint,
+                                             QueryPipeline.Request<ArrayList<WebEntry>> request) throws JSONException {
+        String apiKey = preferences.getString(KAGI_API_KEY, null);
+
+        if (apiKey == null || apiKey.isEmpty()) {
+            return null;
+        }
 
-                    if (testObject instanceof JSONArray) {
-                        JSONArray queryResults = (JSONArray) testObject;
+        ArrayList<WebEntry> results = new ArrayList<>();
 
-                        for (int index = 0; index < queryResults.length(); index++) {
-                            Object testEntry = queryResults.get(index);
+        JSONObject object;
+        try {
+            object = getData(constraint, apiKey, request);
+        } catch (Unauthorized exception) {
+            UiUtils.post(() -> {
+                if (listener != null) {
+                    listener.onDenied();
+                }
+            });
 
-                            if (testEntry instanceof JSONObject) {
-                                JSONObject entry = (JSONObject) testEntry;
+            return null;
+        }
 
-                                String url = null;
-                                String title = null;
-                                String snippet = null;
+        if (object == null) {
+            return null;
+        }
 
-                                if (entry.has("url")) {
-                                    Object testUrl = entry.get("url");
+        if (object.has("data")) {
+            Object testObject = object.get("data");
 
-                                    if (testUrl instanceof String) {
-                                        url = (String) testUrl;
-                                    }
-                                }
+            if (testObject instanceof JSONArray) {
+                JSONArray queryResults = (JSONArray) testObject;
 
-                                if (entry.has("title")) {
-                                    Object testTitle = entry.get("title");
+                for (int index = 0; index < queryResults.length(); index++) {
+                    Object testEntry = queryResults.get(index);
 
-                                    if (testTitle instanceof String) {
-                                        title = (String) testTitle;
-                                    }
-                                }
+                    if (testEntry instanceof JSONObject) {
+                        JSONObject entry = (JSONObject) testEntry;
 
-                                if (entry.has("snippet")) {
-                                    Object testSnippet = entry.get("snippet");
+                        String url = null;
+                        String title = null;
+                        String snippet = null;
 
-                                    if (testSnippet instanceof String) {
-                                        snippet = (String) testSnippet;
-                                    }
-                                }
+                        if (entry.has("url")) {
+                            Object testUrl = entry.get("url");
 
-                                if (url != null && title != null) {
-                                    results.add(new WebEntry(url, title, snippet));
-                                }
+                            if (testUrl instanceof String) {
+                                url = (String) testUrl;
                             }
                         }
-                    }
-                }
 
-                return results;
-            });
-
-            runningTask.thenApply(results -> {
-                UiUtils.post(() -> {
-                    searchResults.clear();
+                        if (entry.has("title")) {
+                            Object testTitle = entry.get("title");
 
-                    for (WebEntry entry : results) {
-                        searchResults.add(0, entry);
-                    }
+                            if (testTitle instanceof String) {
+                                title = (String) testTitle;
+                            }
+                        }
 
-                    notifyInternal();
+                        if (entry.has("snippet")) {
+                            Object testSnippet = entry.get("snippet");
 
-                    runningTask = null;
-                });
+                            if (testSnippet instanceof String) {
+                                snippet = (String) testSnippet;
+                            }
+                        }
 
-                return results;
-            });
+                        if (url != null && title != null) {
+                            results.add(new WebEntry(url, title, snippet));
+                        }
+                    }
+                }
+            }
         }
+
+        return results;
     }
 
-    private JSONObject getData(String query, String key) throws Unauthorized {
+    private JSONObject getData(String query, String key,
+                               QueryPipeline.Request<?> request) throws Unauthorized {
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(RESULTS_URL + query).openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Authorization", "Bot " + key);
-            connection.addRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Content-Type", "application/json");
-
-            if (connection.getResponseCode() >= 200 && connection.getResponseCode() < 400) {
-                BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-
-                return new JSONObject(reader.lines().collect(Collectors.joining("\n")));
-            } else if (connection.getResponseCode() == HttpURLConnection.HTTP_UNAUTHORIZED) {
-                throw new Unauthorized();
+            Call call = HttpClient.newCall(HttpClient.Feature.SEARCH, new Request.Builder()
+                    .url(RESULTS_URL + query)
+                    .header("Authorization", "Bot " + key)
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .build());
+            request.setCancellation(call::cancel);
+
+            try (Response response = call.execute()) {
+                if (response.isSuccessful()) {
+                    return new JSONObject(response.body().string());
+                } else if (response.code() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                    throw new Unauthorized();
+                }
+            }
+        } catch (IOException | IllegalArgumentException | JSONException exception) {
+            if (!request.isCancelled()) {
+                Log.e(TAG, "getData: ", exception);
             }
-        } catch (IOException | JSONException exception) {
-            Log.e(TAG, "getData: ", exception);
         }
 
         return null;
@@ -31,34 +31,36 @@ import android.view.ViewGroup;
 import android.window.SplashScreen;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.content.res.AppCompatResources;
 
 import com.stario.launcher.R;
+import com.stario.launcher.sheet.drawer.search.QueryPipeline;
 import com.stario.launcher.sheet.drawer.search.SearchEngine;
 import com.stario.launcher.themes.ThemedActivity;
-import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.HttpClient;
 import com.stario.launcher.utils.Utils;
 
 import org.json.JSONArray;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
 
 public class AutosuggestAdapter extends SuggestionSearchAdapter {
     private final static String TAG = "com.stario.launcher.WebAdapter";
     private final static int MAX_RESULTS = 5;
     private final static String AUTOSUGGEST_URL = "https://kagi.com/api/autosuggest?q=";
+    private final static int CACHED_QUERIES = 32;
+    private final static long CACHE_MAX_AGE = 5 * 60 * 1000;
     private final List<SuggestionEntry> suggestionResults;
     private final ThemedActivity activity;
+    private final QueryPipeline<ArrayList<SuggestionEntry>> pipeline;
 
-    private CompletableFuture<ArrayList<SuggestionEntry>> runningTask;
     private String currentQuery;
 
     public AutosuggestAdapter(ThemedActivity activity) {
@@ -67,77 +69,86 @@ public class AutosuggestAdapter extends SuggestionSearchAdapter {
         this.activity = activity;
         this.suggestionResults = new ArrayList<>();
         this.currentQuery = "";
+        this.pipeline = new QueryPipeline<>(CACHED_QUERIES, CACHE_MAX_AGE, true,
+                this::fetchSuggestions, this::showSuggestions);
 
         setHasStableIds(true);
     }
 
     @Override
     public void update(String query) {
-        if (runningTask != null && !runningTask.isDone()) {
-            runningTask.cancel(true);
-        }
-
         if (query != null && !query.isEmpty()) {
-            SearchEngine engine = SearchEngine.getEngine(activity.getApplicationContext());
-            String constraint = query.toLowerCase();
-            currentQuery = constraint;
+            currentQuery = query.toLowerCase();
 
-            runningTask = Utils.submitTask(() -> {
-                ArrayList<SuggestionEntry> results = new ArrayList<>();
+            pipeline.update(currentQuery);
+        } else {
+            pipeline.cancel();
 
-                try {
-                    URLConnection connection = new URL(AUTOSUGGEST_URL + constraint).openConnection();
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+            currentQuery = "";
+            suggestionResults.clear();
 
-                    JSONArray root = new JSONArray(reader.lines().collect(Collectors.joining("\n")));
-                    if (root.length() > 1) {
-                        Object tester = root.get(1);
+            notifyInternal();
+        }
+    }
 
-                        if (tester instanceof JSONArray) {
-                            JSONArray target = (JSONArray) tester;
+    private void showSuggestions(String query, @Nullable ArrayList<SuggestionEntry> results) {
+        suggestionResults.clear();
 
-                            for (int index = 0; index < target.length() &&
-                                    index < MAX_RESULTS; index++) {
-                                String result = target.getString(index);
+        if (results != null) {
+            for (SuggestionEntry entry : results) {
+                suggestionResults.add(0, entry);
+            }
+        }
 
-                                Uri uri = Uri.parse(engine.getQuery(result));
+        notifyInternal();
+    }
 
-                                if (uri != null) {
-                                    results.add(new SuggestionEntry(result, uri));
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception exception) {
-                    Log.e(TAG, "update: ", exception);
+    @Nullable
+    private ArrayList<SuggestionEntry> fetchSuggestions(String constraint,
+                                                        QueryPipeline.Request<ArrayList<SuggestionEntry>> request) {
+        SearchEngine engine = SearchEngine.getEngine(activity.getApplicationContext());
+        ArrayList<SuggestionEntry> results = new ArrayList<>();
+
+        try {
+            Call call = HttpClient.newCall(HttpClient.Feature.SUGGESTIONS, new Request.Builder()
+                    .url(AUTOSUGGEST_URL + constraint)
+                    .build());
+            request.setCancellation(call::cancel);
+
+            try (Response response = call.execute()) {
+                if (!response.isSuccessful()) {
+                    return null;
                 }
 
-                return results;
-            });
+                JSONArray root = new JSONArray(response.body().string());
+                if (root.length() > 1) {
+                    Object tester = root.get(1);
 
-            runningTask.thenApply(results -> {
-                UiUtils.post(() -> {
-                    if (currentQuery.equals(constraint)) {
-                        suggestionResults.clear();
+                    if (tester instanceof JSONArray) {
+                        JSONArray target = (JSONArray) tester;
 
-                        for (SuggestionEntry entry : results) {
-                            suggestionResults.add(0, entry);
-                        }
-
-                        notifyInternal();
-                    }
+                        for (int index = 0; index < target.length() &&
+                                index < MAX_RESULTS; index++) {
+                            String result = target.getString(index);
 
-                    runningTask = null;
-                });
+                            Uri uri = Uri.parse(engine.getQuery(result));
 
-                return results;
-            });
-        } else {
-            currentQuery = "";
-            suggestionResults.clear();
+                            if (uri != null) {
+                                results.add(new SuggestionEntry(result, uri));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (Exception exception) {
+            if (!request.isCancelled()) {
+                Log.e(TAG, "fetchSuggestions: ", exception);
+            }
 
-            notifyInternal();
+            return null;
         }
+
+        return results;
     }
 
     @Override
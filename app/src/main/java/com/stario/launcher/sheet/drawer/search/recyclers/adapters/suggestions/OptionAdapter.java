@@ -44,6 +44,7 @@ import com.stario.launcher.apps.ProfileApplicationManager;
 import com.stario.launcher.apps.interfaces.LauncherApplicationListener;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
 import java.util.ArrayList;
@@ -76,7 +77,7 @@ public class OptionAdapter extends SuggestionSearchAdapter {
                 .getProfile(null);
         this.packageManager = activity.getPackageManager();
 
-        Utils.submitTask(() -> {
+        Utils.submitTask(TaskScheduler.Lane.INTERACTIVE, () -> {
             for (String uri : PREDEFINED_URIS) {
                 List<ResolveInfo> resolvers = packageManager.queryIntentActivities(
                         new Intent(Intent.ACTION_VIEW, Uri.parse(uri)), PackageManager.MATCH_ALL
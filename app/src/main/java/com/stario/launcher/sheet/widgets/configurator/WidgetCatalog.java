@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.widgets.configurator;
+
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProviderInfo;
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.stario.launcher.apps.LauncherApplication;
+import com.stario.launcher.apps.ProfileApplicationManager;
+import com.stario.launcher.apps.ProfileManager;
+import com.stario.launcher.apps.interfaces.LauncherApplicationListener;
+import com.stario.launcher.ui.Measurements;
+import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.Casing;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Installed widget providers grouped by package. The catalog is built off the UI
+ * thread, kept between openings of the picker and dropped when a package changes
+ * or an application of a group is relabeled or gets another icon.
+ * Previews are rendered to bitmaps no larger than they are shown, in a cache
+ * bounded by size.
+ */
+public final class WidgetCatalog {
+    private static final String TAG = "WidgetCatalog";
+    private static final int PREVIEW_CACHE_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_PREVIEW_HEIGHT_DP = 200;
+
+    private static WidgetCatalog instance;
+
+    private final Context context;
+    private final LruCache<ComponentName, Bitmap> previews;
+    private final Set<ComponentName> missingPreviews;
+    private final Map<ComponentName, CompletableFuture<Bitmap>> pendingPreviews;
+    private final LauncherApplicationListener applicationListener;
+
+    private ProfileApplicationManager observedProfile;
+    private List<WidgetListAdapter.WidgetGroupEntry> entries;
+    private CompletableFuture<List<WidgetListAdapter.WidgetGroupEntry>> loading;
+    private int generation;
+
+    private WidgetCatalog(Context context) {
+        this.context = context;
+        this.previews = new LruCache<>(PREVIEW_CACHE_BYTES) {
+            @Override
+            protected int sizeOf(ComponentName key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+        this.missingPreviews = ConcurrentHashMap.newKeySet();
+        this.pendingPreviews = new HashMap<>();
+        this.applicationListener = new LauncherApplicationListener() {
+            @Override
+            public void onUpdated(LauncherApplication application) {
+                // groups show the labels and icons of the applications
+                UiUtils.post(WidgetCatalog.this::invalidateEntries);
+            }
+        };
+        this.observedProfile = null;
+        this.entries = null;
+        this.loading = null;
+        this.generation = 0;
+
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                Uri data = intent.getData();
+
+                invalidate(data != null ? data.getSchemeSpecificPart() : null);
+            }
+        };
+
+        if (Utils.isMinimumSDK(Build.VERSION_CODES.TIRAMISU)) {
+            context.registerReceiver(receiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            context.registerReceiver(receiver, filter);
+        }
+    }
+
+    public static synchronized WidgetCatalog from(@NonNull Context context) {
+        if (instance == null) {
+            instance = new WidgetCatalog(context.getApplicationContext());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Has to be called from the UI thread, the listener is called on it.
+     */
+    void load(@NonNull Listener listener) {
+        observeProfile();
+
+        if (entries != null) {
+            listener.onLoaded(entries);
+
+            return;
+        }
+
+        if (loading == null) {
+            int generation = this.generation;
+            CompletableFuture<List<WidgetListAdapter.WidgetGroupEntry>> future =
+                    Utils.submitTask(TaskScheduler.Lane.INTERACTIVE, this::build);
+
+            loading = future;
+
+            future.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    Log.e(TAG, "load: ", throwable);
+                }
+
+                UiUtils.post(() -> {
+                    if (loading == future) {
+                        loading = null;
+
+                        // a package changed while building, the next opening builds again
+                        if (result != null && generation == this.generation) {
+                            entries = result;
+                        }
+                    }
+                });
+            });
+        }
+
+        loading.thenAccept(result -> UiUtils.post(() -> {
+            if (result != null) {
+                listener.onLoaded(result);
+            }
+        }));
+    }
+
+    /**
+     * @return The rendered preview, or null if it is not rendered yet
+     */
+    @Nullable
+    Bitmap getPreview(@NonNull AppWidgetProviderInfo info) {
+        return previews.get(info.provider);
+    }
+
+    boolean hasPreview(@NonNull AppWidgetProviderInfo info) {
+        return !missingPreviews.contains(info.provider);
+    }
+
+    /**
+     * Has to be called from the UI thread.
+     *
+     * @return Future completed with the preview, or null if the provider has none
+     */
+    @NonNull
+    CompletableFuture<Bitmap> loadPreview(@NonNull AppWidgetProviderInfo info) {
+        Bitmap cached = previews.get(info.provider);
+
+        if (cached != null || missingPreviews.contains(info.provider)) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Bitmap> pending = pendingPreviews.get(info.provider);
+
+        if (pending == null) {
+            pending = Utils.submitTask(TaskScheduler.Lane.INTERACTIVE, () -> renderPreview(info));
+            pendingPreviews.put(info.provider, pending);
+
+            pending.whenComplete((bitmap, throwable) -> UiUtils.post(() -> {
+                pendingPreviews.remove(info.provider);
+
+                if (bitmap != null) {
+                    previews.put(info.provider, bitmap);
+                }
+            }));
+        }
+
+        return pending;
+    }
+
+    private void observeProfile() {
+        ProfileApplicationManager profile = ProfileManager.getInstance().getProfile(null);
+
+        if (profile != null && profile != observedProfile) {
+            if (observedProfile != null) {
+                observedProfile.removeApplicationListener(applicationListener);
+            }
+
+            profile.addApplicationListener(applicationListener);
+            observedProfile = profile;
+        }
+    }
+
+    private void invalidateEntries() {
+        generation++;
+        entries = null;
+    }
+
+    /**
+     * @param packageName Package that changed, previews of other packages are kept
+     */
+    private void invalidate(@Nullable String packageName) {
+        invalidateEntries();
+
+        if (packageName == null) {
+            previews.evictAll();
+            missingPreviews.clear();
+
+            return;
+        }
+
+        for (ComponentName provider : previews.snapshot().keySet()) {
+            if (packageName.equals(provider.getPackageName())) {
+                previews.remove(provider);
+            }
+        }
+
+        missingPreviews.removeIf(provider -> packageName.equals(provider.getPackageName()));
+    }
+
+    private List<WidgetListAdapter.WidgetGroupEntry> build() {
+        PackageManager packageManager = context.getPackageManager();
+        List<AppWidgetProviderInfo> widgets = AppWidgetManager
+                .getInstance(context).getInstalledProviders();
+
+        Map<String, WidgetListAdapter.WidgetGroupEntry> groups = new HashMap<>();
+        List<WidgetListAdapter.WidgetGroupEntry> result = new ArrayList<>();
+
+        ProfileApplicationManager mainProfile =
+                ProfileManager.getInstance().getProfile(null);
+
+        if (mainProfile == null) {
+            return result;
+        }
+
+        for (AppWidgetProviderInfo info : widgets) {
+            String packageName = info.provider.getPackageName();
+            WidgetListAdapter.WidgetGroupEntry entry = groups.get(packageName);
+
+            if (entry == null) {
+                LauncherApplication application = mainProfile.get(packageName);
+
+                if (application != null) {
+                    entry = new WidgetListAdapter.WidgetGroupEntry(packageName,
+                            application.getLabel(), application.getIcon());
+                } else {
+                    String label;
+                    Drawable icon;
+
+                    if (Utils.isMinimumSDK(Build.VERSION_CODES.S)) {
+                        ActivityInfo activityInfo = info.getActivityInfo();
+
+                        label = activityInfo.loadLabel(packageManager).toString();
+                        icon = activityInfo.loadIcon(packageManager);
+                    } else {
+                        try {
+                            ApplicationInfo applicationInfo = packageManager.getApplicationInfo(packageName, 0);
+
+                            label = applicationInfo.loadLabel(packageManager).toString();
+                            icon = applicationInfo.loadIcon(packageManager);
+                        } catch (PackageManager.NameNotFoundException exception) {
+                            label = info.loadLabel(packageManager);
+                            icon = info.loadIcon(context, Measurements.getDotsPerInch());
+                        }
+                    }
+
+                    entry = new WidgetListAdapter.WidgetGroupEntry(packageName, label, icon);
+                }
+
+                groups.put(packageName, entry);
+                result.add(entry);
+            }
+
+            entry.addWidget(info, Casing.toTitleCase(info.loadLabel(packageManager)));
+        }
+
+        Collections.sort(result);
+
+        return Collections.unmodifiableList(result);
+    }
+
+    @Nullable
+    private Bitmap renderPreview(AppWidgetProviderInfo info) {
+        Drawable drawable;
+
+        try {
+            drawable = info.loadPreviewImage(context, Measurements.getDotsPerInch());
+        } catch (Exception exception) {
+            Log.e(TAG, "renderPreview: ", exception);
+
+            drawable = null;
+        }
+
+        int width = drawable != null ? drawable.getIntrinsicWidth() : 0;
+        int height = drawable != null ? drawable.getIntrinsicHeight() : 0;
+
+        if (width <= 0 || height <= 0) {
+            missingPreviews.add(info.provider);
+
+            return null;
+        }
+
+        // the picker shows previews fit in its width and at most this tall
+        float scale = Math.min(1f, Math.min(
+                (float) Measurements.dpToPx(MAX_PREVIEW_HEIGHT_DP) / height,
+                (float) Math.max(1, Measurements.getWidth()) / width));
+
+        Bitmap bitmap = Bitmap.createBitmap(Math.max(1, Math.round(width * scale)),
+                Math.max(1, Math.round(height * scale)), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        drawable.setBounds(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        drawable.draw(canvas);
+
+        return bitmap;
+    }
+
+    interface Listener {
+        void onLoaded(@NonNull List<WidgetListAdapter.WidgetGroupEntry> entries);
+    }
+}
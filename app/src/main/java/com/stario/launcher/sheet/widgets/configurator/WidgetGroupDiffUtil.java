@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.widgets.configurator;
+
+import android.appwidget.AppWidgetProviderInfo;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.List;
+import java.util.Objects;
+
+public class WidgetGroupDiffUtil extends DiffUtil.Callback {
+    private final List<WidgetListAdapter.WidgetGroupEntry> oldList;
+    private final List<WidgetListAdapter.WidgetGroupEntry> newList;
+
+    public WidgetGroupDiffUtil(@NonNull List<WidgetListAdapter.WidgetGroupEntry> oldList,
+                               @NonNull List<WidgetListAdapter.WidgetGroupEntry> newList) {
+        this.oldList = oldList;
+        this.newList = newList;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldList.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newList.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldList.get(oldItemPosition).packageName
+                .equals(newList.get(newItemPosition).packageName);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        WidgetListAdapter.WidgetGroupEntry first = oldList.get(oldItemPosition);
+        WidgetListAdapter.WidgetGroupEntry second = newList.get(newItemPosition);
+
+        if (first == second) {
+            return true;
+        }
+
+        // icons are taken from the applications and replaced, never modified
+        if (!Objects.equals(first.label, second.label) || first.icon != second.icon ||
+                first.widgets.size() != second.widgets.size()) {
+            return false;
+        }
+
+        for (int index = 0; index < first.widgets.size(); index++) {
+            AppWidgetProviderInfo firstInfo = first.widgets.get(index);
+            AppWidgetProviderInfo secondInfo = second.widgets.get(index);
+
+            if (!firstInfo.provider.equals(secondInfo.provider) ||
+                    !Objects.equals(first.labels.get(index), second.labels.get(index))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
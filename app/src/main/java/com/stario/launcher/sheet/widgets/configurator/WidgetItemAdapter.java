@@ -19,7 +19,7 @@ package com.stario.launcher.sheet.widgets.configurator;
 
 import android.annotation.SuppressLint;
 import android.appwidget.AppWidgetProviderInfo;
-import android.graphics.drawable.Drawable;
+import android.graphics.Bitmap;
 import android.os.Build;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -37,8 +37,8 @@ import com.stario.launcher.sheet.widgets.dialog.WidgetsDialog;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.Measurements;
 import com.stario.launcher.ui.icons.AdaptiveIconView;
+import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.ui.widgets.RoundedWidgetHost;
-import com.stario.launcher.utils.Casing;
 import com.stario.launcher.utils.Utils;
 import com.stario.launcher.ui.utils.animation.Animation;
 
@@ -103,8 +103,8 @@ public class WidgetItemAdapter extends RecyclerView.Adapter<WidgetItemAdapter.Vi
         AppWidgetProviderInfo info = entry.widgets.get(position);
 
         if (info != null) {
-            holder.label.setText(Casing.toTitleCase(
-                    info.loadLabel(activity.getPackageManager())));
+            holder.label.setText(entry.labels.get(position));
+            holder.preview.removeAllViews();
 
             holder.itemView.setOnClickListener(view -> {
                 if (holder.options.getVisibility() != View.VISIBLE) {
@@ -186,7 +186,8 @@ public class WidgetItemAdapter extends RecyclerView.Adapter<WidgetItemAdapter.Vi
             params.constrainedHeight = true;
             params.matchConstraintMaxHeight = Measurements.dpToPx(200);
 
-            Drawable previewImage = info.loadPreviewImage(activity, Measurements.getDotsPerInch());
+            WidgetCatalog catalog = WidgetCatalog.from(activity);
+            Bitmap previewImage = catalog.getPreview(info);
 
             if (Utils.isMinimumSDK(Build.VERSION_CODES.S)) {
                 int previewLayout = info.previewLayout;
@@ -202,8 +203,8 @@ public class WidgetItemAdapter extends RecyclerView.Adapter<WidgetItemAdapter.Vi
                                 (previewInfo.targetCellWidth * 2); // fake bigger cell height
                     } else if (previewImage != null) {
                         params.height = 0;
-                        params.dimensionRatio = "W," + ((float) previewImage.getIntrinsicHeight() /
-                                previewImage.getIntrinsicWidth()) + "f";
+                        params.dimensionRatio = "W," + ((float) previewImage.getHeight() /
+                                previewImage.getWidth()) + "f";
                     } else {
                         params.height = params.matchConstraintMaxHeight;
                     }
@@ -235,27 +236,42 @@ public class WidgetItemAdapter extends RecyclerView.Adapter<WidgetItemAdapter.Vi
                 }
             }
 
-            if (previewImage == null) {
-                previewImage = entry.icon;
-                params.height = AdaptiveIconView.getMaxIconSize();
-            } else {
-                params.height = 0;
-                params.dimensionRatio = "W," + ((float) previewImage.getIntrinsicHeight() /
-                        previewImage.getIntrinsicWidth()) + "f";
-                params.matchConstraintMaxHeight = Math.min(params.matchConstraintMaxHeight,
-                        Math.max(AdaptiveIconView.getMaxIconSize(), previewImage.getIntrinsicHeight()));
-            }
-
             ImageView imageView = new ImageView(activity);
 
             imageView.setScaleType(ImageView.ScaleType.FIT_CENTER);
-            imageView.setImageDrawable(previewImage);
-            imageView.setLayoutParams(params);
-
             holder.preview.addView(imageView);
+
+            showPreview(imageView, params, previewImage);
+
+            if (previewImage == null && catalog.hasPreview(info)) {
+                catalog.loadPreview(info).thenAccept(bitmap -> UiUtils.post(() -> {
+                    // the holder might have been rebound meanwhile
+                    if (bitmap != null && imageView.getParent() == holder.preview) {
+                        showPreview(imageView, params, bitmap);
+                    }
+                }));
+            }
         }
     }
 
+    private void showPreview(ImageView imageView, ConstraintLayout.LayoutParams params, Bitmap preview) {
+        if (preview == null) {
+            params.height = AdaptiveIconView.getMaxIconSize();
+
+            imageView.setImageDrawable(entry.icon);
+        } else {
+            params.height = 0;
+            params.dimensionRatio = "W," + ((float) preview.getHeight() /
+                    preview.getWidth()) + "f";
+            params.matchConstraintMaxHeight = Math.min(Measurements.dpToPx(200),
+                    Math.max(AdaptiveIconView.getMaxIconSize(), preview.getHeight()));
+
+            imageView.setImageBitmap(preview);
+        }
+
+        imageView.setLayoutParams(params);
+    }
+
     static void forwardGroupClicks(ViewGroup viewGroup, View forwardTarget) {
         for (int index = 0; index < viewGroup.getChildCount(); index++) {
             View view = viewGroup.getChildAt(index);
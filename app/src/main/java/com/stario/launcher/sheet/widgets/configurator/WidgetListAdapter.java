@@ -18,13 +18,8 @@
 package com.stario.launcher.sheet.widgets.configurator;
 
 import android.annotation.SuppressLint;
-import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProviderInfo;
-import android.content.pm.ActivityInfo;
-import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
 import android.graphics.drawable.Drawable;
-import android.os.Build;
 import android.transition.ChangeBounds;
 import android.transition.TransitionManager;
 import android.view.LayoutInflater;
@@ -34,28 +29,25 @@ import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.stario.launcher.R;
-import com.stario.launcher.apps.ProfileApplicationManager;
 import com.stario.launcher.preferences.Vibrations;
-import com.stario.launcher.apps.LauncherApplication;
-import com.stario.launcher.apps.ProfileManager;
 import com.stario.launcher.themes.ThemedActivity;
 import com.stario.launcher.ui.icons.AdaptiveIconView;
-import com.stario.launcher.ui.Measurements;
-import com.stario.launcher.utils.Utils;
 import com.stario.launcher.ui.utils.animation.Animation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class WidgetListAdapter extends RecyclerView.Adapter<WidgetListAdapter.ViewHolder> {
     private final WidgetConfigurator.Request requestListener;
     private final ThemedActivity activity;
     private final RecyclerView recycler;
-    private final WidgetEntries entries;
+    private List<WidgetGroupEntry> entries;
     private ViewHolder targetHolder;
 
     public WidgetListAdapter(ThemedActivity activity, RecyclerView recycler,
@@ -63,7 +55,7 @@ public class WidgetListAdapter extends RecyclerView.Adapter<WidgetListAdapter.Vi
         this.activity = activity;
         this.recycler = recycler;
         this.requestListener = requestListener;
-        this.entries = new WidgetEntries();
+        this.entries = Collections.emptyList();
         this.targetHolder = null;
 
         setHasStableIds(true);
@@ -72,65 +64,18 @@ public class WidgetListAdapter extends RecyclerView.Adapter<WidgetListAdapter.Vi
     public void update() {
         reset();
 
-        PackageManager packageManager = this.activity.getPackageManager();
+        WidgetCatalog.from(activity).load(result -> {
+            List<WidgetGroupEntry> previous = entries;
 
-        List<AppWidgetProviderInfo> widgets = AppWidgetManager
-                .getInstance(activity).getInstalledProviders();
-
-        entries.clear();
-
-        ProfileApplicationManager mainProfile =
-                ProfileManager.getInstance().getProfile(null);
-
-        if(mainProfile != null) {
-            for (AppWidgetProviderInfo info : widgets) {
-                String packageName = info.provider.getPackageName();
-                WidgetGroupEntry entry = entries.contains(packageName);
-
-                if (entry == null) {
-                    LauncherApplication application = mainProfile.get(info.provider.getPackageName());
-
-                    if (application != null) {
-                        entry = new WidgetGroupEntry(packageName, application.getLabel(), application.getIcon());
-                    } else {
-                        String label;
-                        Drawable icon;
-
-                        if (Utils.isMinimumSDK(Build.VERSION_CODES.S)) {
-                            ActivityInfo activityInfo = info.getActivityInfo();
-
-                            label = activityInfo.loadLabel(packageManager).toString();
-                            icon = activityInfo.loadIcon(packageManager);
-                        } else {
-                            try {
-                                ApplicationInfo applicationInfo = packageManager.getApplicationInfo(packageName, 0);
-
-                                label = applicationInfo.loadLabel(packageManager).toString();
-                                icon = applicationInfo.loadIcon(packageManager);
-                            } catch (PackageManager.NameNotFoundException exception) {
-                                label = info.loadLabel(packageManager);
-                                icon = info.loadIcon(activity, Measurements.getDotsPerInch());
-                            }
-                        }
-
-                        entry = new WidgetGroupEntry(packageName, label, icon);
-                    }
-
-                    int index = 0;
-                    while (index < entries.size() &&
-                            entries.get(index).compareTo(entry) < 0) {
-                        index++;
-                    }
-
-                    entries.add(index, entry);
-                }
-
-                entry.addWidget(info);
+            if (previous == result) {
+                return;
             }
-        }
 
-        // stupidly inefficient
-        notifyDataSetChanged();
+            entries = result;
+
+            DiffUtil.calculateDiff(new WidgetGroupDiffUtil(previous, result))
+                    .dispatchUpdatesTo(this);
+        });
     }
 
     private void reset() {
@@ -229,33 +174,24 @@ public class WidgetListAdapter extends RecyclerView.Adapter<WidgetListAdapter.Vi
         return new ViewHolder(inflater.inflate(R.layout.widget_picker_group, container, false));
     }
 
-    private static class WidgetEntries extends ArrayList<WidgetGroupEntry> {
-        public WidgetGroupEntry contains(String packageName) {
-            for (WidgetGroupEntry entry : this) {
-                if (entry.packageName.equals(packageName)) {
-                    return entry;
-                }
-            }
-
-            return null;
-        }
-    }
-
     public static class WidgetGroupEntry implements Comparable<WidgetGroupEntry> {
         final String packageName;
         final Drawable icon;
         final String label;
         final List<AppWidgetProviderInfo> widgets;
+        final List<String> labels;
 
         WidgetGroupEntry(String packageName, String label, Drawable icon) {
             this.packageName = packageName;
             this.label = label;
             this.icon = icon;
             this.widgets = new ArrayList<>();
+            this.labels = new ArrayList<>();
         }
 
-        private void addWidget(AppWidgetProviderInfo info) {
+        void addWidget(AppWidgetProviderInfo info, String label) {
             widgets.add(info);
+            labels.add(label);
         }
 
         @Override
@@ -57,6 +57,7 @@ import com.stario.launcher.ui.popup.PopupMenu;
 import com.stario.launcher.ui.utils.animation.Animation;
 import com.stario.launcher.ui.widgets.WidgetGrid;
 import com.stario.launcher.ui.widgets.WidgetHost;
+import com.stario.launcher.ui.widgets.WidgetLoader;
 import com.stario.launcher.ui.widgets.WidgetScroller;
 
 import java.util.PriorityQueue;
@@ -79,6 +80,7 @@ public class WidgetsDialog extends SheetDialogFragment {
     private ThemedActivity activity;
     private ViewGroup placeholder;
     private LinearLayout content;
+    private WidgetLoader loader;
     private WidgetHost host;
     private WidgetGrid grid;
 
@@ -205,13 +207,14 @@ public class WidgetsDialog extends SheetDialogFragment {
             }
         }
 
+        loader = new WidgetLoader(grid, (widget, deferUpdates) ->
+                createWidgetView(manager, widget, deferUpdates));
+
         while (!widgets.isEmpty()) {
-            AppWidgetManager manager = AppWidgetManager.getInstance(activity);
             Widget widget = widgets.poll();
 
             if (widget != null) {
-                AppWidgetHostView host = createWidgetView(manager, widget);
-                grid.attach(host, widget);
+                loader.add(widget);
 
                 updatePlaceholderVisibility(View.GONE);
             }
@@ -275,7 +278,7 @@ public class WidgetsDialog extends SheetDialogFragment {
 
     private void setupWidget(AppWidgetManager manager, int identifier, WidgetSize size) {
         Widget widget = new Widget(identifier, grid.allocatePosition(), size);
-        AppWidgetHostView host = createWidgetView(manager, widget);
+        AppWidgetHostView host = createWidgetView(manager, widget, false);
 
         if (host.getAppWidgetInfo().configure == null) {
             completeWidgetSetup(widget, host);
@@ -321,10 +324,11 @@ public class WidgetsDialog extends SheetDialogFragment {
         updatePlaceholderVisibility(View.GONE);
     }
 
-    private AppWidgetHostView createWidgetView(AppWidgetManager manager, Widget widget) {
+    private AppWidgetHostView createWidgetView(AppWidgetManager manager, Widget widget, boolean deferUpdates) {
         AppWidgetProviderInfo info = manager.getAppWidgetInfo(widget.id);
-        AppWidgetHostView host = requireWidgetHost()
-                .createView(activity.getApplicationContext(), widget.id, info);
+        AppWidgetHostView host = deferUpdates ?
+                requireWidgetHost().createDeferredView(activity.getApplicationContext(), widget.id, info) :
+                requireWidgetHost().createView(activity.getApplicationContext(), widget.id, info);
 
         host.setOnLongClickListener(v -> {
             Vibrations.getInstance().vibrate();
@@ -405,6 +409,15 @@ public class WidgetsDialog extends SheetDialogFragment {
         return host;
     }
 
+    @Override
+    public void onDestroyView() {
+        if (loader != null) {
+            loader.cancel();
+        }
+
+        super.onDestroyView();
+    }
+
     @Override
     public void onConfigurationChanged(@NonNull Configuration newConfig) {
         super.onConfigurationChanged(newConfig);
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common;
+
+/**
+ * Geometry of the faded areas of {@link FadingEdgeLayout}. Rects are stored as
+ * left, top, right, bottom and are empty when they have no area.
+ */
+final class FadeStrips {
+    static final int TOP = 0;
+    static final int BOTTOM = 1;
+    static final int LEFT = 2;
+    static final int RIGHT = 3;
+
+    static final int TOP_LEFT = 0;
+    static final int TOP_RIGHT = 1;
+    static final int BOTTOM_LEFT = 2;
+    static final int BOTTOM_RIGHT = 3;
+
+    /**
+     * Full length gradient of every edge.
+     */
+    final int[][] gradients = new int[4][4];
+    /**
+     * Gradients trimmed by the rounded corners.
+     */
+    final int[][] masks = new int[4][4];
+    final int[][] corners = new int[4][4];
+    final int[] radii = new int[4];
+    /**
+     * Disjoint areas composited offscreen.
+     */
+    final int[][] layers = new int[4][4];
+    /**
+     * Set when the strips overlap and the whole view has to be composited instead.
+     */
+    boolean fullLayer;
+
+    /**
+     * @param sizeTop Fade length of the top edge, 0 when the edge does not fade
+     */
+    void update(int width, int height,
+                int paddingLeft, int paddingTop, int paddingRight, int paddingBottom,
+                int sizeTop, int sizeBottom, int sizeLeft, int sizeRight, boolean rounded) {
+        int left = paddingLeft;
+        int top = paddingTop;
+        int right = width - paddingRight;
+        int bottom = height - paddingBottom;
+
+        sizeTop = Math.max(0, sizeTop);
+        sizeBottom = Math.max(0, sizeBottom);
+        sizeLeft = Math.max(0, sizeLeft);
+        sizeRight = Math.max(0, sizeRight);
+
+        set(gradients[TOP], left, top, right, top + Math.min(sizeTop, bottom - top));
+        set(gradients[BOTTOM], left, bottom - Math.min(sizeBottom, bottom - top), right, bottom);
+        set(gradients[LEFT], left, top, left + Math.min(sizeLeft, right - left), bottom);
+        set(gradients[RIGHT], right - Math.min(sizeRight, right - left), top, right, bottom);
+
+        radii[TOP_LEFT] = rounded ? Math.min(sizeTop, sizeLeft) : 0;
+        radii[TOP_RIGHT] = rounded ? Math.min(sizeTop, sizeRight) : 0;
+        radii[BOTTOM_LEFT] = rounded ? Math.min(sizeBottom, sizeLeft) : 0;
+        radii[BOTTOM_RIGHT] = rounded ? Math.min(sizeBottom, sizeRight) : 0;
+
+        setMask(masks[TOP], gradients[TOP], radii[TOP_LEFT], 0, radii[TOP_RIGHT], 0);
+        setMask(masks[BOTTOM], gradients[BOTTOM], radii[BOTTOM_LEFT], 0, radii[BOTTOM_RIGHT], 0);
+        setMask(masks[LEFT], gradients[LEFT], 0, radii[TOP_LEFT], 0, radii[BOTTOM_LEFT]);
+        setMask(masks[RIGHT], gradients[RIGHT], 0, radii[TOP_RIGHT], 0, radii[BOTTOM_RIGHT]);
+
+        int radius = radii[TOP_LEFT];
+        setCorner(corners[TOP_LEFT], radius, left, top, left + radius, top + radius);
+        radius = radii[TOP_RIGHT];
+        setCorner(corners[TOP_RIGHT], radius, right - radius, top, right, top + radius);
+        radius = radii[BOTTOM_LEFT];
+        setCorner(corners[BOTTOM_LEFT], radius, left, bottom - radius, left + radius, bottom);
+        radius = radii[BOTTOM_RIGHT];
+        setCorner(corners[BOTTOM_RIGHT], radius, right - radius, bottom - radius, right, bottom);
+
+        updateLayers();
+    }
+
+    /**
+     * Splits the faded area in disjoint rects: full width strips for the top and
+     * bottom edges and the remaining height of the left and right edges.
+     */
+    private void updateLayers() {
+        int[] top = layers[TOP];
+        int[] bottom = layers[BOTTOM];
+        int[] left = layers[LEFT];
+        int[] right = layers[RIGHT];
+
+        copy(top, masks[TOP]);
+        union(top, corners[TOP_LEFT]);
+        union(top, corners[TOP_RIGHT]);
+
+        copy(bottom, masks[BOTTOM]);
+        union(bottom, corners[BOTTOM_LEFT]);
+        union(bottom, corners[BOTTOM_RIGHT]);
+
+        copy(left, masks[LEFT]);
+        union(left, corners[TOP_LEFT]);
+        union(left, corners[BOTTOM_LEFT]);
+
+        copy(right, masks[RIGHT]);
+        union(right, corners[TOP_RIGHT]);
+        union(right, corners[BOTTOM_RIGHT]);
+
+        extendStrip(top);
+        extendStrip(bottom);
+        excludeStrips(left);
+        excludeStrips(right);
+
+        // overlapping strips would composite the content twice
+        fullLayer = intersects(top, bottom) || intersects(left, right);
+    }
+
+    private void extendStrip(int[] strip) {
+        if (isEmpty(strip)) {
+            return;
+        }
+
+        if (!isEmpty(layers[LEFT])) {
+            strip[0] = Math.min(strip[0], layers[LEFT][0]);
+        }
+
+        if (!isEmpty(layers[RIGHT])) {
+            strip[2] = Math.max(strip[2], layers[RIGHT][2]);
+        }
+    }
+
+    private void excludeStrips(int[] rect) {
+        if (isEmpty(rect)) {
+            return;
+        }
+
+        if (!isEmpty(layers[TOP])) {
+            rect[1] = Math.max(rect[1], layers[TOP][3]);
+        }
+
+        if (!isEmpty(layers[BOTTOM])) {
+            rect[3] = Math.min(rect[3], layers[BOTTOM][1]);
+        }
+
+        if (rect[1] >= rect[3]) {
+            setEmpty(rect);
+        }
+    }
+
+    static boolean isEmpty(int[] rect) {
+        return rect[0] >= rect[2] || rect[1] >= rect[3];
+    }
+
+    static boolean intersects(int[] first, int[] second) {
+        return !isEmpty(first) && !isEmpty(second) &&
+                first[0] < second[2] && second[0] < first[2] &&
+                first[1] < second[3] && second[1] < first[3];
+    }
+
+    private static void setMask(int[] mask, int[] gradient,
+                                int insetLeft, int insetTop, int insetRight, int insetBottom) {
+        set(mask, gradient[0] + insetLeft, gradient[1] + insetTop,
+                gradient[2] - insetRight, gradient[3] - insetBottom);
+    }
+
+    private static void setCorner(int[] corner, int radius,
+                                  int left, int top, int right, int bottom) {
+        if (radius <= 0) {
+            setEmpty(corner);
+        } else {
+            set(corner, left, top, right, bottom);
+        }
+    }
+
+    private static void set(int[] rect, int left, int top, int right, int bottom) {
+        rect[0] = left;
+        rect[1] = top;
+        rect[2] = right;
+        rect[3] = bottom;
+
+        if (isEmpty(rect)) {
+            setEmpty(rect);
+        }
+    }
+
+    private static void copy(int[] rect, int[] source) {
+        System.arraycopy(source, 0, rect, 0, 4);
+    }
+
+    private static void union(int[] rect, int[] other) {
+        if (isEmpty(other)) {
+            return;
+        }
+
+        if (isEmpty(rect)) {
+            copy(rect, other);
+        } else {
+            rect[0] = Math.min(rect[0], other[0]);
+            rect[1] = Math.min(rect[1], other[1]);
+            rect[2] = Math.max(rect[2], other[2]);
+            rect[3] = Math.max(rect[3], other[3]);
+        }
+    }
+
+    private static void setEmpty(int[] rect) {
+        rect[0] = rect[1] = rect[2] = rect[3] = 0;
+    }
+}
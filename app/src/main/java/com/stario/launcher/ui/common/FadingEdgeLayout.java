@@ -37,6 +37,12 @@ import androidx.annotation.NonNull;
 import com.stario.launcher.R;
 
 // modification of https://github.com/bosphere/Android-FadingEdgeLayout to support corner fade rounding
+
+/**
+ * Fades its content out towards the chosen edges. Only the faded strips are composited
+ * offscreen, the rest of the content is drawn straight to the canvas. Shaders and
+ * rects are rebuilt when the size, padding or fade lengths change, never while drawing.
+ */
 public class FadingEdgeLayout extends FrameLayout {
     private static final int DEFAULT_GRADIENT_SIZE_DP = 80;
 
@@ -64,17 +70,13 @@ public class FadingEdgeLayout extends FrameLayout {
     private int gradientSizeRight;
     private boolean rounded;
 
-    private Paint gradientPaintTop;
-    private Paint gradientPaintBottom;
-    private Paint gradientPaintLeft;
-    private Paint gradientPaintRight;
-
-    private Paint cornerPaint;
-
-    private Rect gradientRectTop;
-    private Rect gradientRectBottom;
-    private Rect gradientRectLeft;
-    private Rect gradientRectRight;
+    // indexed by the FadeStrips edge and corner constants
+    private final Paint[] gradientPaints = new Paint[4];
+    private final Paint[] cornerPaints = new Paint[4];
+    private final Rect[] maskRects = createRects();
+    private final Rect[] cornerRects = createRects();
+    private final Rect[] layerRects = createRects();
+    private final FadeStrips strips = new FadeStrips();
 
     private int gradientDirtyFlags;
 
@@ -124,17 +126,10 @@ public class FadingEdgeLayout extends FrameLayout {
             rounded = false;
         }
 
-        gradientPaintTop = createFadePaint();
-        gradientPaintBottom = createFadePaint();
-        gradientPaintLeft = createFadePaint();
-        gradientPaintRight = createFadePaint();
-
-        cornerPaint = createFadePaint();
-
-        gradientRectTop = new Rect();
-        gradientRectLeft = new Rect();
-        gradientRectBottom = new Rect();
-        gradientRectRight = new Rect();
+        for (int index = 0; index < 4; index++) {
+            gradientPaints[index] = createFadePaint();
+            cornerPaints[index] = createFadePaint();
+        }
     }
 
     private Paint createFadePaint() {
@@ -143,6 +138,16 @@ public class FadingEdgeLayout extends FrameLayout {
         return paint;
     }
 
+    private static Rect[] createRects() {
+        Rect[] rects = new Rect[4];
+
+        for (int index = 0; index < rects.length; index++) {
+            rects[index] = new Rect();
+        }
+
+        return rects;
+    }
+
     public boolean isRounded() {
         return rounded;
     }
@@ -151,7 +156,7 @@ public class FadingEdgeLayout extends FrameLayout {
         if (this.rounded != rounded) {
             this.rounded = rounded;
 
-            gradientDirtyFlags = (DIRTY_FLAG_TOP | DIRTY_FLAG_LEFT | DIRTY_FLAG_BOTTOM | DIRTY_FLAG_TOP);
+            gradientDirtyFlags = (DIRTY_FLAG_TOP | DIRTY_FLAG_LEFT | DIRTY_FLAG_BOTTOM | DIRTY_FLAG_RIGHT);
             invalidate();
         }
     }
@@ -255,164 +260,128 @@ public class FadingEdgeLayout extends FrameLayout {
             return;
         }
 
-        if ((gradientDirtyFlags & DIRTY_FLAG_TOP) != 0) {
-            gradientDirtyFlags &= ~DIRTY_FLAG_TOP;
-            initTopGradient();
-        }
-        if ((gradientDirtyFlags & DIRTY_FLAG_LEFT) != 0) {
-            gradientDirtyFlags &= ~DIRTY_FLAG_LEFT;
-            initLeftGradient();
+        if (gradientDirtyFlags != 0) {
+            updateGradients();
         }
-        if ((gradientDirtyFlags & DIRTY_FLAG_BOTTOM) != 0) {
-            gradientDirtyFlags &= ~DIRTY_FLAG_BOTTOM;
-            initBottomGradient();
+
+        if (strips.fullLayer) {
+            int count = canvas.saveLayer(0.0f, 0.0f, width, height, null);
+
+            super.dispatchDraw(canvas);
+            drawMasks(canvas);
+
+            canvas.restoreToCount(count);
+
+            return;
         }
-        if ((gradientDirtyFlags & DIRTY_FLAG_RIGHT) != 0) {
-            gradientDirtyFlags &= ~DIRTY_FLAG_RIGHT;
-            initRightGradient();
+
+        int count = canvas.save();
+
+        for (Rect layer : layerRects) {
+            canvas.clipOutRect(layer);
         }
 
-        int count = canvas.saveLayer(0.0f, 0.0f, width, height, null);
         super.dispatchDraw(canvas);
 
-        int radius_tl = 0, radius_tr = 0, radius_bl = 0, radius_br = 0;
-        if (rounded) {
-            if (fadeTop && fadeLeft) {
-                radius_tl = Math.min(gradientSizeTop, gradientSizeLeft);
-            }
-            if (fadeTop && fadeRight) {
-                radius_tr = Math.min(gradientSizeTop, gradientSizeRight);
-            }
-            if (fadeBottom && fadeLeft) {
-                radius_bl = Math.min(gradientSizeBottom, gradientSizeLeft);
-            }
-            if (fadeBottom && fadeRight) {
-                radius_br = Math.min(gradientSizeBottom, gradientSizeRight);
-            }
-        }
+        canvas.restoreToCount(count);
 
-        if (fadeTop && gradientSizeTop > 0) {
-            Rect topRect = new Rect(gradientRectTop);
-            topRect.left += radius_tl;
-            topRect.right -= radius_tr;
+        for (Rect layer : layerRects) {
+            drawLayer(canvas, layer);
+        }
+    }
 
-            if (topRect.left < topRect.right) {
-                canvas.drawRect(topRect, gradientPaintTop);
-            }
+    private void drawLayer(Canvas canvas, Rect area) {
+        if (area.isEmpty()) {
+            return;
         }
 
-        if (fadeBottom && gradientSizeBottom > 0) {
-            Rect bottomRect = new Rect(gradientRectBottom);
-            bottomRect.left += radius_bl;
-            bottomRect.right -= radius_br;
+        int count = canvas.saveLayer(area.left, area.top, area.right, area.bottom, null);
 
-            if (bottomRect.left < bottomRect.right) {
-                canvas.drawRect(bottomRect, gradientPaintBottom);
+        canvas.clipRect(area);
+        super.dispatchDraw(canvas);
+        drawMasks(canvas);
+
+        canvas.restoreToCount(count);
+    }
+
+    private void drawMasks(Canvas canvas) {
+        for (int index = 0; index < 4; index++) {
+            if (!maskRects[index].isEmpty()) {
+                canvas.drawRect(maskRects[index], gradientPaints[index]);
             }
         }
 
-        if (fadeLeft && gradientSizeLeft > 0) {
-            Rect leftRect = new Rect(gradientRectLeft);
-            leftRect.top += radius_tl;
-            leftRect.bottom -= radius_bl;
-
-            if (leftRect.top < leftRect.bottom) {
-                canvas.drawRect(leftRect, gradientPaintLeft);
+        for (int index = 0; index < 4; index++) {
+            if (!cornerRects[index].isEmpty()) {
+                canvas.drawRect(cornerRects[index], cornerPaints[index]);
             }
         }
+    }
 
-        if (fadeRight && gradientSizeRight > 0) {
-            Rect rightRect = new Rect(gradientRectRight);
-            rightRect.top += radius_tr;
-            rightRect.bottom -= radius_br;
+    private void updateGradients() {
+        strips.update(getWidth(), getHeight(),
+                getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom(),
+                fadeTop ? gradientSizeTop : 0, fadeBottom ? gradientSizeBottom : 0,
+                fadeLeft ? gradientSizeLeft : 0, fadeRight ? gradientSizeRight : 0, rounded);
 
-            if (rightRect.top < rightRect.bottom) {
-                canvas.drawRect(rightRect, gradientPaintRight);
-            }
+        if ((gradientDirtyFlags & DIRTY_FLAG_TOP) != 0) {
+            setGradient(FadeStrips.TOP, true, FADE_COLORS);
+        }
+        if ((gradientDirtyFlags & DIRTY_FLAG_LEFT) != 0) {
+            setGradient(FadeStrips.LEFT, false, FADE_COLORS);
+        }
+        if ((gradientDirtyFlags & DIRTY_FLAG_BOTTOM) != 0) {
+            setGradient(FadeStrips.BOTTOM, true, FADE_COLORS_REVERSE);
+        }
+        if ((gradientDirtyFlags & DIRTY_FLAG_RIGHT) != 0) {
+            setGradient(FadeStrips.RIGHT, false, FADE_COLORS_REVERSE);
         }
 
-        if (rounded) {
-            if (radius_tl > 0) {
-                float cx = getPaddingLeft() + radius_tl;
-                float cy = getPaddingTop() + radius_tl;
-                cornerPaint.setShader(new RadialGradient(cx, cy, radius_tl, FADE_COLORS_REVERSE,
-                        null, Shader.TileMode.CLAMP));
-                canvas.drawRect(getPaddingLeft(), getPaddingTop(), cx, cy, cornerPaint);
-            }
+        gradientDirtyFlags = 0;
 
-            if (radius_tr > 0) {
-                float cx = getWidth() - getPaddingRight() - radius_tr;
-                float cy = getPaddingTop() + radius_tr;
-                cornerPaint.setShader(new RadialGradient(cx, cy, radius_tr, FADE_COLORS_REVERSE,
-                        null, Shader.TileMode.CLAMP));
-                canvas.drawRect(cx, getPaddingTop(), getWidth() - getPaddingRight(), cy, cornerPaint);
-            }
+        setCorner(FadeStrips.TOP_LEFT, true, true);
+        setCorner(FadeStrips.TOP_RIGHT, false, true);
+        setCorner(FadeStrips.BOTTOM_LEFT, true, false);
+        setCorner(FadeStrips.BOTTOM_RIGHT, false, false);
 
-            if (radius_bl > 0) {
-                float cx = getPaddingLeft() + radius_bl;
-                float cy = getHeight() - getPaddingBottom() - radius_bl;
-                cornerPaint.setShader(new RadialGradient(cx, cy, radius_bl, FADE_COLORS_REVERSE,
-                        null, Shader.TileMode.CLAMP));
-                canvas.drawRect(getPaddingLeft(), cy, cx, getHeight() - getPaddingBottom(), cornerPaint);
-            }
+        for (int index = 0; index < 4; index++) {
+            setRect(maskRects[index], strips.masks[index]);
+            setRect(layerRects[index], strips.layers[index]);
+        }
+    }
 
-            if (radius_br > 0) {
-                float cx = getWidth() - getPaddingRight() - radius_br;
-                float cy = getHeight() - getPaddingBottom() - radius_br;
-                cornerPaint.setShader(new RadialGradient(cx, cy, radius_br, FADE_COLORS_REVERSE,
-                        null, Shader.TileMode.CLAMP));
-                canvas.drawRect(cx, cy, getWidth() - getPaddingRight(), getHeight() - getPaddingBottom(), cornerPaint);
-            }
+    private void setGradient(int edge, boolean vertical, int[] colors) {
+        int[] rect = strips.gradients[edge];
+
+        if (FadeStrips.isEmpty(rect)) {
+            gradientPaints[edge].setShader(null);
+
+            return;
         }
 
-        canvas.restoreToCount(count);
+        gradientPaints[edge].setShader(new LinearGradient(rect[0], rect[1],
+                vertical ? rect[0] : rect[2], vertical ? rect[3] : rect[1],
+                colors, null, Shader.TileMode.CLAMP));
     }
 
-    private void initTopGradient() {
-        int actualHeight = getHeight() - getPaddingTop() - getPaddingBottom();
-        int size = Math.min(gradientSizeTop, actualHeight);
-        int l = getPaddingLeft();
-        int t = getPaddingTop();
-        int r = getWidth() - getPaddingRight();
-        int b = t + size;
-        gradientRectTop.set(l, t, r, b);
-        LinearGradient gradient = new LinearGradient(l, t, l, b, FADE_COLORS, null, Shader.TileMode.CLAMP);
-        gradientPaintTop.setShader(gradient);
-    }
+    private void setCorner(int corner, boolean left, boolean top) {
+        int[] rect = strips.corners[corner];
+        int radius = strips.radii[corner];
 
-    private void initLeftGradient() {
-        int actualWidth = getWidth() - getPaddingLeft() - getPaddingRight();
-        int size = Math.min(gradientSizeLeft, actualWidth);
-        int l = getPaddingLeft();
-        int t = getPaddingTop();
-        int r = l + size;
-        int b = getHeight() - getPaddingBottom();
-        gradientRectLeft.set(l, t, r, b);
-        LinearGradient gradient = new LinearGradient(l, t, r, t, FADE_COLORS, null, Shader.TileMode.CLAMP);
-        gradientPaintLeft.setShader(gradient);
-    }
+        setRect(cornerRects[corner], rect);
+
+        if (radius <= 0) {
+            cornerPaints[corner].setShader(null);
+
+            return;
+        }
 
-    private void initBottomGradient() {
-        int actualHeight = getHeight() - getPaddingTop() - getPaddingBottom();
-        int size = Math.min(gradientSizeBottom, actualHeight);
-        int l = getPaddingLeft();
-        int t = getPaddingTop() + actualHeight - size;
-        int r = getWidth() - getPaddingRight();
-        int b = t + size;
-        gradientRectBottom.set(l, t, r, b);
-        LinearGradient gradient = new LinearGradient(l, t, l, b, FADE_COLORS_REVERSE, null, Shader.TileMode.CLAMP);
-        gradientPaintBottom.setShader(gradient);
+        // the fade is centered on the inner corner of the rect
+        cornerPaints[corner].setShader(new RadialGradient(left ? rect[2] : rect[0],
+                top ? rect[3] : rect[1], radius, FADE_COLORS_REVERSE, null, Shader.TileMode.CLAMP));
     }
 
-    private void initRightGradient() {
-        int actualWidth = getWidth() - getPaddingLeft() - getPaddingRight();
-        int size = Math.min(gradientSizeRight, actualWidth);
-        int l = getPaddingLeft() + actualWidth - size;
-        int t = getPaddingTop();
-        int r = l + size;
-        int b = getHeight() - getPaddingBottom();
-        gradientRectRight.set(l, t, r, b);
-        LinearGradient gradient = new LinearGradient(l, t, r, t, FADE_COLORS_REVERSE, null, Shader.TileMode.CLAMP);
-        gradientPaintRight.setShader(gradient);
+    private static void setRect(Rect rect, int[] source) {
+        rect.set(source[0], source[1], source[2], source[3]);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common;
+
+/**
+ * Frame loop of {@link GradientView}, kept apart from GL and the Choreographer. At most one
+ * frame is requested at a time, frames are only drawn while rendering with a non empty
+ * size, and the animation time only advances while drawing.
+ */
+final class GradientFrameLoop {
+    static final long MAX_FRAME_DELTA_NANOS = 100_000_000;
+
+    private final Host host;
+    private boolean rendering;
+    private boolean scheduled;
+    private boolean sized;
+    private long lastFrameNanos;
+    private float time;
+
+    GradientFrameLoop(Host host) {
+        this.host = host;
+        this.rendering = false;
+        this.scheduled = false;
+        this.sized = false;
+        this.lastFrameNanos = 0;
+        this.time = 0;
+    }
+
+    void setRendering(boolean rendering) {
+        this.rendering = rendering;
+
+        if (rendering) {
+            schedule();
+        } else {
+            cancel();
+        }
+    }
+
+    void setSize(int width, int height) {
+        sized = width > 0 && height > 0;
+
+        schedule();
+    }
+
+    void doFrame(long frameTimeNanos) {
+        scheduled = false;
+
+        if (!rendering || !sized) {
+            return;
+        }
+
+        // time only passes while drawing, so the animation resumes where it was left
+        if (lastFrameNanos != 0) {
+            time += Math.min(frameTimeNanos - lastFrameNanos, MAX_FRAME_DELTA_NANOS) / 1_000_000f;
+        }
+
+        lastFrameNanos = frameTimeNanos;
+
+        host.drawFrame(time);
+
+        schedule();
+    }
+
+    /**
+     * @return Animation time in milliseconds
+     */
+    float getTime() {
+        return time;
+    }
+
+    /**
+     * @return Number of mesh segments along a side, the mesh only has to be smooth
+     * and more segments than one per segmentDp are not noticeable
+     */
+    static int getSegments(int pixels, float density, float segmentDp, int max) {
+        return Math.max(1, Math.min(max, (int) Math.ceil(pixels / density / segmentDp)));
+    }
+
+    private void schedule() {
+        if (rendering && !scheduled) {
+            scheduled = true;
+
+            host.postFrame();
+        }
+    }
+
+    private void cancel() {
+        if (scheduled) {
+            host.removeFrame();
+
+            scheduled = false;
+        }
+
+        lastFrameNanos = 0;
+    }
+
+    interface Host {
+        /**
+         * Requests a call to {@link #doFrame(long)} on the next vsync.
+         */
+        void postFrame();
+
+        void removeFrame();
+
+        /**
+         * @param time Animation time in milliseconds
+         */
+        void drawFrame(float time);
+    }
+}
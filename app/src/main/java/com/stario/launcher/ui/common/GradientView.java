@@ -22,8 +22,11 @@ import android.graphics.Color;
 import android.graphics.SurfaceTexture;
 import android.opengl.GLES20;
 import android.opengl.Matrix;
+import android.os.Handler;
+import android.os.HandlerThread;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.TextureView;
 
 import androidx.annotation.NonNull;
@@ -57,12 +60,24 @@ import javax.microedition.khronos.egl.EGLSurface;
 // https://stripe.com
 // https://kevinhufnagl.com
 
+/**
+ * Animated gradient drawn by its own GL thread. Frames are paced by the vsync of that
+ * thread and only drawn while the view is visible in a focused window, otherwise the
+ * thread sleeps. The thread is stopped once the surface is released, which happens
+ * when the view is detached.
+ */
 public class GradientView extends TextureView implements TextureView.SurfaceTextureListener {
     private static final String TAG = "GradientView";
+    private static final float COLUMN_SIZE_DP = 16;
+    private static final float ROW_SIZE_DP = 6;
+    private static final int MAX_COLUMNS = 64;
+    private static final int MAX_ROWS = 128;
 
     private final int[] themeColors = new int[4];
 
     private RenderThread renderThread;
+    private boolean visible;
+    private boolean focused;
 
     public GradientView(@NonNull Context context) {
         super(context);
@@ -97,19 +112,37 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
         themeColors[3] = activity.getAttributeData(com.google.android.material.R.attr.colorSurfaceContainerHigh);
     }
 
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+
+        visible = isVisible;
+        updateRendering();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+
+        // sheets and dialogs on top of the window take its focus
+        focused = hasWindowFocus;
+        updateRendering();
+    }
+
     @Override
     public void onSurfaceTextureAvailable(@NonNull SurfaceTexture surface, int width, int height) {
         renderThread = new RenderThread(surface, getContext(), themeColors);
-
-        renderThread.updateSize(width, height);
         renderThread.start();
+
+        focused = hasWindowFocus();
+
+        updateSize(width, height);
+        updateRendering();
     }
 
     @Override
     public void onSurfaceTextureSizeChanged(@NonNull SurfaceTexture surface, int width, int height) {
-        if (renderThread != null) {
-            renderThread.updateSize(width, height);
-        }
+        updateSize(width, height);
     }
 
     @Override
@@ -122,6 +155,8 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             } catch (InterruptedException exception) {
                 Log.e(TAG, "Failed to stop render thread", exception);
             }
+
+            renderThread = null;
         }
 
         return true;
@@ -131,16 +166,39 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
     public void onSurfaceTextureUpdated(@NonNull SurfaceTexture surface) {
     }
 
-    private static class RenderThread extends Thread {
+    private void updateSize(int width, int height) {
+        if (renderThread == null) {
+            return;
+        }
+
+        float density = getResources().getDisplayMetrics().density;
+
+        renderThread.updateSize(width, height,
+                GradientFrameLoop.getSegments(width, density, COLUMN_SIZE_DP, MAX_COLUMNS),
+                GradientFrameLoop.getSegments(height, density, ROW_SIZE_DP, MAX_ROWS));
+    }
+
+    private void updateRendering() {
+        if (renderThread != null) {
+            renderThread.setRendering(visible && focused);
+        }
+    }
+
+    /**
+     * Owns the GL context, every GL call happens in tasks posted to its looper.
+     */
+    private static class RenderThread extends HandlerThread
+            implements Choreographer.FrameCallback, GradientFrameLoop.Host {
+        private static final int STRIDE = 7;
+
         private final SurfaceTexture surfaceTexture;
         private final int[] themeColors;
         private final float[] noiseSeeds;
         private final Context context;
+        private final GradientFrameLoop loop;
 
-        private volatile boolean running;
-        private boolean sizeChanged = false;
-        private int width;
-        private int height;
+        private Handler handler;
+        private Choreographer choreographer;
 
         private EGLDisplay eglDisplay;
         private EGLContext eglContext;
@@ -149,22 +207,22 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
 
         private final float[] projectionMatrix;
         private final float[] modelViewMatrix;
-        private ShortBuffer indexBuffer;
-        private FloatBuffer vertexBuffer;
-        private FloatBuffer uvNormBuffer;
-        private FloatBuffer uvBuffer;
-        private long startTime;
+        private final int[] buffers;
         private int indexCount;
         private int program;
+        private int timeLocation;
 
         public RenderThread(SurfaceTexture surface, Context context, int[] colors) {
+            super(TAG);
+
             this.projectionMatrix = new float[16];
             this.modelViewMatrix = new float[16];
+            this.buffers = new int[2];
             this.noiseSeeds = new float[3];
             this.surfaceTexture = surface;
             this.themeColors = colors;
             this.context = context;
-            this.running = true;
+            this.loop = new GradientFrameLoop(this);
 
             float baseSeed = new Random().nextFloat() * 200.0f;
             for (int index = 0; index < 3; index++) {
@@ -172,41 +230,69 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             }
         }
 
-        public void updateSize(int width, int height) {
-            this.sizeChanged = true;
+        @Override
+        public synchronized void start() {
+            super.start();
+
+            handler = new Handler(getLooper());
+            handler.post(() -> {
+                choreographer = Choreographer.getInstance();
+
+                initEGL();
+                initGL();
+            });
+        }
+
+        public void updateSize(int width, int height, int columns, int rows) {
+            handler.post(() -> {
+                GLES20.glViewport(0, 0, width, height);
+                GLES20.glUniform2f(GLES20.glGetUniformLocation(program, "uResolution"),
+                        (float) width, (float) height);
+                generatePlaneMesh(columns, rows);
+
+                loop.setSize(width, height);
+            });
+        }
 
-            this.height = height;
-            this.width = width;
+        public void setRendering(boolean rendering) {
+            handler.post(() -> loop.setRendering(rendering));
         }
 
         public void stopRendering() {
-            running = false;
+            handler.post(() -> {
+                loop.setRendering(false);
+
+                destroyEGL();
+                quit();
+            });
         }
 
         @Override
-        public void run() {
-            initEGL();
-            initGL();
-
-            while (running) {
-                if (sizeChanged) {
-                    GLES20.glViewport(0, 0, width, height);
-                    Matrix.orthoM(projectionMatrix,
-                            0, -1, 1, -1, 1, -10, 10);
-                    Matrix.setIdentityM(modelViewMatrix, 0);
-                    generatePlaneMesh((int) Math.ceil(width * 0.06), (int) Math.ceil(height * 0.16));
-
-                    sizeChanged = false;
-                }
+        public void doFrame(long frameTimeNanos) {
+            loop.doFrame(frameTimeNanos);
+        }
 
-                drawFrame();
+        @Override
+        public void postFrame() {
+            choreographer.postFrameCallback(this);
+        }
 
-                if (!egl.eglSwapBuffers(eglDisplay, eglSurface)) {
-                    Log.e(TAG, "Buffer swap failed");
-                }
-            }
+        @Override
+        public void removeFrame() {
+            choreographer.removeFrameCallback(this);
+        }
 
-            destroyEGL();
+        @Override
+        public void drawFrame(float time) {
+            GLES20.glClearColor(0, 0, 0, 0);
+            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
+
+            GLES20.glUniform1f(timeLocation, time);
+            GLES20.glDrawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_SHORT, 0);
+
+            if (!egl.eglSwapBuffers(eglDisplay, eglSurface)) {
+                Log.e(TAG, "Buffer swap failed");
+            }
         }
 
         private void initEGL() {
@@ -239,24 +325,19 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             GLES20.glAttachShader(program, loadShader(GLES20.GL_VERTEX_SHADER, vertexCode));
             GLES20.glAttachShader(program, loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentCode));
             GLES20.glLinkProgram(program);
-
-            startTime = System.currentTimeMillis();
+            GLES20.glUseProgram(program);
 
             GLES20.glEnable(GLES20.GL_BLEND);
             GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
             GLES20.glDisable(GLES20.GL_CULL_FACE);
-        }
 
-        private void drawFrame() {
-            GLES20.glClearColor(0, 0, 0, 0);
-            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
-            GLES20.glUseProgram(program);
+            // only the time changes between frames, everything else is set once
+            Matrix.orthoM(projectionMatrix, 0, -1, 1, -1, 1, -10, 10);
+            Matrix.setIdentityM(modelViewMatrix, 0);
 
-            float timeParam = (float) (System.currentTimeMillis() - startTime);
-            GLES20.glUniform1f(GLES20.glGetUniformLocation(program, "uTime"), timeParam);
+            timeLocation = GLES20.glGetUniformLocation(program, "uTime");
             GLES20.glUniformMatrix4fv(GLES20.glGetUniformLocation(program, "uProjectionMatrix"), 1, false, projectionMatrix, 0);
             GLES20.glUniformMatrix4fv(GLES20.glGetUniformLocation(program, "uModelViewMatrix"), 1, false, modelViewMatrix, 0);
-            GLES20.glUniform2f(GLES20.glGetUniformLocation(program, "uResolution"), (float) width, (float) height);
             GLES20.glUniform1fv(GLES20.glGetUniformLocation(program, "uNoiseSeeds"), 3, noiseSeeds, 0);
 
             bindColor(program, "uBaseColor", themeColors[0]);
@@ -264,24 +345,25 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             bindColor(program, "uColor2", themeColors[2]);
             bindColor(program, "uColor3", themeColors[3]);
 
+            GLES20.glGenBuffers(2, buffers, 0);
+            GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers[0]);
+            GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, buffers[1]);
 
-            bindAttribute(program, "aPosition", vertexBuffer, 3);
-            bindAttribute(program, "aUv", uvBuffer, 2);
-            bindAttribute(program, "aUvNorm", uvNormBuffer, 2);
-
-            GLES20.glDrawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_SHORT, indexBuffer);
+            bindAttribute(program, "aPosition", 3, 0);
+            bindAttribute(program, "aUv", 2, 3);
+            bindAttribute(program, "aUvNorm", 2, 5);
         }
 
+        /**
+         * Uploads the mesh to the bound buffers, interleaving position, uv and normalized uv.
+         */
         private void generatePlaneMesh(int xSegCount, int ySegCount) {
             int vertexCount = (xSegCount + 1) * (ySegCount + 1);
 
-            float[] vertices = new float[vertexCount * 3];
-            float[] uvs = new float[vertexCount * 2];
-            float[] uvNorms = new float[vertexCount * 2];
+            float[] vertices = new float[vertexCount * STRIDE];
             short[] indices = new short[xSegCount * ySegCount * 6];
 
             int vIdx = 0;
-            int uIdx = 0;
             for (int y = 0; y <= ySegCount; y++) {
                 for (int x = 0; x <= xSegCount; x++) {
                     float xN = (float) x / xSegCount;
@@ -290,11 +372,10 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
                     vertices[vIdx++] = xN * 2.0f - 1.0f;
                     vertices[vIdx++] = yN * 2.0f - 1.0f;
                     vertices[vIdx++] = 0.0f;
-                    uvs[uIdx] = xN;
-                    uvs[uIdx + 1] = 1.0f - yN;
-                    uvNorms[uIdx] = xN * 2.0f - 1.0f;
-                    uvNorms[uIdx + 1] = 1.0f - yN * 2.0f;
-                    uIdx += 2;
+                    vertices[vIdx++] = xN;
+                    vertices[vIdx++] = 1.0f - yN;
+                    vertices[vIdx++] = xN * 2.0f - 1.0f;
+                    vertices[vIdx++] = 1.0f - yN * 2.0f;
                 }
             }
 
@@ -316,10 +397,11 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             }
 
             indexCount = indices.length;
-            vertexBuffer = createFloatBuffer(vertices);
-            uvBuffer = createFloatBuffer(uvs);
-            uvNormBuffer = createFloatBuffer(uvNorms);
-            indexBuffer = createShortBuffer(indices);
+
+            GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, vertices.length * 4,
+                    createFloatBuffer(vertices), GLES20.GL_STATIC_DRAW);
+            GLES20.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, indices.length * 2,
+                    createShortBuffer(indices), GLES20.GL_STATIC_DRAW);
         }
 
         private void bindColor(int program, String name, int color) {
@@ -327,11 +409,14 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
             GLES20.glUniform3f(loc, Color.red(color) / 255f, Color.green(color) / 255f, Color.blue(color) / 255f);
         }
 
-        private void bindAttribute(int program, String name, FloatBuffer buffer, int size) {
+        /**
+         * @param offset Offset of the attribute in a vertex, in floats
+         */
+        private void bindAttribute(int program, String name, int size, int offset) {
             int loc = GLES20.glGetAttribLocation(program, name);
             if (loc != -1) {
                 GLES20.glEnableVertexAttribArray(loc);
-                GLES20.glVertexAttribPointer(loc, size, GLES20.GL_FLOAT, false, 0, buffer);
+                GLES20.glVertexAttribPointer(loc, size, GLES20.GL_FLOAT, false, STRIDE * 4, offset * 4);
             }
         }
 
@@ -383,10 +468,13 @@ public class GradientView extends TextureView implements TextureView.SurfaceText
         }
 
         private void destroyEGL() {
+            GLES20.glDeleteBuffers(2, buffers, 0);
+            GLES20.glDeleteProgram(program);
+
             egl.eglMakeCurrent(eglDisplay, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_CONTEXT);
             egl.eglDestroySurface(eglDisplay, eglSurface);
             egl.eglDestroyContext(eglDisplay, eglContext);
             egl.eglTerminate(eglDisplay);
         }
     }
-}
\ No newline at end of file
+}
@@ -10,7 +10,10 @@
 package com.stario.launcher.ui.common;
 
 import android.annotation.SuppressLint;
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.SharedPreferences;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
@@ -41,9 +44,19 @@ import com.stario.launcher.utils.Utils;
 
 import java.util.Calendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
 // Used Gemini 3 Pro for refining the layout logic
-public class StylizedClockView extends View implements SensorEventListener {
+
+/**
+ * Only redraws when what it shows changes: the minute, the liquid level of the
+ * 24 hour pill or the tilt of the device. Preferences are cached and updated
+ * through a listener, the gravity sensor is only listened to while the pill is
+ * visible. Time ticks and clock or time zone changes are received while the
+ * view is visible, so a delayed redraw is never left waiting on a stale time.
+ */
+public class StylizedClockView extends View implements SensorEventListener,
+        SharedPreferences.OnSharedPreferenceChangeListener {
     public static final String BACKGROUND_ALPHA_KEY = "com.stario.BACKGROUND_ALPHA";
     public static final String IMPERIAL_KEY = "com.stario.IMPERIAL";
 
@@ -52,6 +65,37 @@ public class StylizedClockView extends View implements SensorEventListener {
     private static final float TILT_DEADZONE = 1.2f;
     private static final float TEST_HOUR_SIZE = 100f;
     private static final float BASE_GAP = 5f;
+    private static final float ANGLE_THRESHOLD = 0.5f;
+    private static final int SENSOR_PERIOD_US = 100_000;
+    private static final int SENSOR_LATENCY_US = 200_000;
+    private static final long MIN_REDRAW_DELAY = 16;
+    private static final String[] DIGITS = new String[60];
+
+    static {
+        for (int value = 0; value < DIGITS.length; value++) {
+            DIGITS[value] = String.format(Locale.US, "%02d", value);
+        }
+    }
+
+    private final Rect hourBounds = new Rect();
+    private final Rect minBounds = new Rect();
+    private final Rect amBounds = new Rect();
+    private final RectF backgroundRect = new RectF();
+    private final RectF fillRect = new RectF();
+    private final Path clipPath = new Path();
+    private final Runnable redraw = this::invalidate;
+    private final BroadcastReceiver timeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                calendar.setTimeZone(TimeZone.getDefault());
+            }
+
+            // the pending redraw was scheduled against the old time
+            removeCallbacks(redraw);
+            invalidate();
+        }
+    };
 
     private RectF pillBackgroundRect;
     private RectF amContainerRect;
@@ -81,6 +125,13 @@ public class StylizedClockView extends View implements SensorEventListener {
     private SensorManager sensorManager;
     private Sensor accelerometer;
     private float gravityAngle;
+    private float drawnGravityAngle;
+    private boolean listening;
+    private boolean receiving;
+    private boolean visible;
+
+    private int backgroundAlpha;
+    private boolean is24Hour;
 
     private SharedPreferences preferences;
     private Calendar calendar;
@@ -171,6 +222,13 @@ public class StylizedClockView extends View implements SensorEventListener {
         pillFgPaint.setStyle(Paint.Style.FILL);
 
         gravityAngle = 0f;
+        drawnGravityAngle = 0f;
+        listening = false;
+        receiving = false;
+        visible = false;
+
+        loadPreferences();
+
         sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
         if (sensorManager != null) {
             accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_GRAVITY);
@@ -181,16 +239,94 @@ public class StylizedClockView extends View implements SensorEventListener {
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
 
-        if (accelerometer != null) {
-            sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_UI);
-        }
+        preferences.registerOnSharedPreferenceChangeListener(this);
+        loadPreferences();
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
-        sensorManager.unregisterListener(this);
+        preferences.unregisterOnSharedPreferenceChangeListener(this);
+        removeCallbacks(redraw);
+
+        visible = false;
+        updateSensor();
+        updateTimeReceiver();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+
+        visible = isVisible;
+        updateSensor();
+        updateTimeReceiver();
+
+        if (isVisible) {
+            invalidate();
+        } else {
+            removeCallbacks(redraw);
+        }
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, @Nullable String key) {
+        loadPreferences();
+        updateSensor();
+
+        // the background decides whether the content may be stretched
+        calculateLayout(getWidth(), getHeight());
+        invalidate();
+    }
+
+    private void loadPreferences() {
+        backgroundAlpha = preferences.getInt(BACKGROUND_ALPHA_KEY, 0);
+        is24Hour = !preferences.getBoolean(IMPERIAL_KEY, Utils.isSystemUsingImperial(stario));
+    }
+
+    private void updateTimeReceiver() {
+        boolean receive = visible && isAttachedToWindow();
+
+        if (receive == receiving) {
+            return;
+        }
+
+        receiving = receive;
+
+        if (receive) {
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_TIME_TICK);
+            filter.addAction(Intent.ACTION_TIME_CHANGED);
+            filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+
+            stario.registerReceiver(timeReceiver, filter);
+
+            // the time zone may have changed while nothing was listening
+            calendar.setTimeZone(TimeZone.getDefault());
+        } else {
+            stario.unregisterReceiver(timeReceiver);
+        }
+    }
+
+    /**
+     * The tilt is only shown by the 24 hour pill.
+     */
+    private void updateSensor() {
+        boolean listen = accelerometer != null && visible && is24Hour;
+
+        if (listen == listening) {
+            return;
+        }
+
+        listening = listen;
+
+        if (listen) {
+            sensorManager.registerListener(this, accelerometer,
+                    SENSOR_PERIOD_US, SENSOR_LATENCY_US);
+        } else {
+            sensorManager.unregisterListener(this);
+        }
     }
 
     /**
@@ -253,7 +389,9 @@ public class StylizedClockView extends View implements SensorEventListener {
         gravityAngle += 0.08f *
                 ((getDegreeStrengthBias(rawAngle, flatAmount) - gravityAngle + 540f) % 360f - 180f);
 
-        invalidate();
+        if (Math.abs((gravityAngle - drawnGravityAngle + 540f) % 360f - 180f) > ANGLE_THRESHOLD) {
+            invalidate();
+        }
     }
 
     private float getDegreeStrengthBias(float angle, float factor) {
@@ -290,18 +428,14 @@ public class StylizedClockView extends View implements SensorEventListener {
         hourPaint.setTextSize(TEST_HOUR_SIZE);
         hourPaint.setFontVariationSettings("'VTCL' 100");
 
-        Rect hourBounds = new Rect();
         hourPaint.getTextBounds("00", 0, 2, hourBounds);
         float hourHeight = hourBounds.height();
         float hourWidth = hourBounds.width();
 
         float testAmPmSize = TEST_HOUR_SIZE * 0.11f;
         amPmPaint.setTextSize(testAmPmSize);
-        Rect amBounds = new Rect();
         amPmPaint.getTextBounds("AM", 0, 2, amBounds);
 
-        Rect minBounds = new Rect();
-
         float containerHeight;
         float stackedContainersHeight;
         float containerWidth;
@@ -380,7 +514,6 @@ public class StylizedClockView extends View implements SensorEventListener {
         // takes just a bit less space than the fully available space on an axis).
         // When that happens, a small scale factor can be applied to align the content
         // to the bounds.
-        int backgroundAlpha = preferences.getInt(BACKGROUND_ALPHA_KEY, 0);
         if (Math.abs(ratioXtoY - 1f) > MIN_SCALING_RATIO_THRESHOLD || backgroundAlpha == 0) {
             float scale = Math.min(viewWidth / totalMaxWidth, viewHeight / totalMaxHeight);
 
@@ -506,6 +639,26 @@ public class StylizedClockView extends View implements SensorEventListener {
                 amContainerRect.right,
                 pmContainerRect.bottom
         );
+
+        float halfStroke = outlinePaint.getStrokeWidth() / 2f;
+        backgroundRect.set(
+                contentRect.left + halfStroke,
+                contentRect.top + halfStroke,
+                contentRect.right - halfStroke,
+                contentRect.bottom - halfStroke
+        );
+
+        float padding = containerRadius / 3f;
+        clipPath.reset();
+        clipPath.addRoundRect(
+                pillBackgroundRect.left + padding,
+                pillBackgroundRect.top + padding,
+                pillBackgroundRect.right - padding,
+                pillBackgroundRect.bottom - padding,
+                containerRadius - padding,
+                containerRadius - padding,
+                Path.Direction.CW
+        );
     }
 
     @Override
@@ -517,35 +670,27 @@ public class StylizedClockView extends View implements SensorEventListener {
 
         // Background
         float cornerRadius = Math.min(contentRect.width(), contentRect.height()) * 0.1f;
-        float halfStroke = outlinePaint.getStrokeWidth() / 2f;
-        RectF bgRect = new RectF(
-                contentRect.left + halfStroke,
-                contentRect.top + halfStroke,
-                contentRect.right - halfStroke,
-                contentRect.bottom - halfStroke
-        );
 
-        int alpha = preferences.getInt(BACKGROUND_ALPHA_KEY, 0);
-        backgroundPaint.setAlpha(alpha);
-        outlinePaint.setAlpha(alpha);
+        backgroundPaint.setAlpha(backgroundAlpha);
+        outlinePaint.setAlpha(backgroundAlpha);
 
         canvas.drawRoundRect(
-                bgRect,
+                backgroundRect,
                 cornerRadius,
                 cornerRadius,
                 backgroundPaint
         );
 
         canvas.drawRoundRect(
-                bgRect,
+                backgroundRect,
                 cornerRadius,
                 cornerRadius,
                 outlinePaint
         );
 
         // Time compute
-        calendar.setTimeInMillis(System.currentTimeMillis());
-        boolean is24Hour = !preferences.getBoolean(IMPERIAL_KEY, Utils.isSystemUsingImperial(stario));
+        long now = System.currentTimeMillis();
+        calendar.setTimeInMillis(now);
 
         int hour = is24Hour ? calendar.get(Calendar.HOUR_OF_DAY) : calendar.get(Calendar.HOUR);
         if (!is24Hour && hour == 0) {
@@ -556,8 +701,9 @@ public class StylizedClockView extends View implements SensorEventListener {
         int second = calendar.get(Calendar.SECOND);
         int millisecond = calendar.get(Calendar.MILLISECOND);
 
-        String hourStr = String.format(Locale.US, "%02d", hour);
-        String minStr = String.format(Locale.US, "%02d", minute);
+        String hourStr = DIGITS[hour];
+        String minStr = DIGITS[minute];
+        long redrawDelay;
 
         // Time drawing
         outlinePaint.setAlpha(120);
@@ -587,19 +733,6 @@ public class StylizedClockView extends View implements SensorEventListener {
             canvas.drawRoundRect(pillBackgroundRect, containerRadius, containerRadius, pillBgPaint);
 
             canvas.save();
-
-            Path clipPath = new Path();
-            float padding = containerRadius / 3f;
-            clipPath.addRoundRect(
-                    pillBackgroundRect.left + padding,
-                    pillBackgroundRect.top + padding,
-                    pillBackgroundRect.right - padding,
-                    pillBackgroundRect.bottom - padding,
-                    containerRadius - padding,
-                    containerRadius - padding,
-                    Path.Direction.CW
-            );
-
             canvas.clipPath(clipPath);
             canvas.translate(centerX, centerY);
             canvas.rotate(gravityAngle);
@@ -607,10 +740,14 @@ public class StylizedClockView extends View implements SensorEventListener {
             float progress = (second * 1000f + millisecond) / 60000f;
             float liquidLevel = radius - (diagonal * progress);
 
-            RectF fillRect = new RectF(-radius, liquidLevel, radius, radius + 100f);
+            fillRect.set(-radius, liquidLevel, radius, radius + 100f);
             canvas.drawRect(fillRect, pillFgPaint);
 
             canvas.restore();
+
+            drawnGravityAngle = gravityAngle;
+
+            redrawDelay = getRedrawDelay(second, millisecond, diagonal);
         } else {
             boolean isAm = calendar.get(Calendar.AM_PM) == Calendar.AM;
 
@@ -635,8 +772,29 @@ public class StylizedClockView extends View implements SensorEventListener {
             }
 
             canvas.drawText("PM", pmTextX, pmTextY, amPmPaint);
+
+            redrawDelay = getRedrawDelay(second, millisecond, 0);
+        }
+
+        removeCallbacks(redraw);
+
+        if (visible) {
+            postDelayed(redraw, redrawDelay);
+        }
+    }
+
+    /**
+     * @param diagonal Height the liquid rises through in a minute, 0 without the liquid pill
+     * @return Delay until the next minute, or until the liquid rises by a pixel if sooner
+     */
+    static long getRedrawDelay(int second, int millisecond, float diagonal) {
+        long redrawDelay = 60_000 - (second * 1000L + millisecond);
+
+        if (diagonal > 0) {
+            redrawDelay = Math.min(redrawDelay,
+                    Math.max(MIN_REDRAW_DELAY, (long) (60_000 / diagonal)));
         }
 
-        postInvalidateOnAnimation();
+        return redrawDelay;
     }
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import android.content.res.TypedArray;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.os.Handler;
+import android.os.Trace;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -35,14 +36,19 @@ import android.widget.Toast;
 import com.stario.launcher.R;
 import com.stario.launcher.Stario;
 import com.stario.launcher.ui.Measurements;
+import com.stario.launcher.ui.utils.UiUtils;
 import com.stario.launcher.ui.utils.animation.Animation;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+import com.stario.launcher.utils.metrics.FrameMonitor;
+import com.stario.launcher.utils.metrics.Interaction;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 
 // Used Gemini 3 for the nudge and item move logic
 public class DynamicGridLayout extends ViewGroup {
@@ -80,6 +86,8 @@ public class DynamicGridLayout extends ViewGroup {
     private Runnable reorderRunnable;
     private View currentHoverTarget;
     private final Handler handler;
+    private final Set<View> pendingItems;
+    private int layoutGeneration;
     private int pendingTargetCol;
     private int pendingTargetRow;
     private int lastMeasuredCols;
@@ -128,6 +136,8 @@ public class DynamicGridLayout extends ViewGroup {
         this.hintedViews = new ArrayList<>();
         this.currentHoverTarget = null;
         this.handler = new Handler();
+        this.pendingItems = new HashSet<>();
+        this.layoutGeneration = 0;
 
         this.lastReorderCol = -1;
         this.lastReorderRow = -1;
@@ -147,6 +157,15 @@ public class DynamicGridLayout extends ViewGroup {
         if (!(child instanceof DraggableGridItem)) {
             throw new IllegalStateException("DraggableGridLayout can host only DraggableGridItem children.");
         }
+
+        layoutGeneration++;
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+
+        layoutGeneration++;
     }
 
     private boolean isAnimationRunning() {
@@ -216,223 +235,77 @@ public class DynamicGridLayout extends ViewGroup {
 
         view.setResizingActive(isRearrangeable);
 
-        LayoutParams layoutParams = new LayoutParams(data.col, data.row, data.colSpan, data.rowSpan);
-        view.setLayoutParams(layoutParams);
-
-        GridState currentState = buildCurrentState();
-        Rect targetRect = new Rect(layoutParams.col, layoutParams.row, layoutParams.col + layoutParams.colSpan, layoutParams.row + layoutParams.rowSpan);
+        view.setLayoutParams(new LayoutParams(data.col, data.row, data.colSpan, data.rowSpan));
 
-        // Attempt preferred position first
-        if (!currentState.isOccupied(targetRect, null)) {
-            addView(view);
-            saveLayoutState();
-
-            return;
-        }
-
-        // Try to rearrange items
-        GridState rearranged = attemptGlobalRearrange(currentState, view, layoutParams.colSpan, layoutParams.rowSpan, false);
-        if (rearranged != null) {
-            commitState(rearranged);
-            addView(view);
-            saveLayoutState();
+        placeItem(view);
+    }
 
-            return;
-        }
+    private void placeItem(DraggableGridItem view) {
+        LayoutParams layoutParams = (LayoutParams) view.getLayoutParams();
+        GridState currentState = buildCurrentState(view);
+        int index = currentState.indexOf(view);
 
-        // Try shrinking and rearranging items
-        GridState shrunken = attemptGlobalRearrange(currentState, view, layoutParams.colSpan, layoutParams.rowSpan, true);
-        if (shrunken != null) {
-            commitState(shrunken);
-            addView(view);
-            saveLayoutState();
-
-            return;
-        }
+        pendingItems.remove(view);
 
-        // Drop it on the first free spot
-        Rect firstFree = findClosestFreeSpotInState(currentState, layoutParams.colSpan, layoutParams.rowSpan, 0, 0, null);
-        if (firstFree != null) {
-            layoutParams.col = firstFree.left;
-            layoutParams.row = firstFree.top;
+        // Attempt preferred position first
+        if (currentState.isFree(layoutParams.col, layoutParams.row,
+                layoutParams.colSpan, layoutParams.rowSpan, GridState.NO_POSITION)) {
             addView(view);
             saveLayoutState();
 
             return;
         }
 
-        // (#-_-)
-        Toast.makeText(getContext(), warningMessage, Toast.LENGTH_SHORT).show();
-    }
-
-    private Rect findClosestFreeSpotInState(GridState state, int spanX, int spanY,
-                                            int preferredCol, int preferredRow, View ignoreView) {
-        double bestDistance = Double.MAX_VALUE;
-        Rect bestRect = null;
+        pendingItems.add(view);
+        int generation = layoutGeneration;
 
-        for (int row = 0; row <= state.rows - spanY; row++) {
-            for (int col = 0; col <= state.cols - spanX; col++) {
-                Rect candidate = new Rect(col, row, col + spanX, row + spanY);
+        Utils.submitTask(TaskScheduler.Lane.UI_CRITICAL, () -> {
+            GridSolver solver = new GridSolver(GridSolver.DEFAULT_BUDGET);
 
-                if (!state.isOccupied(candidate, ignoreView)) {
-                    double distance = Math.sqrt(Math.pow(col - preferredCol, 2)
-                            + Math.pow(row - preferredRow, 2));
+            // Try to rearrange items, then shrinking and rearranging them
+            GridState rearranged = solver.rearrange(currentState, index,
+                    layoutParams.colSpan, layoutParams.rowSpan, false);
 
-                    if (distance < bestDistance) {
-                        bestDistance = distance;
-                        bestRect = candidate;
-                    }
-                }
-            }
-        }
-
-        return bestRect;
-    }
-
-    private GridState attemptGlobalRearrange(GridState currentState, View newItem,
-                                             int newSpanX, int newSpanY, boolean allowShrink) {
-
-        DraggableGridItem newDrag = (DraggableGridItem) newItem;
-        int minX = newDrag.minColSpan;
-        int minY = newDrag.minRowSpan;
-
-        // really, REALLY SLOW, but the cell count is small
-        for (int spanX = newSpanX; spanX >= minX; spanX--) {
-            for (int spanY = newSpanY; spanY >= minY; spanY--) {
-
-                for (int row = 0; row <= rowCount - spanY; row++) {
-                    for (int col = 0; col <= colCount - spanX; col++) {
-
-                        GridState state = currentState.cloneState();
-                        Rect target = new Rect(col, row, col + spanX, row + spanY);
-                        state.placements.put(newItem, target);
-
-                        GridState solved = resolveAllCollisions(state, newItem,
-                                allowShrink, rowCount, colCount);
-
-                        if (solved != null) {
-                            return solved;
-                        }
-                    }
-                }
+            return rearranged != null ? rearranged : solver.rearrange(currentState, index,
+                    layoutParams.colSpan, layoutParams.rowSpan, true);
+        }).whenComplete((rearranged, throwable) -> UiUtils.postFrameCallback(frameTime -> {
+            if (!pendingItems.contains(view)) {
+                return;
             }
-        }
-
-        return null;
-    }
 
-    private GridState resolveAllCollisions(GridState state, View newItem, boolean allowShrink,
-                                           int rowCount, int colCount) {
-        Queue<GridState> queue = new LinkedList<>();
-        queue.add(state);
+            // the grid changed while solving, start over from the current layout
+            if (generation != layoutGeneration) {
+                placeItem(view);
 
-        while (!queue.isEmpty()) {
-            GridState current = queue.poll();
-            if (current == null) {
-                break;
+                return;
             }
 
-            boolean collisionFound = false;
-            boolean stopProcessing = false;
-
-            for (Map.Entry<View, Rect> a : current.placements.entrySet()) {
-                if (stopProcessing) {
-                    break;
-                }
+            pendingItems.remove(view);
 
-                for (Map.Entry<View, Rect> b : current.placements.entrySet()) {
-                    if (a.getKey() != b.getKey()) {
-                        Rect ra = a.getValue();
-                        Rect rb = b.getValue();
-
-                        if (Rect.intersects(ra, rb)) {
-                            collisionFound = true;
-                            View victim = b.getKey();
-
-                            if (victim != newItem) {
-                                if (allowShrink) {
-                                    DraggableGridItem d = (DraggableGridItem) victim;
-
-                                    // Try shrinking width
-                                    if (rb.width() > d.minColSpan) {
-                                        GridState copy = current.cloneState();
-                                        Rect victimRect = copy.placements.get(victim);
-
-                                        if (victimRect != null) {
-                                            victimRect.right -= 1;
-
-                                            if (reflowItem(copy, victim, rowCount, colCount)) {
-                                                queue.add(copy);
-                                            }
-                                        }
-                                    }
-
-                                    // Try shrinking height
-                                    if (rb.height() > d.minRowSpan) {
-                                        GridState copy = current.cloneState();
-                                        Rect victimRect = copy.placements.get(victim);
-
-                                        if (victimRect != null) {
-                                            victimRect.bottom -= 1;
-
-                                            if (reflowItem(copy, victim, rowCount, colCount)) {
-                                                queue.add(copy);
-                                            }
-                                        }
-                                    }
-                                }
+            if (rearranged != null) {
+                commitState(rearranged);
+                addView(view);
+                saveLayoutState();
 
-                                GridState movedCopy = current.cloneState();
-                                if (reflowItem(movedCopy, victim, rowCount, colCount)) {
-                                    queue.add(movedCopy);
-                                }
-                            }
-
-                            stopProcessing = true;
-                        }
-                    }
-                }
-            }
-
-            if (!collisionFound) {
-                return current;
+                return;
             }
-        }
-
-        return null;
-    }
-
-    private boolean reflowItem(GridState state, View item, int rowCount, int colCount) {
-        Rect rect = state.placements.remove(item);
-        if (rect == null) {
-            return false;
-        }
-
-        int spanX = rect.width();
-        int spanY = rect.height();
 
-        for (int row = 0; row <= rowCount - spanY; row++) {
-            for (int col = 0; col <= colCount - spanX; col++) {
+            // Drop it on the first free spot
+            int firstFree = currentState.findClosest(layoutParams.colSpan,
+                    layoutParams.rowSpan, 0, 0, GridState.NO_POSITION);
 
-                Rect candidate = new Rect(col, row, col + spanX, row + spanY);
-                boolean fits = true;
-
-                for (Rect other : state.placements.values()) {
-                    if (Rect.intersects(candidate, other)) {
-                        fits = false;
-                        break;
-                    }
-                }
+            if (firstFree != GridState.NO_POSITION) {
+                layoutParams.col = GridState.getCol(firstFree);
+                layoutParams.row = GridState.getRow(firstFree);
+                addView(view);
+                saveLayoutState();
 
-                if (fits) {
-                    state.placements.put(item, candidate);
-                    return true;
-                }
+                return;
             }
-        }
 
-        state.placements.put(item, rect);
-        return false;
+            // (#-_-)
+            Toast.makeText(getContext(), warningMessage, Toast.LENGTH_SHORT).show();
+        }));
     }
 
     public void removeItem(DraggableGridItem view) {
@@ -440,6 +313,7 @@ public class DynamicGridLayout extends ViewGroup {
             return;
         }
 
+        pendingItems.remove(view);
         removeView(view);
         preAnimVisualPos.remove(view);
 
@@ -473,6 +347,7 @@ public class DynamicGridLayout extends ViewGroup {
                 ? MIN_COLS_LANDSCAPE : MIN_COLS_PORTRAIT, availableWidth / minCellSizePx);
 
         while ((availableWidth / colCount) > (minCellSizePx * 2)) colCount++;
+        colCount = Math.min(colCount, GridState.MAX_COLUMNS);
         cellWidth = availableWidth / colCount;
 
         rowCount = Math.max(Measurements.isLandscape()
@@ -520,7 +395,7 @@ public class DynamicGridLayout extends ViewGroup {
         }
 
         boolean changed = false;
-        GridState newState = new GridState(colCount, rowCount);
+        GridState newState = buildEmptyState(null);
 
         List<View> configuredItems = new ArrayList<>();
         List<View> unconfiguredItems = new ArrayList<>();
@@ -547,30 +422,32 @@ public class DynamicGridLayout extends ViewGroup {
                 int column = Math.max(0, Math.min(data.col, colCount - data.colSpan));
                 int row = Math.max(0, Math.min(data.row, rowCount - data.rowSpan));
 
-                Rect targetRect = new Rect(column, row,
-                        column + data.colSpan, row + data.rowSpan);
-
-                if (!newState.isOccupied(targetRect, null)) {
-                    newState.placements.put(child, targetRect);
+                if (newState.isFree(column, row, data.colSpan, data.rowSpan, GridState.NO_POSITION)) {
+                    newState.place(newState.indexOf(child), column, row, data.colSpan, data.rowSpan);
                 } else {
                     unconfiguredItems.add(child);
                 }
             }
         }
 
+        // budget shared by every item, this runs while measuring
+        GridSolver solver = new GridSolver(GridSolver.DEFAULT_BUDGET);
+
         for (View child : unconfiguredItems) {
             LayoutParams layoutParams = (LayoutParams) child.getLayoutParams();
+            int index = newState.indexOf(child);
 
             int oldCol = layoutParams.col;
             int oldRow = layoutParams.row;
 
-            Rect freeSpot = findClosestFreeSpotInState(
-                    newState, layoutParams.colSpan, layoutParams.rowSpan, oldCol, oldRow, null);
+            int freeSpot = newState.findClosest(layoutParams.colSpan, layoutParams.rowSpan,
+                    oldCol, oldRow, GridState.NO_POSITION);
 
-            if (freeSpot != null) {
-                newState.placements.put(child, freeSpot);
+            if (freeSpot != GridState.NO_POSITION) {
+                newState.place(index, GridState.getCol(freeSpot), GridState.getRow(freeSpot),
+                        layoutParams.colSpan, layoutParams.rowSpan);
             } else {
-                GridState rearranged = attemptGlobalRearrange(newState, child,
+                GridState rearranged = solver.rearrange(newState, index,
                         layoutParams.colSpan, layoutParams.rowSpan, true);
 
                 if (rearranged != null) {
@@ -579,27 +456,24 @@ public class DynamicGridLayout extends ViewGroup {
                     int clampedCol = Math.max(0, Math.min(oldCol, colCount - layoutParams.colSpan));
                     int clampedRow = Math.max(0, Math.min(oldRow, rowCount - layoutParams.rowSpan));
 
-                    newState.placements.put(child, new Rect(clampedCol, clampedRow,
-                            clampedCol + layoutParams.colSpan, clampedRow + layoutParams.rowSpan));
+                    newState.place(index, clampedCol, clampedRow,
+                            layoutParams.colSpan, layoutParams.rowSpan);
                 }
             }
         }
 
-        for (int index = 0; index < getChildCount(); index++) {
-            View child = getChildAt(index);
-            Rect placedRect = newState.placements.get(child);
-
-            if (placedRect != null) {
-                LayoutParams layoutParams = (LayoutParams) child.getLayoutParams();
+        for (int index = 0; index < newState.size(); index++) {
+            if (newState.isPlaced(index)) {
+                LayoutParams layoutParams = (LayoutParams) newState.views[index].getLayoutParams();
 
-                if (layoutParams.col != placedRect.left || layoutParams.row != placedRect.top
-                        || layoutParams.colSpan != placedRect.width()
-                        || layoutParams.rowSpan != placedRect.height()) {
+                if (layoutParams.col != newState.col[index] || layoutParams.row != newState.row[index]
+                        || layoutParams.colSpan != newState.colSpan[index]
+                        || layoutParams.rowSpan != newState.rowSpan[index]) {
 
-                    layoutParams.col = placedRect.left;
-                    layoutParams.row = placedRect.top;
-                    layoutParams.colSpan = placedRect.width();
-                    layoutParams.rowSpan = placedRect.height();
+                    layoutParams.col = newState.col[index];
+                    layoutParams.row = newState.row[index];
+                    layoutParams.colSpan = newState.colSpan[index];
+                    layoutParams.rowSpan = newState.rowSpan[index];
 
                     changed = true;
                 }
@@ -607,6 +481,7 @@ public class DynamicGridLayout extends ViewGroup {
         }
 
         if (changed) {
+            layoutGeneration++;
             requestLayout();
         }
     }
@@ -711,6 +586,8 @@ public class DynamicGridLayout extends ViewGroup {
 
                     activeItem.bringToFront();
 
+                    FrameMonitor.getInstance().begin(Interaction.GRID_DRAG, this);
+
                     if (!isResizing) {
                         activeItem.setTag(R.id.is_dragging_tag, true);
                     }
@@ -739,10 +616,16 @@ public class DynamicGridLayout extends ViewGroup {
                     float dx = x - lastTouchX;
                     float dy = y - lastTouchY;
 
-                    if (isResizing) {
-                        handleResize(x, y);
-                    } else {
-                        handleDrag(dx, dy);
+                    Trace.beginSection("DynamicGridLayout.move");
+
+                    try {
+                        if (isResizing) {
+                            handleResize(x, y);
+                        } else {
+                            handleDrag(dx, dy);
+                        }
+                    } finally {
+                        Trace.endSection();
                     }
 
                     lastTouchX = x;
@@ -778,6 +661,8 @@ public class DynamicGridLayout extends ViewGroup {
 
                 clearCurrentHints();
                 resetHoverState();
+
+                FrameMonitor.getInstance().end(Interaction.GRID_DRAG);
                 break;
         }
 
@@ -851,6 +736,7 @@ public class DynamicGridLayout extends ViewGroup {
             if (layoutParams.colSpan != spanX || layoutParams.rowSpan != spanY) {
                 layoutParams.colSpan = spanX;
                 layoutParams.rowSpan = spanY;
+                layoutGeneration++;
 
                 activeItem.setLayoutParams(layoutParams);
             }
@@ -930,10 +816,9 @@ public class DynamicGridLayout extends ViewGroup {
                 return;
             }
 
-            GridState currentState = buildCurrentState();
-            Rect targetRect = new Rect(targetCol, targetRow,
-                    targetCol + layoutParams.colSpan, targetRow + layoutParams.rowSpan);
-            boolean isSpotOccupied = currentState.isOccupied(targetRect, activeItem);
+            GridState currentState = buildCurrentState(null);
+            boolean isSpotOccupied = !currentState.isFree(targetCol, targetRow,
+                    layoutParams.colSpan, layoutParams.rowSpan, currentState.indexOf(activeItem));
 
             if (isSpotOccupied) {
                 applyHint(targetCol, targetRow, layoutParams.colSpan, layoutParams.rowSpan);
@@ -1027,13 +912,12 @@ public class DynamicGridLayout extends ViewGroup {
     }
 
     private void applySimulatedStateVisually(GridState state) {
-        for (Map.Entry<View, Rect> entry : state.placements.entrySet()) {
-            View view = entry.getKey();
+        for (int index = 0; index < state.size(); index++) {
+            View view = state.views[index];
 
-            if (view != activeItem) {
-                Rect targetRect = entry.getValue();
-                int targetLeft = getPaddingLeft() + (targetRect.left * cellWidth);
-                int targetTop = getPaddingTop() + (targetRect.top * cellHeight);
+            if (view != activeItem && state.isPlaced(index)) {
+                int targetLeft = getPaddingLeft() + (state.col[index] * cellWidth);
+                int targetTop = getPaddingTop() + (state.row[index] * cellHeight);
 
                 int dx = targetLeft - view.getLeft();
                 int dy = targetTop - view.getTop();
@@ -1073,15 +957,18 @@ public class DynamicGridLayout extends ViewGroup {
     private void commitState(GridState state) {
         captureLayoutState();
 
-        for (Map.Entry<View, Rect> entry : state.placements.entrySet()) {
-            LayoutParams layoutParams = (LayoutParams) entry.getKey().getLayoutParams();
+        for (int index = 0; index < state.size(); index++) {
+            if (state.isPlaced(index)) {
+                LayoutParams layoutParams = (LayoutParams) state.views[index].getLayoutParams();
 
-            layoutParams.col = entry.getValue().left;
-            layoutParams.row = entry.getValue().top;
-            layoutParams.colSpan = entry.getValue().width();
-            layoutParams.rowSpan = entry.getValue().height();
+                layoutParams.col = state.col[index];
+                layoutParams.row = state.row[index];
+                layoutParams.colSpan = state.colSpan[index];
+                layoutParams.rowSpan = state.rowSpan[index];
+            }
         }
 
+        layoutGeneration++;
         requestLayout();
         saveLayoutState();
     }
@@ -1105,7 +992,7 @@ public class DynamicGridLayout extends ViewGroup {
         int targetCol = Math.max(0, Math.min(rawCol, colCount - layoutParams.colSpan));
         int targetRow = Math.max(0, Math.min(rawRow, rowCount - layoutParams.rowSpan));
 
-        GridState currentState = buildCurrentState();
+        GridState currentState = buildCurrentState(null);
 
         GridState simulated = simulateMove(
                 currentState,
@@ -1230,34 +1117,44 @@ public class DynamicGridLayout extends ViewGroup {
     }
 
     private GridState simulateMove(GridState initialState, View activeItem, int targetCol, int targetRow, int spanX, int spanY) {
-        GridState state = initialState.cloneState();
-        Rect targetRect = new Rect(targetCol, targetRow, targetCol + spanX, targetRow + spanY);
+        if (targetCol + spanX > initialState.cols || targetRow + spanY > initialState.rows) return null;
+
+        GridState state = initialState.copy();
+        int activeIndex = state.indexOf(activeItem);
+
+        state.remove(activeIndex); // Prevent self-collision logic
+        int[] collisions = state.getCollisions(targetCol, targetRow, spanX, spanY, GridState.NO_POSITION);
+        int[] victimCols = new int[collisions.length];
+        int[] victimRows = new int[collisions.length];
+
+        for (int index = 0; index < collisions.length; index++) {
+            victimCols[index] = state.col[collisions[index]];
+            victimRows[index] = state.row[collisions[index]];
 
-        if (targetRect.right > state.cols || targetRect.bottom > state.rows) return null;
+            state.remove(collisions[index]); // Victims are moved away, their cells are up for grabs
+        }
 
-        state.placements.remove(activeItem); // Prevent self-collision logic
-        List<View> collisions = state.getCollisions(targetRect, null);
-        state.placements.put(activeItem, targetRect); // Claim space for dragged item
+        state.place(activeIndex, targetCol, targetRow, spanX, spanY); // Claim space for dragged item
 
-        if (collisions.isEmpty()) return state;
+        if (collisions.length == 0) return state;
 
         // Resolve overlaps deterministically
-        for (View victim : collisions) {
-            if (!resolveCollision(state, victim, targetCol, targetRow)) {
+        for (int index = 0; index < collisions.length; index++) {
+            if (!resolveCollision(state, collisions[index], victimCols[index],
+                    victimRows[index], targetCol, targetRow)) {
                 return null; // Dead end, move is invalid
             }
         }
         return state;
     }
 
-    private boolean resolveCollision(GridState state, View victim, int activeCol, int activeRow) {
-        Rect victimRect = state.placements.get(victim);
-        if (victimRect == null) {
-            return false;
-        }
+    private boolean resolveCollision(GridState state, int victim, int victimCol, int victimRow,
+                                     int activeCol, int activeRow) {
+        int spanX = state.colSpan[victim];
+        int spanY = state.rowSpan[victim];
 
-        int pushX = Integer.compare(activeCol - victimRect.left, 0);
-        int pushY = Integer.compare(activeRow - victimRect.top, 0);
+        int pushX = Integer.compare(activeCol - victimCol, 0);
+        int pushY = Integer.compare(activeRow - victimRow, 0);
 
         int[][] directions;
         if (Math.abs(pushX) > Math.abs(pushY)) {
@@ -1280,13 +1177,11 @@ public class DynamicGridLayout extends ViewGroup {
 
         for (int[] dir : directions) {
             if (dir[0] != 0 || dir[1] != 0) {
-                Rect testRect = new Rect(
-                        victimRect.left + dir[0], victimRect.top + dir[1],
-                        victimRect.right + dir[0], victimRect.bottom + dir[1]
-                );
+                int testCol = victimCol + dir[0];
+                int testRow = victimRow + dir[1];
 
-                if (!state.isOccupied(testRect, victim)) {
-                    state.placements.put(victim, testRect);
+                if (state.isFree(testCol, testRow, spanX, spanY, GridState.NO_POSITION)) {
+                    state.place(victim, testCol, testRow, spanX, spanY);
 
                     return true;
                 }
@@ -1294,10 +1189,9 @@ public class DynamicGridLayout extends ViewGroup {
         }
 
         // Fallback
-        Rect closest = findClosestFreeSpotInState(state, victimRect.width(),
-                victimRect.height(), victimRect.left, victimRect.top, victim);
-        if (closest != null) {
-            state.placements.put(victim, closest);
+        int closest = state.findClosest(spanX, spanY, victimCol, victimRow, GridState.NO_POSITION);
+        if (closest != GridState.NO_POSITION) {
+            state.place(victim, GridState.getCol(closest), GridState.getRow(closest), spanX, spanY);
 
             return true;
         }
@@ -1305,58 +1199,45 @@ public class DynamicGridLayout extends ViewGroup {
         return false;
     }
 
-    private GridState buildCurrentState() {
-        GridState state = new GridState(colCount, rowCount);
+    private GridState buildCurrentState(View extra) {
+        GridState state = buildEmptyState(extra);
 
         for (int index = 0; index < getChildCount(); index++) {
-            View child = getChildAt(index);
-            LayoutParams layoutParams = (LayoutParams) child.getLayoutParams();
+            LayoutParams layoutParams = (LayoutParams) getChildAt(index).getLayoutParams();
 
-            state.placements.put(child, new Rect(layoutParams.col, layoutParams.row,
-                    layoutParams.col + layoutParams.colSpan, layoutParams.row + layoutParams.rowSpan));
+            state.place(index, layoutParams.col, layoutParams.row,
+                    layoutParams.colSpan, layoutParams.rowSpan);
         }
 
-        return state;
-    }
-
-    private static class GridState {
-        public final Map<View, Rect> placements = new HashMap<>();
-        public final int cols;
-        public final int rows;
+        if (extra != null) {
+            LayoutParams layoutParams = (LayoutParams) extra.getLayoutParams();
 
-        public GridState(int cols, int rows) {
-            this.cols = cols;
-            this.rows = rows;
+            state.colSpan[state.size() - 1] = layoutParams.colSpan;
+            state.rowSpan[state.size() - 1] = layoutParams.rowSpan;
         }
 
-        public GridState cloneState() {
-            GridState copy = new GridState(cols, rows);
-            copy.placements.putAll(this.placements);
-
-            return copy;
-        }
+        return state;
+    }
 
-        public List<View> getCollisions(Rect targetRect, View ignoreView) {
-            List<View> collisions = new ArrayList<>();
+    /**
+     * @param extra Item not yet added, indexed after the children
+     */
+    private GridState buildEmptyState(View extra) {
+        int count = getChildCount() + (extra != null ? 1 : 0);
+        View[] views = new View[count];
+        int[] minColSpans = new int[count];
+        int[] minRowSpans = new int[count];
 
-            for (Map.Entry<View, Rect> entry : placements.entrySet()) {
-                if (entry.getKey() != ignoreView
-                        && Rect.intersects(targetRect, entry.getValue())) {
-                    collisions.add(entry.getKey());
-                }
-            }
+        for (int index = 0; index < count; index++) {
+            DraggableGridItem item = (DraggableGridItem) (index < getChildCount() ?
+                    getChildAt(index) : extra);
 
-            return collisions;
+            views[index] = item;
+            minColSpans[index] = item.minColSpan;
+            minRowSpans[index] = item.minRowSpan;
         }
 
-        public boolean isOccupied(Rect rect, View ignoreView) {
-            if (rect.left < 0 || rect.top < 0
-                    || rect.right > cols || rect.bottom > rows) {
-                return true;
-            }
-
-            return !getCollisions(rect, ignoreView).isEmpty();
-        }
+        return new GridState(colCount, rowCount, views, minColSpans, minRowSpans);
     }
 
     private static class LayoutParams extends ViewGroup.LayoutParams {
@@ -1408,5 +1289,21 @@ public class DynamicGridLayout extends ViewGroup {
             this.maxRowSpan = -1;
             this.maxHeight = -1;
         }
+
+        public ItemLayoutData(ItemLayoutData other) {
+            this.id = other.id;
+            this.col = other.col;
+            this.row = other.row;
+            this.colSpan = other.colSpan;
+            this.rowSpan = other.rowSpan;
+            this.minColSpan = other.minColSpan;
+            this.minWidth = other.minWidth;
+            this.maxColSpan = other.maxColSpan;
+            this.maxWidth = other.maxWidth;
+            this.minRowSpan = other.minRowSpan;
+            this.minHeight = other.minHeight;
+            this.maxRowSpan = other.maxRowSpan;
+            this.maxHeight = other.maxHeight;
+        }
     }
 }
\ No newline at end of file
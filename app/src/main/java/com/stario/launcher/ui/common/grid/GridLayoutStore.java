@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common.grid;
+
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versioned binary store of the user layouts of a grid, one record per grid size.
+ * The file is replaced atomically on every write, so a crash mid-write keeps the
+ * previous layouts.
+ */
+final class GridLayoutStore {
+    private static final String TAG = "GridLayoutStore";
+    private static final String DIRECTORY = "grids";
+    private static final int MAGIC = 0x5354474C; // STGL
+    private static final int VERSION = 1;
+
+    private GridLayoutStore() {
+    }
+
+    static File getFile(@NonNull File directory, @NonNull String identifier) {
+        return new File(new File(directory, DIRECTORY), identifier + ".bin");
+    }
+
+    /**
+     * @return Layouts keyed by grid size, see {@link GridTemplateManager#getKey(int, int)},
+     * or an empty map if the file is missing, belongs to another format version or is corrupted
+     */
+    @NonNull
+    static Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> read(@NonNull File file) {
+        Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> layouts = new HashMap<>();
+
+        if (!file.exists()) {
+            return layouts;
+        }
+
+        try (FileInputStream stream = new FileInputStream(file);
+             FileChannel channel = stream.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return layouts;
+            }
+
+            int records = buffer.getInt();
+
+            for (int record = 0; record < records; record++) {
+                int cols = buffer.getInt();
+                int rows = buffer.getInt();
+                int count = buffer.getInt();
+
+                Map<String, DynamicGridLayout.ItemLayoutData> layout = new HashMap<>(count * 2);
+
+                for (int index = 0; index < count; index++) {
+                    DynamicGridLayout.ItemLayoutData data = new DynamicGridLayout.ItemLayoutData(
+                            readString(buffer), buffer.getInt(), buffer.getInt(),
+                            buffer.getInt(), buffer.getInt());
+
+                    data.minColSpan = buffer.getInt();
+                    data.minWidth = buffer.getInt();
+                    data.maxColSpan = buffer.getInt();
+                    data.maxWidth = buffer.getInt();
+
+                    data.minRowSpan = buffer.getInt();
+                    data.minHeight = buffer.getInt();
+                    data.maxRowSpan = buffer.getInt();
+                    data.maxHeight = buffer.getInt();
+
+                    layout.put(data.id, data);
+                }
+
+                layouts.put(GridTemplateManager.getKey(cols, rows), layout);
+            }
+
+            return layouts;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException exception) {
+            Log.e(TAG, "read: Discarding unreadable layouts.", exception);
+
+            layouts.clear();
+        }
+
+        return layouts;
+    }
+
+    /**
+     * @param layouts Layouts keyed by grid size, not modified while writing
+     */
+    static void write(@NonNull File file, @NonNull Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> layouts) {
+        File parent = file.getParentFile();
+
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            Log.e(TAG, "write: Cannot create " + parent);
+
+            return;
+        }
+
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream stream = null;
+
+        try {
+            stream = atomicFile.startWrite();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(layouts.size());
+
+            for (Map.Entry<String, Map<String, DynamicGridLayout.ItemLayoutData>> record : layouts.entrySet()) {
+                String key = record.getKey();
+                int separator = key.indexOf('x');
+
+                output.writeInt(Integer.parseInt(key.substring(0, separator)));
+                output.writeInt(Integer.parseInt(key.substring(separator + 1)));
+                output.writeInt(record.getValue().size());
+
+                for (Map.Entry<String, DynamicGridLayout.ItemLayoutData> item : record.getValue().entrySet()) {
+                    DynamicGridLayout.ItemLayoutData data = item.getValue();
+
+                    writeString(output, item.getKey());
+                    output.writeInt(data.col);
+                    output.writeInt(data.row);
+                    output.writeInt(data.colSpan);
+                    output.writeInt(data.rowSpan);
+
+                    output.writeInt(data.minColSpan);
+                    output.writeInt(data.minWidth);
+                    output.writeInt(data.maxColSpan);
+                    output.writeInt(data.maxWidth);
+
+                    output.writeInt(data.minRowSpan);
+                    output.writeInt(data.minHeight);
+                    output.writeInt(data.maxRowSpan);
+                    output.writeInt(data.maxHeight);
+                }
+            }
+
+            output.flush();
+            atomicFile.finishWrite(stream);
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+
+            if (stream != null) {
+                atomicFile.failWrite(stream);
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+
+        output.writeShort(length);
+        output.write(bytes, 0, length);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common.grid;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Makes room for an item by moving, and optionally shrinking, the items it covers.
+ * The search is breadth first, so layouts touching fewer items win, skips states
+ * it already explored and gives up once its budget of explored states runs out.
+ * Does not touch any view, safe to use off the UI thread.
+ */
+final class GridSolver {
+    static final int DEFAULT_BUDGET = 4096;
+
+    private int budget;
+
+    GridSolver(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Tries every span from the requested one down to the minimum of the item,
+     * at every position in reading order.
+     *
+     * @return Solved copy of the state, or null if no layout was found within budget
+     */
+    @Nullable
+    GridState rearrange(GridState state, int item, int colSpan, int rowSpan, boolean allowShrink) {
+        int minColSpan = state.minColSpans[item];
+        int minRowSpan = state.minRowSpans[item];
+
+        for (int spanX = colSpan; spanX >= minColSpan; spanX--) {
+            for (int spanY = rowSpan; spanY >= minRowSpan; spanY--) {
+                for (int row = 0; row <= state.rows - spanY; row++) {
+                    for (int col = 0; col <= state.cols - spanX; col++) {
+                        if (budget <= 0) {
+                            return null;
+                        }
+
+                        GridState solved = solve(state, item, col, row, spanX, spanY, allowShrink);
+
+                        if (solved != null) {
+                            return solved;
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private GridState solve(GridState initial, int item, int col, int row,
+                            int colSpan, int rowSpan, boolean allowShrink) {
+        GridState start = initial.copy();
+        start.remove(item);
+
+        int[] victims = start.getCollisions(col, row, colSpan, rowSpan, item);
+
+        for (int victim : victims) {
+            start.remove(victim);
+        }
+
+        start.place(item, col, row, colSpan, rowSpan);
+
+        if (victims.length == 0) {
+            return start;
+        }
+
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        Set<Key> visited = new HashSet<>();
+
+        queue.add(new Node(start, 0));
+
+        while (!queue.isEmpty() && budget > 0) {
+            Node node = queue.poll();
+            GridState state = node.state;
+            int victim = victims[node.placed];
+            int spanX = state.colSpan[victim];
+            int spanY = state.rowSpan[victim];
+
+            budget--;
+
+            int position = state.findFirstFit(spanX, spanY);
+
+            if (position != GridState.NO_POSITION) {
+                GridState next = state.copy();
+                next.place(victim, GridState.getCol(position),
+                        GridState.getRow(position), spanX, spanY);
+
+                if (node.placed + 1 == victims.length) {
+                    return next;
+                }
+
+                enqueue(queue, visited, victims, new Node(next, node.placed + 1));
+            }
+
+            if (allowShrink) {
+                if (spanX > state.minColSpans[victim]) {
+                    GridState next = state.copy();
+                    next.colSpan[victim]--;
+
+                    enqueue(queue, visited, victims, new Node(next, node.placed));
+                }
+
+                if (spanY > state.minRowSpans[victim]) {
+                    GridState next = state.copy();
+                    next.rowSpan[victim]--;
+
+                    enqueue(queue, visited, victims, new Node(next, node.placed));
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static void enqueue(ArrayDeque<Node> queue, Set<Key> visited, int[] victims, Node node) {
+        if (visited.add(new Key(node, victims))) {
+            queue.add(node);
+        }
+    }
+
+    private static final class Node {
+        private final GridState state;
+        private final int placed;
+
+        private Node(GridState state, int placed) {
+            this.state = state;
+            this.placed = placed;
+        }
+    }
+
+    /**
+     * Everything but the victims is fixed during a solve, so their
+     * placements and spans identify a state.
+     */
+    private static final class Key {
+        private final int[] values;
+        private final int hash;
+
+        private Key(Node node, int[] victims) {
+            GridState state = node.state;
+
+            values = new int[victims.length * 3 + 1];
+            values[0] = node.placed;
+
+            for (int index = 0; index < victims.length; index++) {
+                int victim = victims[index];
+
+                values[index * 3 + 1] = state.col[victim];
+                values[index * 3 + 2] = state.row[victim];
+                values[index * 3 + 3] = (state.colSpan[victim] << 16) | state.rowSpan[victim];
+            }
+
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof Key && Arrays.equals(values, ((Key) obj).values);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common.grid;
+
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Placement of the grid items, stored as primitive arrays indexed by item along
+ * with an occupancy matrix holding one word per row and one bit per column.
+ * Copies are cheap and no view is touched, so states can be explored off the UI thread.
+ */
+final class GridState {
+    static final int MAX_COLUMNS = Long.SIZE;
+    static final int NO_POSITION = -1;
+
+    final int cols;
+    final int rows;
+
+    /**
+     * Shared between copies, only dereferenced on the UI thread.
+     */
+    final View[] views;
+    final int[] minColSpans;
+    final int[] minRowSpans;
+
+    final int[] col;
+    final int[] row;
+    final int[] colSpan;
+    final int[] rowSpan;
+    private final long[] occupancy;
+
+    GridState(int cols, int rows, View[] views, int[] minColSpans, int[] minRowSpans) {
+        if (cols > MAX_COLUMNS) {
+            throw new IllegalArgumentException("At most " + MAX_COLUMNS + " columns are supported.");
+        }
+
+        this.cols = cols;
+        this.rows = rows;
+        this.views = views;
+        this.minColSpans = minColSpans;
+        this.minRowSpans = minRowSpans;
+
+        this.col = new int[views.length];
+        this.row = new int[views.length];
+        this.colSpan = new int[views.length];
+        this.rowSpan = new int[views.length];
+        this.occupancy = new long[rows];
+
+        Arrays.fill(col, NO_POSITION);
+        Arrays.fill(row, NO_POSITION);
+    }
+
+    private GridState(GridState other) {
+        this.cols = other.cols;
+        this.rows = other.rows;
+        this.views = other.views;
+        this.minColSpans = other.minColSpans;
+        this.minRowSpans = other.minRowSpans;
+
+        this.col = other.col.clone();
+        this.row = other.row.clone();
+        this.colSpan = other.colSpan.clone();
+        this.rowSpan = other.rowSpan.clone();
+        this.occupancy = other.occupancy.clone();
+    }
+
+    GridState copy() {
+        return new GridState(this);
+    }
+
+    int size() {
+        return views.length;
+    }
+
+    int indexOf(View view) {
+        for (int index = 0; index < views.length; index++) {
+            if (views[index] == view) {
+                return index;
+            }
+        }
+
+        return NO_POSITION;
+    }
+
+    boolean isPlaced(int item) {
+        return col[item] != NO_POSITION;
+    }
+
+    /**
+     * Items already overlapping are allowed, so unrestorable layouts can still be loaded.
+     */
+    void place(int item, int col, int row, int colSpan, int rowSpan) {
+        if (isPlaced(item)) {
+            remove(item);
+        }
+
+        this.col[item] = col;
+        this.row[item] = row;
+        this.colSpan[item] = colSpan;
+        this.rowSpan[item] = rowSpan;
+
+        mark(col, row, colSpan, rowSpan);
+    }
+
+    /**
+     * Frees the cells of the item, its spans are kept.
+     */
+    void remove(int item) {
+        if (!isPlaced(item)) {
+            return;
+        }
+
+        int left = col[item];
+        int top = row[item];
+        int width = colSpan[item];
+        int height = rowSpan[item];
+        long mask = getMask(left, width);
+
+        for (int index = Math.max(0, top); index < Math.min(rows, top + height); index++) {
+            occupancy[index] &= ~mask;
+        }
+
+        col[item] = NO_POSITION;
+        row[item] = NO_POSITION;
+
+        // cells shared with overlapping items are still taken
+        for (int other = 0; other < views.length; other++) {
+            if (isPlaced(other) && intersects(other, left, top, width, height)) {
+                mark(col[other], row[other], colSpan[other], rowSpan[other]);
+            }
+        }
+    }
+
+    /**
+     * @param ignore Item whose cells count as free, {@link #NO_POSITION} for none
+     */
+    boolean isFree(int col, int row, int colSpan, int rowSpan, int ignore) {
+        if (col < 0 || row < 0 || colSpan <= 0 || rowSpan <= 0 ||
+                col + colSpan > cols || row + rowSpan > rows) {
+            return false;
+        }
+
+        long mask = getMask(col, colSpan);
+
+        for (int index = row; index < row + rowSpan; index++) {
+            if ((occupancy[index] & mask) != 0) {
+                return ignore != NO_POSITION && isPlaced(ignore) &&
+                        isFreeIgnoring(col, row, colSpan, rowSpan, ignore);
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isFreeIgnoring(int col, int row, int colSpan, int rowSpan, int ignore) {
+        for (int other = 0; other < views.length; other++) {
+            if (other != ignore && isPlaced(other) &&
+                    intersects(other, col, row, colSpan, rowSpan)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Placed items intersecting the area
+     */
+    int[] getCollisions(int col, int row, int colSpan, int rowSpan, int ignore) {
+        int[] collisions = new int[views.length];
+        int count = 0;
+
+        for (int other = 0; other < views.length; other++) {
+            if (other != ignore && isPlaced(other) &&
+                    intersects(other, col, row, colSpan, rowSpan)) {
+                collisions[count++] = other;
+            }
+        }
+
+        return Arrays.copyOf(collisions, count);
+    }
+
+    /**
+     * First free area in reading order.
+     *
+     * @return Packed position, see {@link #getCol(int)} and {@link #getRow(int)}
+     */
+    int findFirstFit(int colSpan, int rowSpan) {
+        for (int row = 0; row <= rows - rowSpan; row++) {
+            for (int col = 0; col <= cols - colSpan; col++) {
+                if (isFree(col, row, colSpan, rowSpan, NO_POSITION)) {
+                    return pack(col, row);
+                }
+            }
+        }
+
+        return NO_POSITION;
+    }
+
+    /**
+     * @return Packed position of the free area closest to the preferred one
+     */
+    int findClosest(int colSpan, int rowSpan, int preferredCol, int preferredRow, int ignore) {
+        int bestDistance = Integer.MAX_VALUE;
+        int best = NO_POSITION;
+
+        for (int row = 0; row <= rows - rowSpan; row++) {
+            for (int col = 0; col <= cols - colSpan; col++) {
+                int dx = col - preferredCol;
+                int dy = row - preferredRow;
+                int distance = dx * dx + dy * dy;
+
+                if (distance < bestDistance && isFree(col, row, colSpan, rowSpan, ignore)) {
+                    bestDistance = distance;
+                    best = pack(col, row);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    static int pack(int col, int row) {
+        return (row << 16) | col;
+    }
+
+    static int getCol(int position) {
+        return position & 0xFFFF;
+    }
+
+    static int getRow(int position) {
+        return position >>> 16;
+    }
+
+    private boolean intersects(int item, int col, int row, int colSpan, int rowSpan) {
+        return this.col[item] < col + colSpan && col < this.col[item] + this.colSpan[item] &&
+                this.row[item] < row + rowSpan && row < this.row[item] + this.rowSpan[item];
+    }
+
+    private void mark(int col, int row, int colSpan, int rowSpan) {
+        long mask = getMask(col, colSpan);
+
+        for (int index = Math.max(0, row); index < Math.min(rows, row + rowSpan); index++) {
+            occupancy[index] |= mask;
+        }
+    }
+
+    private long getMask(int col, int colSpan) {
+        int left = Math.max(0, col);
+        int right = Math.min(cols, col + colSpan);
+
+        if (right <= left) {
+            return 0;
+        }
+
+        int width = right - left;
+
+        return (width == Long.SIZE ? -1L : (1L << width) - 1) << left;
+    }
+}
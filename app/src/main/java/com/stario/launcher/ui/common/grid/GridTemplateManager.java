@@ -28,8 +28,10 @@ import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import com.stario.launcher.Stario;
 import com.stario.launcher.preferences.Entry;
+import com.stario.launcher.utils.TaskScheduler;
 import com.stario.launcher.utils.Utils;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
@@ -38,24 +40,51 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Layouts of a {@link DynamicGridLayout} per grid size. Templates are parsed once per
+ * process, user layouts are kept in memory and persisted to a {@link GridLayoutStore}
+ * off the UI thread.
+ */
 public class GridTemplateManager {
     private static final String TAG = "GridTemplateManager";
+    private static final String LEGACY_PREFIX = "state_";
+    private static final Map<Integer, Map<String, GridTemplate>> templates = new HashMap<>();
 
     private final Map<String, GridTemplate> templateCache;
     private final SharedPreferences prefs;
+    private final File file;
+    private Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> layouts;
+    private int version;
+    private int writtenVersion;
 
     public GridTemplateManager(@NonNull Stario context,
                                @NonNull String identifier, @RawRes int templateId) {
-        this.templateCache = new HashMap<>();
         this.prefs = context.getSharedPreferences(Entry.GRID_TEMPLATE_MANAGER
                 .toSubPreference(identifier), Context.MODE_PRIVATE);
+        this.file = GridLayoutStore.getFile(context.getFilesDir(), identifier);
+        this.templateCache = getTemplates(context, templateId);
+        this.layouts = null;
+        this.version = 0;
+        this.writtenVersion = 0;
+    }
 
+    private static Map<String, GridTemplate> getTemplates(Context context, @RawRes int templateId) {
         if (templateId == 0) {
             Log.w(TAG, "GridTemplateManager: a template file has not been provided.");
-        } else {
-            try {
-                InputStream inputStream = context.getResources().openRawResource(templateId);
 
+            return new HashMap<>();
+        }
+
+        synchronized (templates) {
+            Map<String, GridTemplate> cache = templates.get(templateId);
+
+            if (cache != null) {
+                return cache;
+            }
+
+            cache = new HashMap<>();
+
+            try (InputStream inputStream = context.getResources().openRawResource(templateId)) {
                 List<GridTemplate> list = Utils.getGsonInstance()
                         .fromJson(new InputStreamReader(inputStream),
                                 new TypeToken<List<GridTemplate>>() {
@@ -64,41 +93,140 @@ public class GridTemplateManager {
                 if (list != null) {
                     for (GridTemplate template : list) {
                         template.processItems();
-                        templateCache.put(template.getDimensionsKey(), template);
+                        cache.put(template.getDimensionsKey(), template);
                     }
                 }
             } catch (Exception exception) {
                 Log.e(TAG, "loadTemplates: " + exception);
             }
+
+            templates.put(templateId, cache);
+
+            return cache;
         }
     }
 
+    static String getKey(int cols, int rows) {
+        return cols + "x" + rows;
+    }
+
+    /**
+     * @return A copy of the template for the size, overridden by the user layout,
+     * free to be modified by the caller
+     */
     public Map<String, DynamicGridLayout.ItemLayoutData> getLayoutForSize(int cols, int rows) {
         Map<String, DynamicGridLayout.ItemLayoutData> layout = new HashMap<>();
-        String key = cols + "x" + rows;
+        String key = getKey(cols, rows);
 
         GridTemplate template = templateCache.get(key);
         if (template != null) {
-            layout.putAll(template.getItemMap());
+            copyInto(template.getItemMap(), layout);
         }
 
-        String savedJson = prefs.getString("state_" + key, null);
-        if (savedJson != null) {
-            Type type = new TypeToken<Map<String,
-                    DynamicGridLayout.ItemLayoutData>>() {
-            }.getType();
-
-            Map<String, DynamicGridLayout.ItemLayoutData> savedMap =
-                    Utils.getGsonInstance().fromJson(savedJson, type);
-            layout.putAll(savedMap);
+        Map<String, DynamicGridLayout.ItemLayoutData> saved = getLayouts().get(key);
+        if (saved != null) {
+            copyInto(saved, layout);
         }
 
         return layout;
     }
 
     public void saveUserLayout(int cols, int rows, Map<String, DynamicGridLayout.ItemLayoutData> map) {
-        prefs.edit().putString("state_" + cols + "x" + rows,
-                Utils.getGsonInstance().toJson(map)).apply();
+        Map<String, DynamicGridLayout.ItemLayoutData> layout = new HashMap<>();
+        copyInto(map, layout);
+
+        synchronized (this) {
+            getLayouts().put(getKey(cols, rows), layout);
+            version++;
+        }
+
+        Utils.submitTask(TaskScheduler.Lane.BULK_IO, this::persist);
+    }
+
+    /**
+     * Writes the latest layouts, commits queued behind a newer one are skipped.
+     * The layouts are copied under the file lock, so an older copy can never
+     * be written after a newer one.
+     */
+    private void persist() {
+        synchronized (file) {
+            Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> snapshot;
+            int snapshotVersion;
+
+            synchronized (this) {
+                if (writtenVersion == version) {
+                    return;
+                }
+
+                // records are replaced on save and never modified, a shallow copy is enough
+                snapshot = new HashMap<>(layouts);
+                snapshotVersion = version;
+            }
+
+            GridLayoutStore.write(file, snapshot);
+
+            synchronized (this) {
+                writtenVersion = snapshotVersion;
+            }
+        }
+    }
+
+    private synchronized Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> getLayouts() {
+        if (layouts == null) {
+            if (file.exists()) {
+                layouts = GridLayoutStore.read(file);
+            } else {
+                layouts = migrate();
+            }
+        }
+
+        return layouts;
+    }
+
+    /**
+     * Moves the layouts saved as JSON by earlier versions to the binary store.
+     */
+    private Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> migrate() {
+        Map<String, Map<String, DynamicGridLayout.ItemLayoutData>> migrated = new HashMap<>();
+        Type type = new TypeToken<Map<String,
+                DynamicGridLayout.ItemLayoutData>>() {
+        }.getType();
+
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getKey().startsWith(LEGACY_PREFIX) && entry.getValue() instanceof String) {
+                try {
+                    Map<String, DynamicGridLayout.ItemLayoutData> layout =
+                            Utils.getGsonInstance().fromJson((String) entry.getValue(), type);
+
+                    if (layout != null) {
+                        migrated.put(entry.getKey().substring(LEGACY_PREFIX.length()), layout);
+                    }
+                } catch (Exception exception) {
+                    Log.e(TAG, "migrate: ", exception);
+                }
+            }
+        }
+
+        if (!migrated.isEmpty()) {
+            version++;
+
+            Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> {
+                persist();
+
+                if (file.exists()) {
+                    prefs.edit().clear().apply();
+                }
+            });
+        }
+
+        return migrated;
+    }
+
+    private static void copyInto(Map<String, DynamicGridLayout.ItemLayoutData> source,
+                                 Map<String, DynamicGridLayout.ItemLayoutData> target) {
+        for (Map.Entry<String, DynamicGridLayout.ItemLayoutData> entry : source.entrySet()) {
+            target.put(entry.getKey(), new DynamicGridLayout.ItemLayoutData(entry.getValue()));
+        }
     }
 
     public static class GridTemplate {
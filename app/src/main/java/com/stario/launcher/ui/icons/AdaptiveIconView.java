@@ -17,11 +17,7 @@
 
 package com.stario.launcher.ui.icons;
 
-import android.content.BroadcastReceiver;
 import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
-import android.content.SharedPreferences;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -39,37 +35,33 @@ import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
-import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.stario.launcher.R;
-import com.stario.launcher.activities.settings.dialogs.icons.IconsDialog;
 import com.stario.launcher.apps.LauncherApplication;
-import com.stario.launcher.apps.ProfileManager;
-import com.stario.launcher.preferences.Entry;
 import com.stario.launcher.ui.Measurements;
 import com.stario.launcher.utils.Utils;
 import com.stario.launcher.utils.objects.ObjectDelegate;
 
-import java.io.Serializable;
-
+/**
+ * Icon clipped to the shape chosen by the user. The clip path and the shape and profile
+ * receivers are shared by all icons through {@link IconShapes}.
+ */
 public class AdaptiveIconView extends View {
     public static final String CORNER_RADIUS_ENTRY = "com.stario.CORNER_RADIUS";
     public static final float DEFAULT_CORNER_RADIUS = 1f;
     public static final float MAX_SCALE = 1.12f;
+    public static final int MAX_ICON_SIZE_DP = 60;
 
     private static final int MAX_SHADOW_SIZE = 5;
     private static final float BADGE_SIZE = 0.4f;
 
-    private ObjectDelegate<PathCornerTreatmentAlgorithm> pathAlgorithm;
     private ProfileStateBinding profileStateBinding;
-    /// @noinspection deprecation
-    private LocalBroadcastManager localBroadcastManager;
     private ColorMatrixColorFilter grayscaleFilter;
-    private BroadcastReceiver squircleReceiver;
-    private BroadcastReceiver radiusReceiver;
+    private IconShapes.Listener shapeListener;
     private ObjectDelegate<Drawable> icon;
-    private SharedPreferences preferences;
-    private ObjectDelegate<Float> radius;
+    private IconShapes shapes;
+    private int shapeVersion;
+    private int pathSize;
     private boolean applyBadge;
     private Drawable badge;
     private boolean sizeRestricted;
@@ -98,25 +90,20 @@ public class AdaptiveIconView extends View {
     }
 
     private void init(Context context, @Nullable AttributeSet attrs) {
-        this.preferences = context.getApplicationContext()
-                .getSharedPreferences(Entry.ICONS.toString(), Context.MODE_PRIVATE);
-        //noinspection deprecation
-        this.localBroadcastManager = LocalBroadcastManager.getInstance(context);
-        this.radiusReceiver = new BroadcastReceiver() {
+        this.shapes = IconShapes.from(context);
+        this.shapeListener = new IconShapes.Listener() {
             @Override
-            public void onReceive(Context context, Intent intent) {
-                radius.setValue(intent.getFloatExtra(IconsDialog.EXTRA_CORNER_RADIUS, 1f));
+            public void onShapeChanged() {
+                updatePath();
+                invalidate();
             }
-        };
-        this.squircleReceiver = new BroadcastReceiver() {
+
             @Override
-            public void onReceive(Context context, Intent intent) {
-                Serializable serializable = intent.getSerializableExtra(IconsDialog.EXTRA_PATH_ALGORITHM);
+            public void onProfileAvailabilityChanged(@NonNull UserHandle handle, boolean available) {
+                if (profileStateBinding != null && profileStateBinding.handle.equals(handle)) {
+                    paused = !available;
 
-                if (serializable instanceof PathCornerTreatmentAlgorithm) {
-                    pathAlgorithm.setValue((PathCornerTreatmentAlgorithm) serializable);
-                } else {
-                    pathAlgorithm.setValue(PathCornerTreatmentAlgorithm.REGULAR);
+                    invalidate();
                 }
             }
         };
@@ -134,17 +121,10 @@ public class AdaptiveIconView extends View {
             looseClipping = true;
         }
 
-        this.path = new Path();
+        this.pathSize = 0;
         this.icon = new ObjectDelegate<>((o) -> invalidate());
-        this.pathAlgorithm = new ObjectDelegate<>(
-                PathCornerTreatmentAlgorithm.fromIdentifier(
-                        preferences.getInt(PathCornerTreatmentAlgorithm.PATH_ALGORITHM_ENTRY,
-                                PathCornerTreatmentAlgorithm.DEFAULT_PATH_ALGORITHM_ENTRY)
-                ), (o) -> requestLayout()
-        );
-        this.radius = new ObjectDelegate<>(
-                preferences.getFloat(CORNER_RADIUS_ENTRY,
-                        DEFAULT_CORNER_RADIUS), (o) -> requestLayout());
+        updatePath();
+
         this.badge = ResourcesCompat.getDrawable(context.getResources(),
                 R.drawable.ic_alternate_badge, context.getTheme());
 
@@ -156,37 +136,22 @@ public class AdaptiveIconView extends View {
 
         this.shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         shadowPaint.setColor(Color.TRANSPARENT);
-
-        setLayerType(LAYER_TYPE_HARDWARE, null);
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
 
-        localBroadcastManager.registerReceiver(radiusReceiver,
-                new IntentFilter(IconsDialog.INTENT_CHANGE_CORNER_RADIUS));
-        localBroadcastManager.registerReceiver(squircleReceiver,
-                new IntentFilter(IconsDialog.INTENT_CHANGE_PATH_ALGORITHM));
+        shapes.addListener(shapeListener);
 
         if (profileStateBinding != null) {
             paused = profileStateBinding.isPaused(getContext());
             applyBadge = profileStateBinding.shouldApplyManagedBadge();
-
-            localBroadcastManager.registerReceiver(profileStateBinding.receiver,
-                    profileStateBinding.filter);
         }
 
-        PathCornerTreatmentAlgorithm currentPathCornerTreatmentAlgorithm = PathCornerTreatmentAlgorithm
-                .fromIdentifier(preferences.getInt(PathCornerTreatmentAlgorithm.PATH_ALGORITHM_ENTRY,
-                        PathCornerTreatmentAlgorithm.DEFAULT_PATH_ALGORITHM_ENTRY));
-        if (!pathAlgorithm.getValue().equals(currentPathCornerTreatmentAlgorithm)) {
-            this.pathAlgorithm.setValue(currentPathCornerTreatmentAlgorithm);
-        }
-
-        Float currentRadius = preferences.getFloat(CORNER_RADIUS_ENTRY, DEFAULT_CORNER_RADIUS);
-        if (!radius.getValue().equals(currentRadius)) {
-            this.radius.setValue(currentRadius);
+        // the shape might have changed while detached
+        if (shapeVersion != shapes.getVersion()) {
+            updatePath();
         }
     }
 
@@ -194,16 +159,11 @@ public class AdaptiveIconView extends View {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
-        localBroadcastManager.unregisterReceiver(radiusReceiver);
-        localBroadcastManager.unregisterReceiver(squircleReceiver);
-
-        if (profileStateBinding != null) {
-            localBroadcastManager.unregisterReceiver(profileStateBinding.receiver);
-        }
+        shapes.removeListener(shapeListener);
     }
 
     public static int getMaxIconSize() {
-        return Measurements.dpToPx(60);
+        return Measurements.dpToPx(MAX_ICON_SIZE_DP);
     }
 
     @Override
@@ -233,40 +193,9 @@ public class AdaptiveIconView extends View {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
     }
 
-    private void updateClipPath(int width, int height) {
-        if (pathAlgorithm.getValue() == PathCornerTreatmentAlgorithm.SQUIRCLE) {
-            createClipPathSquircle(width, height);
-        } else {
-            createClipPathRegular(width, height);
-        }
-    }
-
-    //Thanks to Olga Nikolskaya https://medium.com/@nikolskayaolia/an-easy-way-to-implement-smooth-shapes-such-as-superellipse-and-squircle-into-a-user-interface-a5ba4e1139ed
-    //And the https://copyicon.com/generator/svg-squircle implementation in JavaScript
-    //Modified for the context of this project
-    private void createClipPathSquircle(int width, int height) {
-        float halfWidth = width / 2f;
-        float halfHeight = height / 2f;
-        float arc = Math.min(halfWidth, halfHeight) * (0.45f - (1f - radius.getValue()) * 0.45f);
-
-        path.reset();
-        path.moveTo(0, halfHeight);
-
-        path.cubicTo(0, arc, arc, 0, halfWidth, 0);
-        path.cubicTo(width - arc, 0, width, arc, width, halfHeight);
-        path.cubicTo(width, height - arc, width - arc, height, halfWidth, height);
-        path.cubicTo(arc, height, 0, height - arc, 0, halfHeight);
-
-        path.close();
-    }
-
-    private void createClipPathRegular(int width, int height) {
-        float cornerRadius = radius.getValue() * width / 2f;
-
-        path.reset();
-        path.addRoundRect(0, 0, width, height,
-                cornerRadius, cornerRadius, Path.Direction.CW);
-        path.close();
+    private void updatePath() {
+        path = shapes.getPath(pathSize);
+        shapeVersion = shapes.getVersion();
     }
 
     public Drawable getIcon() {
@@ -277,35 +206,18 @@ public class AdaptiveIconView extends View {
         if (application != null) {
             setIcon(application.getIcon());
 
-            profileStateBinding = new ProfileStateBinding(
-                    new BroadcastReceiver() {
-                        @Override
-                        public void onReceive(Context context, Intent intent) {
-                            paused = !intent.getBooleanExtra(ProfileManager.PROFILE_AVAILABLE_EXTRA, true);
-
-                            post(() -> invalidate());
-                        }
-                    },
-                    new IntentFilter(ProfileManager
-                            .getProfileAvailabilityIntentAction(application.getProfile())),
-                    application.getProfile()
-            );
+            profileStateBinding = new ProfileStateBinding(application.getProfile());
+            shapes.observeProfile(application.getProfile());
 
             paused = profileStateBinding.isPaused(getContext());
             applyBadge = profileStateBinding.shouldApplyManagedBadge();
-
-            localBroadcastManager.registerReceiver(profileStateBinding.receiver,
-                    profileStateBinding.filter);
         } else {
             setIcon(null);
         }
     }
 
     public void setIcon(Drawable icon) {
-        if (profileStateBinding != null) {
-            localBroadcastManager.unregisterReceiver(profileStateBinding.receiver);
-            profileStateBinding = null;
-        }
+        profileStateBinding = null;
 
         if (icon != null && icon.getConstantState() != null) {
             Drawable constantStateIcon = icon.getConstantState().newDrawable();
@@ -336,7 +248,9 @@ public class AdaptiveIconView extends View {
                         inset + MAX_SHADOW_SIZE, inset + MAX_SHADOW_SIZE);
             }
 
-            updateClipPath(inset, inset);
+            pathSize = inset;
+            updatePath();
+
             shadowPaint.setShadowLayer(
                     ((float) size / getMaxIconSize()) * MAX_SHADOW_SIZE * 0.75f,
                     0, 0, Color.argb(100, 0, 0, 0)
@@ -446,15 +360,10 @@ public class AdaptiveIconView extends View {
     }
 
     public static class ProfileStateBinding {
-        public final BroadcastReceiver receiver;
-        public final IntentFilter filter;
         private final UserHandle handle;
 
-        private ProfileStateBinding(BroadcastReceiver receiver,
-                                    IntentFilter filter, UserHandle handle) {
-            this.receiver = receiver;
+        private ProfileStateBinding(UserHandle handle) {
             this.handle = handle;
-            this.filter = filter;
         }
 
         private boolean isPaused(Context context) {
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.icons;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.graphics.Path;
+import android.os.UserHandle;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import com.stario.launcher.activities.settings.dialogs.icons.IconsDialog;
+import com.stario.launcher.apps.ProfileManager;
+import com.stario.launcher.preferences.Entry;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Icon shape shared by every {@link AdaptiveIconView}. Clip paths are built once per
+ * size for the current shape, and a single set of receivers forwards shape and profile
+ * availability changes to the attached views. Listeners are weakly referenced.
+ * <p>
+ * Every method has to be called from the UI thread.
+ */
+public final class IconShapes {
+    private static IconShapes instance;
+
+    private final SparseArray<Path> paths;
+    private final Set<Listener> listeners;
+    private final Set<UserHandle> observedProfiles;
+    /// @noinspection deprecation
+    private final LocalBroadcastManager localBroadcastManager;
+
+    private PathCornerTreatmentAlgorithm algorithm;
+    private float radius;
+    private int version;
+
+    private IconShapes(Context context) {
+        SharedPreferences preferences = context.getSharedPreferences(Entry.ICONS.toString(),
+                Context.MODE_PRIVATE);
+
+        this.paths = new SparseArray<>();
+        this.listeners = Collections.newSetFromMap(new WeakHashMap<>());
+        this.observedProfiles = new HashSet<>();
+        this.algorithm = PathCornerTreatmentAlgorithm.fromIdentifier(
+                preferences.getInt(PathCornerTreatmentAlgorithm.PATH_ALGORITHM_ENTRY,
+                        PathCornerTreatmentAlgorithm.DEFAULT_PATH_ALGORITHM_ENTRY));
+        this.radius = preferences.getFloat(AdaptiveIconView.CORNER_RADIUS_ENTRY,
+                AdaptiveIconView.DEFAULT_CORNER_RADIUS);
+        this.version = 0;
+
+        //noinspection deprecation
+        this.localBroadcastManager = LocalBroadcastManager.getInstance(context);
+
+        localBroadcastManager.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                radius = intent.getFloatExtra(IconsDialog.EXTRA_CORNER_RADIUS, 1f);
+
+                notifyShapeChanged();
+            }
+        }, new IntentFilter(IconsDialog.INTENT_CHANGE_CORNER_RADIUS));
+
+        localBroadcastManager.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                Serializable serializable = intent.getSerializableExtra(IconsDialog.EXTRA_PATH_ALGORITHM);
+
+                if (serializable instanceof PathCornerTreatmentAlgorithm) {
+                    algorithm = (PathCornerTreatmentAlgorithm) serializable;
+                } else {
+                    algorithm = PathCornerTreatmentAlgorithm.REGULAR;
+                }
+
+                notifyShapeChanged();
+            }
+        }, new IntentFilter(IconsDialog.INTENT_CHANGE_PATH_ALGORITHM));
+    }
+
+    public static IconShapes from(@NonNull Context context) {
+        if (instance == null) {
+            instance = new IconShapes(context.getApplicationContext());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Incremented on every shape change, so views can tell if their path is stale.
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Shared path of the current shape, must not be modified
+     */
+    @NonNull
+    Path getPath(int size) {
+        Path path = paths.get(size);
+
+        if (path == null) {
+            path = new Path();
+
+            if (algorithm == PathCornerTreatmentAlgorithm.SQUIRCLE) {
+                createClipPathSquircle(path, size, size, radius);
+            } else {
+                createClipPathRegular(path, size, size, radius);
+            }
+
+            paths.put(size, path);
+        }
+
+        return path;
+    }
+
+    void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts forwarding the availability changes of the profile, once per profile.
+     */
+    void observeProfile(@NonNull UserHandle handle) {
+        if (!observedProfiles.add(handle)) {
+            return;
+        }
+
+        localBroadcastManager.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                boolean available = intent.getBooleanExtra(ProfileManager.PROFILE_AVAILABLE_EXTRA, true);
+
+                for (Listener listener : listeners.toArray(new Listener[0])) {
+                    listener.onProfileAvailabilityChanged(handle, available);
+                }
+            }
+        }, new IntentFilter(ProfileManager.getProfileAvailabilityIntentAction(handle)));
+    }
+
+    private void notifyShapeChanged() {
+        version++;
+        paths.clear();
+
+        for (Listener listener : listeners.toArray(new Listener[0])) {
+            listener.onShapeChanged();
+        }
+    }
+
+    //Thanks to Olga Nikolskaya https://medium.com/@nikolskayaolia/an-easy-way-to-implement-smooth-shapes-such-as-superellipse-and-squircle-into-a-user-interface-a5ba4e1139ed
+    //And the https://copyicon.com/generator/svg-squircle implementation in JavaScript
+    //Modified for the context of this project
+    private static void createClipPathSquircle(Path path, int width, int height, float radius) {
+        float halfWidth = width / 2f;
+        float halfHeight = height / 2f;
+        float arc = Math.min(halfWidth, halfHeight) * (0.45f - (1f - radius) * 0.45f);
+
+        path.reset();
+        path.moveTo(0, halfHeight);
+
+        path.cubicTo(0, arc, arc, 0, halfWidth, 0);
+        path.cubicTo(width - arc, 0, width, arc, width, halfHeight);
+        path.cubicTo(width, height - arc, width - arc, height, halfWidth, height);
+        path.cubicTo(arc, height, 0, height - arc, 0, halfHeight);
+
+        path.close();
+    }
+
+    private static void createClipPathRegular(Path path, int width, int height, float radius) {
+        float cornerRadius = radius * width / 2f;
+
+        path.reset();
+        path.addRoundRect(0, 0, width, height,
+                cornerRadius, cornerRadius, Path.Direction.CW);
+        path.close();
+    }
+
+    interface Listener {
+        void onShapeChanged();
+
+        void onProfileAvailabilityChanged(@NonNull UserHandle handle, boolean available);
+    }
+}
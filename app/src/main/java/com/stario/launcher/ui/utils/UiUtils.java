@@ -28,6 +28,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.transition.TransitionSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewOutlineProvider;
@@ -151,6 +152,17 @@ public class UiUtils {
         UIHandler.post(runnable);
     }
 
+    /**
+     * Runs the callback on the UI thread right before the next frame is drawn.
+     */
+    public static void postFrameCallback(Choreographer.FrameCallback callback) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(callback);
+        } else {
+            UIHandler.post(() -> Choreographer.getInstance().postFrameCallback(callback));
+        }
+    }
+
     public static void removeUICallback(Runnable runnable) {
         UIHandler.removeCallbacks(runnable);
     }
@@ -18,70 +18,75 @@
 package com.stario.launcher.ui.utils.animation;
 
 import android.app.Activity;
-import android.os.Handler;
 import android.os.IBinder;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.Window;
 
 import com.stario.launcher.hidden.WallpaperManagerHidden;
+import com.stario.launcher.ui.utils.UiUtils;
 
 import dev.rikka.tools.refine.Refine;
 
+/**
+ * Eases the wallpaper zoom towards the last requested value, one step per frame.
+ * Targets arriving mid-animation only move the destination, and the zoom is only
+ * sent to the wallpaper when it changed by a visible amount.
+ * <p>
+ * Every method has to be called from the UI thread.
+ */
 public class WallpaperAnimator {
     private static final String TAG = "WallpaperAnimation";
-    private static final Handler handler = new Handler();
-    private static final float ANIMATION_FRAME_STEP = 0.005f;
-    private static final int TARGET_FRAME_COUNT = 30;
-    private static final int ANIMATION_FRAME_DELAY = 8;
+
+    private static final Choreographer.FrameCallback frameCallback = WallpaperAnimator::doFrame;
+    private static final ZoomAnimation animation = new ZoomAnimation(new ZoomAnimation.Host() {
+        @Override
+        public void postFrame() {
+            UiUtils.postFrameCallback(frameCallback);
+        }
+
+        @Override
+        public boolean setZoom(float zoom) {
+            return sendZoom(zoom);
+        }
+    });
 
     private static WallpaperManagerHidden wallpaperManager;
     private static boolean hasLoggedMissingMethod = false;
-    private static float lastRecordedZoomValue = 0;
-    private static Runnable zoomAnimator;
+    private static IBinder token;
 
     public static void updateZoom(Activity activity, float zoom) {
-        if (hasLoggedMissingMethod || zoom == lastRecordedZoomValue) {
+        if (hasLoggedMissingMethod) {
             return;
         }
 
-        if (zoomAnimator != null) {
-            handler.removeCallbacks(zoomAnimator);
+        token = getWindowToken(activity);
+        getWallpaperManager(activity);
+
+        animation.setTarget(zoom);
+    }
+
+    private static void doFrame(long frameTimeNanos) {
+        animation.doFrame(frameTimeNanos);
+    }
+
+    private static boolean sendZoom(float zoom) {
+        if (token == null || hasLoggedMissingMethod) {
+            return false;
         }
 
-        float direction = Math.signum(zoom - lastRecordedZoomValue);
-        IBinder token = getWindowToken(activity);
-        zoomAnimator = new Runnable() {
-            @Override
-            public void run() {
-                if (token != null) {
-                    lastRecordedZoomValue += direction *
-                            Math.max(ANIMATION_FRAME_STEP,
-                                    Math.abs(zoom - lastRecordedZoomValue) / TARGET_FRAME_COUNT);
-                    if ((direction > 0 && lastRecordedZoomValue > zoom)
-                            || (direction < 0 && lastRecordedZoomValue < zoom)) {
-                        lastRecordedZoomValue = zoom;
-                    }
-
-                    try {
-                        getWallpaperManager(activity)
-                                .setWallpaperZoomOut(token, lastRecordedZoomValue);
-                    } catch (NoSuchMethodError exception) {
-                        if (!hasLoggedMissingMethod) {
-                            Log.e(TAG, "WallpaperManager::setWallpaperZoomOut does not exist. This error message will not be shown again.");
-                            hasLoggedMissingMethod = true;
-                        }
-
-                        return;
-                    }
-
-                    if (lastRecordedZoomValue != zoom) {
-                        handler.postDelayed(this, ANIMATION_FRAME_DELAY);
-                    }
-                }
+        try {
+            wallpaperManager.setWallpaperZoomOut(token, zoom);
+
+            return true;
+        } catch (NoSuchMethodError exception) {
+            if (!hasLoggedMissingMethod) {
+                Log.e(TAG, "WallpaperManager::setWallpaperZoomOut does not exist. This error message will not be shown again.");
+                hasLoggedMissingMethod = true;
             }
-        };
 
-        zoomAnimator.run();
+            return false;
+        }
     }
 
     private static WallpaperManagerHidden getWallpaperManager(Activity activity) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.utils.animation;
+
+/**
+ * Easing of {@link WallpaperAnimator}, kept apart from the Choreographer and the
+ * wallpaper manager.
+ */
+final class ZoomAnimation {
+    static final float ANIMATION_FRAME_STEP = 0.005f;
+    static final int TARGET_FRAME_COUNT = 30;
+    // the animation was tuned for steps this far apart
+    static final float REFERENCE_FRAME_INTERVAL_MS = 8f;
+    static final float MAX_FRAME_INTERVAL_MS = 50f;
+    static final float ZOOM_QUANTUM = 1f / 512f;
+
+    private final Host host;
+    private float recordedZoom;
+    private float sentZoom;
+    private float targetZoom;
+    private long lastFrameTimeNanos;
+    private boolean scheduled;
+
+    ZoomAnimation(Host host) {
+        this.host = host;
+        this.recordedZoom = 0;
+        this.sentZoom = 0;
+        this.targetZoom = 0;
+        this.lastFrameTimeNanos = 0;
+        this.scheduled = false;
+    }
+
+    void setTarget(float zoom) {
+        targetZoom = zoom;
+
+        if (!scheduled && zoom != recordedZoom) {
+            scheduled = true;
+            lastFrameTimeNanos = 0;
+
+            host.postFrame();
+        }
+    }
+
+    void doFrame(long frameTimeNanos) {
+        scheduled = false;
+
+        // the first frame moves by a single reference step
+        float steps = lastFrameTimeNanos != 0 ? Math.min(MAX_FRAME_INTERVAL_MS,
+                (frameTimeNanos - lastFrameTimeNanos) / 1_000_000f) / REFERENCE_FRAME_INTERVAL_MS : 1f;
+        lastFrameTimeNanos = frameTimeNanos;
+
+        float zoom = targetZoom;
+        float remaining = zoom - recordedZoom;
+        float distance = Math.max(ANIMATION_FRAME_STEP * steps, Math.abs(remaining) *
+                (1f - (float) Math.pow(1f - 1f / TARGET_FRAME_COUNT, steps)));
+
+        if (distance >= Math.abs(remaining)) {
+            recordedZoom = zoom;
+        } else {
+            recordedZoom += Math.signum(remaining) * distance;
+        }
+
+        float nextZoom = recordedZoom == zoom ? zoom :
+                Math.round(recordedZoom / ZOOM_QUANTUM) * ZOOM_QUANTUM;
+
+        // every call is a binder transaction, skip the ones that would not be visible
+        if (nextZoom != sentZoom) {
+            if (!host.setZoom(nextZoom)) {
+                return;
+            }
+
+            sentZoom = nextZoom;
+        }
+
+        if (recordedZoom != targetZoom) {
+            scheduled = true;
+
+            host.postFrame();
+        }
+    }
+
+    float getZoom() {
+        return recordedZoom;
+    }
+
+    float getSentZoom() {
+        return sentZoom;
+    }
+
+    interface Host {
+        /**
+         * Requests a call to {@link #doFrame(long)} on the next vsync.
+         */
+        void postFrame();
+
+        /**
+         * @return False if the zoom could not be sent, which stops the animation
+         * until the next target
+         */
+        boolean setZoom(float zoom);
+    }
+}
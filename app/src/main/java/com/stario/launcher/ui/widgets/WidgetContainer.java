@@ -24,6 +24,7 @@ import android.widget.GridLayout;
 import android.widget.RelativeLayout;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.stario.launcher.sheet.widgets.Widget;
 import com.stario.launcher.sheet.widgets.WidgetSize;
@@ -31,24 +32,45 @@ import com.stario.launcher.ui.Measurements;
 
 @SuppressLint("ViewConstructor")
 class WidgetContainer extends RelativeLayout implements Comparable<WidgetContainer> {
-    private final AppWidgetHostView host;
     private final Widget widget;
+    private AppWidgetHostView host;
     private WidgetMap.Cell origin; // top-left
 
-    WidgetContainer(Context context, AppWidgetHostView host, Widget widget, WidgetMap.Cell cell) {
+    /**
+     * @param host Null to reserve the cells of the widget until its host is set
+     */
+    WidgetContainer(Context context, @Nullable AppWidgetHostView host, Widget widget, WidgetMap.Cell cell) {
         super(context);
 
         this.origin = cell;
-        this.host = host;
         this.widget = widget;
 
         int padding = Measurements.dpToPx(10);
         setPadding(padding, padding, padding, padding);
         setRotation(180);
 
+        setHost(host);
+    }
+
+    void setHost(@Nullable AppWidgetHostView host) {
+        if (this.host != null || host == null) {
+            return;
+        }
+
+        this.host = host;
+
         addView(host);
     }
 
+    @Nullable
+    AppWidgetHostView getHost() {
+        return host;
+    }
+
+    Widget getWidget() {
+        return widget;
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
@@ -76,7 +98,7 @@ class WidgetContainer extends RelativeLayout implements Comparable<WidgetContain
         int hostWidth = params.width - getPaddingLeft() - getPaddingRight();
         int hostHeight = params.height - getPaddingTop() - getPaddingBottom();
 
-        if (getMeasuredWidth() > 0 && getMeasuredHeight() > 0) {
+        if (host != null && getMeasuredWidth() > 0 && getMeasuredHeight() > 0) {
             host.updateAppWidgetSize(null,
                     (int) (hostWidth / Measurements.getDensity()),
                     (int) (hostHeight / Measurements.getDensity()),
@@ -89,6 +111,10 @@ class WidgetContainer extends RelativeLayout implements Comparable<WidgetContain
         return widget.size;
     }
 
+    WidgetMap.Cell getOrigin() {
+        return origin;
+    }
+
     int getPosition() {
         return widget.position;
     }
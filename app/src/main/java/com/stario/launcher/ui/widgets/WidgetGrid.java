@@ -37,12 +37,11 @@ import com.stario.launcher.ui.utils.LayoutSizeObserver;
 import com.stario.launcher.ui.utils.animation.Animation;
 import com.stario.launcher.utils.objects.ObservableObject;
 
-import java.util.PriorityQueue;
-
 public class WidgetGrid extends GridLayout {
     private static final String TAG = "com.stario.WidgetGrid";
 
     private Runnable onDispatchDrawReorderRunnable;
+    private int reorderStart;
     private ObservableObject<Integer> columnCount;
     private WidgetMap map;
 
@@ -67,6 +66,7 @@ public class WidgetGrid extends GridLayout {
     private void init() {
         this.map = new WidgetMap(2);
         this.onDispatchDrawReorderRunnable = null;
+        this.reorderStart = 0;
         this.columnCount = new ObservableObject<>(0,
                 object -> {
                     View parent = (View) getParent();
@@ -81,7 +81,7 @@ public class WidgetGrid extends GridLayout {
                     LayoutTransition transition = getLayoutTransition();
                     setLayoutTransition(null);
 
-                    scheduleReorder();
+                    scheduleReorder(0);
 
                     if (parent != null && originalAlpha > 0) {
                         post(() -> parent.animate().alpha(originalAlpha)
@@ -130,19 +130,29 @@ public class WidgetGrid extends GridLayout {
 
     @Override
     public void removeView(View view) {
+        int index = indexOfChild(view);
+
         super.removeView(view);
 
-        scheduleReorder();
+        if (index >= 0) {
+            scheduleReorder(index);
+        }
     }
 
-    private void scheduleReorder() {
+    /**
+     * @param start Index of the first child that may have to move
+     */
+    private void scheduleReorder(int start) {
         if (onDispatchDrawReorderRunnable != null) {
+            reorderStart = Math.min(reorderStart, start);
+
             return;
         }
 
+        reorderStart = start;
         onDispatchDrawReorderRunnable = () -> {
             onDispatchDrawReorderRunnable = null;
-            reorder();
+            reorder(reorderStart);
         };
     }
 
@@ -162,25 +172,57 @@ public class WidgetGrid extends GridLayout {
     }
 
     public void attach(AppWidgetHostView host, Widget widget) {
-        WidgetMap.Cell cell = map.getAvailableOrigin(widget.size);
+        attachContainer(host, widget);
+    }
 
-        super.addView(new WidgetContainer(getContext(), host, widget, cell));
-        map.add(cell, widget.size);
+    /**
+     * Reserves the cells of the widget, its host is set later by {@link WidgetLoader}.
+     */
+    WidgetContainer attach(Widget widget) {
+        return attachContainer(null, widget);
     }
 
-    private void reorder() {
-        map.clear();
+    private WidgetContainer attachContainer(AppWidgetHostView host, Widget widget) {
+        // children are kept sorted by position, widgets are usually appended
+        int index = getChildCount();
+
+        while (index > 0 && ((WidgetContainer) getChildAt(index - 1)).getPosition() > widget.position) {
+            index--;
+        }
 
-        PriorityQueue<WidgetContainer> containers = new PriorityQueue<>();
+        WidgetContainer container;
 
-        for (int index = 0; index < getChildCount(); index++) {
-            containers.add((WidgetContainer) getChildAt(index));
+        if (index == getChildCount() && onDispatchDrawReorderRunnable == null) {
+            WidgetMap.Cell cell = map.getAvailableOrigin(widget.size);
+
+            container = new WidgetContainer(getContext(), host, widget, cell);
+
+            super.addView(container, index);
+            map.add(cell, widget.size);
+        } else {
+            container = new WidgetContainer(getContext(), host, widget,
+                    new WidgetMap.Cell(0, 0));
+
+            super.addView(container, index);
+            scheduleReorder(index);
         }
 
-        while (!containers.isEmpty()) {
-            WidgetContainer container = containers.poll();
+        return container;
+    }
+
+    /**
+     * Widgets are placed first-fit in position order, so the ones before
+     * start keep their cells and only the rest are placed again.
+     */
+    private void reorder(int start) {
+        map.clear();
+
+        for (int index = 0; index < getChildCount(); index++) {
+            WidgetContainer container = (WidgetContainer) getChildAt(index);
 
-            if (container != null) {
+            if (index < start) {
+                map.add(container.getOrigin(), container.getSize());
+            } else {
                 WidgetMap.Cell cell = map.getAvailableOrigin(container.getSize());
 
                 container.updateOrigin(cell);
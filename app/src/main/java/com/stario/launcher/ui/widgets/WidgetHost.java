@@ -29,11 +29,29 @@ public class WidgetHost extends AppWidgetHost {
     public static final String REMOVE_WIDGET = "com.stario.launcher.LauncherAppWidgetHost.REMOVE_WIDGET";
     public static final String WIDGET_ID = "com.stario.launcher.LauncherAppWidgetHost.WIDGET_ID";
     private final Context context;
+    private boolean deferNextView;
 
     public WidgetHost(Context context, int hostId) {
         super(context, hostId);
 
         this.context = context;
+        this.deferNextView = false;
+    }
+
+    /**
+     * Same as {@link #createView(Context, int, AppWidgetProviderInfo)}, but the
+     * view keeps the {@link android.widget.RemoteViews} it receives unapplied
+     * until {@link WidgetLoader} finds it on screen.
+     */
+    public AppWidgetHostView createDeferredView(Context context, int appWidgetId,
+                                                AppWidgetProviderInfo appWidget) {
+        deferNextView = true;
+
+        try {
+            return createView(context, appWidgetId, appWidget);
+        } finally {
+            deferNextView = false;
+        }
     }
 
     @Override
@@ -55,6 +73,9 @@ public class WidgetHost extends AppWidgetHost {
                 new WidgetContainer.LayoutParams(ConstraintLayout.LayoutParams.MATCH_PARENT,
                         WidgetContainer.LayoutParams.MATCH_PARENT);
 
-        return new WidgetHostView(context, params);
+        WidgetHostView view = new WidgetHostView(context, params);
+        view.setDeferUpdates(deferNextView);
+
+        return view;
     }
 }
\ No newline at end of file
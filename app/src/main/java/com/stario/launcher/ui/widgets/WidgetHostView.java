@@ -34,20 +34,70 @@ public class WidgetHostView extends RoundedWidgetHost {
     private CheckForLongPress mPendingCheckForLongPress;
     private boolean mHasPerformedLongPress;
     private final float moveSlop;
+    private RemoteViews pendingViews;
+    private boolean hasPendingUpdate;
+    private boolean deferUpdates;
+    private boolean shown;
 
     public WidgetHostView(Context context, WidgetContainer.LayoutParams params) {
         super(context, params);
 
         this.moveSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        this.shown = true;
     }
 
     @Override
     public void updateAppWidget(RemoteViews remoteViews) {
+        if (deferUpdates || !shown) {
+            pendingViews = remoteViews;
+            hasPendingUpdate = true;
+
+            return;
+        }
+
         super.updateAppWidget(remoteViews);
 
         enableChildrenNestedScrolling(this);
     }
 
+    /**
+     * While deferred, only the latest {@link RemoteViews} are kept and
+     * they are applied once updates are resumed.
+     */
+    void setDeferUpdates(boolean deferUpdates) {
+        this.deferUpdates = deferUpdates;
+
+        applyPendingUpdate();
+    }
+
+    boolean isDeferringUpdates() {
+        return deferUpdates;
+    }
+
+    /**
+     * Updates are also held while the widget is hidden, together with
+     * its sheet or window, and applied once it is shown again.
+     */
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+
+        shown = isVisible;
+
+        applyPendingUpdate();
+    }
+
+    private void applyPendingUpdate() {
+        if (!deferUpdates && shown && hasPendingUpdate) {
+            RemoteViews remoteViews = pendingViews;
+
+            pendingViews = null;
+            hasPendingUpdate = false;
+
+            updateAppWidget(remoteViews);
+        }
+    }
+
     private void enableChildrenNestedScrolling(View view) {
         view.setNestedScrollingEnabled(true);
         view.setOverScrollMode(OVER_SCROLL_NEVER);
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.widgets;
+
+import android.appwidget.AppWidgetHostView;
+import android.graphics.Rect;
+import android.view.Choreographer;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.stario.launcher.sheet.widgets.Widget;
+import com.stario.launcher.ui.utils.UiUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restores widgets in stages. Their cells are reserved right away, then host views
+ * are created a few per frame, the ones on screen first. Hosts off screen keep their
+ * {@link android.widget.RemoteViews} unapplied, deferral is switched on and off as
+ * they are scrolled out of and back into view.
+ */
+public final class WidgetLoader {
+    private static final long FRAME_BUDGET_NANOS = 4_000_000;
+
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener;
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener;
+    private final Choreographer.FrameCallback frameCallback;
+    private final List<WidgetContainer> pending;
+    private final List<WidgetContainer> loaded;
+    private final WidgetGrid grid;
+    private final Factory factory;
+    private final Rect rect;
+    private ViewTreeObserver observer;
+    private boolean scheduled;
+
+    public WidgetLoader(@NonNull WidgetGrid grid, @NonNull Factory factory) {
+        this.grid = grid;
+        this.factory = factory;
+        this.pending = new ArrayList<>();
+        this.loaded = new ArrayList<>();
+        this.rect = new Rect();
+        this.observer = null;
+        this.scheduled = false;
+        this.frameCallback = frameTimeNanos -> {
+            scheduled = false;
+
+            loadFrame();
+        };
+        this.layoutListener = this::schedule;
+        this.scrollListener = this::schedule;
+    }
+
+    /**
+     * Widgets have to be added in position order.
+     */
+    public void add(@NonNull Widget widget) {
+        pending.add(grid.attach(widget));
+
+        schedule();
+    }
+
+    /**
+     * Drops the widgets whose hosts were not created yet and
+     * applies the updates of the deferred ones.
+     */
+    public void cancel() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+
+            scheduled = false;
+        }
+
+        for (WidgetContainer container : loaded) {
+            setDeferUpdates(container, false);
+        }
+
+        pending.clear();
+        loaded.clear();
+
+        updateObserving();
+    }
+
+    private void schedule() {
+        if (!scheduled && (!pending.isEmpty() || !loaded.isEmpty())) {
+            scheduled = true;
+
+            UiUtils.postFrameCallback(frameCallback);
+        }
+    }
+
+    private void loadFrame() {
+        // positions are only known after the first layout
+        if (!grid.isLaidOut()) {
+            schedule();
+
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        for (int index = loaded.size() - 1; index >= 0; index--) {
+            WidgetContainer container = loaded.get(index);
+
+            if (container.getParent() == null) {
+                loaded.remove(index);
+            } else {
+                setDeferUpdates(container, !isOnScreen(container));
+            }
+        }
+
+        // at least one host per frame, so the restore always progresses
+        while (!pending.isEmpty()) {
+            WidgetContainer container = pending.remove(getNextIndex());
+
+            if (container.getParent() != null) {
+                boolean onScreen = isOnScreen(container);
+                AppWidgetHostView host = factory.create(container.getWidget(), !onScreen);
+
+                if (host != null) {
+                    container.setHost(host);
+                    loaded.add(container);
+                }
+            }
+
+            if (System.nanoTime() - start > FRAME_BUDGET_NANOS) {
+                break;
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+
+        updateObserving();
+    }
+
+    private int getNextIndex() {
+        for (int index = 0; index < pending.size(); index++) {
+            if (isOnScreen(pending.get(index))) {
+                return index;
+            }
+        }
+
+        return 0;
+    }
+
+    private boolean isOnScreen(WidgetContainer container) {
+        return container.getLocalVisibleRect(rect);
+    }
+
+    private void setDeferUpdates(WidgetContainer container, boolean deferUpdates) {
+        AppWidgetHostView host = container.getHost();
+
+        if (host instanceof WidgetHostView) {
+            ((WidgetHostView) host).setDeferUpdates(deferUpdates);
+        }
+    }
+
+    private void updateObserving() {
+        if (!loaded.isEmpty()) {
+            if (observer == null) {
+                observer = grid.getViewTreeObserver();
+
+                observer.addOnGlobalLayoutListener(layoutListener);
+                observer.addOnScrollChangedListener(scrollListener);
+            }
+        } else if (observer != null) {
+            // the observer dies when the grid is detached
+            if (observer.isAlive()) {
+                observer.removeOnGlobalLayoutListener(layoutListener);
+                observer.removeOnScrollChangedListener(scrollListener);
+            }
+
+            observer = null;
+        }
+    }
+
+    public interface Factory {
+        /**
+         * @param deferUpdates Whether the host is off screen and should keep its updates
+         *                     unapplied, see {@link WidgetHost#createDeferredView}
+         * @return The host view, or null if the widget cannot be restored
+         */
+        @Nullable
+        AppWidgetHostView create(@NonNull Widget widget, boolean deferUpdates);
+    }
+}
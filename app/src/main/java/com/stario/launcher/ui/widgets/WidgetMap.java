@@ -21,70 +21,87 @@ import androidx.annotation.Nullable;
 
 import com.stario.launcher.sheet.widgets.WidgetSize;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
+/**
+ * Cells taken by widgets, one word per row and one bit per column, so probing
+ * a row for room is a single mask test.
+ */
 public class WidgetMap {
-    private final Set<Cell> set;
+    private static final int MAX_COLUMNS = Long.SIZE;
+    private static final int INITIAL_ROWS = 8;
 
+    private long[] rows;
     private int columns;
 
     WidgetMap(int columns) {
-        this.set = new HashSet<>();
-        this.columns = columns;
+        this.rows = new long[INITIAL_ROWS];
+        this.columns = Math.min(columns, MAX_COLUMNS);
     }
 
     public void setColumnCount(int columns) {
-        this.columns = columns;
+        this.columns = Math.min(columns, MAX_COLUMNS);
     }
 
     void add(Cell origin, WidgetSize size) {
+        ensureRows(origin.row + size.height);
+
+        long mask = getMask(origin.column, size.width);
+
         for (int row = origin.row; row < origin.row + size.height; row++) {
-            for (int column = origin.column; column < origin.column + size.width; column++) {
-                set.add(new Cell(row, column));
-            }
+            rows[row] |= mask;
         }
     }
 
+    /**
+     * First free origin in reading order.
+     */
     Cell getAvailableOrigin(WidgetSize size) {
-        int column = 0;
-        int row = 0;
+        // wider than the grid, give it rows of its own
+        int width = Math.min(size.width, columns);
 
-        Cell testedCell;
+        for (int row = 0; ; row++) {
+            long taken = 0;
 
-        do {
-            testedCell = new Cell(row, column);
+            for (int offset = 0; offset < size.height; offset++) {
+                taken |= getRow(row + offset);
+            }
 
-            column = column + 1;
+            // a bit is set for every column where the widget can start
+            long free = ~taken;
 
-            if (column >= columns) {
-                column = 0;
-                row++;
+            for (int shift = 1; shift < width; shift++) {
+                free &= ~taken >>> shift;
             }
-        } while (!checkFreeSpace(testedCell, size));
 
-        return testedCell;
+            free &= getMask(0, columns - width + 1);
+
+            if (free != 0) {
+                return new Cell(row, Long.numberOfTrailingZeros(free));
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(rows, 0);
     }
 
+    private long getRow(int row) {
+        return row < rows.length ? rows[row] : 0;
+    }
 
-    private boolean checkFreeSpace(Cell origin, WidgetSize size) {
-        if (origin.column + size.width > columns) {
-            return false;
+    private void ensureRows(int count) {
+        if (count > rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(count, rows.length * 2));
         }
+    }
 
-        for (int row = origin.row; row < origin.row + size.height; row++) {
-            for (int column = origin.column; column < origin.column + size.width; column++) {
-                if (set.contains(new Cell(row, column))) {
-                    return false;
-                }
-            }
+    private static long getMask(int column, int width) {
+        if (width <= 0) {
+            return 0;
         }
 
-        return true;
-    }
-
-    void clear() {
-        set.clear();
+        return (width >= Long.SIZE ? -1L : (1L << width) - 1) << column;
     }
 
     static class Cell {
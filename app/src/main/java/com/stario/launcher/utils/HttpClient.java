@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.stario.launcher.Stario;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Launcher wide HTTP client. Every feature shares one connection pool and one
+ * on-disk cache honoring Cache-Control and validators, so repeated requests reuse
+ * warm connections and unchanged responses are not downloaded again. Timeouts and
+ * retries are configured per {@link Feature}.
+ */
+public final class HttpClient {
+    private static final String TAG = "HttpClient";
+    private static final String DIRECTORY = "http";
+    private static final long CACHE_SIZE = 10 * 1024 * 1024;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long BACKOFF = 300;
+
+    private static final EnumMap<Feature, OkHttpClient> clients = new EnumMap<>(Feature.class);
+    private static OkHttpClient base;
+
+    private HttpClient() {
+    }
+
+    public enum Feature {
+        WEATHER(10_000, 10_000, 2),
+        GEOCODER(5_000, 5_000, 1),
+        FEEDS(10_000, 10_000, 1),
+        SEARCH(3_000, 5_000, 0),
+        SUGGESTIONS(2_000, 3_000, 0),
+        /**
+         * Public IP lookups, callers fall back to other endpoints on their own.
+         */
+        NETWORK(3_000, 3_000, 0);
+
+        private final long connectTimeout;
+        private final long readTimeout;
+        private final int retries;
+
+        Feature(long connectTimeout, long readTimeout, int retries) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.retries = retries;
+        }
+    }
+
+    public static synchronized void from(@NonNull Stario stario) {
+        if (base == null) {
+            base = new OkHttpClient.Builder()
+                    .cache(new Cache(new File(stario.getCacheDir(), DIRECTORY), CACHE_SIZE))
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS,
+                            KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .build();
+        }
+    }
+
+    @NonNull
+    public static synchronized OkHttpClient getClient(@NonNull Feature feature) {
+        if (base == null) {
+            throw new RuntimeException("HTTP client not initialized.");
+        }
+
+        OkHttpClient client = clients.get(feature);
+
+        if (client == null) {
+            // derived clients share the pool, cache and dispatcher of the base one
+            OkHttpClient.Builder builder = base.newBuilder()
+                    .connectTimeout(feature.connectTimeout, TimeUnit.MILLISECONDS)
+                    .readTimeout(feature.readTimeout, TimeUnit.MILLISECONDS);
+
+            if (feature.retries > 0) {
+                builder.addInterceptor(new RetryInterceptor(feature.retries));
+            }
+
+            client = builder.build();
+            clients.put(feature, client);
+        }
+
+        return client;
+    }
+
+    /**
+     * @return Call that can be cancelled from any thread, which aborts its connection
+     */
+    @NonNull
+    public static Call newCall(@NonNull Feature feature, @NonNull Request request) {
+        return getClient(feature).newCall(request);
+    }
+
+    /**
+     * Retries idempotent requests failing with an IO error or a server side status,
+     * waiting exponentially longer between attempts.
+     */
+    private static final class RetryInterceptor implements Interceptor {
+        private final int retries;
+
+        private RetryInterceptor(int retries) {
+            this.retries = retries;
+        }
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+
+            if (!"GET".equals(request.method())) {
+                return chain.proceed(request);
+            }
+
+            for (int attempt = 0; ; attempt++) {
+                boolean last = attempt >= retries || chain.call().isCanceled();
+
+                try {
+                    Response response = chain.proceed(request);
+
+                    if (last || !isRetryable(response.code())) {
+                        return response;
+                    }
+
+                    response.close();
+                } catch (IOException exception) {
+                    if (last || chain.call().isCanceled()) {
+                        throw exception;
+                    }
+
+                    Log.w(TAG, "intercept: Retrying " + request.url().host() + ", " + exception.getMessage());
+                }
+
+                try {
+                    long delay = BACKOFF << attempt;
+
+                    Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+
+        private static boolean isRetryable(int code) {
+            return code == 408 || code == 429 || code >= 500;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Launcher wide background scheduler. Work is split in {@link Lane}s, each backed
+ * by a bounded pool running at its own thread priority, so bulk work cannot starve
+ * the tasks the user is waiting on or compete with the render thread.
+ */
+public final class TaskScheduler {
+    private static final String TAG = "TaskScheduler";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final LaneExecutor[] executors = new LaneExecutor[Lane.values().length];
+
+    private TaskScheduler() {
+    }
+
+    public enum Lane {
+        /**
+         * Work blocking what the user sees right away, like loading applications and icons.
+         */
+        UI_CRITICAL(2, Process.THREAD_PRIORITY_DEFAULT),
+        /**
+         * Work triggered by user input, like search results and suggestions.
+         */
+        INTERACTIVE(2, Process.THREAD_PRIORITY_DEFAULT),
+        /**
+         * Periodic refreshes, like weather and feeds.
+         */
+        BACKGROUND(2, Process.THREAD_PRIORITY_BACKGROUND),
+        /**
+         * Disk heavy work that nothing waits on, like cache maintenance and parsing.
+         */
+        BULK_IO(2, Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_LESS_FAVORABLE);
+
+        private final int threads;
+        private final int priority;
+
+        Lane(int threads, int priority) {
+            this.threads = threads;
+            this.priority = priority;
+        }
+    }
+
+    private static synchronized LaneExecutor getExecutor(Lane lane) {
+        LaneExecutor executor = executors[lane.ordinal()];
+
+        if (executor == null) {
+            executor = new LaneExecutor(lane);
+            executors[lane.ordinal()] = executor;
+        }
+
+        return executor;
+    }
+
+    public static Future<?> submit(@NonNull Lane lane, @NonNull Runnable runnable) {
+        return getExecutor(lane).enqueue(runnable, null);
+    }
+
+    /**
+     * Cancelling the returned future interrupts the task if it already started.
+     *
+     * @return future completed with the result, completed exceptionally with
+     * whatever the callable threw, or cancelled with the task
+     */
+    public static <O> CompletableFuture<O> submit(@NonNull Lane lane, @NonNull Callable<O> callable) {
+        CompletableFuture<O> result = new CompletableFuture<>();
+
+        Future<?> task = getExecutor(lane).enqueue(() -> {
+            try {
+                result.complete(callable.call());
+            } catch (InterruptedException exception) {
+                result.cancel(false);
+            } catch (Throwable throwable) {
+                Log.e(TAG, "submit: ", throwable);
+
+                result.completeExceptionally(throwable);
+            }
+        }, result);
+
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Cancels every queued and running task of the lane. The futures returned by
+     * {@link #submit(Lane, Callable)} for them are cancelled, so waiting callers are released.
+     */
+    public static void cancel(@NonNull Lane lane) {
+        getExecutor(lane).cancelAll();
+    }
+
+    /**
+     * @return Queue depth and queueing latency of the lane, shown in the frame metrics screen
+     */
+    @NonNull
+    public static Statistics getStatistics(@NonNull Lane lane) {
+        return getExecutor(lane).getStatistics();
+    }
+
+    public static final class Statistics {
+        public final int queueDepth;
+        public final int activeCount;
+        public final long completedCount;
+        public final long averageLatency;
+        public final long maxLatency;
+
+        private Statistics(int queueDepth, int activeCount, long completedCount,
+                           long averageLatency, long maxLatency) {
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.completedCount = completedCount;
+            this.averageLatency = averageLatency;
+            this.maxLatency = maxLatency;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "queued=" + queueDepth + ", active=" + activeCount +
+                    ", completed=" + completedCount + ", latency(avg/max)=" +
+                    averageLatency + "/" + maxLatency + "ms";
+        }
+    }
+
+    private static final class LaneExecutor extends ThreadPoolExecutor {
+        private final Set<LaneTask> tasks;
+        private final AtomicLong totalLatency;
+        private final AtomicLong maxLatency;
+        private final AtomicLong started;
+
+        private LaneExecutor(Lane lane) {
+            super(lane.threads, lane.threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new LaneThreadFactory(lane));
+
+            this.tasks = ConcurrentHashMap.newKeySet();
+            this.totalLatency = new AtomicLong();
+            this.maxLatency = new AtomicLong();
+            this.started = new AtomicLong();
+
+            allowCoreThreadTimeOut(true);
+        }
+
+        private Future<?> enqueue(Runnable runnable, @Nullable CompletableFuture<?> result) {
+            LaneTask task = new LaneTask(runnable, result);
+
+            tasks.add(task);
+            execute(task);
+
+            return task;
+        }
+
+        private void cancelAll() {
+            for (LaneTask task : tasks) {
+                task.cancel(true);
+            }
+
+            // cancelled tasks would otherwise stay queued until a worker skips them
+            purge();
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            super.beforeExecute(thread, runnable);
+
+            if (runnable instanceof LaneTask) {
+                long latency = SystemClock.uptimeMillis() - ((LaneTask) runnable).enqueueTime;
+
+                totalLatency.addAndGet(latency);
+                maxLatency.accumulateAndGet(latency, Math::max);
+                started.incrementAndGet();
+            }
+        }
+
+        private Statistics getStatistics() {
+            long count = started.get();
+
+            return new Statistics(getQueue().size(), getActiveCount(), getCompletedTaskCount(),
+                    count > 0 ? totalLatency.get() / count : 0, maxLatency.get());
+        }
+
+        private final class LaneTask extends FutureTask<Void> {
+            private final CompletableFuture<?> result;
+            private final long enqueueTime;
+
+            private LaneTask(Runnable runnable, @Nullable CompletableFuture<?> result) {
+                super(runnable, null);
+
+                this.result = result;
+                this.enqueueTime = SystemClock.uptimeMillis();
+            }
+
+            @Override
+            protected void done() {
+                tasks.remove(this);
+
+                // a task cancelled before it ran never completes its result by itself
+                if (isCancelled() && result != null) {
+                    result.cancel(false);
+                }
+            }
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final AtomicInteger count;
+        private final Lane lane;
+
+        private LaneThreadFactory(Lane lane) {
+            this.count = new AtomicInteger();
+            this.lane = lane;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(lane.priority);
+                runnable.run();
+            }, "Stario-" + lane.name().toLowerCase(Locale.ROOT) + "-" + count.incrementAndGet());
+        }
+    }
+}
@@ -42,7 +42,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -54,15 +53,16 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+
 public class Utils {
     public static final String USER_AGENT = "Mozilla/5.0 (Linux; Android 6.0.1; Nexus 5X Build/MMB29P) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/W.X.Y.Z Mobile Safari/537.36 (compatible; Googlebot/2.1; +https://www.google.com/bot.html)";
 
     private static final String TAG = "com.stario.Utils";
-    private static final ExecutorService executorPool = Executors.newCachedThreadPool();
     private static final String[] IPV4_APIS = {
             "https://checkip.amazonaws.com/",
             "https://ipv4.icanhazip.com/",
@@ -85,20 +85,12 @@ public class Utils {
     private static DateParser dateParser;
     private static Gson gson;
 
-    public static Future<?> submitTask(Runnable runnable) {
-        return executorPool.submit(runnable);
+    public static Future<?> submitTask(TaskScheduler.Lane lane, Runnable runnable) {
+        return TaskScheduler.submit(lane, runnable);
     }
 
-    public static <O> CompletableFuture<O> submitTask(Callable<O> callable) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return callable.call();
-            } catch (Exception exception) {
-                Log.e(TAG, "submitTask: ", exception);
-
-                return null;
-            }
-        }, executorPool);
+    public static <O> CompletableFuture<O> submitTask(TaskScheduler.Lane lane, Callable<O> callable) {
+        return TaskScheduler.submit(lane, callable);
     }
 
     public static Date parseDate(String date) {
@@ -182,12 +174,14 @@ public class Utils {
 
     public static String getPublicIPAddress() {
         for (String api : IPV4_APIS) {
-            try {
-                BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(new URL(api).openStream(),
-                                StandardCharsets.UTF_8));
-
-                return reader.readLine();
+            try (Response response = HttpClient.newCall(HttpClient.Feature.NETWORK,
+                    new Request.Builder()
+                            .url(api)
+                            .cacheControl(CacheControl.FORCE_NETWORK)
+                            .build()).execute()) {
+                if (response.isSuccessful()) {
+                    return response.body().string().trim();
+                }
             } catch (Exception exception) {
                 Log.e(TAG, "getPublicIPAddress: ", exception);
             }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of the last {@link #CAPACITY} frame durations. Samples are kept in a ring
+ * so the oldest one leaves its bucket when a new one arrives, making recording and
+ * percentile queries independent of how long the launcher has been running.
+ */
+final class FrameHistogram {
+    static final int CAPACITY = 4096;
+    private static final int BUCKET_NANOS = 500_000;
+    private static final int BUCKETS = 200; // up to 100ms, the last one collects the rest
+
+    private final int[] buckets;
+    private final int[] ring;
+    private final boolean[] janky;
+    private int position;
+    private int size;
+    private int jankCount;
+    private long total;
+
+    FrameHistogram() {
+        this.buckets = new int[BUCKETS + 1];
+        this.ring = new int[CAPACITY];
+        this.janky = new boolean[CAPACITY];
+        this.position = 0;
+        this.size = 0;
+        this.jankCount = 0;
+        this.total = 0;
+    }
+
+    /**
+     * @param janky Whether the frame missed at least one vsync
+     */
+    void record(long durationNanos, boolean janky) {
+        int bucket = (int) Math.min(BUCKETS, durationNanos / BUCKET_NANOS);
+
+        if (size == CAPACITY) {
+            buckets[ring[position]]--;
+
+            if (this.janky[position]) {
+                jankCount--;
+            }
+        } else {
+            size++;
+        }
+
+        ring[position] = bucket;
+        this.janky[position] = janky;
+        buckets[bucket]++;
+
+        if (janky) {
+            jankCount++;
+        }
+
+        position = (position + 1) % CAPACITY;
+        total++;
+    }
+
+    /**
+     * @param percentile Between 0 and 1
+     * @return Upper bound of the bucket holding the percentile in milliseconds, 0 if empty
+     */
+    float getPercentile(float percentile) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int target = Math.max(1, (int) Math.ceil(size * percentile));
+        int count = 0;
+
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            count += buckets[bucket];
+
+            if (count >= target) {
+                return (bucket + 1) * BUCKET_NANOS / 1_000_000f;
+            }
+        }
+
+        return buckets.length * BUCKET_NANOS / 1_000_000f;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    int getJankCount() {
+        return jankCount;
+    }
+
+    /**
+     * @return Frames recorded since the last reset, including the ones out of the window
+     */
+    long getTotal() {
+        return total;
+    }
+
+    void reset() {
+        Arrays.fill(buckets, 0);
+
+        position = 0;
+        size = 0;
+        jankCount = 0;
+        total = 0;
+    }
+}
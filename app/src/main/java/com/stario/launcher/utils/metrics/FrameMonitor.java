@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import android.content.Context;
+import android.os.Trace;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.stario.launcher.BuildConfig;
+import com.stario.launcher.ui.utils.UiUtils;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Records the frame durations of {@link Interaction}s while they run. Durations are the
+ * intervals between consecutive vsyncs the UI thread handled, so a frame that missed
+ * vsyncs shows up as a long one no matter which window it belongs to. Every interaction
+ * is also marked as an async trace section.
+ * <p>
+ * Recording is off by default and toggled from the frame metrics dialog in settings.
+ * Every method has to be called from the UI thread.
+ */
+public final class FrameMonitor {
+    private static final long IDLE_TIMEOUT = 500;
+    private static final float JANK_FACTOR = 1.5f;
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16_666_667;
+    private static final float[] PERCENTILES = {0.5f, 0.95f, 0.99f};
+
+    private static FrameMonitor instance;
+
+    private final Map<Interaction, FrameHistogram> histograms;
+    private final Map<Interaction, Runnable> timeouts;
+    private final EnumSet<Interaction> active;
+    private final Choreographer.FrameCallback frameCallback;
+    private long frameIntervalNanos;
+    private long lastFrameNanos;
+    private boolean scheduled;
+    private boolean enabled;
+
+    private FrameMonitor() {
+        this.histograms = new EnumMap<>(Interaction.class);
+        this.timeouts = new EnumMap<>(Interaction.class);
+        this.active = EnumSet.noneOf(Interaction.class);
+        this.frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+        this.lastFrameNanos = 0;
+        this.scheduled = false;
+        this.enabled = false;
+        this.frameCallback = this::onFrame;
+
+        for (Interaction interaction : Interaction.values()) {
+            histograms.put(interaction, new FrameHistogram());
+        }
+    }
+
+    public static FrameMonitor getInstance() {
+        if (instance == null) {
+            instance = new FrameMonitor();
+        }
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+
+        if (enabled && !active.isEmpty()) {
+            schedule();
+        } else if (!enabled) {
+            stop();
+        }
+    }
+
+    /**
+     * Does nothing if the interaction is already running.
+     *
+     * @param view Any view of the window the interaction happens in
+     */
+    public void begin(@NonNull Interaction interaction, @NonNull View view) {
+        if (!active.add(interaction)) {
+            return;
+        }
+
+        Trace.beginAsyncSection(interaction.getTraceName(), interaction.ordinal());
+
+        if (enabled) {
+            Display display = view.getDisplay();
+
+            if (display != null && display.getRefreshRate() > 0) {
+                frameIntervalNanos = (long) (1_000_000_000L / display.getRefreshRate());
+            }
+
+            schedule();
+        }
+    }
+
+    public void end(@NonNull Interaction interaction) {
+        if (!active.remove(interaction)) {
+            return;
+        }
+
+        Runnable timeout = timeouts.remove(interaction);
+
+        if (timeout != null) {
+            UiUtils.removeUICallback(timeout);
+        }
+
+        Trace.endAsyncSection(interaction.getTraceName(), interaction.ordinal());
+
+        if (active.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * For interactions made of separate events, like typing. The interaction
+     * ends once no event arrives for a while.
+     */
+    public void touch(@NonNull Interaction interaction, @NonNull View view) {
+        begin(interaction, view);
+
+        Runnable timeout = timeouts.get(interaction);
+
+        if (timeout == null) {
+            timeout = () -> end(interaction);
+
+            timeouts.put(interaction, timeout);
+        } else {
+            UiUtils.removeUICallback(timeout);
+        }
+
+        UiUtils.postDelayed(timeout, IDLE_TIMEOUT);
+    }
+
+    public void reset() {
+        for (FrameHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    @NonNull
+    public String getReport() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format(Locale.US, "%-17s %6s %6s %6s %6s %5s%n",
+                "", "frames", "p50", "p95", "p99", "jank"));
+
+        for (Interaction interaction : Interaction.values()) {
+            FrameHistogram histogram = histograms.get(interaction);
+
+            //noinspection DataFlowIssue
+            builder.append(String.format(Locale.US, "%-17s %6d %6.1f %6.1f %6.1f %5d%n",
+                    interaction.getLabel(), histogram.getSize(),
+                    histogram.getPercentile(PERCENTILES[0]),
+                    histogram.getPercentile(PERCENTILES[1]),
+                    histogram.getPercentile(PERCENTILES[2]),
+                    histogram.getJankCount()));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the current percentiles as CSV to the external files of the application,
+     * named after the build so runs of different builds can be compared.
+     *
+     * @return Future completed with the written file
+     */
+    public CompletableFuture<File> export(@NonNull Context context) {
+        String csv = getCsv();
+        File directory = context.getExternalFilesDir("metrics");
+
+        if (directory == null) {
+            directory = new File(context.getFilesDir(), "metrics");
+        }
+
+        File file = new File(directory, "frames-" + BuildConfig.VERSION_NAME + "-" +
+                new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date()) + ".csv");
+
+        return Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> {
+            File parent = file.getParentFile();
+
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+
+            try (FileOutputStream stream = new FileOutputStream(file)) {
+                stream.write(csv.getBytes(StandardCharsets.UTF_8));
+            }
+
+            return file;
+        });
+    }
+
+    private String getCsv() {
+        StringBuilder builder = new StringBuilder(
+                "version,version_code,interaction,frames,total,p50_ms,p95_ms,p99_ms,jank\n");
+
+        for (Interaction interaction : Interaction.values()) {
+            FrameHistogram histogram = histograms.get(interaction);
+
+            //noinspection DataFlowIssue
+            builder.append(String.format(Locale.US, "%s,%d,%s,%d,%d,%.1f,%.1f,%.1f,%d%n",
+                    BuildConfig.VERSION_NAME, BuildConfig.VERSION_CODE,
+                    interaction.name(), histogram.getSize(), histogram.getTotal(),
+                    histogram.getPercentile(PERCENTILES[0]),
+                    histogram.getPercentile(PERCENTILES[1]),
+                    histogram.getPercentile(PERCENTILES[2]),
+                    histogram.getJankCount()));
+        }
+
+        return builder.toString();
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        scheduled = false;
+
+        if (!enabled || active.isEmpty()) {
+            lastFrameNanos = 0;
+
+            return;
+        }
+
+        if (lastFrameNanos != 0) {
+            long duration = frameTimeNanos - lastFrameNanos;
+            boolean janky = duration > frameIntervalNanos * JANK_FACTOR;
+
+            for (Interaction interaction : active) {
+                //noinspection DataFlowIssue
+                histograms.get(interaction).record(duration, janky);
+            }
+        }
+
+        lastFrameNanos = frameTimeNanos;
+
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private void stop() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+
+            scheduled = false;
+        }
+
+        lastFrameNanos = 0;
+    }
+}
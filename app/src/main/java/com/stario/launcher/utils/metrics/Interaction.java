@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+/**
+ * User interactions whose frames are recorded by {@link FrameMonitor}.
+ */
+public enum Interaction {
+    SHEET_DRAG("Sheet open/close"),
+    DRAWER_SCROLL("Drawer scroll"),
+    SEARCH_TYPING("Search typing"),
+    GRID_DRAG("Grid drag");
+
+    private final String label;
+
+    Interaction(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    String getTraceName() {
+        return "Interaction:" + name();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+/**
+ * Phases of a cold start timed by {@link StartupTracer}. New phases have to be
+ * appended, the ordinal is what gets persisted.
+ */
+public enum StartupPhase {
+    PROFILE_ENUMERATION("Profiles"),
+    CATEGORY_BUILD("Categories"),
+    APPLICATION_LOAD("App load"),
+    ACTIVITY_LIST("Activity list"),
+    LABELS("Labels"),
+    ICON_PACK_PARSE("Icon packs"),
+    ICON_RESOLUTION("Icons"),
+    DRAWER_READY("Drawer ready"),
+    FIRST_FRAME("First frame");
+
+    private final String label;
+
+    StartupPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    String getTraceName() {
+        return "Startup:" + name();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Bookkeeping of the {@link StartupTracer} phases, with the time passed in by the caller.
+ * Each phase records when its first span started, when its last span ended and for how
+ * long at least one of its spans was open. Not thread safe.
+ */
+final class StartupTimeline {
+    static final int NONE = -1;
+
+    final long[] starts;
+    final long[] ends;
+    final long[] durations;
+    private final long[] openings;
+    private final int[] active;
+
+    StartupTimeline(int phases) {
+        this.starts = new long[phases];
+        this.ends = new long[phases];
+        this.durations = new long[phases];
+        this.openings = new long[phases];
+        this.active = new int[phases];
+
+        Arrays.fill(starts, NONE);
+        Arrays.fill(ends, NONE);
+    }
+
+    /**
+     * @return Whether the span opened the phase, no other span of it was running
+     */
+    boolean begin(int phase, long now) {
+        if (active[phase]++ == 0) {
+            openings[phase] = now;
+
+            if (starts[phase] == NONE) {
+                starts[phase] = now;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Has to be matched by a {@link #begin(int, long)}, see {@link #isActive(int)}.
+     *
+     * @return Whether the span closed the phase, no other span of it is running
+     */
+    boolean end(int phase, long now) {
+        if (--active[phase] == 0) {
+            ends[phase] = now;
+            durations[phase] += now - openings[phase];
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Records a point in time, only the first mark of a phase counts.
+     */
+    void mark(int phase, long now) {
+        if (starts[phase] == NONE) {
+            starts[phase] = now;
+            ends[phase] = now;
+        }
+    }
+
+    boolean isActive(int phase) {
+        return active[phase] > 0;
+    }
+
+    boolean hasStarted(int phase) {
+        return starts[phase] != NONE;
+    }
+
+    /**
+     * @return Whether a span of any phase is still open
+     */
+    boolean isRunning() {
+        for (int count : active) {
+            if (count > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
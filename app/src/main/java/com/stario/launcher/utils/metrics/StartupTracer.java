@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.stario.launcher.BuildConfig;
+import com.stario.launcher.utils.TaskScheduler;
+import com.stario.launcher.utils.Utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Timeline of the cold start of the process, from its creation until the drawer can
+ * show applications and the launcher drew its first frame. Phases may run on several
+ * threads and once per profile, so each one records when it first started, when it
+ * last ended and for how long at least one of its spans was running. Phases with spans
+ * are also marked as async trace sections.
+ * <p>
+ * Only the first start of the process is traced. The run is persisted once all of its
+ * phases ended, the last {@link #MAX_RUNS} runs are kept.
+ */
+public final class StartupTracer {
+    private static final String TAG = "StartupTracer";
+    private static final String DIRECTORY = "metrics";
+    private static final String FILE = "startup.bin";
+    private static final int MAGIC = 0x53545354; // STST
+    private static final int VERSION = 1;
+    private static final int MAX_RUNS = 10;
+    private static final long MAX_DURATION = 60_000;
+    private static final int NONE = StartupTimeline.NONE;
+    private static final int PHASES = StartupPhase.values().length;
+
+    private static StartupTimeline timeline;
+    private static File directory;
+    private static boolean tracing = false;
+
+    private StartupTracer() {
+    }
+
+    /**
+     * Has to be called as early as possible in {@link android.app.Application#onCreate()}.
+     */
+    public static synchronized void start(@NonNull Context context) {
+        if (directory != null) {
+            return;
+        }
+
+        directory = new File(context.getFilesDir(), DIRECTORY);
+        timeline = new StartupTimeline(PHASES);
+        tracing = true;
+    }
+
+    /**
+     * Spans of the same phase may overlap, every begin has to be matched by an end.
+     */
+    public static synchronized void begin(@NonNull StartupPhase phase) {
+        if (!tracing) {
+            return;
+        }
+
+        int index = phase.ordinal();
+
+        if (timeline.begin(index, now())) {
+            Trace.beginAsyncSection(phase.getTraceName(), index);
+        }
+    }
+
+    public static synchronized void end(@NonNull StartupPhase phase) {
+        if (!tracing) {
+            return;
+        }
+
+        int index = phase.ordinal();
+
+        if (!timeline.isActive(index)) {
+            return;
+        }
+
+        if (timeline.end(index, now())) {
+            Trace.endAsyncSection(phase.getTraceName(), index);
+        }
+
+        finishIfDone();
+    }
+
+    /**
+     * Records a point in time, only the first mark of a phase counts.
+     */
+    public static synchronized void mark(@NonNull StartupPhase phase) {
+        if (!tracing) {
+            return;
+        }
+
+        timeline.mark(phase.ordinal(), now());
+
+        finishIfDone();
+    }
+
+    /**
+     * @return Future completed with a printable table of the persisted runs
+     */
+    @NonNull
+    public static CompletableFuture<String> loadReport(@NonNull Context context) {
+        File file = new File(new File(context.getFilesDir(), DIRECTORY), FILE);
+
+        return Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> getReport(read(file)));
+    }
+
+    private static void finishIfDone() {
+        long now = now();
+
+        if (now > MAX_DURATION) {
+            // the launcher was not shown right away, the timeline says nothing about startup
+            tracing = false;
+
+            return;
+        }
+
+        if (!timeline.hasStarted(StartupPhase.FIRST_FRAME.ordinal()) ||
+                !timeline.hasStarted(StartupPhase.DRAWER_READY.ordinal()) ||
+                timeline.isRunning()) {
+            return;
+        }
+
+        tracing = false;
+
+        Run run = new Run(System.currentTimeMillis(), BuildConfig.VERSION_CODE,
+                new int[PHASES], new int[PHASES], new int[PHASES]);
+
+        for (int index = 0; index < PHASES; index++) {
+            run.starts[index] = (int) timeline.starts[index];
+            run.ends[index] = (int) timeline.ends[index];
+            run.durations[index] = timeline.hasStarted(index) ?
+                    (int) timeline.durations[index] : NONE;
+        }
+
+        File file = new File(directory, FILE);
+
+        Utils.submitTask(TaskScheduler.Lane.BULK_IO, () -> {
+            List<Run> runs = read(file);
+
+            runs.add(0, run);
+
+            while (runs.size() > MAX_RUNS) {
+                runs.remove(runs.size() - 1);
+            }
+
+            write(file, runs);
+        });
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+    }
+
+    /**
+     * @return Runs from newest to oldest, or an empty list if the file is missing,
+     * belongs to another format version or is corrupted
+     */
+    private static List<Run> read(File file) {
+        List<Run> runs = new ArrayList<>();
+
+        if (!file.exists()) {
+            return runs;
+        }
+
+        try (FileInputStream stream = new FileInputStream(file);
+             FileChannel channel = stream.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return runs;
+            }
+
+            int count = buffer.getInt();
+
+            for (int record = 0; record < count; record++) {
+                Run run = new Run(buffer.getLong(), buffer.getInt(),
+                        new int[PHASES], new int[PHASES], new int[PHASES]);
+
+                Arrays.fill(run.starts, NONE);
+                Arrays.fill(run.ends, NONE);
+                Arrays.fill(run.durations, NONE);
+
+                int phases = buffer.get() & 0xFF;
+
+                for (int phase = 0; phase < phases; phase++) {
+                    int index = buffer.get() & 0xFF;
+                    int start = buffer.getInt();
+                    int end = buffer.getInt();
+                    int duration = buffer.getInt();
+
+                    // phases of newer builds are skipped
+                    if (index < PHASES) {
+                        run.starts[index] = start;
+                        run.ends[index] = end;
+                        run.durations[index] = duration;
+                    }
+                }
+
+                runs.add(run);
+            }
+        } catch (IOException | BufferUnderflowException exception) {
+            Log.e(TAG, "read: Discarding unreadable runs.", exception);
+
+            runs.clear();
+        }
+
+        return runs;
+    }
+
+    private static void write(File file, List<Run> runs) {
+        File parent = file.getParentFile();
+
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            Log.e(TAG, "write: Cannot create " + parent);
+
+            return;
+        }
+
+        AtomicFile atomicFile = new AtomicFile(file);
+        FileOutputStream stream = null;
+
+        try {
+            stream = atomicFile.startWrite();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(runs.size());
+
+            for (Run run : runs) {
+                output.writeLong(run.timestamp);
+                output.writeInt(run.versionCode);
+                output.writeByte(PHASES);
+
+                for (int index = 0; index < PHASES; index++) {
+                    output.writeByte(index);
+                    output.writeInt(run.starts[index]);
+                    output.writeInt(run.ends[index]);
+                    output.writeInt(run.durations[index]);
+                }
+            }
+
+            output.flush();
+            atomicFile.finishWrite(stream);
+        } catch (IOException exception) {
+            Log.e(TAG, "write: ", exception);
+
+            if (stream != null) {
+                atomicFile.failWrite(stream);
+            }
+        }
+    }
+
+    private static String getReport(List<Run> runs) {
+        StringBuilder builder = new StringBuilder();
+
+        if (runs.isEmpty()) {
+            return builder.toString();
+        }
+
+        Run latest = runs.get(0);
+
+        builder.append(String.format(Locale.US, "%-14s %6s %6s %6s%n",
+                "", "start", "end", "busy"));
+
+        for (StartupPhase phase : StartupPhase.values()) {
+            int index = phase.ordinal();
+
+            if (latest.starts[index] != NONE) {
+                builder.append(String.format(Locale.US, "%-14s %6d %6d %6d%n",
+                        phase.getLabel(), latest.starts[index],
+                        latest.ends[index], latest.durations[index]));
+            }
+        }
+
+        builder.append(String.format(Locale.US, "%n%-14s %6s %6s %6s%n",
+                "", "build", "drawer", "frame"));
+
+        SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm", Locale.US);
+
+        for (Run run : runs) {
+            builder.append(String.format(Locale.US, "%-14s %6d %6d %6d%n",
+                    format.format(new Date(run.timestamp)), run.versionCode,
+                    run.starts[StartupPhase.DRAWER_READY.ordinal()],
+                    run.starts[StartupPhase.FIRST_FRAME.ordinal()]));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Times in milliseconds since the process started, {@link #NONE} for phases that did not run.
+     */
+    private static final class Run {
+        private final long timestamp;
+        private final int versionCode;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] durations;
+
+        private Run(long timestamp, int versionCode, int[] starts, int[] ends, int[] durations) {
+            this.timestamp = timestamp;
+            this.versionCode = versionCode;
+            this.starts = starts;
+            this.ends = ends;
+            this.durations = durations;
+        }
+    }
+}
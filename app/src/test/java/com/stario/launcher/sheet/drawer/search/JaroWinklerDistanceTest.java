@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.drawer.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class JaroWinklerDistanceTest {
+    private static final double THRESHOLD = 0.875d;
+    private static final double EPSILON = 1e-9;
+    private static final String[] LABELS = {
+            "Calculator", "Calendar", "Camera", "Chrome", "Clock", "Contacts", "Drive",
+            "Duolingo", "Facebook", "Files", "Firefox", "Gallery", "Gmail", "Google",
+            "Google Maps", "Google Pay", "Instagram", "Keep Notes", "LinkedIn", "Messages",
+            "Messenger", "Netflix", "Outlook", "Phone", "Photos", "Play Store", "Reddit",
+            "Settings", "Signal", "Slack", "Snapchat", "Spotify", "Steam", "Telegram",
+            "TikTok", "Translate", "Uber", "VLC", "WhatsApp", "Wikipedia", "YouTube",
+            "YouTube Music", "Zoom", "Authenticator", "Banking", "Weather", "Recorder"
+    };
+    private static final String[] QUERIES = {
+            "c", "ca", "cal", "calc", "calander", "camrea", "chorme", "clok", "contcts",
+            "g", "gm", "gmial", "googel", "insta", "instagarm", "mesages", "netflx",
+            "phtos", "setings", "spotfy", "telegarm", "whatsap", "youtub", "zom", "uber"
+    };
+
+    @Test
+    public void boxedScorerMatchesDocumentedValues() {
+        assertEquals(0.0, JaroWinklerDistance.getScore("", ""), 0);
+        assertEquals(0.0, JaroWinklerDistance.getScore("", "a"), 0);
+        assertEquals(0.93, JaroWinklerDistance.getScore("frog", "fog"), 0);
+        assertEquals(0.0, JaroWinklerDistance.getScore("fly", "ant"), 0);
+        assertEquals(0.44, JaroWinklerDistance.getScore("elephant", "hippo"), 0);
+        assertEquals(0.88, JaroWinklerDistance.getScore("hello", "hallo"), 0);
+        assertEquals(0.93, JaroWinklerDistance.getScore("ABC Corporation", "ABC Corp"), 0);
+    }
+
+    @Test
+    public void boundedScorerMatchesReferenceOnLabels() {
+        for (String label : LABELS) {
+            for (String query : QUERIES) {
+                assertEquivalent(label.toLowerCase(Locale.ROOT), query);
+            }
+        }
+    }
+
+    @Test
+    public void boundedScorerMatchesReferenceOnRandomPairs() {
+        Random random = new Random(7);
+
+        for (int pair = 0; pair < 200_000; pair++) {
+            // a small alphabet gives plenty of matches and transpositions
+            assertEquivalent(randomText(random, 1 + random.nextInt(14)),
+                    randomText(random, 1 + random.nextInt(14)));
+        }
+    }
+
+    @Test
+    public void boundedScorerRejectsEmptyText() {
+        char[] text = "calendar".toCharArray();
+
+        assertEquals(0, JaroWinklerDistance.getScore(text, 0, text, text.length, 0.1), 0);
+        assertEquals(0, JaroWinklerDistance.getScore(text, text.length, text, 0, 0.1), 0);
+    }
+
+    @Test
+    public void boundedScorerOnlyComparesGivenLengths() {
+        char[] left = "calendarXXXX".toCharArray();
+        char[] right = "calandarYY".toCharArray();
+
+        assertEquals(getReferenceScore("calendar", "calandar"),
+                JaroWinklerDistance.getScore(left, 8, right, 8, 0), EPSILON);
+    }
+
+    /**
+     * Not a pass/fail check, prints the cost of both scorers over the label set so
+     * changes to the bounded scorer can be compared between builds.
+     */
+    @Test
+    public void benchmarkAgainstBoxedScorer() {
+        char[][] labels = new char[LABELS.length][];
+        char[][] queries = new char[QUERIES.length][];
+
+        for (int index = 0; index < LABELS.length; index++) {
+            labels[index] = LABELS[index].toLowerCase(Locale.ROOT).toCharArray();
+        }
+
+        for (int index = 0; index < QUERIES.length; index++) {
+            queries[index] = QUERIES[index].toCharArray();
+        }
+
+        int rounds = 2_000;
+        int boxedMatches = 0;
+        int boundedMatches = 0;
+
+        // warm up both paths before timing them
+        runBoxed(rounds / 4);
+        runBounded(labels, queries, rounds / 4);
+
+        long start = System.nanoTime();
+        boxedMatches += runBoxed(rounds);
+        long boxed = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        boundedMatches += runBounded(labels, queries, rounds);
+        long bounded = System.nanoTime() - start;
+
+        long operations = (long) rounds * LABELS.length * QUERIES.length;
+
+        System.out.printf(Locale.ROOT, "JaroWinklerDistance: boxed %.1f ns/op, bounded %.1f ns/op%n",
+                (double) boxed / operations, (double) bounded / operations);
+
+        assertEquals(boxedMatches, boundedMatches);
+    }
+
+    private static int runBoxed(int rounds) {
+        int matches = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            for (String label : LABELS) {
+                String lowerLabel = label.toLowerCase(Locale.ROOT);
+
+                for (String query : QUERIES) {
+                    if (JaroWinklerDistance.getScore(lowerLabel, query) > 0.87) {
+                        matches++;
+                    }
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private static int runBounded(char[][] labels, char[][] queries, int rounds) {
+        int matches = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            for (char[] label : labels) {
+                for (char[] query : queries) {
+                    if (JaroWinklerDistance.getScore(label, label.length,
+                            query, query.length, THRESHOLD) > 0) {
+                        matches++;
+                    }
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private static void assertEquivalent(String left, String right) {
+        double reference = getReferenceScore(left, right);
+
+        // the two scorers sum in a different order, skip scores sitting on the threshold
+        if (Math.abs(reference - THRESHOLD) < EPSILON) {
+            return;
+        }
+
+        double score = JaroWinklerDistance.getScore(left.toCharArray(), left.length(),
+                right.toCharArray(), right.length(), THRESHOLD);
+
+        if (reference >= THRESHOLD) {
+            assertEquals(left + " / " + right, reference, score, EPSILON);
+        } else {
+            assertEquals(left + " / " + right, 0, score, 0);
+        }
+
+        // the threshold stands for the rounded score exceeding 0.87
+        assertTrue(left + " / " + right,
+                (JaroWinklerDistance.getScore(left, right) > 0.87) == (score > 0));
+    }
+
+    /**
+     * Unrounded score of the boxed scorer.
+     */
+    private static double getReferenceScore(String left, String right) {
+        int[] mtp = JaroWinklerDistance.matches(left, right);
+        double m = mtp[0];
+
+        if (m == 0) {
+            return 0;
+        }
+
+        double j = ((m / left.length() + m / right.length() + (m - mtp[1]) / m)) / 3;
+
+        return j < 0.7D ? j : j + Math.min(0.1, 1D / mtp[3]) * mtp[2] * (1D - j);
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] text = new char[length];
+
+        for (int index = 0; index < length; index++) {
+            text[index] = (char) ('a' + random.nextInt(5));
+        }
+
+        return new String(text);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.sheet.drawer.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class LabelIndexTest {
+    private static final int LIMIT = 100;
+
+    @Test
+    public void ranksPrefixesThenSubstringsThenPackagesThenCloseLabels() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item close = add(index, "Calndar", "org.example.one");
+        Item containing = add(index, "My Calendar", "org.example.two");
+        Item prefix = add(index, "Calendar", "org.example.three");
+        Item packaged = add(index, "Planner", "com.calendar.planner");
+        add(index, "Camera", "org.example.four");
+        index.sort();
+
+        assertEquals(Arrays.asList(prefix, containing, packaged, close), search(index, "calendar"));
+    }
+
+    @Test
+    public void foldsCaseAndDiacritics() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item cafe = add(index, "Café Crème", "org.example.cafe");
+        Item cyrillic = add(index, "Погода", "org.example.weather");
+        index.sort();
+
+        assertEquals(List.of(cafe), search(index, "CAFE CREME"));
+        assertEquals(List.of(cafe), search(index, "crè"));
+        assertEquals(List.of(cyrillic), search(index, "ПОГ"));
+        assertEquals("cafe creme", LabelIndex.fold("Café Crème"));
+    }
+
+    @Test
+    public void shortQueriesMatchSubstrings() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item maps = add(index, "Maps", "org.example.maps");
+        Item camera = add(index, "Camera", "org.example.camera");
+        Item chat = add(index, "Chat", "org.example.chat");
+        index.sort();
+
+        assertEquals(Arrays.asList(camera, chat, maps), search(index, "a"));
+        assertEquals(List.of(camera), search(index, "am"));
+        assertEquals(List.of(camera), search(index, "ame"));
+    }
+
+    @Test
+    public void packagesOnlyMatchSegmentStartsFromThreeCharacters() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item maps = add(index, "Maps", "com.google.android.apps.maps");
+        index.sort();
+
+        assertEquals(List.of(maps), search(index, "goog"));
+        assertEquals(List.of(maps), search(index, "android"));
+        assertTrue(search(index, "oogle").isEmpty());
+        assertTrue(search(index, "go").isEmpty());
+    }
+
+    @Test
+    public void filterAndLimitApplyToRankedResults() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item first = add(index, "Note A", "org.example.a");
+        Item hidden = add(index, "Note B", "org.example.b");
+        Item third = add(index, "Note C", "org.example.c");
+        add(index, "Note D", "org.example.d");
+        index.sort();
+
+        List<Item> results = new ArrayList<>();
+        index.search("note", item -> item != hidden, 2, results);
+
+        assertEquals(Arrays.asList(first, third), results);
+    }
+
+    @Test
+    public void insertRemoveAndRelabelKeepTheOrder() {
+        LabelIndex<Item> index = new LabelIndex<>();
+        Item beta = add(index, "Beta", "org.example.beta");
+        index.sort();
+
+        Item alpha = new Item();
+        index.insert(alpha, "Alpha", "org.example.alpha");
+
+        assertEquals(Arrays.asList(alpha, beta), search(index, "a"));
+
+        // the narrowed candidates of the previous query must not survive changes
+        index.insert(alpha, "Gamma", "org.example.alpha");
+
+        assertEquals("Gamma", index.getLabel(alpha));
+        assertEquals(Arrays.asList(beta, alpha), search(index, "a"));
+        assertEquals(List.of(alpha), search(index, "ga"));
+
+        assertTrue(index.remove(alpha));
+        assertFalse(index.remove(alpha));
+        assertNull(index.getLabel(alpha));
+        assertTrue(search(index, "gam").isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * Types random queries one character at a time, so most searches narrow the
+     * previous candidates, and compares every ranking with a plain linear scan.
+     */
+    @Test
+    public void matchesLinearScanWhileTyping() {
+        Random random = new Random(6);
+        LabelIndex<Item> index = new LabelIndex<>();
+        List<Item> items = new ArrayList<>();
+
+        for (int count = 0; count < 400; count++) {
+            Item item = new Item(randomWord(random, 2, 6) + " " + randomWord(random, 2, 6),
+                    "com." + randomWord(random, 3, 6) + "." + randomWord(random, 3, 8));
+
+            items.add(item);
+            index.add(item, item.label, item.packageName);
+        }
+
+        index.sort();
+
+        for (int typed = 0; typed < 300; typed++) {
+            String word = randomWord(random, 1, 7);
+
+            for (int length = 1; length <= word.length(); length++) {
+                String query = word.substring(0, length);
+
+                assertEquals(query, scan(items, query), search(index, query));
+            }
+        }
+    }
+
+    private static List<Item> search(LabelIndex<Item> index, String query) {
+        List<Item> results = new ArrayList<>();
+        index.search(query, null, LIMIT, results);
+
+        return results;
+    }
+
+    private static Item add(LabelIndex<Item> index, String label, String packageName) {
+        Item item = new Item(label, packageName);
+        index.add(item, label, packageName);
+
+        return item;
+    }
+
+    private static List<Item> scan(List<Item> items, String query) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing((Item item) -> LabelIndex.fold(item.label))
+                .thenComparing(item -> LabelIndex.fold(item.packageName)));
+
+        String folded = LabelIndex.fold(query);
+        List<Item> prefixes = new ArrayList<>();
+        List<Item> containing = new ArrayList<>();
+        List<Item> packages = new ArrayList<>();
+        List<Item> close = new ArrayList<>();
+
+        for (Item item : sorted) {
+            String label = LabelIndex.fold(item.label);
+            String packageName = LabelIndex.fold(item.packageName);
+
+            if (label.startsWith(folded)) {
+                prefixes.add(item);
+            } else if (label.contains(folded)) {
+                containing.add(item);
+            } else if (folded.length() >= 3 && isSegmentStart(packageName, folded)) {
+                packages.add(item);
+            } else if (JaroWinklerDistance.getScore(label, folded) > 0.87) {
+                close.add(item);
+            }
+        }
+
+        List<Item> results = new ArrayList<>(prefixes);
+        results.addAll(containing);
+        results.addAll(packages);
+
+        if (results.size() < LIMIT) {
+            results.addAll(close);
+        }
+
+        return results.subList(0, Math.min(LIMIT, results.size()));
+    }
+
+    private static boolean isSegmentStart(String packageName, String query) {
+        for (int offset = packageName.indexOf(query); offset >= 0;
+             offset = packageName.indexOf(query, offset + 1)) {
+            if (offset == 0 || packageName.charAt(offset - 1) == '.') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String randomWord(Random random, int minLength, int maxLength) {
+        char[] word = new char[minLength + random.nextInt(maxLength - minLength + 1)];
+
+        for (int index = 0; index < word.length; index++) {
+            word[index] = (char) ('a' + random.nextInt(8));
+        }
+
+        return new String(word);
+    }
+
+    private static final class Item {
+        private final String label;
+        private final String packageName;
+
+        private Item() {
+            this("", "");
+        }
+
+        private Item(String label, String packageName) {
+            this.label = label;
+            this.packageName = packageName;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+}
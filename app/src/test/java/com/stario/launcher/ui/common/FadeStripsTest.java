@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class FadeStripsTest {
+    private static final int[] EMPTY = {0, 0, 0, 0};
+
+    @Test
+    public void splitsTopAndBottomFades() {
+        FadeStrips strips = new FadeStrips();
+        strips.update(1080, 2400, 0, 100, 0, 50, 200, 200, 0, 0, false);
+
+        assertFalse(strips.fullLayer);
+        assertArrayEquals(new int[]{0, 100, 1080, 300}, strips.layers[FadeStrips.TOP]);
+        assertArrayEquals(new int[]{0, 2150, 1080, 2350}, strips.layers[FadeStrips.BOTTOM]);
+        assertArrayEquals(EMPTY, strips.layers[FadeStrips.LEFT]);
+        assertArrayEquals(EMPTY, strips.layers[FadeStrips.RIGHT]);
+    }
+
+    @Test
+    public void sideStripsSkipTheTopAndBottomStrips() {
+        FadeStrips strips = new FadeStrips();
+        strips.update(1000, 2000, 0, 0, 0, 0, 100, 100, 50, 50, true);
+
+        assertFalse(strips.fullLayer);
+        assertArrayEquals(new int[]{0, 0, 1000, 100}, strips.layers[FadeStrips.TOP]);
+        assertArrayEquals(new int[]{0, 1900, 1000, 2000}, strips.layers[FadeStrips.BOTTOM]);
+        assertArrayEquals(new int[]{0, 100, 50, 1900}, strips.layers[FadeStrips.LEFT]);
+        assertArrayEquals(new int[]{950, 100, 1000, 1900}, strips.layers[FadeStrips.RIGHT]);
+
+        assertEquals(50, strips.radii[FadeStrips.TOP_LEFT]);
+        assertArrayEquals(new int[]{50, 0, 950, 100}, strips.masks[FadeStrips.TOP]);
+        assertArrayEquals(new int[]{950, 1950, 1000, 2000}, strips.corners[FadeStrips.BOTTOM_RIGHT]);
+    }
+
+    @Test
+    public void overlappingFadesUseTheFullLayer() {
+        FadeStrips strips = new FadeStrips();
+        strips.update(1000, 300, 0, 0, 0, 0, 200, 200, 0, 0, false);
+
+        assertTrue(strips.fullLayer);
+
+        strips.update(300, 1000, 0, 0, 0, 0, 0, 0, 200, 200, true);
+
+        assertTrue(strips.fullLayer);
+    }
+
+    @Test
+    public void noFadesLeaveNoLayers() {
+        FadeStrips strips = new FadeStrips();
+        strips.update(1080, 2400, 10, 10, 10, 10, 0, 0, 0, 0, true);
+
+        assertFalse(strips.fullLayer);
+
+        for (int index = 0; index < 4; index++) {
+            assertTrue(FadeStrips.isEmpty(strips.layers[index]));
+            assertTrue(FadeStrips.isEmpty(strips.masks[index]));
+            assertTrue(FadeStrips.isEmpty(strips.corners[index]));
+        }
+    }
+
+    /**
+     * Rasterizes random configurations: unless the full layer is used, the layers
+     * must cover every masked pixel exactly once, so no content is drawn twice.
+     */
+    @Test
+    public void layersCoverEveryFadedPixelOnce() {
+        Random random = new Random(23);
+        FadeStrips strips = new FadeStrips();
+
+        for (int round = 0; round < 3_000; round++) {
+            int width = 1 + random.nextInt(60);
+            int height = 1 + random.nextInt(60);
+
+            strips.update(width, height,
+                    random.nextInt(8), random.nextInt(8), random.nextInt(8), random.nextInt(8),
+                    randomSize(random), randomSize(random), randomSize(random), randomSize(random),
+                    random.nextBoolean());
+
+            if (strips.fullLayer) {
+                continue;
+            }
+
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    int layers = countContaining(strips.layers, x, y);
+                    boolean faded = countContaining(strips.masks, x, y) > 0 ||
+                            countContaining(strips.corners, x, y) > 0;
+                    String message = round + " at " + x + ", " + y;
+
+                    assertTrue(message, layers <= 1);
+
+                    if (faded) {
+                        assertEquals(message, 1, layers);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Not a pass/fail check, prints the offscreen pixels and child draws of one
+     * frame over a synthetic grid of children, for the whole view composited
+     * offscreen like before and for the strips.
+     */
+    @Test
+    public void benchmarkAgainstFullLayer() {
+        int width = 1080;
+        int height = 2400;
+        List<int[]> children = new ArrayList<>();
+
+        for (int row = 0; row < 10; row++) {
+            for (int column = 0; column < 4; column++) {
+                children.add(new int[]{column * 270 + 30, row * 240 + 20,
+                        column * 270 + 240, row * 240 + 220});
+            }
+        }
+
+        FadeStrips strips = new FadeStrips();
+        int[][] configurations = {
+                {280, 280, 0, 0}, {280, 280, 210, 210}, {0, 0, 210, 210}, {1400, 1400, 0, 0}
+        };
+
+        for (int[] sizes : configurations) {
+            strips.update(width, height, 0, 0, 0, 0,
+                    sizes[0], sizes[1], sizes[2], sizes[3], true);
+
+            long fullPixels = (long) width * height;
+            int fullDraws = children.size();
+            long stripPixels = fullPixels;
+            int stripDraws = fullDraws;
+
+            if (!strips.fullLayer) {
+                stripPixels = 0;
+
+                for (int[] layer : strips.layers) {
+                    if (!FadeStrips.isEmpty(layer)) {
+                        stripPixels += (long) (layer[2] - layer[0]) * (layer[3] - layer[1]);
+
+                        for (int[] child : children) {
+                            if (FadeStrips.intersects(layer, child)) {
+                                stripDraws++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            System.out.printf(Locale.ROOT, "FadingEdgeLayout %s: full layer %d px %d draws, " +
+                            "strips %d px (%.1f%%) %d draws%n",
+                    Arrays.toString(sizes), fullPixels, fullDraws,
+                    stripPixels, 100.0 * stripPixels / fullPixels, stripDraws);
+
+            assertTrue(stripPixels <= fullPixels);
+        }
+    }
+
+    private static int countContaining(int[][] rects, int x, int y) {
+        int count = 0;
+
+        for (int[] rect : rects) {
+            if (contains(rect, x, y)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static boolean contains(int[] rect, int x, int y) {
+        return !FadeStrips.isEmpty(rect) &&
+                x >= rect[0] && x < rect[2] && y >= rect[1] && y < rect[3];
+    }
+
+    private static int randomSize(Random random) {
+        return random.nextInt(4) == 0 ? 0 : random.nextInt(40);
+    }
+}
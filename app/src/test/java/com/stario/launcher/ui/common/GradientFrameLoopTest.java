@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GradientFrameLoopTest {
+    private static final long VSYNC_NANOS = 16_666_667;
+    private static final float EPSILON = 1e-3f;
+
+    @Test
+    public void drawsNothingUntilRenderingWithASize() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.run(10);
+        assertEquals(0, choreographer.posts);
+        assertEquals(0, choreographer.frames);
+
+        choreographer.loop.setSize(0, 0);
+        choreographer.loop.setRendering(true);
+        choreographer.run(10);
+        assertEquals(1, choreographer.posts);
+        assertEquals(0, choreographer.frames);
+
+        // the empty frame dropped the callback, a size brings it back
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.run(10);
+        assertEquals(10, choreographer.frames);
+    }
+
+    @Test
+    public void requestsOneFramePerVsync() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+        choreographer.loop.setRendering(true);
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.loop.setRendering(true);
+        choreographer.loop.setSize(1080, 2400);
+
+        assertEquals(1, choreographer.posts);
+
+        choreographer.run(120);
+
+        assertEquals(120, choreographer.frames);
+        assertEquals(121, choreographer.posts);
+        assertTrue(choreographer.pending);
+    }
+
+    @Test
+    public void advancesTimeByFrameDeltas() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.loop.setRendering(true);
+
+        choreographer.run(1);
+        assertEquals(0, choreographer.lastTime, 0);
+
+        choreographer.run(60);
+        assertEquals(60 * VSYNC_NANOS / 1_000_000f, choreographer.lastTime, EPSILON);
+    }
+
+    @Test
+    public void capsLongFrames() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.loop.setRendering(true);
+        choreographer.run(1);
+
+        // a stalled frame only moves the animation by the cap
+        choreographer.now += 2_000_000_000L;
+        choreographer.run(1);
+
+        assertEquals(GradientFrameLoop.MAX_FRAME_DELTA_NANOS / 1_000_000f,
+                choreographer.lastTime, EPSILON);
+    }
+
+    @Test
+    public void pausingCancelsTheCallbackAndKeepsTheTime() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.loop.setRendering(true);
+        choreographer.run(30);
+
+        float time = choreographer.lastTime;
+
+        choreographer.loop.setRendering(false);
+        assertEquals(1, choreographer.removals);
+        assertFalse(choreographer.pending);
+
+        // hidden for a minute, no frames are drawn
+        for (int frame = 0; frame < 3600; frame++) {
+            choreographer.vsync();
+        }
+
+        assertEquals(30, choreographer.frames);
+
+        choreographer.loop.setRendering(true);
+        choreographer.run(1);
+        assertEquals(time, choreographer.lastTime, 0);
+
+        choreographer.run(1);
+        assertEquals(time + VSYNC_NANOS / 1_000_000f, choreographer.lastTime, EPSILON);
+
+        // pausing without a pending callback has nothing to remove
+        choreographer.loop.setRendering(false);
+        choreographer.loop.setRendering(false);
+        assertEquals(2, choreographer.removals);
+    }
+
+    @Test
+    public void staleCallbackDoesNotDraw() {
+        FakeChoreographer choreographer = new FakeChoreographer();
+        choreographer.loop.setSize(1080, 2400);
+        choreographer.loop.setRendering(true);
+        choreographer.run(5);
+
+        choreographer.loop.setRendering(false);
+        choreographer.loop.doFrame(choreographer.now);
+
+        assertEquals(5, choreographer.frames);
+    }
+
+    @Test
+    public void sizesTheMeshByDensity() {
+        assertEquals(25, GradientFrameLoop.getSegments(1200, 3, 16, 64));
+        assertEquals(134, GradientFrameLoop.getSegments(2400, 3, 6, 256));
+        assertEquals(128, GradientFrameLoop.getSegments(2400, 3, 6, 128));
+        assertEquals(64, GradientFrameLoop.getSegments(4000, 1, 16, 64));
+        assertEquals(1, GradientFrameLoop.getSegments(1, 3.5f, 16, 64));
+        assertEquals(1, GradientFrameLoop.getSegments(0, 3.5f, 16, 64));
+    }
+
+    /**
+     * Calls back on every vsync while a frame is requested, like the Choreographer does.
+     */
+    private static final class FakeChoreographer implements GradientFrameLoop.Host {
+        private final GradientFrameLoop loop;
+        private boolean pending;
+        private long now;
+        private int posts;
+        private int removals;
+        private int frames;
+        private float lastTime;
+
+        private FakeChoreographer() {
+            this.loop = new GradientFrameLoop(this);
+            this.now = 1_000_000_000L;
+        }
+
+        private void run(int vsyncs) {
+            int target = frames + vsyncs;
+
+            for (int count = 0; count < vsyncs * 2 && frames < target; count++) {
+                vsync();
+            }
+        }
+
+        private void vsync() {
+            now += VSYNC_NANOS;
+
+            if (pending) {
+                pending = false;
+
+                loop.doFrame(now);
+            }
+        }
+
+        @Override
+        public void postFrame() {
+            assertFalse("frame requested twice", pending);
+
+            pending = true;
+            posts++;
+        }
+
+        @Override
+        public void removeFrame() {
+            pending = false;
+            removals++;
+        }
+
+        @Override
+        public void drawFrame(float time) {
+            frames++;
+            lastTime = time;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class StylizedClockViewTest {
+    private static final long MINUTE = 60_000;
+
+    @Test
+    public void waitsForTheNextMinuteWithoutLiquid() {
+        assertEquals(60_000, StylizedClockView.getRedrawDelay(0, 0, 0));
+        assertEquals(29_500, StylizedClockView.getRedrawDelay(30, 500, 0));
+        assertEquals(1, StylizedClockView.getRedrawDelay(59, 999, 0));
+    }
+
+    @Test
+    public void stepsTheLiquidByAPixel() {
+        assertEquals(200, StylizedClockView.getRedrawDelay(0, 0, 300));
+        assertEquals(200, StylizedClockView.getRedrawDelay(42, 17, 300));
+
+        // the minute change comes before the next pixel
+        assertEquals(100, StylizedClockView.getRedrawDelay(59, 900, 300));
+    }
+
+    @Test
+    public void neverRedrawsFasterThanAFrame() {
+        assertEquals(16, StylizedClockView.getRedrawDelay(0, 0, 10_000));
+        assertEquals(16, StylizedClockView.getRedrawDelay(12, 345, 60_000));
+        assertEquals(5, StylizedClockView.getRedrawDelay(59, 995, 10_000));
+    }
+
+    @Test
+    public void redrawsOncePerMinuteWithoutLiquid() {
+        Random random = new Random(22);
+        long time = random.nextInt((int) MINUTE);
+        long end = 60 * MINUTE;
+        int redraws = 0;
+
+        while (time < end) {
+            time += getDelay(time, 0);
+            redraws++;
+
+            assertEquals(0, time % MINUTE);
+        }
+
+        assertEquals(60, redraws);
+    }
+
+    @Test
+    public void liquidRedrawsLandOnEveryMinuteAndPixel() {
+        Random random = new Random(23);
+
+        for (float diagonal : new float[]{87.5f, 150f, 300f, 512.3f, 4000f}) {
+            long time = random.nextInt((int) MINUTE);
+            long end = time + 10 * MINUTE;
+            long minute = time / MINUTE;
+            int redraws = 0;
+
+            while (time < end) {
+                long previous = time;
+                time += getDelay(time, diagonal);
+                redraws++;
+
+                // no minute change is ever shown late
+                assertTrue(time / MINUTE - previous / MINUTE <= 1);
+
+                if (time / MINUTE != minute) {
+                    assertEquals(0, time % MINUTE);
+
+                    minute = time / MINUTE;
+                }
+
+                // the liquid never jumps by more than a pixel between redraws
+                float level = diagonal * (previous % MINUTE) / MINUTE;
+                float next = time % MINUTE == 0 ? diagonal : diagonal * (time % MINUTE) / MINUTE;
+
+                assertTrue(diagonal + " " + previous, next - level <= Math.max(1.001f,
+                        diagonal * 16f / MINUTE + 0.001f));
+            }
+
+            // a pixel per redraw, capped at one redraw per frame
+            long perMinute = Math.min(MINUTE / 16, (long) Math.ceil(diagonal));
+
+            assertTrue(diagonal + " " + redraws, redraws <= 10 * (perMinute + 2));
+            assertTrue(diagonal + " " + redraws, redraws >= 10 * perMinute - 10);
+        }
+    }
+
+    private static long getDelay(long time, float diagonal) {
+        long inMinute = time % MINUTE;
+
+        return StylizedClockView.getRedrawDelay((int) (inMinute / 1000),
+                (int) (inMinute % 1000), diagonal);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class GridSolverTest {
+    @Test
+    public void placesDirectlyOnFreeCells() {
+        GridState state = GridStateTest.create(4, 4, 2);
+        state.place(0, 0, 0, 1, 1);
+        state.place(1, 3, 3, 1, 1);
+
+        GridState solved = new GridSolver(GridSolver.DEFAULT_BUDGET)
+                .rearrange(state, 0, 2, 2, false);
+
+        assertNotNull(solved);
+        assertPlacement(solved, 0, 0, 0, 2, 2);
+        assertPlacement(solved, 1, 3, 3, 1, 1);
+    }
+
+    @Test
+    public void movesCoveredItemsToTheFirstFit() {
+        GridState state = GridStateTest.create(4, 4, 2);
+        state.place(0, 2, 2, 1, 1);
+        state.place(1, 0, 0, 2, 2);
+
+        GridState solved = new GridSolver(GridSolver.DEFAULT_BUDGET)
+                .rearrange(state, 0, 3, 2, false);
+
+        assertNotNull(solved);
+        assertPlacement(solved, 0, 0, 0, 3, 2);
+        assertPlacement(solved, 1, 0, 2, 2, 2);
+        assertValid(state, solved, 0, false);
+    }
+
+    @Test
+    public void shrinksCoveredItemsOnlyWhenAllowed() {
+        GridState state = GridStateTest.create(2, 3, 2);
+        // the moved item may not shrink itself out of the way
+        state.minColSpans[0] = 2;
+        state.minRowSpans[0] = 2;
+        state.place(0, 0, 0, 1, 1);
+        state.place(1, 0, 1, 2, 2);
+
+        assertNull(new GridSolver(GridSolver.DEFAULT_BUDGET).rearrange(state, 0, 2, 2, false));
+
+        GridState solved = new GridSolver(GridSolver.DEFAULT_BUDGET).rearrange(state, 0, 2, 2, true);
+
+        assertNotNull(solved);
+        assertPlacement(solved, 0, 0, 0, 2, 2);
+        assertEquals(2, solved.row[1]);
+        assertEquals(1, solved.rowSpan[1]);
+        assertValid(state, solved, 0, true);
+    }
+
+    @Test
+    public void givesUpWhenTheBudgetRunsOut() {
+        GridState state = GridStateTest.create(4, 4, 2);
+        state.place(0, 2, 2, 1, 1);
+        state.place(1, 0, 0, 2, 2);
+
+        assertNull(new GridSolver(0).rearrange(state, 0, 3, 2, false));
+    }
+
+    @Test
+    public void leavesTheInputStateUntouched() {
+        GridState state = GridStateTest.create(4, 4, 2);
+        state.place(0, 2, 2, 1, 1);
+        state.place(1, 0, 0, 2, 2);
+
+        new GridSolver(GridSolver.DEFAULT_BUDGET).rearrange(state, 0, 3, 2, true);
+
+        assertPlacement(state, 0, 2, 2, 1, 1);
+        assertPlacement(state, 1, 0, 0, 2, 2);
+    }
+
+    /**
+     * Every layout the solver returns over random crowded grids has to keep
+     * all items in bounds, without overlaps and within their minimum spans.
+     */
+    @Test
+    public void solvedLayoutsAreValid() {
+        Random random = new Random(14);
+        int solvedCount = 0;
+
+        for (int round = 0; round < 500; round++) {
+            int cols = 3 + random.nextInt(4);
+            int rows = 4 + random.nextInt(4);
+            GridState state = fill(random, cols, rows, 2 + random.nextInt(10));
+            int item = random.nextInt(state.size());
+            boolean allowShrink = random.nextBoolean();
+
+            if (!state.isPlaced(item)) {
+                continue;
+            }
+
+            GridState solved = new GridSolver(GridSolver.DEFAULT_BUDGET).rearrange(state, item,
+                    1 + random.nextInt(cols), 1 + random.nextInt(rows), allowShrink);
+
+            if (solved != null) {
+                assertValid(state, solved, item, allowShrink);
+                solvedCount++;
+            }
+        }
+
+        assertTrue(solvedCount > 0);
+    }
+
+    /**
+     * Not a pass/fail check, prints the solve time against the number of items on a
+     * crowded grid, so rearrangement cost can be compared between builds.
+     */
+    @Test
+    public void benchmarkSolveTimeByItemCount() {
+        Random random = new Random(14);
+
+        for (int count = 4; count <= 32; count *= 2) {
+            int runs = 200;
+            long elapsed = 0;
+            int solved = 0;
+
+            for (int run = 0; run < runs; run++) {
+                GridState state = fill(random, 6, 8, count);
+                int item = random.nextInt(state.size());
+
+                if (!state.isPlaced(item)) {
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                GridState result = new GridSolver(GridSolver.DEFAULT_BUDGET)
+                        .rearrange(state, item, 3, 3, true);
+                elapsed += System.nanoTime() - start;
+
+                if (result != null) {
+                    solved++;
+                }
+            }
+
+            System.out.printf(Locale.ROOT, "GridSolver: %d items, %.1f us/solve, %d/%d solved%n",
+                    count, elapsed / 1000d / runs, solved, runs);
+        }
+    }
+
+    /**
+     * Places as many of the items as fit, each at the first free area for a random span.
+     */
+    private static GridState fill(Random random, int cols, int rows, int count) {
+        GridState state = GridStateTest.create(cols, rows, count);
+
+        for (int item = 0; item < count; item++) {
+            int colSpan = 1 + random.nextInt(Math.min(3, cols));
+            int rowSpan = 1 + random.nextInt(Math.min(3, rows));
+            int position = state.findFirstFit(colSpan, rowSpan);
+
+            if (position != GridState.NO_POSITION) {
+                state.place(item, GridState.getCol(position), GridState.getRow(position),
+                        colSpan, rowSpan);
+            }
+        }
+
+        return state;
+    }
+
+    private static void assertValid(GridState before, GridState after, int item, boolean allowShrink) {
+        assertTrue(after.isPlaced(item));
+
+        for (int index = 0; index < after.size(); index++) {
+            if (!before.isPlaced(index)) {
+                assertFalse(after.isPlaced(index));
+
+                continue;
+            }
+
+            assertTrue(after.isPlaced(index));
+            assertTrue(after.col[index] >= 0 && after.col[index] + after.colSpan[index] <= after.cols);
+            assertTrue(after.row[index] >= 0 && after.row[index] + after.rowSpan[index] <= after.rows);
+            assertTrue(after.colSpan[index] >= after.minColSpans[index]);
+            assertTrue(after.rowSpan[index] >= after.minRowSpans[index]);
+
+            if (index != item) {
+                if (allowShrink) {
+                    assertTrue(after.colSpan[index] <= before.colSpan[index]);
+                    assertTrue(after.rowSpan[index] <= before.rowSpan[index]);
+                } else {
+                    assertEquals(before.colSpan[index], after.colSpan[index]);
+                    assertEquals(before.rowSpan[index], after.rowSpan[index]);
+                }
+            }
+
+            for (int other = index + 1; other < after.size(); other++) {
+                if (after.isPlaced(other)) {
+                    assertFalse(intersects(after, index, other));
+                }
+            }
+        }
+    }
+
+    private static boolean intersects(GridState state, int first, int second) {
+        return state.col[first] < state.col[second] + state.colSpan[second] &&
+                state.col[second] < state.col[first] + state.colSpan[first] &&
+                state.row[first] < state.row[second] + state.rowSpan[second] &&
+                state.row[second] < state.row[first] + state.rowSpan[first];
+    }
+
+    private static void assertPlacement(GridState state, int item, int col, int row,
+                                        int colSpan, int rowSpan) {
+        assertEquals(col, state.col[item]);
+        assertEquals(row, state.row[item]);
+        assertEquals(colSpan, state.colSpan[item]);
+        assertEquals(rowSpan, state.rowSpan[item]);
+    }
+}
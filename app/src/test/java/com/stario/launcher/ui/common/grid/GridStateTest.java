@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.common.grid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class GridStateTest {
+    @Test
+    public void placedItemsTakeTheirCells() {
+        GridState state = create(4, 4, 2);
+        state.place(0, 1, 1, 2, 2);
+
+        assertFalse(state.isFree(1, 1, 1, 1, GridState.NO_POSITION));
+        assertFalse(state.isFree(0, 0, 2, 2, GridState.NO_POSITION));
+        assertTrue(state.isFree(3, 0, 1, 4, GridState.NO_POSITION));
+        assertTrue(state.isFree(1, 1, 2, 2, 0));
+        assertFalse(state.isFree(3, 3, 2, 1, GridState.NO_POSITION));
+    }
+
+    @Test
+    public void removingAnOverlappingItemKeepsSharedCells() {
+        GridState state = create(4, 4, 2);
+        state.place(0, 0, 0, 2, 2);
+        state.place(1, 1, 1, 2, 2);
+
+        state.remove(0);
+
+        assertTrue(state.isFree(0, 0, 1, 1, GridState.NO_POSITION));
+        assertFalse(state.isFree(1, 1, 1, 1, GridState.NO_POSITION));
+        assertFalse(state.isPlaced(0));
+        assertEquals(2, state.colSpan[0]);
+    }
+
+    @Test
+    public void findsTheFirstFitInReadingOrder() {
+        GridState state = create(4, 3, 2);
+        state.place(0, 0, 0, 3, 1);
+
+        int position = state.findFirstFit(2, 1);
+
+        assertEquals(0, GridState.getCol(position));
+        assertEquals(1, GridState.getRow(position));
+        assertEquals(GridState.NO_POSITION, state.findFirstFit(5, 1));
+    }
+
+    @Test
+    public void findsTheClosestFreeArea() {
+        GridState state = create(5, 5, 1);
+        state.place(0, 1, 1, 3, 3);
+
+        int position = state.findClosest(1, 1, 2, 2, GridState.NO_POSITION);
+        int distance = square(GridState.getCol(position) - 2) + square(GridState.getRow(position) - 2);
+
+        assertEquals(4, distance);
+        assertEquals(GridState.pack(2, 2), state.findClosest(1, 1, 2, 2, 0));
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        GridState state = create(4, 4, 1);
+        GridState copy = state.copy();
+
+        copy.place(0, 0, 0, 4, 4);
+
+        assertTrue(state.isFree(0, 0, 4, 4, GridState.NO_POSITION));
+        assertFalse(state.isPlaced(0));
+    }
+
+    @Test
+    public void supportsTheFullWordWidth() {
+        GridState state = create(GridState.MAX_COLUMNS, 1, 1);
+        state.place(0, 0, 0, GridState.MAX_COLUMNS, 1);
+
+        assertFalse(state.isFree(GridState.MAX_COLUMNS - 1, 0, 1, 1, GridState.NO_POSITION));
+
+        state.remove(0);
+
+        assertTrue(state.isFree(0, 0, GridState.MAX_COLUMNS, 1, GridState.NO_POSITION));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMoreColumnsThanAWord() {
+        create(GridState.MAX_COLUMNS + 1, 1, 1);
+    }
+
+    @Test
+    public void collisionsListIntersectingItems() {
+        GridState state = create(4, 4, 3);
+        state.place(0, 0, 0, 2, 2);
+        state.place(1, 2, 0, 2, 2);
+        state.place(2, 0, 2, 4, 2);
+
+        assertArrayEquals(new int[]{0, 1}, state.getCollisions(1, 1, 2, 1, GridState.NO_POSITION));
+        assertArrayEquals(new int[]{1}, state.getCollisions(1, 1, 2, 1, 0));
+    }
+
+    /**
+     * Random placements and removals, including overlapping ones, checked
+     * against a plain cell matrix.
+     */
+    @Test
+    public void matchesACellMatrix() {
+        Random random = new Random(14);
+
+        for (int round = 0; round < 200; round++) {
+            int cols = 1 + random.nextInt(10);
+            int rows = 1 + random.nextInt(10);
+            int count = 1 + random.nextInt(8);
+            GridState state = create(cols, rows, count);
+            int[][] placements = new int[count][];
+
+            for (int step = 0; step < 60; step++) {
+                int item = random.nextInt(count);
+
+                if (random.nextBoolean()) {
+                    int colSpan = 1 + random.nextInt(cols);
+                    int rowSpan = 1 + random.nextInt(rows);
+                    int col = random.nextInt(cols - colSpan + 1);
+                    int row = random.nextInt(rows - rowSpan + 1);
+
+                    state.place(item, col, row, colSpan, rowSpan);
+                    placements[item] = new int[]{col, row, colSpan, rowSpan};
+                } else {
+                    state.remove(item);
+                    placements[item] = null;
+                }
+
+                int colSpan = 1 + random.nextInt(cols);
+                int rowSpan = 1 + random.nextInt(rows);
+                int col = random.nextInt(cols);
+                int row = random.nextInt(rows);
+                int ignore = random.nextInt(count + 1) - 1;
+
+                assertEquals(isFree(placements, cols, rows, col, row, colSpan, rowSpan, ignore),
+                        state.isFree(col, row, colSpan, rowSpan, ignore));
+            }
+        }
+    }
+
+    private static boolean isFree(int[][] placements, int cols, int rows,
+                                  int col, int row, int colSpan, int rowSpan, int ignore) {
+        if (col + colSpan > cols || row + rowSpan > rows) {
+            return false;
+        }
+
+        boolean[][] taken = new boolean[rows][cols];
+
+        for (int item = 0; item < placements.length; item++) {
+            int[] placement = placements[item];
+
+            if (placement != null && item != ignore) {
+                for (int y = placement[1]; y < placement[1] + placement[3]; y++) {
+                    Arrays.fill(taken[y], placement[0], placement[0] + placement[2], true);
+                }
+            }
+        }
+
+        for (int y = row; y < row + rowSpan; y++) {
+            for (int x = col; x < col + colSpan; x++) {
+                if (taken[y][x]) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    static GridState create(int cols, int rows, int count) {
+        int[] minSpans = new int[count];
+        Arrays.fill(minSpans, 1);
+
+        return new GridState(cols, rows, new View[count], minSpans, minSpans.clone());
+    }
+
+    private static int square(int value) {
+        return value * value;
+    }
+}
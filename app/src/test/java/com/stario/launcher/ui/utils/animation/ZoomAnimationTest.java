@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.utils.animation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ZoomAnimationTest {
+    private static final long VSYNC_60_NANOS = 16_666_667;
+    private static final long VSYNC_120_NANOS = 8_333_333;
+
+    @Test
+    public void unchangedTargetRequestsNoFrame() {
+        FakeFrameClock clock = new FakeFrameClock(VSYNC_60_NANOS);
+        clock.animation.setTarget(0);
+
+        assertEquals(0, clock.posts);
+        assertEquals(0, clock.runToEnd());
+        assertEquals(0, clock.sent.size());
+    }
+
+    @Test
+    public void endsOnTheExactTarget() {
+        FakeFrameClock clock = new FakeFrameClock(VSYNC_60_NANOS);
+        clock.animation.setTarget(0.7f);
+
+        int frames = clock.runToEnd();
+
+        assertTrue(frames > 1);
+        assertEquals(0.7f, clock.sent.get(clock.sent.size() - 1), 0);
+        assertEquals(0.7f, clock.animation.getZoom(), 0);
+        assertEquals(frames, clock.posts);
+
+        // every step before the last one is quantized
+        for (int index = 0; index < clock.sent.size() - 1; index++) {
+            float quanta = clock.sent.get(index) / ZoomAnimation.ZOOM_QUANTUM;
+
+            assertEquals(Math.round(quanta), quanta, 1e-3f);
+        }
+    }
+
+    @Test
+    public void skipsCallsForInvisibleSteps() {
+        // a very fast frame clock moves by less than a quantum per frame
+        FakeFrameClock clock = new FakeFrameClock(250_000);
+        clock.animation.setTarget(0.5f);
+
+        int frames = clock.runToEnd();
+
+        assertEquals(0.5f, clock.animation.getSentZoom(), 0);
+        assertTrue(frames + " frames, " + clock.sent.size() + " calls",
+                clock.sent.size() * 2 < frames);
+
+        for (int index = 1; index < clock.sent.size(); index++) {
+            assertTrue(clock.sent.get(index) - clock.sent.get(index - 1) >=
+                    ZoomAnimation.ZOOM_QUANTUM * 0.999f);
+        }
+    }
+
+    @Test
+    public void coalescesTargetsBetweenFrames() {
+        FakeFrameClock clock = new FakeFrameClock(VSYNC_60_NANOS);
+
+        for (int frame = 0; frame < 20; frame++) {
+            // several touch events per frame only move the destination
+            for (int event = 0; event < 4; event++) {
+                clock.animation.setTarget((frame * 4 + event) / 100f);
+            }
+
+            clock.vsync();
+        }
+
+        assertEquals(20, clock.frames);
+        assertTrue(clock.sent.size() <= clock.frames);
+
+        clock.runToEnd();
+
+        assertEquals(0.79f, clock.animation.getSentZoom(), 0);
+        assertEquals(clock.frames, clock.posts);
+    }
+
+    @Test
+    public void durationDoesNotDependOnTheRefreshRate() {
+        FakeFrameClock slow = new FakeFrameClock(VSYNC_60_NANOS);
+        FakeFrameClock fast = new FakeFrameClock(VSYNC_120_NANOS);
+        slow.animation.setTarget(1f);
+        fast.animation.setTarget(1f);
+
+        long slowDuration = slow.runToEnd() * VSYNC_60_NANOS;
+        long fastDuration = fast.runToEnd() * VSYNC_120_NANOS;
+
+        assertEquals(slowDuration / 1_000_000f, fastDuration / 1_000_000f,
+                3 * VSYNC_60_NANOS / 1_000_000f);
+        assertTrue(fast.sent.size() > slow.sent.size());
+    }
+
+    @Test
+    public void capsStalledFrames() {
+        FakeFrameClock stalled = new FakeFrameClock(VSYNC_60_NANOS);
+        FakeFrameClock capped = new FakeFrameClock(VSYNC_60_NANOS);
+        stalled.animation.setTarget(1f);
+        capped.animation.setTarget(1f);
+        stalled.vsync();
+        capped.vsync();
+
+        stalled.now += 2_000_000_000L - VSYNC_60_NANOS;
+        capped.now += (long) (ZoomAnimation.MAX_FRAME_INTERVAL_MS * 1_000_000) - VSYNC_60_NANOS;
+        stalled.vsync();
+        capped.vsync();
+
+        assertEquals(capped.animation.getZoom(), stalled.animation.getZoom(), 0);
+        assertTrue(stalled.animation.getZoom() < 1f);
+    }
+
+    @Test
+    public void failedCallStopsUntilTheNextTarget() {
+        FakeFrameClock clock = new FakeFrameClock(VSYNC_60_NANOS);
+        clock.failing = true;
+        clock.animation.setTarget(1f);
+
+        assertEquals(1, clock.runToEnd());
+        assertEquals(1, clock.calls);
+        assertEquals(0, clock.animation.getSentZoom(), 0);
+
+        clock.failing = false;
+        clock.animation.setTarget(1f);
+        clock.runToEnd();
+
+        assertEquals(1f, clock.animation.getSentZoom(), 0);
+    }
+
+    /**
+     * Calls back on every vsync while a frame is requested and records the zoom
+     * values that would have gone through the binder.
+     */
+    private static final class FakeFrameClock implements ZoomAnimation.Host {
+        private final ZoomAnimation animation;
+        private final List<Float> sent;
+        private final long interval;
+        private boolean pending;
+        private boolean failing;
+        private long now;
+        private int posts;
+        private int frames;
+        private int calls;
+
+        private FakeFrameClock(long interval) {
+            this.animation = new ZoomAnimation(this);
+            this.sent = new ArrayList<>();
+            this.interval = interval;
+            this.now = 1_000_000_000L;
+        }
+
+        private int runToEnd() {
+            int start = frames;
+
+            while (pending) {
+                vsync();
+
+                assertTrue("animation did not end", frames - start < 100_000);
+            }
+
+            return frames - start;
+        }
+
+        private void vsync() {
+            now += interval;
+
+            if (pending) {
+                pending = false;
+                frames++;
+
+                animation.doFrame(now);
+            }
+        }
+
+        @Override
+        public void postFrame() {
+            assertFalse("frame requested twice", pending);
+
+            pending = true;
+            posts++;
+        }
+
+        @Override
+        public boolean setZoom(float zoom) {
+            calls++;
+
+            if (failing) {
+                return false;
+            }
+
+            sent.add(zoom);
+
+            return true;
+        }
+    }
+}
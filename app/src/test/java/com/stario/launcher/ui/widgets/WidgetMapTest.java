@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.ui.widgets;
+
+import static org.junit.Assert.assertEquals;
+
+import com.stario.launcher.sheet.widgets.WidgetSize;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class WidgetMapTest {
+    private static final WidgetSize[] SIZES = WidgetSize.values();
+
+    @Test
+    public void placesInReadingOrder() {
+        WidgetMap map = new WidgetMap(4);
+
+        assertOrigin(0, 0, place(map, WidgetSize.LARGE));
+        assertOrigin(0, 2, place(map, WidgetSize.SMALL));
+        assertOrigin(0, 3, place(map, WidgetSize.SMALL));
+        assertOrigin(1, 2, place(map, WidgetSize.MEDIUM));
+        assertOrigin(2, 0, place(map, WidgetSize.XLARGE));
+        assertOrigin(2, 2, place(map, WidgetSize.SMALL));
+    }
+
+    @Test
+    public void fillsGapsLeftAbove() {
+        WidgetMap map = new WidgetMap(3);
+
+        assertOrigin(0, 0, place(map, WidgetSize.XLARGE));
+        assertOrigin(3, 0, place(map, WidgetSize.MEDIUM));
+        assertOrigin(0, 2, place(map, WidgetSize.SMALL));
+        assertOrigin(1, 2, place(map, WidgetSize.SMALL));
+    }
+
+    @Test
+    public void clearAndColumnChangesStartOver() {
+        WidgetMap map = new WidgetMap(2);
+        place(map, WidgetSize.LARGE);
+
+        map.clear();
+        map.setColumnCount(4);
+
+        assertOrigin(0, 0, place(map, WidgetSize.MEDIUM));
+        assertOrigin(0, 2, place(map, WidgetSize.MEDIUM));
+    }
+
+    @Test
+    public void widgetsWiderThanTheGridGetRowsOfTheirOwn() {
+        WidgetMap map = new WidgetMap(1);
+
+        assertOrigin(0, 0, place(map, WidgetSize.SMALL));
+        assertOrigin(1, 0, place(map, WidgetSize.LARGE));
+        assertOrigin(3, 0, place(map, WidgetSize.SMALL));
+    }
+
+    /**
+     * 60k random placements, compared one by one with the linear scan over a
+     * set of cells that the bitmask map replaced.
+     */
+    @Test
+    public void matchesLinearScan() {
+        Random random = new Random(15);
+        int placements = 0;
+
+        while (placements < 60_000) {
+            int columns = 2 + random.nextInt(7);
+            WidgetMap map = new WidgetMap(columns);
+            LinearScanMap reference = new LinearScanMap(columns);
+            int count = 1 + random.nextInt(40);
+
+            for (int widget = 0; widget < count; widget++) {
+                WidgetSize size = SIZES[random.nextInt(SIZES.length)];
+
+                // the linear scan never finds room for widgets wider than the grid
+                if (size.width > columns) {
+                    continue;
+                }
+
+                WidgetMap.Cell origin = map.getAvailableOrigin(size);
+
+                assertEquals(reference.getAvailableOrigin(size), origin);
+
+                map.add(origin, size);
+                reference.add(origin, size);
+                placements++;
+            }
+        }
+    }
+
+    private static WidgetMap.Cell place(WidgetMap map, WidgetSize size) {
+        WidgetMap.Cell origin = map.getAvailableOrigin(size);
+        map.add(origin, size);
+
+        return origin;
+    }
+
+    private static void assertOrigin(int row, int column, WidgetMap.Cell origin) {
+        assertEquals(new WidgetMap.Cell(row, column), origin);
+    }
+
+    /**
+     * The previous implementation, a set of taken cells probed one origin at a time.
+     */
+    private static final class LinearScanMap {
+        private final Set<WidgetMap.Cell> set;
+        private final int columns;
+
+        private LinearScanMap(int columns) {
+            this.set = new HashSet<>();
+            this.columns = columns;
+        }
+
+        private void add(WidgetMap.Cell origin, WidgetSize size) {
+            for (int row = origin.row; row < origin.row + size.height; row++) {
+                for (int column = origin.column; column < origin.column + size.width; column++) {
+                    set.add(new WidgetMap.Cell(row, column));
+                }
+            }
+        }
+
+        private WidgetMap.Cell getAvailableOrigin(WidgetSize size) {
+            int column = 0;
+            int row = 0;
+            WidgetMap.Cell testedCell;
+
+            do {
+                testedCell = new WidgetMap.Cell(row, column);
+                column = column + 1;
+
+                if (column >= columns) {
+                    column = 0;
+                    row++;
+                }
+            } while (!checkFreeSpace(testedCell, size));
+
+            return testedCell;
+        }
+
+        private boolean checkFreeSpace(WidgetMap.Cell origin, WidgetSize size) {
+            if (origin.column + size.width > columns) {
+                return false;
+            }
+
+            for (int row = origin.row; row < origin.row + size.height; row++) {
+                for (int column = origin.column; column < origin.column + size.width; column++) {
+                    if (set.contains(new WidgetMap.Cell(row, column))) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class FrameHistogramTest {
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        assertEquals(0, histogram.getPercentile(0.5f), 0);
+        assertEquals(0, histogram.getSize());
+        assertEquals(0, histogram.getJankCount());
+    }
+
+    @Test
+    public void percentilesReportTheUpperBoundOfTheirBucket() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        // 90 frames in [8, 8.5)ms, 9 in [16.5, 17)ms and one in [40, 40.5)ms
+        for (int frame = 0; frame < 90; frame++) {
+            histogram.record(8 * MILLIS + 200_000, false);
+        }
+
+        for (int frame = 0; frame < 9; frame++) {
+            histogram.record(16 * MILLIS + 700_000, true);
+        }
+
+        histogram.record(40 * MILLIS, true);
+
+        assertEquals(8.5f, histogram.getPercentile(0.5f), 1e-4);
+        assertEquals(8.5f, histogram.getPercentile(0.9f), 1e-4);
+        assertEquals(17f, histogram.getPercentile(0.95f), 1e-4);
+        assertEquals(17f, histogram.getPercentile(0.99f), 1e-4);
+        assertEquals(40.5f, histogram.getPercentile(1f), 1e-4);
+        assertEquals(8.5f, histogram.getPercentile(0f), 1e-4);
+        assertEquals(10, histogram.getJankCount());
+    }
+
+    @Test
+    public void bucketEdgesAndOverflow() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        histogram.record(0, false);
+        assertEquals(0.5f, histogram.getPercentile(1f), 1e-4);
+
+        histogram.reset();
+        histogram.record(500_000, false);
+        assertEquals(1f, histogram.getPercentile(1f), 1e-4);
+
+        // everything from 100ms on shares the last bucket
+        histogram.reset();
+        histogram.record(100 * MILLIS, false);
+        histogram.record(5_000 * MILLIS, false);
+        assertEquals(100.5f, histogram.getPercentile(0.5f), 1e-4);
+        assertEquals(100.5f, histogram.getPercentile(1f), 1e-4);
+    }
+
+    @Test
+    public void oldestFramesLeaveTheWindow() {
+        FrameHistogram histogram = new FrameHistogram();
+
+        for (int frame = 0; frame < FrameHistogram.CAPACITY; frame++) {
+            histogram.record(50 * MILLIS, true);
+        }
+
+        for (int frame = 0; frame < FrameHistogram.CAPACITY; frame++) {
+            histogram.record(4 * MILLIS, false);
+        }
+
+        assertEquals(FrameHistogram.CAPACITY, histogram.getSize());
+        assertEquals(2L * FrameHistogram.CAPACITY, histogram.getTotal());
+        assertEquals(0, histogram.getJankCount());
+        assertEquals(4.5f, histogram.getPercentile(1f), 1e-4);
+    }
+
+    @Test
+    public void resetDropsEverything() {
+        FrameHistogram histogram = new FrameHistogram();
+        histogram.record(30 * MILLIS, true);
+
+        histogram.reset();
+        histogram.record(2 * MILLIS, false);
+
+        assertEquals(1, histogram.getSize());
+        assertEquals(1, histogram.getTotal());
+        assertEquals(0, histogram.getJankCount());
+        assertEquals(2.5f, histogram.getPercentile(1f), 1e-4);
+    }
+
+    /**
+     * Random frame streams longer than the window, checked against sorting the
+     * last {@link FrameHistogram#CAPACITY} durations.
+     */
+    @Test
+    public void matchesSortedWindow() {
+        Random random = new Random(19);
+        float[] percentiles = {0.5f, 0.95f, 0.99f};
+
+        for (int round = 0; round < 20; round++) {
+            FrameHistogram histogram = new FrameHistogram();
+            int frames = 1 + random.nextInt(3 * FrameHistogram.CAPACITY);
+            long[] durations = new long[frames];
+            int jank = 0;
+
+            for (int frame = 0; frame < frames; frame++) {
+                durations[frame] = (long) (Math.abs(random.nextGaussian()) * 20 * MILLIS);
+                boolean janky = durations[frame] > 25 * MILLIS;
+
+                histogram.record(durations[frame], janky);
+
+                if (janky && frame >= frames - FrameHistogram.CAPACITY) {
+                    jank++;
+                }
+            }
+
+            long[] window = Arrays.copyOfRange(durations,
+                    Math.max(0, frames - FrameHistogram.CAPACITY), frames);
+            Arrays.sort(window);
+
+            for (float percentile : percentiles) {
+                int target = Math.max(1, (int) Math.ceil(window.length * percentile));
+                long bucket = Math.min(200, window[target - 1] / 500_000);
+
+                assertEquals((bucket + 1) * 0.5f, histogram.getPercentile(percentile), 1e-4);
+            }
+
+            assertEquals(jank, histogram.getJankCount());
+            assertEquals(window.length, histogram.getSize());
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2025 Răzvan Albu
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>
+ */
+
+package com.stario.launcher.utils.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class StartupTimelineTest {
+    private static final int PHASES = StartupPhase.values().length;
+    private static final int LANES = 2;
+
+    @Test
+    public void overlappingSpansCountOnce() {
+        StartupTimeline timeline = new StartupTimeline(PHASES);
+        int labels = StartupPhase.LABELS.ordinal();
+
+        assertTrue(timeline.begin(labels, 10));
+        assertFalse(timeline.begin(labels, 15));
+        assertFalse(timeline.end(labels, 20));
+        assertTrue(timeline.end(labels, 30));
+
+        // a gap between spans does not count as busy time
+        assertTrue(timeline.begin(labels, 50));
+        assertTrue(timeline.end(labels, 55));
+
+        assertEquals(10, timeline.starts[labels]);
+        assertEquals(55, timeline.ends[labels]);
+        assertEquals(25, timeline.durations[labels]);
+        assertFalse(timeline.isRunning());
+    }
+
+    @Test
+    public void onlyTheFirstMarkCounts() {
+        StartupTimeline timeline = new StartupTimeline(PHASES);
+        int frame = StartupPhase.FIRST_FRAME.ordinal();
+
+        assertFalse(timeline.hasStarted(frame));
+
+        timeline.mark(frame, 120);
+        timeline.mark(frame, 300);
+
+        assertTrue(timeline.hasStarted(frame));
+        assertEquals(120, timeline.starts[frame]);
+        assertEquals(120, timeline.ends[frame]);
+        assertEquals(0, timeline.durations[frame]);
+    }
+
+    @Test
+    public void phasesThatDidNotRunStayEmpty() {
+        StartupTimeline timeline = new StartupTimeline(PHASES);
+        int icons = StartupPhase.ICON_PACK_PARSE.ordinal();
+
+        timeline.begin(StartupPhase.LABELS.ordinal(), 5);
+
+        assertTrue(timeline.isRunning());
+        assertFalse(timeline.isActive(icons));
+        assertFalse(timeline.hasStarted(icons));
+        assertEquals(StartupTimeline.NONE, timeline.starts[icons]);
+        assertEquals(StartupTimeline.NONE, timeline.ends[icons]);
+    }
+
+    /**
+     * Replays cold starts of synthetic catalogs through the timeline. Every phase
+     * has to report its first start, its last end and the merged length of its spans.
+     */
+    @Test
+    public void replaysSyntheticCatalogs() {
+        Random random = new Random(20);
+
+        for (int round = 0; round < 200; round++) {
+            List<Span> spans = simulate(random, 1 + random.nextInt(3), random.nextInt(400));
+
+            assertReplay(spans);
+        }
+    }
+
+    /**
+     * Not a pass/fail check, prints the simulated timeline and the cost of recording it
+     * for growing catalogs, so the tracer overhead can be compared between builds.
+     */
+    @Test
+    public void benchmarkReplayByCatalogSize() {
+        Random random = new Random(20);
+
+        for (int applications = 100; applications <= 1600; applications *= 4) {
+            List<Span> spans = simulate(random, 2, applications);
+            List<long[]> events = getEvents(spans);
+            int runs = 200;
+
+            long start = System.nanoTime();
+            StartupTimeline timeline = null;
+
+            for (int run = 0; run < runs; run++) {
+                timeline = replay(events);
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf(Locale.ROOT, "StartupTimeline: %d apps, %d events, %.1f ns/event, " +
+                            "drawer ready at %dms, labels busy %dms%n",
+                    applications, events.size(), (double) elapsed / runs / events.size(),
+                    timeline.starts[StartupPhase.DRAWER_READY.ordinal()],
+                    timeline.durations[StartupPhase.LABELS.ordinal()]);
+        }
+    }
+
+    /**
+     * Models the load: profile enumeration and the icon pack parse on the main thread,
+     * then per profile an application load holding the activity list, label loads and
+     * icon resolutions spread over the worker lanes, the category build, and finally
+     * the drawer and the first frame.
+     */
+    private static List<Span> simulate(Random random, int profiles, int applications) {
+        List<Span> spans = new ArrayList<>();
+        long[] lanes = new long[LANES];
+        long now = 0;
+
+        now = add(spans, StartupPhase.PROFILE_ENUMERATION, now, 2 + random.nextInt(5));
+        now = add(spans, StartupPhase.ICON_PACK_PARSE, now, random.nextInt(30));
+
+        for (int profile = 0; profile < profiles; profile++) {
+            long loadStart = now;
+            long cursor = add(spans, StartupPhase.ACTIVITY_LIST, now, 5 + random.nextInt(20));
+
+            for (int lane = 0; lane < LANES; lane++) {
+                lanes[lane] = Math.max(lanes[lane], cursor);
+            }
+
+            int count = applications / profiles;
+
+            for (int application = 0; application < count; application++) {
+                int lane = getFreeLane(lanes);
+                lanes[lane] = add(spans, StartupPhase.LABELS, lanes[lane], 1 + random.nextInt(3));
+
+                lane = getFreeLane(lanes);
+                lanes[lane] = add(spans, StartupPhase.ICON_RESOLUTION, lanes[lane], random.nextInt(4));
+            }
+
+            long loadEnd = Math.max(lanes[0], lanes[1]);
+            spans.add(new Span(StartupPhase.APPLICATION_LOAD, loadStart, loadEnd));
+
+            now = loadEnd;
+        }
+
+        now = add(spans, StartupPhase.CATEGORY_BUILD, now, 1 + random.nextInt(10));
+        spans.add(new Span(StartupPhase.DRAWER_READY, now, -1));
+        spans.add(new Span(StartupPhase.FIRST_FRAME, now + random.nextInt(40), -1));
+
+        return spans;
+    }
+
+    private static long add(List<Span> spans, StartupPhase phase, long start, long duration) {
+        spans.add(new Span(phase, start, start + duration));
+
+        return start + duration;
+    }
+
+    private static int getFreeLane(long[] lanes) {
+        return lanes[0] <= lanes[1] ? 0 : 1;
+    }
+
+    /**
+     * @return begin, mark and end events as {time, phase, kind} sorted by time, so empty
+     * spans and spans touching each other are opened before they are closed
+     */
+    private static List<long[]> getEvents(List<Span> spans) {
+        List<long[]> events = new ArrayList<>();
+
+        for (Span span : spans) {
+            int phase = span.phase.ordinal();
+
+            if (span.end == -1) {
+                events.add(new long[]{span.start, phase, 1});
+            } else {
+                events.add(new long[]{span.start, phase, 0});
+                events.add(new long[]{span.end, phase, 2});
+            }
+        }
+
+        events.sort(Comparator.comparingLong((long[] event) -> event[0])
+                .thenComparingLong(event -> event[2]));
+
+        return events;
+    }
+
+    private static StartupTimeline replay(List<long[]> events) {
+        StartupTimeline timeline = new StartupTimeline(PHASES);
+
+        for (long[] event : events) {
+            int phase = (int) event[1];
+
+            if (event[2] == 0) {
+                timeline.begin(phase, event[0]);
+            } else if (event[2] == 1) {
+                timeline.mark(phase, event[0]);
+            } else if (timeline.isActive(phase)) {
+                timeline.end(phase, event[0]);
+            }
+        }
+
+        return timeline;
+    }
+
+    private static void assertReplay(List<Span> spans) {
+        StartupTimeline timeline = replay(getEvents(spans));
+
+        assertFalse(timeline.isRunning());
+
+        for (StartupPhase phase : StartupPhase.values()) {
+            List<Span> phaseSpans = new ArrayList<>();
+
+            for (Span span : spans) {
+                if (span.phase == phase) {
+                    phaseSpans.add(span);
+                }
+            }
+
+            int index = phase.ordinal();
+
+            if (phaseSpans.isEmpty()) {
+                assertFalse(timeline.hasStarted(index));
+
+                continue;
+            }
+
+            phaseSpans.sort(Comparator.comparingLong(span -> span.start));
+
+            long start = phaseSpans.get(0).start;
+            long end = Long.MIN_VALUE;
+            long busy = 0;
+            long mergedStart = start;
+            long mergedEnd = start;
+
+            for (Span span : phaseSpans) {
+                long spanEnd = span.end == -1 ? span.start : span.end;
+
+                end = Math.max(end, spanEnd);
+
+                if (span.start > mergedEnd) {
+                    busy += mergedEnd - mergedStart;
+                    mergedStart = span.start;
+                }
+
+                mergedEnd = Math.max(mergedEnd, spanEnd);
+            }
+
+            busy += mergedEnd - mergedStart;
+
+            String message = phase.name();
+
+            assertEquals(message, start, timeline.starts[index]);
+
+            if (phaseSpans.get(0).end == -1) {
+                // marks keep their first time only
+                assertEquals(message, start, timeline.ends[index]);
+            } else {
+                assertEquals(message, end, timeline.ends[index]);
+                assertEquals(message, busy, timeline.durations[index]);
+            }
+        }
+    }
+
+    private static final class Span {
+        private final StartupPhase phase;
+        private final long start;
+        private final long end; // -1 for marks
+
+        private Span(StartupPhase phase, long start, long end) {
+            this.phase = phase;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}